@@ -0,0 +1,64 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.api.authentication;
+
+import com.hp.autonomy.hod.client.config.HodServiceConfig;
+import org.joda.time.DateTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building the signed requests used by the combined SSO login
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CombinedRequestBenchmark {
+
+    private static final List<String> ALLOWED_ORIGINS = Arrays.asList("http://localhost:8080", "https://example.com");
+
+    private AuthenticationService authenticationService;
+    private AuthenticationToken<EntityType.Unbound, TokenType.HmacSha1> token;
+
+    @Setup
+    public void setUp() {
+        authenticationService = new AuthenticationServiceImpl(new HodServiceConfig.Builder<>("https://api.havenondemand.com").build());
+
+        token = new AuthenticationToken<>(
+            EntityType.Unbound.INSTANCE,
+            TokenType.HmacSha1.INSTANCE,
+            new DateTime(123),
+            "DF7aRd8VEeSiCdSFZKbA7w",
+            "Ba90fFmxdioyouz06xr1fhn6Nxq4nB90jWEQ2UzDQr8",
+            new DateTime(456)
+        );
+    }
+
+    @Benchmark
+    public SignedRequest combinedGetRequest() {
+        return authenticationService.combinedGetRequest(ALLOWED_ORIGINS, token);
+    }
+
+    @Benchmark
+    public SignedRequest combinedRequestWithNonce() {
+        return authenticationService.combinedRequest(ALLOWED_ORIGINS, token, "DOMAIN", "APPLICATION", "USER-STORE-DOMAIN", "USER-STORE", TokenType.Simple.INSTANCE, true);
+    }
+}
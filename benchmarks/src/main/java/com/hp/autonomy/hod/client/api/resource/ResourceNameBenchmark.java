@@ -0,0 +1,49 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.api.resource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing and formatting colon-separated resource identifiers
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceNameBenchmark {
+
+    private final String identifier = "PUBLIC_INDEXES:wiki_eng";
+    private final String escapedIdentifier = "my\\:domain:my\\\\index\\:name";
+    private final ResourceName resourceName = new ResourceName("my:domain", "my\\index:name");
+
+    @Benchmark
+    public ResourceName parse() {
+        return new ResourceName(identifier);
+    }
+
+    @Benchmark
+    public ResourceName parseEscaped() {
+        return new ResourceName(escapedIdentifier);
+    }
+
+    @Benchmark
+    public String format() {
+        return resourceName.toString();
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.api.textindex.query.search;
+
+import com.hp.autonomy.hod.client.api.resource.ResourceName;
+import org.joda.time.DateTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures converting a typical set of query parameters into a {@link com.hp.autonomy.hod.client.util.MultiMap}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryRequestBuilderBenchmark {
+
+    private QueryRequestBuilder params;
+    private QueryTemplate template;
+
+    @Setup
+    public void setUp() {
+        params = new QueryRequestBuilder()
+            .setAbsoluteMaxResults(100)
+            .setMaxPageResults(20)
+            .setStart(21)
+            .setFieldText("MATCH{cheese}:category")
+            .setMinDate(new DateTime(2015, 1, 1, 0, 0))
+            .setPrint(Print.fields)
+            .setPrintFields(Arrays.asList("title", "author", "date"))
+            .setSort(Sort.relevance)
+            .setSummary(Summary.concept)
+            .setTotalResults(true)
+            .setIndexes(Arrays.asList(
+                ResourceName.WIKI_ENG,
+                ResourceName.NEWS_ENG,
+                new ResourceName("domain", "index")
+            ));
+
+        template = params.compile();
+    }
+
+    @Benchmark
+    public Map<String, Object> build() {
+        return params.build();
+    }
+
+    // Retrofit sends each parameter using its string representation
+    @Benchmark
+    public void buildAndEncode(final Blackhole blackhole) {
+        params.build().forEach((name, value) -> blackhole.consume(String.valueOf(value)));
+    }
+
+    @Benchmark
+    public void templateAndEncode(final Blackhole blackhole) {
+        template.withPage(21, 20).getParameters().forEach((name, value) -> blackhole.consume(String.valueOf(value)));
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.api.textindex.query.search;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares Java serialization of query results with {@link QueryResultsEncoder} and {@link QueryResultsDecoder}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryResultsSerializationBenchmark {
+
+    @Param({"10", "100"})
+    private int documentCount;
+
+    private QueryResults<Document> results;
+    private byte[] javaSerialized;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        final ObjectMapper objectMapper = new ObjectMapper();
+        final JavaType type = objectMapper.getTypeFactory().constructParametrizedType(QueryResults.class, QueryResults.class, Document.class);
+
+        final QueryResults<Document> recorded;
+
+        try (final InputStream inputStream = getClass().getResourceAsStream("/com/hp/autonomy/hod/client/queryResults/query-results.json")) {
+            recorded = objectMapper.readValue(inputStream, type);
+        }
+
+        final List<Document> documents = new ArrayList<>();
+
+        for (int i = 0; i < documentCount; i++) {
+            final Document template = recorded.getDocuments().get(i % recorded.getDocuments().size());
+
+            final Document.Builder builder = new Document.Builder()
+                .setReference(template.getReference() + i)
+                .setIndex(template.getIndex())
+                .setTitle(template.getTitle())
+                .setWeight(template.getWeight() - i)
+                .setLinks(template.getLinks())
+                .setPromotionType(template.getPromotionType());
+
+            template.getFields().forEach(builder::addField);
+            documents.add(builder.build());
+        }
+
+        results = new QueryResults<>(documents, documentCount, recorded.getExpandedQuery(), null, null, null);
+        javaSerialized = javaSerialize();
+        encoded = encode();
+    }
+
+    @Benchmark
+    public byte[] javaSerialize() throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try (final ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream)) {
+            objectOutputStream.writeObject(results);
+        }
+
+        return outputStream.toByteArray();
+    }
+
+    @Benchmark
+    public Object javaDeserialize() throws IOException, ClassNotFoundException {
+        try (final ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(javaSerialized))) {
+            return objectInputStream.readObject();
+        }
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return QueryResultsEncoder.encode(results);
+    }
+
+    @Benchmark
+    public QueryResults<Document> decode() throws IOException {
+        return QueryResultsDecoder.decode(encoded);
+    }
+}
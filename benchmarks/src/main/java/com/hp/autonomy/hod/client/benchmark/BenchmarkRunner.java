@@ -0,0 +1,32 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.benchmark;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the benchmarks with the standard JMH command line, but writes the results as JSON to target/jmh-result.json
+ * unless another result format or file is given, so that results can be collected for trend tracking
+ */
+public class BenchmarkRunner {
+
+    private static final String RESULT_FORMAT = "-rf";
+    private static final String RESULT_FILE = "-rff";
+
+    public static void main(final String[] args) throws Exception {
+        final List<String> arguments = new ArrayList<>(Arrays.asList(args));
+
+        if (!arguments.contains(RESULT_FORMAT) && !arguments.contains(RESULT_FILE)) {
+            arguments.addAll(Arrays.asList(RESULT_FORMAT, "json", RESULT_FILE, "target/jmh-result.json"));
+        }
+
+        Main.main(arguments.toArray(new String[arguments.size()]));
+    }
+}
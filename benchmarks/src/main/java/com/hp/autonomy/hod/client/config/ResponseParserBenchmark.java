@@ -0,0 +1,97 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.config;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hp.autonomy.hod.client.api.authentication.EntityType;
+import com.hp.autonomy.hod.client.api.authentication.TokenType;
+import com.hp.autonomy.hod.client.api.textindex.query.parametric.FieldValues;
+import com.hp.autonomy.hod.client.api.textindex.query.search.Document;
+import com.hp.autonomy.hod.client.api.textindex.query.search.QueryResults;
+import com.hp.autonomy.hod.client.token.InMemoryTokenRepository;
+import com.hp.autonomy.hod.client.token.TokenProxy;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import retrofit.client.Header;
+import retrofit.client.Response;
+import retrofit.mime.TypedByteArray;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing the recorded QueryTextIndex and GetParametricValues responses from the client's tests
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseParserBenchmark {
+
+    private static final String RESOURCES = "/com/hp/autonomy/hod/client/";
+
+    private ResponseParser responseParser;
+    private TokenProxy<EntityType.Application, TokenType.Simple> tokenProxy;
+    private JavaType queryResultsType;
+    private JavaType documentType;
+    private JavaType fieldValuesType;
+    private Response queryResultsResponse;
+    private Response fieldValuesResponse;
+
+    @Setup
+    public void setUp() throws IOException {
+        final ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        responseParser = new ResponseParser(new InMemoryTokenRepository(), objectMapper);
+        tokenProxy = new TokenProxy<>(EntityType.Application.INSTANCE, TokenType.Simple.INSTANCE);
+
+        queryResultsType = objectMapper.getTypeFactory().constructParametrizedType(QueryResults.class, QueryResults.class, Document.class);
+        documentType = objectMapper.getTypeFactory().constructType(Document.class);
+        fieldValuesType = objectMapper.getTypeFactory().constructType(FieldValues.class);
+
+        queryResultsResponse = recordedResponse("queryResults/query-results-with-warnings.json");
+        fieldValuesResponse = recordedResponse("api/textindex/query/parametric/field-values-nested.json");
+    }
+
+    @Benchmark
+    public QueryResults<Document> parseQueryResults() {
+        return responseParser.unsafeParseResponse(tokenProxy, queryResultsType, queryResultsResponse);
+    }
+
+    @Benchmark
+    public QueryResults<Document> parseQueryResultsStreaming(final Blackhole blackhole) {
+        return responseParser.unsafeParseStreamingResponse(tokenProxy, queryResultsType, "documents", documentType, blackhole::consume, queryResultsResponse);
+    }
+
+    @Benchmark
+    public FieldValues parseFieldValues() {
+        return responseParser.unsafeParseResponse(tokenProxy, fieldValuesType, fieldValuesResponse);
+    }
+
+    private Response recordedResponse(final String path) throws IOException {
+        try (final InputStream inputStream = getClass().getResourceAsStream(RESOURCES + path)) {
+            // TypedByteArray returns a new stream each time its body is read
+            return new Response("", 200, "OK", Collections.<Header>emptyList(), new TypedByteArray("application/json", IOUtils.toByteArray(inputStream)));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.error;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import retrofit.RetrofitError;
+import retrofit.client.Header;
+import retrofit.client.Response;
+import retrofit.converter.JacksonConverter;
+import retrofit.mime.TypedByteArray;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures converting the recorded error response from the client's tests into a {@link HodErrorException}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DefaultHodErrorHandlerBenchmark {
+
+    private final HodErrorHandler errorHandler = new DefaultHodErrorHandler();
+
+    private RetrofitError retrofitError;
+
+    @Setup
+    public void setUp() throws IOException {
+        final byte[] body;
+
+        try (final InputStream inputStream = getClass().getResourceAsStream("/com/hp/autonomy/hod/client/error/error.json")) {
+            body = IOUtils.toByteArray(inputStream);
+        }
+
+        final Response response = new Response("https://api.havenondemand.com", 400, "Bad Request", Collections.<Header>emptyList(), new TypedByteArray("application/json", body));
+        retrofitError = RetrofitError.httpError("https://api.havenondemand.com", response, new JacksonConverter(new ObjectMapper()), HodError.class);
+    }
+
+    @Benchmark
+    public Throwable handleError() {
+        return errorHandler.handleError(retrofitError);
+    }
+}
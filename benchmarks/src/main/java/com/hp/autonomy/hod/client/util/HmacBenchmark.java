@@ -0,0 +1,72 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.util;
+
+import com.hp.autonomy.hod.client.api.authentication.AuthenticationToken;
+import com.hp.autonomy.hod.client.api.authentication.EntityType;
+import com.hp.autonomy.hod.client.api.authentication.TokenType;
+import org.joda.time.DateTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures signing a typical authentication request
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HmacBenchmark {
+
+    private final Hmac hmac = new Hmac();
+
+    private AuthenticationToken<EntityType.Unbound, TokenType.HmacSha1> token;
+    private Request<String, Object> request;
+
+    @Setup
+    public void setUp() {
+        token = new AuthenticationToken<>(
+            EntityType.Unbound.INSTANCE,
+            TokenType.HmacSha1.INSTANCE,
+            new DateTime(123),
+            "DF7aRd8VEeSiCdSFZKbA7w",
+            "Ba90fFmxdioyouz06xr1fhn6Nxq4nB90jWEQ2UzDQr8",
+            new DateTime(456)
+        );
+
+        final Map<String, List<String>> queryParameters = new HashMap<>();
+        queryParameters.put("allowed_origins", Arrays.asList("http://localhost:8080", "https://example.com"));
+
+        final Map<String, List<Object>> body = new HashMap<>();
+        body.put("domain", Collections.<Object>singletonList("IOD-TEST-DOMAIN"));
+        body.put("application", Collections.<Object>singletonList("IOD TEST APPLICATION"));
+        body.put("token_type", Collections.<Object>singletonList(TokenType.Simple.INSTANCE.getParameter()));
+
+        request = new Request<>(Request.Verb.POST, "/2/authenticate/combined", queryParameters, body);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return hmac.generateToken(request, token);
+    }
+}
@@ -14,7 +14,9 @@ import retrofit.http.Query;
 
 interface AutocompleteBackend {
 
-    @GET("/2/api/sync/autocomplete/v1")
+    String URL = "/2/api/sync/autocomplete/v1";
+
+    @GET(URL)
     Response getSuggestions(
         @Header("token") final AuthenticationToken<?, ?> token,
         @Query("text") final String text
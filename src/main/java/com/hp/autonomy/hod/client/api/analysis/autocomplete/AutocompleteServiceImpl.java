@@ -15,7 +15,9 @@ import com.hp.autonomy.hod.client.token.TokenProxy;
 import lombok.Data;
 import retrofit.client.Response;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Default implementation of an AutocompleteService.
@@ -31,12 +33,16 @@ public class AutocompleteServiceImpl implements AutocompleteService {
 
     @Override
     public List<String> getSuggestions(final String text) throws HodErrorException {
-        return requester.makeRequest(AutocompleteResponse.class, new BackendCaller<>(text)).getWords();
+        return requester.makeIdempotentRequest(AutocompleteResponse.class, AutocompleteBackend.URL, getCacheParameters(text), new BackendCaller<>(text)).getWords();
     }
 
     @Override
     public List<String> getSuggestions(final String text, final TokenProxy<?, TokenType.Simple> tokenProxy) throws HodErrorException {
-        return requester.makeRequest(tokenProxy, AutocompleteResponse.class, new BackendCaller<>(text)).getWords();
+        return requester.makeIdempotentRequest(tokenProxy, AutocompleteResponse.class, AutocompleteBackend.URL, getCacheParameters(text), new BackendCaller<>(text)).getWords();
+    }
+
+    private Map<String, Object> getCacheParameters(final String text) {
+        return Collections.singletonMap("text", text);
     }
 
     @Data
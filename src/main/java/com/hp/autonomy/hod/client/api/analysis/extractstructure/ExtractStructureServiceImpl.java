@@ -13,12 +13,11 @@ import com.hp.autonomy.hod.client.config.Requester;
 import com.hp.autonomy.hod.client.error.HodErrorException;
 import com.hp.autonomy.hod.client.token.TokenProxy;
 import com.hp.autonomy.hod.client.util.TypedByteArrayWithFilename;
-import org.apache.commons.io.IOUtils;
+import com.hp.autonomy.hod.client.util.TypedInputStream;
 import retrofit.client.Response;
 import retrofit.mime.TypedFile;
 
 import java.io.File;
-import java.io.IOException;
 import java.io.InputStream;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -101,13 +100,7 @@ public class ExtractStructureServiceImpl implements ExtractStructureService {
     }
 
     private Requester.BackendCaller<EntityType, TokenType.Simple> getInputStreamBackendCaller(final InputStream inputStream) {
-        return authenticationToken -> {
-            try {
-                return extractStructureBackend.extractFromFile(authenticationToken, new TypedByteArrayWithFilename("text/plain", IOUtils.toByteArray(inputStream)));
-            } catch (final IOException e) {
-                throw new RuntimeException("Error reading bytes from stream", e);
-            }
-        };
+        return authenticationToken -> extractStructureBackend.extractFromFile(authenticationToken, new TypedInputStream("text/plain", inputStream));
     }
 
     private Requester.BackendCaller<EntityType, TokenType.Simple> getFileBackendCaller(final File file) {
@@ -13,12 +13,11 @@ import com.hp.autonomy.hod.client.config.Requester;
 import com.hp.autonomy.hod.client.error.HodErrorException;
 import com.hp.autonomy.hod.client.token.TokenProxy;
 import com.hp.autonomy.hod.client.util.TypedByteArrayWithFilename;
-import org.apache.commons.io.IOUtils;
+import com.hp.autonomy.hod.client.util.TypedInputStream;
 import retrofit.client.Response;
 import retrofit.mime.TypedFile;
 
 import java.io.File;
-import java.io.IOException;
 import java.io.InputStream;
 
 /**
@@ -117,13 +116,7 @@ public class SentimentAnalysisServiceImpl implements SentimentAnalysisService {
     }
 
     private Requester.BackendCaller<EntityType, TokenType.Simple> getInputStreamBackendCaller(final InputStream file, final SentimentAnalysisLanguage language) {
-        return authenticationToken -> {
-            try {
-                return sentimentAnalysisBackend.analyzeSentimentForFile(authenticationToken, new TypedByteArrayWithFilename("text/plain", IOUtils.toByteArray(file)), language);
-            } catch (final IOException e) {
-                throw new RuntimeException("Error reading bytes from stream", e);
-            }
-        };
+        return authenticationToken -> sentimentAnalysisBackend.analyzeSentimentForFile(authenticationToken, new TypedInputStream("text/plain", file), language);
     }
 
     private Requester.BackendCaller<EntityType, TokenType.Simple> getReferenceBackendCaller(final String reference, final SentimentAnalysisLanguage language) {
@@ -13,12 +13,11 @@ import com.hp.autonomy.hod.client.config.Requester;
 import com.hp.autonomy.hod.client.error.HodErrorException;
 import com.hp.autonomy.hod.client.token.TokenProxy;
 import com.hp.autonomy.hod.client.util.TypedByteArrayWithFilename;
-import org.apache.commons.io.IOUtils;
+import com.hp.autonomy.hod.client.util.TypedInputStream;
 import retrofit.client.Response;
 import retrofit.mime.TypedFile;
 
 import java.io.File;
-import java.io.IOException;
 import java.io.InputStream;
 import java.util.Map;
 
@@ -157,13 +156,7 @@ public class ViewDocumentServiceImpl implements ViewDocumentService {
     }
 
     private Requester.BackendCaller<EntityType, TokenType.Simple> getInputStreamBackendCaller(final InputStream inputStream, final ViewDocumentRequestBuilder params) {
-        return authenticationToken -> {
-            try {
-                return viewDocumentBackend.viewFile(authenticationToken, new TypedByteArrayWithFilename(MIME_TYPE, IOUtils.toByteArray(inputStream)), params.build());
-            } catch (final IOException e) {
-                throw new RuntimeException("Error reading bytes from stream", e);
-            }
-        };
+        return authenticationToken -> viewDocumentBackend.viewFile(authenticationToken, new TypedInputStream(MIME_TYPE, inputStream), params.build());
     }
 
     private Requester.BackendCaller<EntityType, TokenType.Simple> getReferenceBackendCaller(final String reference, final ViewDocumentRequestBuilder params) {
@@ -183,13 +176,7 @@ public class ViewDocumentServiceImpl implements ViewDocumentService {
     }
 
     private Requester.BackendCaller<EntityType, TokenType.Simple> getInputStreamAsFileBackendCaller(final InputStream inputStream, final ViewDocumentRequestBuilder params) {
-        return authenticationToken -> {
-            try {
-                return viewDocumentBackend.viewFile(authenticationToken, new TypedByteArrayWithFilename(MIME_TYPE, IOUtils.toByteArray(inputStream)), getRawHtmlParams(params));
-            } catch (final IOException e) {
-                throw new RuntimeException(e);
-            }
-        };
+        return authenticationToken -> viewDocumentBackend.viewFile(authenticationToken, new TypedInputStream(MIME_TYPE, inputStream), getRawHtmlParams(params));
     }
 
     private Requester.BackendCaller<EntityType, TokenType.Simple> getReferenceAsStringBackendCaller(final String reference, final ViewDocumentRequestBuilder params) {
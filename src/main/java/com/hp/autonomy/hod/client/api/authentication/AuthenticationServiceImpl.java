@@ -19,6 +19,7 @@ import com.hp.autonomy.hod.client.token.TokenRepository;
 import com.hp.autonomy.hod.client.token.TokenRepositoryException;
 import com.hp.autonomy.hod.client.util.Hmac;
 import com.hp.autonomy.hod.client.util.Request;
+import lombok.Data;
 import retrofit.client.Response;
 
 import java.io.IOException;
@@ -26,6 +27,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -36,6 +38,9 @@ import java.util.UUID;
 public class AuthenticationServiceImpl implements AuthenticationService {
     private static final String REDIRECT_URL = "redirect_url";
 
+    // Signed request templates are kept for the most recently used tokens and requests
+    private static final int MAXIMUM_TEMPLATES = 256;
+
     // Fake origin to use when making authenticate combined requests to HOD
     // TODO: This should be removed once "origin" becomes optional (HOD-4031)
     private static final String ORIGIN = "http://www.example.com";
@@ -57,6 +62,18 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
     private final Hmac hmac = new Hmac();
 
+    // access ordered, so the least recently used template is evicted first
+    private final Map<TemplateKey, SignedRequest.Template> signedRequestTemplates = Collections.synchronizedMap(
+        new LinkedHashMap<TemplateKey, SignedRequest.Template>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<TemplateKey, SignedRequest.Template> eldest) {
+                return size() > MAXIMUM_TEMPLATES;
+            }
+        }
+    );
+
     /**
      * Creates a new AuthenticationServiceImpl with the given configuration
      * @param hodServiceConfig The configuration to use
@@ -253,7 +270,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         queryParameters.put(AuthenticationBackend.ALLOWED_ORIGINS_PARAMETER, new ArrayList<>(allowedOrigins));
 
         final Request<String, String> request = new Request<>(Request.Verb.GET, AuthenticationBackend.COMBINED_PATH, queryParameters, null);
-        return SignedRequest.sign(hmac, endpoint, token, request);
+        return getTemplate(token, request, null).sign();
     }
 
     @Override
@@ -262,7 +279,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         queryParameters.put(AuthenticationBackend.ALLOWED_ORIGINS_PARAMETER, new ArrayList<>(allowedOrigins));
 
         final Request<String, String> request = new Request<>(Request.Verb.PATCH, AuthenticationBackend.COMBINED_PATH, queryParameters, null);
-        return SignedRequest.sign(hmac, endpoint, token, request);
+        return getTemplate(token, request, null).sign();
     }
 
     @Override
@@ -272,7 +289,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         queryParameters.put(REDIRECT_URL, Collections.singletonList(redirectUrl));
 
         final Request<String, String> request = new Request<>(Request.Verb.PATCH, AuthenticationBackend.COMBINED_PATH, queryParameters, null);
-        return SignedRequest.sign(hmac, endpoint, token, request);
+        return getTemplate(token, request, null).sign();
     }
 
     @Override
@@ -284,7 +301,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
             final TokenType tokenType
     ) {
         final Map<String, List<String>> body = createBaseCombinedBody(applicationName, applicationDomain, tokenType);
-        return createCombinedRequest(token, allowedOrigins, body);
+        return getTemplate(token, createCombinedRequest(allowedOrigins, body), null).sign();
     }
 
     @Override
@@ -298,7 +315,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
             final TokenType tokenType
     ) {
         final Map<String, List<String>> body = createUserStoreCombinedBody(applicationName, applicationDomain, tokenType, userStoreDomain, userStoreName);
-        return createCombinedRequest(token, allowedOrigins, body);
+        return getTemplate(token, createCombinedRequest(allowedOrigins, body), null).sign();
     }
 
     @Override
@@ -313,28 +330,34 @@ public class AuthenticationServiceImpl implements AuthenticationService {
             final boolean useNonce
     ) {
         final Map<String, List<String>> body = createUserStoreCombinedBody(applicationName, applicationDomain, tokenType, userStoreDomain, userStoreName);
+        final Request<String, String> request = createCombinedRequest(allowedOrigins, body);
 
-        if (useNonce) {
-            body.put(AuthenticationBackend.NONCE_PARAMETER, Collections.singletonList(generateNonce()));
-        }
-
-        return createCombinedRequest(token, allowedOrigins, body);
+        // only the nonce changes between calls, so the rest of the request is signed once
+        return useNonce
+            ? getTemplate(token, request, AuthenticationBackend.NONCE_PARAMETER).sign(generateNonce())
+            : getTemplate(token, request, null).sign();
     }
 
     private String generateNonce() {
         return UUID.randomUUID().toString();
     }
 
-    private SignedRequest createCombinedRequest(
-            final AuthenticationToken<EntityType.Unbound, TokenType.HmacSha1> token,
-            final Collection<String> allowedOrigins,
-            final Map<String, List<String>> body
-    ) {
+    private Request<String, String> createCombinedRequest(final Collection<String> allowedOrigins, final Map<String, List<String>> body) {
         final Map<String, List<String>> queryParameters = new HashMap<>();
         queryParameters.put(AuthenticationBackend.ALLOWED_ORIGINS_PARAMETER, new ArrayList<>(allowedOrigins));
 
-        final Request<String, String> request = new Request<>(Request.Verb.POST, AuthenticationBackend.COMBINED_PATH, queryParameters, body);
-        return SignedRequest.sign(hmac, endpoint, token, request);
+        return new Request<>(Request.Verb.POST, AuthenticationBackend.COMBINED_PATH, queryParameters, body);
+    }
+
+    private SignedRequest.Template getTemplate(
+            final AuthenticationToken<EntityType.Unbound, TokenType.HmacSha1> token,
+            final Request<String, String> request,
+            final String variableBodyParameter
+    ) {
+        return signedRequestTemplates.computeIfAbsent(
+            new TemplateKey(token, request, variableBodyParameter),
+            key -> SignedRequest.template(hmac, endpoint, token, request, variableBodyParameter)
+        );
     }
 
     private Map<String, List<String>> createBaseCombinedBody(
@@ -395,4 +418,11 @@ public class AuthenticationServiceImpl implements AuthenticationService {
             throw new RuntimeException(e);
         }
     }
+
+    @Data
+    private static class TemplateKey {
+        private final AuthenticationToken<EntityType.Unbound, TokenType.HmacSha1> token;
+        private final Request<String, String> request;
+        private final String variableBodyParameter;
+    }
 }
@@ -14,6 +14,7 @@ import org.apache.http.client.utils.URLEncodedUtils;
 import org.apache.http.message.BasicNameValuePair;
 
 import java.net.URISyntaxException;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -40,6 +41,31 @@ public class SignedRequest {
     }
 
     static SignedRequest sign(final Hmac hmac, final String endpoint, final AuthenticationToken<?, TokenType.HmacSha1> token, final Request<String, String> request) {
+        return new SignedRequest(buildUrl(endpoint, request), request.getVerb(), formatBody(request.getBody()), hmac.generateToken(request, token));
+    }
+
+    /**
+     * Prepares to sign a request which differs between calls only in the value of one body parameter. The URL, body
+     * encoding and everything in the signature which does not depend on that value are computed once.
+     * @param hmac The HMAC signer
+     * @param endpoint The Haven OnDemand endpoint
+     * @param token The token used to sign the request
+     * @param request The request, which must not contain the variable body parameter
+     * @param variableBodyParameter The name of the body parameter supplied to {@link Template#sign(String)}, or null
+     * if the request never changes
+     * @return A template for signing the request
+     */
+    static Template template(
+        final Hmac hmac,
+        final String endpoint,
+        final AuthenticationToken<?, TokenType.HmacSha1> token,
+        final Request<String, String> request,
+        final String variableBodyParameter
+    ) {
+        return new Template(hmac, endpoint, token, request, variableBodyParameter);
+    }
+
+    private static String buildUrl(final String endpoint, final Request<String, String> request) {
         final URIBuilder uriBuilder;
 
         try {
@@ -56,21 +82,74 @@ public class SignedRequest {
             }
         }
 
-        final String bodyString;
+        return uriBuilder.toString();
+    }
+
+    private static String formatBody(final Map<String, List<String>> body) {
+        if (body == null) {
+            return null;
+        }
+
+        final List<NameValuePair> pairs = new LinkedList<>();
 
-        if (request.getBody() == null) {
-            bodyString = null;
-        } else {
-            final List<NameValuePair> pairs = new LinkedList<>();
+        for (final Map.Entry<String, List<String>> entry : body.entrySet()) {
+            pairs.addAll(entry.getValue().stream().map(value -> new BasicNameValuePair(entry.getKey(), value)).collect(Collectors.toList()));
+        }
 
-            for (final Map.Entry<String, List<String>> entry : request.getBody().entrySet()) {
-                pairs.addAll(entry.getValue().stream().map(value -> new BasicNameValuePair(entry.getKey(), value)).collect(Collectors.toList()));
+        return URLEncodedUtils.format(pairs, UTF8);
+    }
+
+    /**
+     * A reusable signed request. Templates are thread safe.
+     */
+    public static class Template {
+        private final String url;
+        private final Request.Verb verb;
+        private final Hmac.Template hmacTemplate;
+        private final String variableBodyParameter;
+
+        // the encoded body without the variable parameter, or the whole request if there is no variable parameter
+        private final String body;
+        private final SignedRequest signedRequest;
+
+        private Template(
+            final Hmac hmac,
+            final String endpoint,
+            final AuthenticationToken<?, TokenType.HmacSha1> token,
+            final Request<String, String> request,
+            final String variableBodyParameter
+        ) {
+            this.variableBodyParameter = variableBodyParameter;
+
+            url = buildUrl(endpoint, request);
+            verb = request.getVerb();
+            body = formatBody(request.getBody());
+            hmacTemplate = hmac.createTemplate(request, token, variableBodyParameter);
+
+            signedRequest = variableBodyParameter == null ? new SignedRequest(url, verb, body, hmacTemplate.generateToken()) : null;
+        }
+
+        /**
+         * @return The signed request, for a template without a variable body parameter
+         */
+        public SignedRequest sign() {
+            if (signedRequest == null) {
+                throw new IllegalStateException("This template requires a value for its variable body parameter");
             }
 
-            bodyString = URLEncodedUtils.format(pairs, UTF8);
+            return signedRequest;
         }
 
-        final String tokenString = hmac.generateToken(request, token);
-        return new SignedRequest(uriBuilder.toString(), request.getVerb(), bodyString, tokenString);
+        /**
+         * @param variableValue The value of the variable body parameter
+         * @return The signed request with the given value in its body
+         */
+        public SignedRequest sign(final String variableValue) {
+            final String tokenString = hmacTemplate.generateToken(variableValue);
+            final String variablePair = URLEncodedUtils.format(Collections.singletonList(new BasicNameValuePair(variableBodyParameter, variableValue)), UTF8);
+            final String fullBody = body == null || body.isEmpty() ? variablePair : body + '&' + variablePair;
+
+            return new SignedRequest(url, verb, fullBody, tokenString);
+        }
     }
 }
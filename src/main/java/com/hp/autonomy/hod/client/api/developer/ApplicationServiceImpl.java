@@ -79,23 +79,15 @@ public class ApplicationServiceImpl implements ApplicationService {
                         .collect(Collectors.toList())
                 );
 
-        final Map<String, List<String>> body = new HashMap<>();
-        final Map<String, String> bodyMultiMap = new MultiMap<>();
+        // the same map is used for the request parts and the signature
+        final MultiMap<String, String> body = new MultiMap<>();
 
-        optionalAuthModes.ifPresent(authenticationStrings -> {
-            body.put(AUTH_MODES_PART, authenticationStrings);
-            authenticationStrings.forEach(s -> bodyMultiMap.put(AUTH_MODES_PART, s));
-        });
+        optionalAuthModes.ifPresent(authenticationStrings -> authenticationStrings.forEach(s -> body.put(AUTH_MODES_PART, s)));
+        updateRequest.getDescription().ifPresent(description -> body.put(DESCRIPTION_PART, description));
 
-        updateRequest.getDescription()
-                .ifPresent(description -> {
-                    body.put(DESCRIPTION_PART, Collections.singletonList(description));
-                    bodyMultiMap.put(DESCRIPTION_PART, description);
-                });
-
-        final Request<Void, String> request = new Request<>(Request.Verb.PATCH, pathForApplication(domain, name) + "/v1", null, body);
+        final Request<Void, String> request = new Request<>(Request.Verb.PATCH, pathForApplication(domain, name) + "/v1", null, body.asListMap());
         final String signature = hmac.generateToken(request, token);
-        backend.update(signature, domain, name, bodyMultiMap);
+        backend.update(signature, domain, name, body);
     }
 
     @Override
@@ -18,7 +18,6 @@ import com.hp.autonomy.hod.client.job.JobId;
 import com.hp.autonomy.hod.client.job.JobService;
 import com.hp.autonomy.hod.client.job.JobServiceImpl;
 import com.hp.autonomy.hod.client.job.JobStatus;
-import com.hp.autonomy.hod.client.job.PollingJobStatusRunnable;
 import com.hp.autonomy.hod.client.token.TokenProxy;
 import lombok.extern.slf4j.Slf4j;
 import retrofit.client.Response;
@@ -42,7 +41,7 @@ public class CreateTextIndexPollingService extends AbstractPollingService implem
      * @param hodServiceConfig The configuration to use
      */
     public CreateTextIndexPollingService(final HodServiceConfig<?, TokenType.Simple> hodServiceConfig) {
-        super(hodServiceConfig.getAsyncTimeout());
+        super(hodServiceConfig.getJobPoller(), hodServiceConfig.getAsyncTimeout(), hodServiceConfig.getJobPollingPolicy());
 
         this.createTextIndexBackend = hodServiceConfig.getRestAdapter().create(CreateTextIndexBackend.class);
         requester = hodServiceConfig.getRequester();
@@ -55,7 +54,7 @@ public class CreateTextIndexPollingService extends AbstractPollingService implem
      * @param executorService The executor service to use while polling for status updates
      */
     public CreateTextIndexPollingService(final HodServiceConfig<?, TokenType.Simple> hodServiceConfig, final ScheduledExecutorService executorService) {
-        super(executorService, hodServiceConfig.getAsyncTimeout());
+        super(executorService, hodServiceConfig.getAsyncTimeout(), hodServiceConfig.getJobPollingPolicy());
 
         this.createTextIndexBackend = hodServiceConfig.getRestAdapter().create(CreateTextIndexBackend.class);
         requester = hodServiceConfig.getRequester();
@@ -71,7 +70,7 @@ public class CreateTextIndexPollingService extends AbstractPollingService implem
     ) throws HodErrorException {
         final JobId jobId = requester.makeRequest(JobId.class, getBackendCaller(index, flavor, params));
 
-        getExecutorService().submit(new PollingJobStatusRunnable<>(getTimeout(), jobId, callback, getExecutorService(), jobService));
+        pollJob(null, jobId, callback, jobService);
     }
 
     @Override
@@ -84,7 +83,7 @@ public class CreateTextIndexPollingService extends AbstractPollingService implem
     ) throws HodErrorException {
         final JobId jobId = requester.makeRequest(tokenProxy, JobId.class, getBackendCaller(index, flavor, params));
 
-        getExecutorService().submit(new PollingJobStatusRunnable<>(tokenProxy, getTimeout(), jobId, callback, getExecutorService(), jobService));
+        pollJob(tokenProxy, jobId, callback, jobService);
     }
 
     private Requester.BackendCaller<EntityType, TokenType.Simple> getBackendCaller(final String index, final IndexFlavor flavor, final CreateTextIndexRequestBuilder params) {
@@ -34,7 +34,7 @@ public class DeleteTextIndexPollingService extends AbstractPollingService implem
      * @param hodServiceConfig The configuration to use
      */
     public DeleteTextIndexPollingService(final HodServiceConfig<?, TokenType.Simple> hodServiceConfig) {
-        super(hodServiceConfig.getAsyncTimeout());
+        super(hodServiceConfig.getJobPoller(), hodServiceConfig.getAsyncTimeout(), hodServiceConfig.getJobPollingPolicy());
 
         deleteTextIndexBackend = hodServiceConfig.getRestAdapter().create(DeleteTextIndexBackend.class);
         requester = hodServiceConfig.getRequester();
@@ -47,7 +47,7 @@ public class DeleteTextIndexPollingService extends AbstractPollingService implem
      * @param executorService The executor service to use while polling for status updates
      */
     public DeleteTextIndexPollingService(final HodServiceConfig<?, TokenType.Simple> hodServiceConfig, final ScheduledExecutorService executorService) {
-        super(executorService, hodServiceConfig.getAsyncTimeout());
+        super(executorService, hodServiceConfig.getAsyncTimeout(), hodServiceConfig.getJobPollingPolicy());
 
         deleteTextIndexBackend = hodServiceConfig.getRestAdapter().create(DeleteTextIndexBackend.class);
         requester = hodServiceConfig.getRequester();
@@ -63,7 +63,7 @@ public class DeleteTextIndexPollingService extends AbstractPollingService implem
 
         final JobId jobId = requester.makeRequest(JobId.class, getDeletingBackendCaller(index, response));
 
-        getExecutorService().submit(new PollingJobStatusRunnable<>(getTimeout(), jobId, callback, getExecutorService(), jobService));
+        pollJob(null, jobId, callback, jobService);
     }
 
     @Override
@@ -76,7 +76,7 @@ public class DeleteTextIndexPollingService extends AbstractPollingService implem
 
         final JobId jobId = requester.makeRequest(tokenProxy, JobId.class, getDeletingBackendCaller(index, response));
 
-        getExecutorService().submit(new PollingJobStatusRunnable<>(tokenProxy, getTimeout(), jobId, callback, getExecutorService(), jobService));
+        pollJob(tokenProxy, jobId, callback, jobService);
     }
 
     private Requester.BackendCaller<EntityType, TokenType.Simple> getInitialBackendCaller(final ResourceIdentifier index) {
@@ -38,7 +38,7 @@ interface AddToTextIndexBackend {
     /**
      * Index JSON documents into HP Haven OnDemand using the given token
      * @param token The token to use to authenticate the request
-     * @param documents A collection of objects to convert to JSON
+     * @param documents A collection of objects serialized as JSON, see {@link com.hp.autonomy.hod.client.util.JsonTypedOutput}
      * @param indexName The index to add to
      * @param params Additional parameters to be sent as part of the request
      * @return The job ID of the request
@@ -48,7 +48,7 @@ interface AddToTextIndexBackend {
     @Multipart
     Response addJsonToTextIndex(
         @Header("token") AuthenticationToken<?, ?> token,
-        @Part("json") Documents<?> documents,
+        @Part("json") TypedOutput documents,
         @Path("indexName") ResourceIdentifier indexName,
         @PartMap Map<String, Object> params
     ) throws HodErrorException;
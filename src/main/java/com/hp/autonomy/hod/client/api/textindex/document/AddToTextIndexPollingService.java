@@ -5,6 +5,7 @@
 
 package com.hp.autonomy.hod.client.api.textindex.document;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hp.autonomy.hod.client.api.authentication.EntityType;
 import com.hp.autonomy.hod.client.api.authentication.TokenType;
 import com.hp.autonomy.hod.client.api.resource.ResourceIdentifier;
@@ -17,15 +18,14 @@ import com.hp.autonomy.hod.client.job.JobId;
 import com.hp.autonomy.hod.client.job.JobService;
 import com.hp.autonomy.hod.client.job.JobServiceImpl;
 import com.hp.autonomy.hod.client.job.JobStatus;
-import com.hp.autonomy.hod.client.job.PollingJobStatusRunnable;
 import com.hp.autonomy.hod.client.token.TokenProxy;
+import com.hp.autonomy.hod.client.util.JsonTypedOutput;
 import com.hp.autonomy.hod.client.util.TypedByteArrayWithFilename;
+import com.hp.autonomy.hod.client.util.TypedInputStream;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.IOUtils;
 import retrofit.mime.TypedFile;
 
 import java.io.File;
-import java.io.IOException;
 import java.io.InputStream;
 import java.util.concurrent.ScheduledExecutorService;
 
@@ -40,17 +40,19 @@ public class AddToTextIndexPollingService extends AbstractPollingService impleme
     private final AddToTextIndexBackend addToTextIndexBackend;
     private final JobService<? extends JobStatus<AddToTextIndexResponse>> jobService;
     private final Requester<?, TokenType.Simple> requester;
+    private final ObjectMapper objectMapper;
 
     /**
-     * Creates a new AddToTextIndexPollingService with a default ScheduledExecutorService
+     * Creates a new AddToTextIndexPollingService which tracks jobs with the configuration's JobPoller
      * @param hodServiceConfig The configuration for the service
      */
     public AddToTextIndexPollingService(final HodServiceConfig<?, TokenType.Simple> hodServiceConfig) {
-        super(hodServiceConfig.getAsyncTimeout());
+        super(hodServiceConfig.getJobPoller(), hodServiceConfig.getAsyncTimeout(), hodServiceConfig.getJobPollingPolicy());
 
         addToTextIndexBackend = hodServiceConfig.getRestAdapter().create(AddToTextIndexBackend.class);
         jobService = new JobServiceImpl<>(hodServiceConfig, AddToTextIndexBackend.AddToTextIndexJobStatus.class);
         requester = hodServiceConfig.getRequester();
+        objectMapper = hodServiceConfig.getObjectMapper();
     }
 
     /**
@@ -59,11 +61,12 @@ public class AddToTextIndexPollingService extends AbstractPollingService impleme
      * @param executorService The executor service to use while polling for status updates
      */
     public AddToTextIndexPollingService(final HodServiceConfig<?, TokenType.Simple> hodServiceConfig, final ScheduledExecutorService executorService) {
-        super(executorService, hodServiceConfig.getAsyncTimeout());
+        super(executorService, hodServiceConfig.getAsyncTimeout(), hodServiceConfig.getJobPollingPolicy());
 
         addToTextIndexBackend = hodServiceConfig.getRestAdapter().create(AddToTextIndexBackend.class);
         jobService = new JobServiceImpl<>(hodServiceConfig, AddToTextIndexBackend.AddToTextIndexJobStatus.class);
         requester = hodServiceConfig.getRequester();
+        objectMapper = hodServiceConfig.getObjectMapper();
     }
 
     @Override
@@ -75,7 +78,7 @@ public class AddToTextIndexPollingService extends AbstractPollingService impleme
     ) throws HodErrorException {
         final JobId jobId = requester.makeRequest(JobId.class, getTextBackendCaller(documents, index, params));
 
-        getExecutorService().submit(new PollingJobStatusRunnable<>(getTimeout(), jobId, callback, getExecutorService(), jobService));
+        pollJob(null, jobId, callback, jobService);
     }
 
     @Override
@@ -88,7 +91,7 @@ public class AddToTextIndexPollingService extends AbstractPollingService impleme
     ) throws HodErrorException {
         final JobId jobId = requester.makeRequest(tokenProxy, JobId.class, getTextBackendCaller(documents, index, params));
 
-        getExecutorService().submit(new PollingJobStatusRunnable<>(tokenProxy, getTimeout(), jobId, callback, getExecutorService(), jobService));
+        pollJob(tokenProxy, jobId, callback, jobService);
     }
 
     @Override
@@ -100,7 +103,7 @@ public class AddToTextIndexPollingService extends AbstractPollingService impleme
     ) throws HodErrorException {
         final JobId jobId = requester.makeRequest(JobId.class, getUrlBackendCaller(url, index, params));
 
-        getExecutorService().submit(new PollingJobStatusRunnable<>(getTimeout(), jobId, callback, getExecutorService(), jobService));
+        pollJob(null, jobId, callback, jobService);
     }
 
     @Override
@@ -113,7 +116,7 @@ public class AddToTextIndexPollingService extends AbstractPollingService impleme
     ) throws HodErrorException {
         final JobId jobId = requester.makeRequest(tokenProxy, JobId.class, getUrlBackendCaller(url, index, params));
 
-        getExecutorService().submit(new PollingJobStatusRunnable<>(tokenProxy, getTimeout(), jobId, callback, getExecutorService(), jobService));
+        pollJob(tokenProxy, jobId, callback, jobService);
     }
 
     @Override
@@ -125,7 +128,7 @@ public class AddToTextIndexPollingService extends AbstractPollingService impleme
     ) throws HodErrorException {
         final JobId jobId = requester.makeRequest(JobId.class, getReferenceBackendCaller(reference, index, params));
 
-        getExecutorService().submit(new PollingJobStatusRunnable<>(getTimeout(), jobId, callback, getExecutorService(), jobService));
+        pollJob(null, jobId, callback, jobService);
     }
 
     @Override
@@ -138,53 +141,53 @@ public class AddToTextIndexPollingService extends AbstractPollingService impleme
     ) throws HodErrorException {
         final JobId jobId = requester.makeRequest(tokenProxy, JobId.class, getReferenceBackendCaller(reference, index, params));
 
-        getExecutorService().submit(new PollingJobStatusRunnable<>(tokenProxy, getTimeout(), jobId, callback, getExecutorService(), jobService));
+        pollJob(tokenProxy, jobId, callback, jobService);
     }
 
     @Override
     public void addFileToTextIndex(final File file, final ResourceIdentifier index, final AddToTextIndexRequestBuilder params, final HodJobCallback<AddToTextIndexResponse> callback) throws HodErrorException {
         final JobId jobId = requester.makeRequest(JobId.class, getFileBackendCaller(file, index, params));
 
-        getExecutorService().submit(new PollingJobStatusRunnable<>(getTimeout(), jobId, callback, getExecutorService(), jobService));
+        pollJob(null, jobId, callback, jobService);
     }
 
     @Override
     public void addFileToTextIndex(final TokenProxy<?, TokenType.Simple> tokenProxy, final File file, final ResourceIdentifier index, final AddToTextIndexRequestBuilder params, final HodJobCallback<AddToTextIndexResponse> callback) throws HodErrorException {
         final JobId jobId = requester.makeRequest(tokenProxy, JobId.class, getFileBackendCaller(file, index, params));
 
-        getExecutorService().submit(new PollingJobStatusRunnable<>(tokenProxy, getTimeout(), jobId, callback, getExecutorService(), jobService));
+        pollJob(tokenProxy, jobId, callback, jobService);
     }
 
     @Override
     public void addFileToTextIndex(final byte[] bytes, final ResourceIdentifier index, final AddToTextIndexRequestBuilder params, final HodJobCallback<AddToTextIndexResponse> callback) throws HodErrorException {
         final JobId jobId = requester.makeRequest(JobId.class, getByteArrayBackendCaller(bytes, index, params));
 
-        getExecutorService().submit(new PollingJobStatusRunnable<>(getTimeout(), jobId, callback, getExecutorService(), jobService));
+        pollJob(null, jobId, callback, jobService);
     }
 
     @Override
     public void addFileToTextIndex(final TokenProxy<?, TokenType.Simple> tokenProxy, final byte[] bytes, final ResourceIdentifier index, final AddToTextIndexRequestBuilder params, final HodJobCallback<AddToTextIndexResponse> callback) throws HodErrorException {
         final JobId jobId = requester.makeRequest(tokenProxy, JobId.class, getByteArrayBackendCaller(bytes, index, params));
 
-        getExecutorService().submit(new PollingJobStatusRunnable<>(tokenProxy, getTimeout(), jobId, callback, getExecutorService(), jobService));
+        pollJob(tokenProxy, jobId, callback, jobService);
     }
 
     @Override
     public void addFileToTextIndex(final InputStream inputStream, final ResourceIdentifier index, final AddToTextIndexRequestBuilder params, final HodJobCallback<AddToTextIndexResponse> callback) throws HodErrorException {
         final JobId jobId = requester.makeRequest(JobId.class, getInputStreamBackendCaller(inputStream, index, params));
 
-        getExecutorService().submit(new PollingJobStatusRunnable<>(getTimeout(), jobId, callback, getExecutorService(), jobService));
+        pollJob(null, jobId, callback, jobService);
     }
 
     @Override
     public void addFileToTextIndex(final TokenProxy<?, TokenType.Simple> tokenProxy, final InputStream inputStream, final ResourceIdentifier index, final AddToTextIndexRequestBuilder params, final HodJobCallback<AddToTextIndexResponse> callback) throws HodErrorException {
         final JobId jobId = requester.makeRequest(tokenProxy, JobId.class, getInputStreamBackendCaller(inputStream, index, params));
 
-        getExecutorService().submit(new PollingJobStatusRunnable<>(tokenProxy, getTimeout(), jobId, callback, getExecutorService(), jobService));
+        pollJob(tokenProxy, jobId, callback, jobService);
     }
 
     private Requester.BackendCaller<EntityType, TokenType.Simple> getTextBackendCaller(final Documents<?> documents, final ResourceIdentifier index, final AddToTextIndexRequestBuilder params) {
-        return authenticationToken -> addToTextIndexBackend.addJsonToTextIndex(authenticationToken, documents, index, params.build());
+        return authenticationToken -> addToTextIndexBackend.addJsonToTextIndex(authenticationToken, new JsonTypedOutput(objectMapper, documents), index, params.build());
     }
 
     private Requester.BackendCaller<EntityType, TokenType.Simple> getUrlBackendCaller(final String url, final ResourceIdentifier index, final AddToTextIndexRequestBuilder params) {
@@ -204,13 +207,7 @@ public class AddToTextIndexPollingService extends AbstractPollingService impleme
     }
 
     private Requester.BackendCaller<EntityType, TokenType.Simple> getInputStreamBackendCaller(final InputStream inputStream, final ResourceIdentifier index, final AddToTextIndexRequestBuilder params) {
-        return authenticationToken -> {
-            try {
-                return addToTextIndexBackend.addFileToTextIndex(authenticationToken, new TypedByteArrayWithFilename("application/octet-stream", IOUtils.toByteArray(inputStream)), index, params.build());
-            } catch (final IOException e) {
-                throw new RuntimeException("Error reading bytes from stream", e);
-            }
-        };
+        return authenticationToken -> addToTextIndexBackend.addFileToTextIndex(authenticationToken, new TypedInputStream("application/octet-stream", inputStream), index, params.build());
     }
 
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.api.textindex.document;
+
+import com.hp.autonomy.hod.client.error.HodErrorCode;
+
+import java.util.List;
+
+/**
+ * Callback used with the {@link BulkAddToTextIndexService}. Methods are called once per batch of documents, and may be
+ * called concurrently from different threads.
+ */
+public interface BulkAddToTextIndexCallback {
+
+    /**
+     * Called when a batch of documents has been indexed
+     * @param batch The number of the batch, starting from zero
+     * @param response The response from HP Haven OnDemand
+     */
+    void success(int batch, AddToTextIndexResponse response);
+
+    /**
+     * Called when submitting or indexing a batch of documents fails
+     * @param batch The number of the batch, starting from zero
+     * @param documents The documents in the batch
+     * @param error The error returned by HP Haven OnDemand
+     */
+    void error(int batch, List<Document> documents, HodErrorCode error);
+
+    /**
+     * Called when indexing a batch of documents exceeds the timeout duration specified in the configuration
+     * @param batch The number of the batch, starting from zero
+     * @param documents The documents in the batch
+     */
+    void timeout(int batch, List<Document> documents);
+
+    /**
+     * Called if a RuntimeException is thrown while submitting a batch or checking its status
+     * @param batch The number of the batch, starting from zero
+     * @param documents The documents in the batch
+     * @param exception The exception that was thrown
+     */
+    void handleException(int batch, List<Document> documents, RuntimeException exception);
+
+}
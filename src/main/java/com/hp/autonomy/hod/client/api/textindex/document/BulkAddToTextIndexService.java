@@ -0,0 +1,92 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.api.textindex.document;
+
+import com.hp.autonomy.hod.client.api.authentication.TokenType;
+import com.hp.autonomy.hod.client.api.resource.ResourceIdentifier;
+import com.hp.autonomy.hod.client.token.TokenProxy;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Service for indexing arbitrarily many documents with the AddToTextIndex API. Documents are consumed lazily and split
+ * into batches, each of which is submitted as a separate job. The number of jobs in progress is bounded, and the caller
+ * is blocked while the limit is reached, so only a few batches are held in memory at a time.
+ */
+public interface BulkAddToTextIndexService {
+
+    /**
+     * Index documents into HP Haven OnDemand using a token proxy provided by a
+     * {@link com.hp.autonomy.hod.client.token.TokenProxyService}. This method returns once every batch has completed
+     * @param documents The documents to index
+     * @param index The index to add to
+     * @param params Additional parameters to be sent as part of each request
+     * @param callback Callback that will be called with the result of each batch
+     * @throws InterruptedException If the calling thread is interrupted while waiting for batches to complete
+     * @throws NullPointerException If a TokenProxyService has not been defined
+     */
+    void addDocuments(
+        Iterator<? extends Document> documents,
+        ResourceIdentifier index,
+        AddToTextIndexRequestBuilder params,
+        BulkAddToTextIndexCallback callback
+    ) throws InterruptedException;
+
+    /**
+     * Index documents into HP Haven OnDemand using the given token proxy. This method returns once every batch has
+     * completed
+     * @param tokenProxy The token proxy to use
+     * @param documents The documents to index
+     * @param index The index to add to
+     * @param params Additional parameters to be sent as part of each request
+     * @param callback Callback that will be called with the result of each batch
+     * @throws InterruptedException If the calling thread is interrupted while waiting for batches to complete
+     */
+    void addDocuments(
+        TokenProxy<?, TokenType.Simple> tokenProxy,
+        Iterator<? extends Document> documents,
+        ResourceIdentifier index,
+        AddToTextIndexRequestBuilder params,
+        BulkAddToTextIndexCallback callback
+    ) throws InterruptedException;
+
+    /**
+     * Index documents into HP Haven OnDemand using a token proxy provided by a
+     * {@link com.hp.autonomy.hod.client.token.TokenProxyService}. This method returns once every batch has completed
+     * @param documents The documents to index
+     * @param index The index to add to
+     * @param params Additional parameters to be sent as part of each request
+     * @param callback Callback that will be called with the result of each batch
+     * @throws InterruptedException If the calling thread is interrupted while waiting for batches to complete
+     * @throws NullPointerException If a TokenProxyService has not been defined
+     */
+    void addDocuments(
+        Stream<? extends Document> documents,
+        ResourceIdentifier index,
+        AddToTextIndexRequestBuilder params,
+        BulkAddToTextIndexCallback callback
+    ) throws InterruptedException;
+
+    /**
+     * Index documents into HP Haven OnDemand using the given token proxy. This method returns once every batch has
+     * completed
+     * @param tokenProxy The token proxy to use
+     * @param documents The documents to index
+     * @param index The index to add to
+     * @param params Additional parameters to be sent as part of each request
+     * @param callback Callback that will be called with the result of each batch
+     * @throws InterruptedException If the calling thread is interrupted while waiting for batches to complete
+     */
+    void addDocuments(
+        TokenProxy<?, TokenType.Simple> tokenProxy,
+        Stream<? extends Document> documents,
+        ResourceIdentifier index,
+        AddToTextIndexRequestBuilder params,
+        BulkAddToTextIndexCallback callback
+    ) throws InterruptedException;
+
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.api.textindex.document;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hp.autonomy.hod.client.api.authentication.TokenType;
+import com.hp.autonomy.hod.client.api.resource.ResourceIdentifier;
+import com.hp.autonomy.hod.client.config.HodServiceConfig;
+import com.hp.autonomy.hod.client.error.HodErrorCode;
+import com.hp.autonomy.hod.client.error.HodErrorException;
+import com.hp.autonomy.hod.client.job.HodJobCallback;
+import com.hp.autonomy.hod.client.token.TokenProxy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Default implementation of BulkAddToTextIndexService, which submits batches using an {@link AddToTextIndexService}
+ */
+@Slf4j
+public class BulkAddToTextIndexServiceImpl implements BulkAddToTextIndexService {
+
+    private final AddToTextIndexService addToTextIndexService;
+    private final ObjectMapper objectMapper;
+    private final BulkAddToTextIndexSettings settings;
+
+    /**
+     * Creates a new BulkAddToTextIndexServiceImpl with the default settings
+     * @param hodServiceConfig The configuration to use
+     * @param addToTextIndexService The service used to submit each batch
+     */
+    public BulkAddToTextIndexServiceImpl(final HodServiceConfig<?, TokenType.Simple> hodServiceConfig, final AddToTextIndexService addToTextIndexService) {
+        this(hodServiceConfig, addToTextIndexService, new BulkAddToTextIndexSettings.Builder().build());
+    }
+
+    /**
+     * Creates a new BulkAddToTextIndexServiceImpl
+     * @param hodServiceConfig The configuration to use
+     * @param addToTextIndexService The service used to submit each batch
+     * @param settings The settings used to split documents into batches
+     */
+    public BulkAddToTextIndexServiceImpl(
+        final HodServiceConfig<?, TokenType.Simple> hodServiceConfig,
+        final AddToTextIndexService addToTextIndexService,
+        final BulkAddToTextIndexSettings settings
+    ) {
+        this.addToTextIndexService = addToTextIndexService;
+        this.settings = settings;
+
+        objectMapper = hodServiceConfig.getObjectMapper();
+    }
+
+    @Override
+    public void addDocuments(
+        final Iterator<? extends Document> documents,
+        final ResourceIdentifier index,
+        final AddToTextIndexRequestBuilder params,
+        final BulkAddToTextIndexCallback callback
+    ) throws InterruptedException {
+        addBatches(null, documents, index, params, callback);
+    }
+
+    @Override
+    public void addDocuments(
+        final TokenProxy<?, TokenType.Simple> tokenProxy,
+        final Iterator<? extends Document> documents,
+        final ResourceIdentifier index,
+        final AddToTextIndexRequestBuilder params,
+        final BulkAddToTextIndexCallback callback
+    ) throws InterruptedException {
+        addBatches(tokenProxy, documents, index, params, callback);
+    }
+
+    @Override
+    public void addDocuments(
+        final Stream<? extends Document> documents,
+        final ResourceIdentifier index,
+        final AddToTextIndexRequestBuilder params,
+        final BulkAddToTextIndexCallback callback
+    ) throws InterruptedException {
+        addBatches(null, documents.iterator(), index, params, callback);
+    }
+
+    @Override
+    public void addDocuments(
+        final TokenProxy<?, TokenType.Simple> tokenProxy,
+        final Stream<? extends Document> documents,
+        final ResourceIdentifier index,
+        final AddToTextIndexRequestBuilder params,
+        final BulkAddToTextIndexCallback callback
+    ) throws InterruptedException {
+        addBatches(tokenProxy, documents.iterator(), index, params, callback);
+    }
+
+    private void addBatches(
+        final TokenProxy<?, TokenType.Simple> tokenProxy,
+        final Iterator<? extends Document> documents,
+        final ResourceIdentifier index,
+        final AddToTextIndexRequestBuilder params,
+        final BulkAddToTextIndexCallback callback
+    ) throws InterruptedException {
+        final int maxJobsInFlight = settings.getMaxJobsInFlight();
+        final Semaphore jobPermits = new Semaphore(maxJobsInFlight);
+
+        int batchNumber = 0;
+        List<SerializedDocument> batch = new ArrayList<>();
+        long batchBytes = 0;
+
+        while (documents.hasNext()) {
+            // each document is serialized once, and the same JSON is sent with the batch
+            final SerializedDocument document = new SerializedDocument(objectMapper, documents.next());
+
+            // allow for the separator between documents in the batch
+            final long documentBytes = document.getSize() + 1;
+
+            if (!batch.isEmpty() && batchBytes + documentBytes > settings.getMaxBatchBytes()) {
+                submitBatch(tokenProxy, batchNumber++, batch, index, params, callback, jobPermits);
+
+                batch = new ArrayList<>();
+                batchBytes = 0;
+            }
+
+            batch.add(document);
+            batchBytes += documentBytes;
+
+            // submit full batches straight away rather than waiting for the next document
+            if (batch.size() >= settings.getMaxBatchDocuments()) {
+                submitBatch(tokenProxy, batchNumber++, batch, index, params, callback, jobPermits);
+
+                batch = new ArrayList<>();
+                batchBytes = 0;
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            submitBatch(tokenProxy, batchNumber, batch, index, params, callback, jobPermits);
+        }
+
+        // every permit is returned once all the batches have completed
+        jobPermits.acquire(maxJobsInFlight);
+        jobPermits.release(maxJobsInFlight);
+    }
+
+    private void submitBatch(
+        final TokenProxy<?, TokenType.Simple> tokenProxy,
+        final int batchNumber,
+        final List<SerializedDocument> batch,
+        final ResourceIdentifier index,
+        final AddToTextIndexRequestBuilder params,
+        final BulkAddToTextIndexCallback callback,
+        final Semaphore jobPermits
+    ) throws InterruptedException {
+        // blocks the caller, and so stops the documents being consumed, while too many jobs are in progress
+        jobPermits.acquire();
+
+        log.debug("Submitting batch {} of {} documents", batchNumber, batch.size());
+
+        final BatchCallback batchCallback = new BatchCallback(batchNumber, batch, callback, jobPermits);
+        final Documents<SerializedDocument> batchDocuments = new Documents<>(batch);
+
+        try {
+            if (tokenProxy == null) {
+                addToTextIndexService.addJsonToTextIndex(batchDocuments, index, params, batchCallback);
+            }
+            else {
+                addToTextIndexService.addJsonToTextIndex(tokenProxy, batchDocuments, index, params, batchCallback);
+            }
+        } catch (final HodErrorException e) {
+            batchCallback.error(e.getErrorCode());
+        } catch (final RuntimeException e) {
+            batchCallback.handleException(e);
+        }
+    }
+
+    private static class BatchCallback implements HodJobCallback<AddToTextIndexResponse> {
+
+        private final int batchNumber;
+        private final List<SerializedDocument> documents;
+        private final BulkAddToTextIndexCallback callback;
+        private final Semaphore jobPermits;
+        private final AtomicBoolean complete = new AtomicBoolean(false);
+
+        private BatchCallback(final int batchNumber, final List<SerializedDocument> documents, final BulkAddToTextIndexCallback callback, final Semaphore jobPermits) {
+            this.batchNumber = batchNumber;
+            this.documents = documents;
+            this.callback = callback;
+            this.jobPermits = jobPermits;
+        }
+
+        @Override
+        public void success(final AddToTextIndexResponse result) {
+            if (complete()) {
+                try {
+                    callback.success(batchNumber, result);
+                } finally {
+                    jobPermits.release();
+                }
+            }
+        }
+
+        @Override
+        public void error(final HodErrorCode error) {
+            if (complete()) {
+                try {
+                    callback.error(batchNumber, getDocuments(), error);
+                } finally {
+                    jobPermits.release();
+                }
+            }
+        }
+
+        @Override
+        public void timeout() {
+            if (complete()) {
+                try {
+                    callback.timeout(batchNumber, getDocuments());
+                } finally {
+                    jobPermits.release();
+                }
+            }
+        }
+
+        @Override
+        public void handleException(final RuntimeException exception) {
+            if (complete()) {
+                try {
+                    callback.handleException(batchNumber, getDocuments(), exception);
+                } finally {
+                    jobPermits.release();
+                }
+            }
+        }
+
+        private List<Document> getDocuments() {
+            final List<Document> result = new ArrayList<>(documents.size());
+
+            for (final SerializedDocument document : documents) {
+                result.add(document.getDocument());
+            }
+
+            return result;
+        }
+
+        // a job may report more than one error, but only the first outcome is reported and its permit is returned once
+        private boolean complete() {
+            return complete.compareAndSet(false, true);
+        }
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.api.textindex.document;
+
+import lombok.Data;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * Settings controlling how the {@link BulkAddToTextIndexService} splits documents into batches
+ */
+@Data
+public class BulkAddToTextIndexSettings {
+
+    /**
+     * @return The maximum number of documents in a batch
+     */
+    private final int maxBatchDocuments;
+
+    /**
+     * @return The maximum size of the serialized JSON documents in a batch, in bytes. A single document larger than this
+     * will be sent in a batch on its own
+     */
+    private final long maxBatchBytes;
+
+    /**
+     * @return The maximum number of Add to Text Index jobs which may be in progress at the same time
+     */
+    private final int maxJobsInFlight;
+
+    private BulkAddToTextIndexSettings(final Builder builder) {
+        if (builder.maxBatchDocuments <= 0 || builder.maxBatchBytes <= 0 || builder.maxJobsInFlight <= 0) {
+            throw new IllegalArgumentException("Batch limits must be positive");
+        }
+
+        maxBatchDocuments = builder.maxBatchDocuments;
+        maxBatchBytes = builder.maxBatchBytes;
+        maxJobsInFlight = builder.maxJobsInFlight;
+    }
+
+    @Setter
+    @Accessors(chain = true)
+    public static class Builder {
+        private int maxBatchDocuments = 1000;
+        private long maxBatchBytes = 10 * 1024 * 1024;
+        private int maxJobsInFlight = 4;
+
+        public BulkAddToTextIndexSettings build() {
+            return new BulkAddToTextIndexSettings(this);
+        }
+    }
+
+}
@@ -17,7 +17,6 @@ import com.hp.autonomy.hod.client.job.JobId;
 import com.hp.autonomy.hod.client.job.JobService;
 import com.hp.autonomy.hod.client.job.JobServiceImpl;
 import com.hp.autonomy.hod.client.job.JobStatus;
-import com.hp.autonomy.hod.client.job.PollingJobStatusRunnable;
 import com.hp.autonomy.hod.client.token.TokenProxy;
 
 import java.util.List;
@@ -35,11 +34,11 @@ public class DeleteFromTextIndexPollingService extends AbstractPollingService im
     private final JobService<? extends JobStatus<DeleteFromTextIndexResponse>> jobService;
 
     /**
-     * Creates a new DeleteFromTextIndexPollingService with a default ScheduledExecutorService
+     * Creates a new DeleteFromTextIndexPollingService which tracks jobs with the configuration's JobPoller
      * @param hodServiceConfig The configuration to use
      */
     public DeleteFromTextIndexPollingService(final HodServiceConfig<?, TokenType.Simple> hodServiceConfig) {
-        super(hodServiceConfig.getAsyncTimeout());
+        super(hodServiceConfig.getJobPoller(), hodServiceConfig.getAsyncTimeout(), hodServiceConfig.getJobPollingPolicy());
 
         deleteFromTextIndexBackend = hodServiceConfig.getRestAdapter().create(DeleteFromTextIndexBackend.class);
         jobService = new JobServiceImpl<>(hodServiceConfig, DeleteFromTextIndexBackend.DeleteFromTextIndexJobStatus.class);
@@ -52,7 +51,7 @@ public class DeleteFromTextIndexPollingService extends AbstractPollingService im
      * @param executorService The executor service to use while polling for status updates
      */
     public DeleteFromTextIndexPollingService(final HodServiceConfig<?, TokenType.Simple> hodServiceConfig, final ScheduledExecutorService executorService) {
-        super(executorService, hodServiceConfig.getAsyncTimeout());
+        super(executorService, hodServiceConfig.getAsyncTimeout(), hodServiceConfig.getJobPollingPolicy());
 
         deleteFromTextIndexBackend = hodServiceConfig.getRestAdapter().create(DeleteFromTextIndexBackend.class);
         jobService = new JobServiceImpl<>(hodServiceConfig, DeleteFromTextIndexBackend.DeleteFromTextIndexJobStatus.class);
@@ -67,7 +66,7 @@ public class DeleteFromTextIndexPollingService extends AbstractPollingService im
     ) throws HodErrorException {
         final JobId jobId = requester.makeRequest(JobId.class, getDeleteReferencesBackendCaller(index, references));
 
-        getExecutorService().submit(new PollingJobStatusRunnable<>(getTimeout(), jobId, callback, getExecutorService(), jobService));
+        pollJob(null, jobId, callback, jobService);
     }
 
     @Override
@@ -79,7 +78,7 @@ public class DeleteFromTextIndexPollingService extends AbstractPollingService im
     ) throws HodErrorException {
         final JobId jobId = requester.makeRequest(tokenProxy, JobId.class, getDeleteReferencesBackendCaller(index, references));
 
-        getExecutorService().submit(new PollingJobStatusRunnable<>(tokenProxy, getTimeout(), jobId, callback, getExecutorService(), jobService));
+        pollJob(tokenProxy, jobId, callback, jobService);
     }
 
     @Override
@@ -89,7 +88,7 @@ public class DeleteFromTextIndexPollingService extends AbstractPollingService im
     ) throws HodErrorException {
         final JobId jobId = requester.makeRequest(JobId.class, getDeleteAllBackendCaller(index));
 
-        getExecutorService().submit(new PollingJobStatusRunnable<>(getTimeout(), jobId, callback, getExecutorService(), jobService));
+        pollJob(null, jobId, callback, jobService);
     }
 
     @Override
@@ -100,7 +99,7 @@ public class DeleteFromTextIndexPollingService extends AbstractPollingService im
     ) throws HodErrorException {
         final JobId jobId = requester.makeRequest(JobId.class, getDeleteAllBackendCaller(index));
 
-        getExecutorService().submit(new PollingJobStatusRunnable<>(tokenProxy, getTimeout(), jobId, callback, getExecutorService(), jobService));
+        pollJob(tokenProxy, jobId, callback, jobService);
     }
 
     private Requester.BackendCaller<EntityType, TokenType.Simple> getDeleteReferencesBackendCaller(final ResourceIdentifier index, final List<String> references) {
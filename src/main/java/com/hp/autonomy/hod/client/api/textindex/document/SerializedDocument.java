@@ -0,0 +1,59 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.api.textindex.document;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A document together with its JSON, which is written as it is when the document is serialized again. This allows the
+ * size of a document to be measured without serializing it twice
+ */
+class SerializedDocument implements JsonSerializable {
+
+    private final Document document;
+    private final byte[] json;
+
+    SerializedDocument(final ObjectMapper objectMapper, final Document document) {
+        this.document = document;
+
+        try {
+            json = objectMapper.writeValueAsBytes(document);
+        } catch (final IOException e) {
+            throw new RuntimeException("Error serializing document", e);
+        }
+    }
+
+    /**
+     * @return The document which was serialized
+     */
+    Document getDocument() {
+        return document;
+    }
+
+    /**
+     * @return The size of the document's JSON, in bytes
+     */
+    int getSize() {
+        return json.length;
+    }
+
+    @Override
+    public void serialize(final JsonGenerator generator, final SerializerProvider serializers) throws IOException {
+        generator.writeRawValue(new String(json, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void serializeWithType(final JsonGenerator generator, final SerializerProvider serializers, final TypeSerializer typeSerializer) throws IOException {
+        serialize(generator, serializers);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.api.textindex.query.content;
+
+import com.hp.autonomy.hod.client.api.authentication.TokenType;
+import com.hp.autonomy.hod.client.api.resource.ResourceIdentifier;
+import com.hp.autonomy.hod.client.api.textindex.query.search.QueryResults;
+import com.hp.autonomy.hod.client.token.TokenProxy;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking variant of {@link GetContentService}. The returned futures complete exceptionally with a
+ * {@link com.hp.autonomy.hod.client.error.HodErrorException} if HP Haven OnDemand returns an error.
+ * @param <T> The type of the returned documents
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public interface AsyncGetContentService<T extends Serializable> {
+
+    /**
+     * Query HP Haven OnDemand for documents with the given references using a token proxy
+     * provided by a {@link com.hp.autonomy.hod.client.token.TokenProxyService}
+     * @param indexReference The reference list of the documents you want to retrieve
+     * @param index The index the document resides in
+     * @param params Additional parameters to be sent as part of the request
+     * @return A future which will complete with the documents with the given references
+     * @throws NullPointerException If a TokenProxyService has not been defined
+     */
+    CompletableFuture<QueryResults<T>> getContent(
+        List<String> indexReference,
+        ResourceIdentifier index,
+        GetContentRequestBuilder params
+    );
+
+    /**
+     * Query HP Haven OnDemand for documents with the given references using the given token proxy
+     * @param tokenProxy The token proxy to use
+     * @param indexReference The reference list of the documents you want to retrieve
+     * @param index The index the document resides in
+     * @param params Additional parameters to be sent as part of the request
+     * @return A future which will complete with the documents with the given references
+     */
+    CompletableFuture<QueryResults<T>> getContent(
+        TokenProxy<?, TokenType.Simple> tokenProxy,
+        List<String> indexReference,
+        ResourceIdentifier index,
+        GetContentRequestBuilder params
+    );
+
+}
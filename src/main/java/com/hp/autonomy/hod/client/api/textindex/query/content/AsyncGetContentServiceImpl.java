@@ -0,0 +1,68 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.api.textindex.query.content;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.hp.autonomy.hod.client.api.authentication.EntityType;
+import com.hp.autonomy.hod.client.api.authentication.TokenType;
+import com.hp.autonomy.hod.client.api.resource.ResourceIdentifier;
+import com.hp.autonomy.hod.client.api.textindex.query.search.Document;
+import com.hp.autonomy.hod.client.api.textindex.query.search.QueryResults;
+import com.hp.autonomy.hod.client.config.HodServiceConfig;
+import com.hp.autonomy.hod.client.config.Requester;
+import com.hp.autonomy.hod.client.token.TokenProxy;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Default implementation of {@link AsyncGetContentService}. Requests are run on the async executor configured in the
+ * {@link HodServiceConfig}.
+ * @param <T> The type of the returned documents
+ */
+@SuppressWarnings("WeakerAccess")
+public class AsyncGetContentServiceImpl<T extends Serializable> implements AsyncGetContentService<T> {
+
+    private final GetContentBackend getContentBackend;
+    private final Requester<?, TokenType.Simple> requester;
+    private final JavaType returnType;
+
+    /**
+     * Create a new AsyncGetContentServiceImpl of the desired parameterized type
+     * @param config The configuration to use
+     * @param documentType The desired document type for service methods. This type must have the correct Jackson annotations
+     * to read HP Haven OnDemand responses
+     */
+    public AsyncGetContentServiceImpl(final HodServiceConfig<?, TokenType.Simple> config, final Class<T> documentType) {
+        getContentBackend = config.getRestAdapter().create(GetContentBackend.class);
+        requester = config.getRequester();
+        returnType = config.getObjectMapper().getTypeFactory().constructParametrizedType(QueryResults.class, QueryResults.class, documentType);
+    }
+
+    /**
+     * Create a new AsyncGetContentServiceImpl of type {@link Document}
+     * @param hodServiceConfig The configuration to use
+     * @return A new {@literal AsyncGetContentService<Document>}
+     */
+    public static AsyncGetContentServiceImpl<Document> documentsService(final HodServiceConfig<?, TokenType.Simple> hodServiceConfig) {
+        return new AsyncGetContentServiceImpl<>(hodServiceConfig, Document.class);
+    }
+
+    @Override
+    public CompletableFuture<QueryResults<T>> getContent(final List<String> indexReference, final ResourceIdentifier index, final GetContentRequestBuilder params) {
+        return requester.unsafeMakeRequestAsync(returnType, getBackendCaller(indexReference, index, params));
+    }
+
+    @Override
+    public CompletableFuture<QueryResults<T>> getContent(final TokenProxy<?, TokenType.Simple> tokenProxy, final List<String> indexReference, final ResourceIdentifier index, final GetContentRequestBuilder params) {
+        return requester.unsafeMakeRequestAsync(tokenProxy, returnType, getBackendCaller(indexReference, index, params));
+    }
+
+    private Requester.BackendCaller<EntityType, TokenType.Simple> getBackendCaller(final List<String> indexReference, final ResourceIdentifier index, final GetContentRequestBuilder params) {
+        return authenticationToken -> getContentBackend.getContent(authenticationToken, indexReference, index, params.build());
+    }
+}
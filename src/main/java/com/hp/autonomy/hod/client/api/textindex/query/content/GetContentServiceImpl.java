@@ -15,9 +15,11 @@ import com.hp.autonomy.hod.client.config.HodServiceConfig;
 import com.hp.autonomy.hod.client.config.Requester;
 import com.hp.autonomy.hod.client.error.HodErrorException;
 import com.hp.autonomy.hod.client.token.TokenProxy;
+import com.hp.autonomy.hod.client.util.MultiMap;
 
 import java.io.Serializable;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Default implementation of GetContentService
@@ -55,15 +57,29 @@ public class GetContentServiceImpl<T extends Serializable> implements GetContent
     
     @Override
     public QueryResults<T> getContent(final List<String> indexReference, final ResourceIdentifier index, final GetContentRequestBuilder params) throws HodErrorException {
-        return requester.unsafeMakeRequest(returnType, getBackendCaller(indexReference, index, params));
+        final Map<String, Object> builtParams = params.build();
+        return requester.unsafeMakeIdempotentRequest(returnType, GetContentBackend.URL, getCacheParameters(indexReference, index, builtParams), getBackendCaller(indexReference, index, builtParams));
     }
 
     @Override
     public QueryResults<T> getContent(final TokenProxy<?, TokenType.Simple> tokenProxy, final List<String> indexReference, final ResourceIdentifier index, final GetContentRequestBuilder params) throws HodErrorException {
-        return requester.unsafeMakeRequest(tokenProxy, returnType, getBackendCaller(indexReference, index, params));
+        final Map<String, Object> builtParams = params.build();
+        return requester.unsafeMakeIdempotentRequest(tokenProxy, returnType, GetContentBackend.URL, getCacheParameters(indexReference, index, builtParams), getBackendCaller(indexReference, index, builtParams));
     }
 
-    private Requester.BackendCaller<EntityType, TokenType.Simple> getBackendCaller(final List<String> indexReference, final ResourceIdentifier indexes, final GetContentRequestBuilder params) {
-        return authenticationToken -> getContentBackend.getContent(authenticationToken, indexReference, indexes, params.build());
+    private Requester.BackendCaller<EntityType, TokenType.Simple> getBackendCaller(final List<String> indexReference, final ResourceIdentifier indexes, final Map<String, Object> params) {
+        return authenticationToken -> getContentBackend.getContent(authenticationToken, indexReference, indexes, params);
+    }
+
+    private Map<String, Object> getCacheParameters(final List<String> indexReference, final ResourceIdentifier indexes, final Map<String, Object> params) {
+        final Map<String, Object> allParams = new MultiMap<>();
+        allParams.putAll(params);
+        allParams.put("indexes", indexes);
+
+        for (final String reference : indexReference) {
+            allParams.put("index_reference", reference);
+        }
+
+        return allParams;
     }
 }
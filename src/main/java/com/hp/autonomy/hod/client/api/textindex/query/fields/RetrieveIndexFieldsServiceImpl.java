@@ -12,6 +12,7 @@ import com.hp.autonomy.hod.client.config.HodServiceConfig;
 import com.hp.autonomy.hod.client.config.Requester;
 import com.hp.autonomy.hod.client.error.HodErrorException;
 import com.hp.autonomy.hod.client.token.TokenProxy;
+import com.hp.autonomy.hod.client.util.MultiMap;
 
 import java.util.Collection;
 import java.util.Map;
@@ -39,29 +40,41 @@ public class RetrieveIndexFieldsServiceImpl implements RetrieveIndexFieldsServic
 
     @Override
     public RetrieveIndexFieldsResponse retrieveIndexFields(final Collection<ResourceName> indexes, final RetrieveIndexFieldsRequestBuilder params) throws HodErrorException {
-        return requester.makeRequest(RESPONSE_CLASS, getRetrieveIndexFieldsBackendCaller(indexes, params));
+        final Map<String, Object> builtParams = params.build();
+        return requester.makeIdempotentRequest(RESPONSE_CLASS, RetrieveIndexFieldsBackend.URL + RetrieveIndexFieldsBackend.COMBINE_FIELDS_TRUE, getAllParameters(indexes, builtParams), getRetrieveIndexFieldsBackendCaller(indexes, builtParams));
     }
 
     @Override
     public RetrieveIndexFieldsResponse retrieveIndexFields(final TokenProxy<?, TokenType.Simple> tokenProxy, final Collection<ResourceName> indexes, final RetrieveIndexFieldsRequestBuilder params) throws HodErrorException {
-        return requester.makeRequest(tokenProxy, RESPONSE_CLASS, getRetrieveIndexFieldsBackendCaller(indexes, params));
+        final Map<String, Object> builtParams = params.build();
+        return requester.makeIdempotentRequest(tokenProxy, RESPONSE_CLASS, RetrieveIndexFieldsBackend.URL + RetrieveIndexFieldsBackend.COMBINE_FIELDS_TRUE, getAllParameters(indexes, builtParams), getRetrieveIndexFieldsBackendCaller(indexes, builtParams));
     }
 
     @Override
     public Map<String, RetrieveIndexFieldsResponse> retrieveIndexFieldsByIndex(final Collection<ResourceName> indexes, final RetrieveIndexFieldsRequestBuilder params) throws HodErrorException {
-        return requester.makeRequest(RESPONSE_WRAPPER_CLASS, getRetrieveIndexFieldsByIndexBackendCaller(indexes, params)).getResponseMap();
+        final Map<String, Object> builtParams = params.build();
+        return requester.makeIdempotentRequest(RESPONSE_WRAPPER_CLASS, RetrieveIndexFieldsBackend.URL, getAllParameters(indexes, builtParams), getRetrieveIndexFieldsByIndexBackendCaller(indexes, builtParams)).getResponseMap();
     }
 
     @Override
     public Map<String, RetrieveIndexFieldsResponse> retrieveIndexFieldsByIndex(final TokenProxy<?, TokenType.Simple> tokenProxy, final Collection<ResourceName> indexes, final RetrieveIndexFieldsRequestBuilder params) throws HodErrorException {
-        return requester.makeRequest(tokenProxy, RESPONSE_WRAPPER_CLASS, getRetrieveIndexFieldsByIndexBackendCaller(indexes, params)).getResponseMap();
+        final Map<String, Object> builtParams = params.build();
+        return requester.makeIdempotentRequest(tokenProxy, RESPONSE_WRAPPER_CLASS, RetrieveIndexFieldsBackend.URL, getAllParameters(indexes, builtParams), getRetrieveIndexFieldsByIndexBackendCaller(indexes, builtParams)).getResponseMap();
     }
 
-    private Requester.BackendCaller<EntityType, TokenType.Simple> getRetrieveIndexFieldsBackendCaller(final Collection<ResourceName> indexes, final RetrieveIndexFieldsRequestBuilder params) {
-        return authenticationToken -> retrieveIndexFieldsBackend.retrieveIndexFields(authenticationToken, indexes, params.build());
+    private Requester.BackendCaller<EntityType, TokenType.Simple> getRetrieveIndexFieldsBackendCaller(final Collection<ResourceName> indexes, final Map<String, Object> params) {
+        return authenticationToken -> retrieveIndexFieldsBackend.retrieveIndexFields(authenticationToken, indexes, params);
     }
 
-    private Requester.BackendCaller<EntityType, TokenType.Simple> getRetrieveIndexFieldsByIndexBackendCaller(final Collection<ResourceName> indexes, final RetrieveIndexFieldsRequestBuilder params) {
-        return authenticationToken -> retrieveIndexFieldsBackend.retrieveIndexFieldsByIndex(authenticationToken, indexes, params.build());
+    private Requester.BackendCaller<EntityType, TokenType.Simple> getRetrieveIndexFieldsByIndexBackendCaller(final Collection<ResourceName> indexes, final Map<String, Object> params) {
+        return authenticationToken -> retrieveIndexFieldsBackend.retrieveIndexFieldsByIndex(authenticationToken, indexes, params);
+    }
+
+    private Map<String, Object> getAllParameters(final Collection<ResourceName> indexes, final Map<String, Object> params) {
+        final Map<String, Object> allParams = new MultiMap<>();
+        allParams.putAll(params);
+        indexes.forEach(index -> allParams.put("indexes", index));
+
+        return allParams;
     }
 }
@@ -16,10 +16,12 @@ import com.hp.autonomy.hod.client.config.HodServiceConfig;
 import com.hp.autonomy.hod.client.config.Requester;
 import com.hp.autonomy.hod.client.error.HodErrorException;
 import com.hp.autonomy.hod.client.token.TokenProxy;
+import com.hp.autonomy.hod.client.util.MultiMap;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Default implementation of GetParametricValuesService
@@ -46,7 +48,8 @@ public class GetParametricValuesServiceImpl implements GetParametricValuesServic
             final Collection<ResourceName> indexes,
             final GetParametricValuesRequestBuilder params
     ) throws HodErrorException {
-        final JsonNode response = requester.makeRequest(JsonNode.class, getBackendCaller(fieldNames, indexes, params));
+        final Map<String, Object> builtParams = params.build();
+        final JsonNode response = requester.makeIdempotentRequest(JsonNode.class, GetParametricValuesBackend.URL, getAllParameters(fieldNames, indexes, builtParams), getBackendCaller(fieldNames, indexes, builtParams));
         return parseResponse(response);
     }
 
@@ -57,7 +60,8 @@ public class GetParametricValuesServiceImpl implements GetParametricValuesServic
             final Collection<ResourceName> indexes,
             final GetParametricValuesRequestBuilder params
     ) throws HodErrorException {
-        final JsonNode response = requester.makeRequest(tokenProxy, JsonNode.class, getBackendCaller(fieldNames, indexes, params));
+        final Map<String, Object> builtParams = params.build();
+        final JsonNode response = requester.makeIdempotentRequest(tokenProxy, JsonNode.class, GetParametricValuesBackend.URL, getAllParameters(fieldNames, indexes, builtParams), getBackendCaller(fieldNames, indexes, builtParams));
         return parseResponse(response);
     }
 
@@ -93,8 +97,21 @@ public class GetParametricValuesServiceImpl implements GetParametricValuesServic
     private Requester.BackendCaller<EntityType, TokenType.Simple> getBackendCaller(
             final Collection<String> fieldNames,
             final Collection<ResourceName> indexes,
-            final GetParametricValuesRequestBuilder params
+            final Map<String, Object> params
     ) {
-        return authenticationToken -> getParametricValuesBackend.getParametricValues(authenticationToken, fieldNames, indexes, params.build());
+        return authenticationToken -> getParametricValuesBackend.getParametricValues(authenticationToken, fieldNames, indexes, params);
+    }
+
+    private Map<String, Object> getAllParameters(
+            final Collection<String> fieldNames,
+            final Collection<ResourceName> indexes,
+            final Map<String, Object> params
+    ) {
+        final Map<String, Object> allParams = new MultiMap<>();
+        allParams.putAll(params);
+        fieldNames.forEach(fieldName -> allParams.put("field_names", fieldName));
+        indexes.forEach(index -> allParams.put("indexes", index));
+
+        return allParams;
     }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.api.textindex.query.search;
+
+import com.hp.autonomy.hod.client.api.authentication.TokenType;
+import com.hp.autonomy.hod.client.token.TokenProxy;
+
+import java.io.Serializable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking variant of {@link QueryTextIndexService}. The returned futures complete exceptionally with a
+ * {@link com.hp.autonomy.hod.client.error.HodErrorException} if HP Haven OnDemand returns an error.
+ * @param <T> The type of the returned documents
+ */
+@SuppressWarnings("unused")
+public interface AsyncQueryTextIndexService<T extends Serializable> {
+
+    /**
+     * Query HP Haven OnDemand for documents matching query text using a token proxy provided by a
+     * {@link com.hp.autonomy.hod.client.token.TokenProxyService}
+     * @param text The query text
+     * @param params Additional parameters to be sent as part of the request
+     * @return A future which will complete with the documents that match the query text
+     * @throws NullPointerException If a TokenProxyService has not been defined
+     */
+    CompletableFuture<QueryResults<T>> queryTextIndexWithText(
+        String text,
+        QueryRequestBuilder params
+    );
+
+    /**
+     * Query HP Haven OnDemand for documents matching query text using the given token proxy
+     * @param tokenProxy The token proxy to use to authenticate the request
+     * @param text The query text
+     * @param params Additional parameters to be sent as part of the request
+     * @return A future which will complete with the documents that match the query text
+     */
+    CompletableFuture<QueryResults<T>> queryTextIndexWithText(
+        TokenProxy<?, TokenType.Simple> tokenProxy,
+        String text,
+        QueryRequestBuilder params
+    );
+
+    /**
+     * Query HP Haven OnDemand for documents using query text from an object store object using a token proxy
+     * provided by a {@link com.hp.autonomy.hod.client.token.TokenProxyService}
+     * @param reference An HP Haven OnDemand reference obtained from either the Expand Container or Store Object API.
+     * The contents of the object will be used as the query text
+     * @param params Additional parameters to be sent as part of the request
+     * @return A future which will complete with the documents that match the query text
+     * @throws NullPointerException If a TokenProxyService has not been defined
+     */
+    CompletableFuture<QueryResults<T>> queryTextIndexWithReference(
+        String reference,
+        QueryRequestBuilder params
+    );
+
+    /**
+     * Query HP Haven OnDemand for documents using query text from an object store object using the given token proxy
+     * @param tokenProxy The token proxy to use to authenticate the request
+     * @param reference An HP Haven OnDemand reference obtained from either the Expand Container or Store Object API.
+     * The contents of the object will be used as the query text
+     * @param params Additional parameters to be sent as part of the request
+     * @return A future which will complete with the documents that match the query text
+     */
+    CompletableFuture<QueryResults<T>> queryTextIndexWithReference(
+        TokenProxy<?, TokenType.Simple> tokenProxy,
+        String reference,
+        QueryRequestBuilder params
+    );
+
+    /**
+     * Query HP Haven OnDemand for documents using query text from a url using a token proxy
+     * provided by a {@link com.hp.autonomy.hod.client.token.TokenProxyService}
+     * @param url A publicly accessible HTTP URL from which the query text can be retrieved
+     * @param params Additional parameters to be sent as part of the request
+     * @return A future which will complete with the documents that match the query text
+     * @throws NullPointerException If a TokenProxyService has not been defined
+     */
+    CompletableFuture<QueryResults<T>> queryTextIndexWithUrl(
+        String url,
+        QueryRequestBuilder params
+    );
+
+    /**
+     * Query HP Haven OnDemand for documents using query text from a url using the given token proxy
+     * @param tokenProxy The token proxy to use to authenticate the request
+     * @param url A publicly accessible HTTP URL from which the query text can be retrieved
+     * @param params Additional parameters to be sent as part of the request
+     * @return A future which will complete with the documents that match the query text
+     */
+    CompletableFuture<QueryResults<T>> queryTextIndexWithUrl(
+        TokenProxy<?, TokenType.Simple> tokenProxy,
+        String url,
+        QueryRequestBuilder params
+    );
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.api.textindex.query.search;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.hp.autonomy.hod.client.api.authentication.AuthenticationToken;
+import com.hp.autonomy.hod.client.api.authentication.EntityType;
+import com.hp.autonomy.hod.client.api.authentication.TokenType;
+import com.hp.autonomy.hod.client.config.HodServiceConfig;
+import com.hp.autonomy.hod.client.config.Requester;
+import com.hp.autonomy.hod.client.error.HodErrorException;
+import com.hp.autonomy.hod.client.token.TokenProxy;
+import retrofit.client.Response;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Default implementation of {@link AsyncQueryTextIndexService}. Requests are run on the async executor configured in
+ * the {@link HodServiceConfig}, and use its response cache, request coalescing and hedging. A cached response completes
+ * without using the executor.
+ * @param <T> The type of the returned documents
+ */
+@SuppressWarnings("WeakerAccess")
+public class AsyncQueryTextIndexServiceImpl<T extends Serializable> implements AsyncQueryTextIndexService<T> {
+
+    private final QueryTextIndexBackend queryTextIndexBackend;
+    private final JavaType returnType;
+    private final Requester<?, TokenType.Simple> requester;
+
+    /**
+     * Creates a new AsyncQueryTextIndexServiceImpl with the given configuration and return type
+     * @param config The configuration to use
+     * @param documentType The desired type of documents returned by this service. This type must have to correct Jackson
+     * annotations to read responses from HP Haven OnDemand
+     */
+    public AsyncQueryTextIndexServiceImpl(final HodServiceConfig<?, TokenType.Simple> config, final Class<T> documentType) {
+        queryTextIndexBackend = config.getRestAdapter().create(QueryTextIndexBackend.class);
+        requester = config.getRequester();
+        returnType = config.getObjectMapper().getTypeFactory().constructParametrizedType(QueryResults.class, QueryResults.class, documentType);
+    }
+
+    /**
+     * Creates a new AsyncQueryTextIndexServiceImpl of type {@link Document}
+     * @param hodServiceConfig The configuration to use
+     * @return A new {@literal AsyncQueryTextIndexServiceImpl<Document>}
+     */
+    public static AsyncQueryTextIndexServiceImpl<Document> documentsService(final HodServiceConfig<?, TokenType.Simple> hodServiceConfig) {
+        return new AsyncQueryTextIndexServiceImpl<>(hodServiceConfig, Document.class);
+    }
+
+    @Override
+    public CompletableFuture<QueryResults<T>> queryTextIndexWithText(final String text, final QueryRequestBuilder params) {
+        return makeRequest(null, "text", text, params, queryTextIndexBackend::queryTextIndexWithText);
+    }
+
+    @Override
+    public CompletableFuture<QueryResults<T>> queryTextIndexWithText(final TokenProxy<?, TokenType.Simple> tokenProxy, final String text, final QueryRequestBuilder params) {
+        return makeRequest(tokenProxy, "text", text, params, queryTextIndexBackend::queryTextIndexWithText);
+    }
+
+    @Override
+    public CompletableFuture<QueryResults<T>> queryTextIndexWithReference(final String reference, final QueryRequestBuilder params) {
+        return makeRequest(null, "reference", reference, params, queryTextIndexBackend::queryTextIndexWithReference);
+    }
+
+    @Override
+    public CompletableFuture<QueryResults<T>> queryTextIndexWithReference(final TokenProxy<?, TokenType.Simple> tokenProxy, final String reference, final QueryRequestBuilder params) {
+        return makeRequest(tokenProxy, "reference", reference, params, queryTextIndexBackend::queryTextIndexWithReference);
+    }
+
+    @Override
+    public CompletableFuture<QueryResults<T>> queryTextIndexWithUrl(final String url, final QueryRequestBuilder params) {
+        return makeRequest(null, "url", url, params, queryTextIndexBackend::queryTextIndexWithUrl);
+    }
+
+    @Override
+    public CompletableFuture<QueryResults<T>> queryTextIndexWithUrl(final TokenProxy<?, TokenType.Simple> tokenProxy, final String url, final QueryRequestBuilder params) {
+        return makeRequest(tokenProxy, "url", url, params, queryTextIndexBackend::queryTextIndexWithUrl);
+    }
+
+    // queries by text, reference or url are idempotent, so they share the cache, coalescing and hedging of the sync service
+    private CompletableFuture<QueryResults<T>> makeRequest(
+        final TokenProxy<?, TokenType.Simple> tokenProxy,
+        final String name,
+        final String value,
+        final QueryRequestBuilder params,
+        final BackendMethod backendMethod
+    ) {
+        final Map<String, Object> builtParams = params.build();
+        final Map<String, Object> allParams = new ParametersWith(builtParams, name, value);
+        final Requester.BackendCaller<EntityType, TokenType.Simple> backendCaller = authenticationToken -> backendMethod.call(authenticationToken, value, builtParams);
+
+        if (tokenProxy == null) {
+            return requester.unsafeMakeIdempotentRequestAsync(returnType, QueryTextIndexBackend.URL, allParams, backendCaller);
+        }
+        else {
+            return requester.unsafeMakeIdempotentRequestAsync(tokenProxy, returnType, QueryTextIndexBackend.URL, allParams, backendCaller);
+        }
+    }
+
+    @FunctionalInterface
+    private interface BackendMethod {
+        Response call(AuthenticationToken<?, ?> authenticationToken, String value, Map<String, Object> params) throws HodErrorException;
+    }
+}
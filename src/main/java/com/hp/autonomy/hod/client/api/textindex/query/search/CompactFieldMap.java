@@ -0,0 +1,181 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.api.textindex.query.search;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Unmodifiable map holding the fields of a {@link Document}. Field names are held by a shared {@link FieldSchema};
+ * numeric, boolean and date values are held unboxed in a single long array, and other values in an object array.
+ * Values are boxed again when they are read. A single numeric, boolean or date value in an {@link ArrayList}, which is
+ * how HOD returns custom fields, is also held unboxed, and a new list is returned each time it is read.
+ */
+final class CompactFieldMap extends AbstractMap<String, Serializable> {
+
+    private static final long[] NO_PRIMITIVES = new long[0];
+    private static final Serializable[] NO_OBJECTS = new Serializable[0];
+
+    static final CompactFieldMap EMPTY = new CompactFieldMap(FieldSchema.EMPTY, NO_PRIMITIVES, NO_OBJECTS);
+
+    private final FieldSchema schema;
+    private final long[] primitives;
+    private final Serializable[] objects;
+
+    private CompactFieldMap(final FieldSchema schema, final long[] primitives, final Serializable[] objects) {
+        this.schema = schema;
+        this.primitives = primitives;
+        this.objects = objects;
+    }
+
+    /**
+     * @param fields The fields to copy
+     * @return A compact copy of the fields, preserving their iteration order. If no more schemas can be shared, an
+     * unmodifiable copy of the fields which does not use a schema
+     */
+    static Map<String, Serializable> copyOf(final Map<String, ? extends Serializable> fields) {
+        if (fields.isEmpty()) {
+            return EMPTY;
+        }
+
+        FieldSchema schema = FieldSchema.EMPTY;
+
+        for (final Map.Entry<String, ? extends Serializable> entry : fields.entrySet()) {
+            schema = schema.withField(entry.getKey(), FieldSchema.kindOf(entry.getValue()));
+
+            if (schema == null) {
+                return Collections.unmodifiableMap(new LinkedHashMap<>(fields));
+            }
+        }
+
+        final long[] primitives = schema.getPrimitiveCount() == 0 ? NO_PRIMITIVES : new long[schema.getPrimitiveCount()];
+        final Serializable[] objects = schema.getObjectCount() == 0 ? NO_OBJECTS : new Serializable[schema.getObjectCount()];
+
+        int index = 0;
+
+        for (final Serializable field : fields.values()) {
+            final int slot = schema.getSlot(index);
+            final byte kind = schema.getKind(index);
+            final Object value = (kind & FieldSchema.LIST) == 0 ? field : ((List<?>) field).get(0);
+
+            switch (kind & ~FieldSchema.LIST) {
+                case FieldSchema.LONG:
+                case FieldSchema.INTEGER:
+                    primitives[slot] = ((Number) value).longValue();
+                    break;
+                case FieldSchema.DOUBLE:
+                    primitives[slot] = Double.doubleToRawLongBits((Double) value);
+                    break;
+                case FieldSchema.BOOLEAN:
+                    primitives[slot] = (Boolean) value ? 1 : 0;
+                    break;
+                case FieldSchema.DATE:
+                    primitives[slot] = ((Date) value).getTime();
+                    break;
+                default:
+                    objects[slot] = field;
+            }
+
+            index++;
+        }
+
+        return new CompactFieldMap(schema, primitives, objects);
+    }
+
+    FieldSchema getSchema() {
+        return schema;
+    }
+
+    @Override
+    public int size() {
+        return schema.size();
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return schema.indexOf(key) >= 0;
+    }
+
+    @Override
+    public Serializable get(final Object key) {
+        final int index = schema.indexOf(key);
+        return index < 0 ? null : getValue(index);
+    }
+
+    @Override
+    public Set<Map.Entry<String, Serializable>> entrySet() {
+        return new AbstractSet<Map.Entry<String, Serializable>>() {
+            @Override
+            public Iterator<Map.Entry<String, Serializable>> iterator() {
+                return new Iterator<Map.Entry<String, Serializable>>() {
+                    private int index = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < schema.size();
+                    }
+
+                    @Override
+                    public Map.Entry<String, Serializable> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+
+                        final Map.Entry<String, Serializable> entry = new SimpleImmutableEntry<>(schema.getName(index), getValue(index));
+                        index++;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return schema.size();
+            }
+        };
+    }
+
+    private Serializable getValue(final int index) {
+        final byte kind = schema.getKind(index);
+
+        if ((kind & FieldSchema.LIST) == 0) {
+            return getValue(index, kind);
+        }
+
+        final ArrayList<Serializable> list = new ArrayList<>(1);
+        list.add(getValue(index, (byte) (kind & ~FieldSchema.LIST)));
+        return list;
+    }
+
+    private Serializable getValue(final int index, final byte kind) {
+        final int slot = schema.getSlot(index);
+
+        switch (kind) {
+            case FieldSchema.LONG:
+                return primitives[slot];
+            case FieldSchema.INTEGER:
+                return (int) primitives[slot];
+            case FieldSchema.DOUBLE:
+                return Double.longBitsToDouble(primitives[slot]);
+            case FieldSchema.BOOLEAN:
+                return primitives[slot] != 0;
+            case FieldSchema.DATE:
+                return new Date(primitives[slot]);
+            default:
+                return objects[slot];
+        }
+    }
+}
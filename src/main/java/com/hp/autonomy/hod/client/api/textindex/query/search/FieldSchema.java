@@ -0,0 +1,213 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.api.textindex.query.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Describes the names and storage of the fields of a {@link CompactFieldMap}. Schemas are shared between all documents
+ * with the same fields in the same order, so each field name is held once rather than once per document.
+ * <p/>
+ * Schemas form a tree rooted at {@link #EMPTY}, where each child adds one field to its parent. Documents with the same
+ * fields therefore find the same schema without allocating. The number of shared schemas is bounded; once the bound is
+ * reached, {@link #withField} returns null for fields which would need a new schema.
+ */
+final class FieldSchema {
+
+    static final byte OBJECT = 0;
+    static final byte LONG = 1;
+    static final byte INTEGER = 2;
+    static final byte DOUBLE = 3;
+    static final byte BOOLEAN = 4;
+    static final byte DATE = 5;
+
+    /**
+     * Added to the kind of a primitive value which is the only element of an {@link ArrayList}, as HOD returns custom
+     * fields as JSON arrays
+     */
+    static final byte LIST = 8;
+
+    private static final int KIND_COUNT = 16;
+    private static final int MAX_SHARED_SCHEMAS = 4096;
+    private static final int MAX_LINEAR_SEARCH = 8;
+
+    private static final AtomicInteger sharedSchemas = new AtomicInteger(0);
+
+    static final FieldSchema EMPTY = new FieldSchema(new String[0], new byte[0], new int[0], 0, 0);
+
+    private final String[] names;
+    private final byte[] kinds;
+    private final int[] slots;
+    private final int primitiveCount;
+    private final int objectCount;
+    private final Map<String, Integer> indexes;
+    // created when a child of each kind is first added, as most schemas only have children of one kind
+    private final AtomicReferenceArray<ConcurrentMap<String, FieldSchema>> transitions = new AtomicReferenceArray<>(KIND_COUNT);
+
+    private FieldSchema(final String[] names, final byte[] kinds, final int[] slots, final int primitiveCount, final int objectCount) {
+        this.names = names;
+        this.kinds = kinds;
+        this.slots = slots;
+        this.primitiveCount = primitiveCount;
+        this.objectCount = objectCount;
+
+        if (names.length > MAX_LINEAR_SEARCH) {
+            indexes = new HashMap<>();
+
+            for (int i = 0; i < names.length; i++) {
+                indexes.put(names[i], i);
+            }
+        }
+        else {
+            indexes = null;
+        }
+    }
+
+    /**
+     * @param value A field value
+     * @return The kind of storage used for the value
+     */
+    static byte kindOf(final Object value) {
+        // other list types could not be restored when the value is read
+        if (value != null && value.getClass() == ArrayList.class && ((List<?>) value).size() == 1) {
+            final Object element = ((List<?>) value).get(0);
+            final byte elementKind = element instanceof List ? OBJECT : kindOf(element);
+            return elementKind == OBJECT ? OBJECT : (byte) (elementKind | LIST);
+        }
+        else if (value instanceof Double) {
+            return DOUBLE;
+        }
+        else if (value instanceof Long) {
+            return LONG;
+        }
+        else if (value instanceof Integer) {
+            return INTEGER;
+        }
+        else if (value instanceof Boolean) {
+            return BOOLEAN;
+        }
+        // subclasses such as java.sql.Timestamp carry more than the milliseconds
+        else if (value != null && value.getClass() == Date.class) {
+            return DATE;
+        }
+        else {
+            return OBJECT;
+        }
+    }
+
+    /**
+     * @param name The name of the new field, which must not already be in this schema
+     * @param kind The kind of the new field
+     * @return A shared schema containing the fields of this schema followed by the new field, or null if there is no such
+     * schema and no more schemas can be shared
+     */
+    FieldSchema withField(final String name, final byte kind) {
+        ConcurrentMap<String, FieldSchema> children = transitions.get(kind);
+
+        if (children != null) {
+            final FieldSchema child = children.get(name);
+
+            if (child != null) {
+                return child;
+            }
+        }
+
+        if (sharedSchemas.get() >= MAX_SHARED_SCHEMAS) {
+            return null;
+        }
+
+        if (children == null) {
+            transitions.compareAndSet(kind, null, new ConcurrentHashMap<>(1));
+            children = transitions.get(kind);
+        }
+
+        final FieldSchema newChild = createChild(name, kind);
+        final FieldSchema existingChild = children.putIfAbsent(name, newChild);
+
+        if (existingChild != null) {
+            return existingChild;
+        }
+
+        sharedSchemas.incrementAndGet();
+        return newChild;
+    }
+
+    int size() {
+        return names.length;
+    }
+
+    String getName(final int index) {
+        return names[index];
+    }
+
+    byte getKind(final int index) {
+        return kinds[index];
+    }
+
+    /**
+     * @param index The index of a field
+     * @return The index of the field's value in either the primitive or the object values
+     */
+    int getSlot(final int index) {
+        return slots[index];
+    }
+
+    int getPrimitiveCount() {
+        return primitiveCount;
+    }
+
+    int getObjectCount() {
+        return objectCount;
+    }
+
+    /**
+     * @param name A field name
+     * @return The index of the field, or -1 if it is not in this schema
+     */
+    int indexOf(final Object name) {
+        if (indexes != null) {
+            final Integer index = indexes.get(name);
+            return index == null ? -1 : index;
+        }
+
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private FieldSchema createChild(final String name, final byte kind) {
+        final int size = names.length;
+
+        final String[] childNames = Arrays.copyOf(names, size + 1);
+        final byte[] childKinds = Arrays.copyOf(kinds, size + 1);
+        final int[] childSlots = Arrays.copyOf(slots, size + 1);
+
+        childNames[size] = name;
+        childKinds[size] = kind;
+
+        if (kind == OBJECT) {
+            childSlots[size] = objectCount;
+            return new FieldSchema(childNames, childKinds, childSlots, primitiveCount, objectCount + 1);
+        }
+        else {
+            childSlots[size] = primitiveCount;
+            return new FieldSchema(childNames, childKinds, childSlots, primitiveCount + 1, objectCount);
+        }
+    }
+}
@@ -13,12 +13,11 @@ import com.hp.autonomy.hod.client.config.Requester;
 import com.hp.autonomy.hod.client.error.HodErrorException;
 import com.hp.autonomy.hod.client.token.TokenProxy;
 import com.hp.autonomy.hod.client.util.TypedByteArrayWithFilename;
-import org.apache.commons.io.IOUtils;
+import com.hp.autonomy.hod.client.util.TypedInputStream;
 import retrofit.client.Response;
 import retrofit.mime.TypedFile;
 
 import java.io.File;
-import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
 
@@ -123,12 +122,6 @@ public class FindRelatedConceptsServiceImpl implements FindRelatedConceptsServic
     }
 
     private Requester.BackendCaller<EntityType, TokenType.Simple> getInputStreamBackendCaller(final InputStream inputStream, final FindRelatedConceptsRequestBuilder params) {
-        return authenticationToken -> {
-            try {
-                return findRelatedConceptsBackend.findRelatedConceptsWithFile(authenticationToken, new TypedByteArrayWithFilename(MIME_TYPE, IOUtils.toByteArray(inputStream)), params.build());
-            } catch (final IOException e) {
-                throw new RuntimeException(e);
-            }
-        };
+        return authenticationToken -> findRelatedConceptsBackend.findRelatedConceptsWithFile(authenticationToken, new TypedInputStream(MIME_TYPE, inputStream), params.build());
     }
 }
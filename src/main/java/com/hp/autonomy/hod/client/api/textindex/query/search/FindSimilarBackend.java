@@ -42,6 +42,20 @@ interface FindSimilarBackend {
         @QueryMap Map<String, Object> params
     ) throws HodErrorException;
 
+    /**
+     * Finds similar documents to the given text using the given token
+     * @param token The token to use to authenticate the request
+     * @param text The query text
+     * @param params Additional parameters to be sent as part of the request, whose values are already URL encoded
+     * @return A list of documents that are similar to the query text
+     */
+    @GET(URL)
+    Response findSimilarDocumentsToTextEncoded(
+        @Header("token") AuthenticationToken<?, ?> token,
+        @Query("text") String text,
+        @QueryMap(encodeValues = false) Map<String, Object> params
+    ) throws HodErrorException;
+
     /**
      * Finds similar documents to the text from an object store object using the given token
      * @param token The token to use to authenticate the request
@@ -57,6 +71,21 @@ interface FindSimilarBackend {
         @QueryMap Map<String, Object> params
     ) throws HodErrorException;
 
+    /**
+     * Finds similar documents to the text from an object store object using the given token
+     * @param token The token to use to authenticate the request
+     * @param reference An HP Haven OnDemand reference obtained from either the Expand Container or Store Object API.
+     * The contents of the object will be used as the query text
+     * @param params Additional parameters to be sent as part of the request, whose values are already URL encoded
+     * @return A list of documents that are similar to the query text
+     */
+    @GET(URL)
+    Response findSimilarDocumentsToReferenceEncoded(
+        @Header("token") AuthenticationToken<?, ?> token,
+        @Query("reference") String reference,
+        @QueryMap(encodeValues = false) Map<String, Object> params
+    ) throws HodErrorException;
+
     /**
      * Finds similar documents to the text from a url using the given token
      * @param token The token to use to authenticate the request
@@ -71,6 +100,20 @@ interface FindSimilarBackend {
         @QueryMap Map<String, Object> params
     ) throws HodErrorException;
 
+    /**
+     * Finds similar documents to the text from a url using the given token
+     * @param token The token to use to authenticate the request
+     * @param url A publicly accessible HTTP URL from which the query text can be retrieved
+     * @param params Additional parameters to be sent as part of the request, whose values are already URL encoded
+     * @return A list of documents that are similar to the query text
+     */
+    @GET(URL)
+    Response findSimilarDocumentsToUrlEncoded(
+        @Header("token") AuthenticationToken<?, ?> token,
+        @Query("url") String url,
+        @QueryMap(encodeValues = false) Map<String, Object> params
+    ) throws HodErrorException;
+
     /**
      * Finds similar documents to the text from a url using the given token
      * @param token The token to use to authenticate the request
@@ -85,6 +128,20 @@ interface FindSimilarBackend {
         @QueryMap Map<String, Object> params
     ) throws HodErrorException;
 
+    /**
+     * Finds similar documents to the text from a url using the given token
+     * @param token The token to use to authenticate the request
+     * @param indexReference The reference of a document in HP Haven OnDemand
+     * @param params Additional parameters to be sent as part of the request, whose values are already URL encoded
+     * @return A list of documents that are similar to the query text
+     */
+    @GET(URL)
+    Response findSimilarDocumentsToIndexReferenceEncoded(
+        @Header("token") AuthenticationToken<?, ?> token,
+        @Query("index_reference") String indexReference,
+        @QueryMap(encodeValues = false) Map<String, Object> params
+    ) throws HodErrorException;
+
     /**
      * Finds similar documents to the text in a file using the given token
      * @param token The token to use to authenticate the request
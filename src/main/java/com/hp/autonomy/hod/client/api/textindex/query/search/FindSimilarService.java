@@ -232,4 +232,126 @@ public interface FindSimilarService<T extends Serializable> {
         QueryRequestBuilder params
     ) throws HodErrorException;
 
+    /**
+     * Finds similar documents to the given text using a token proxy provided by a
+     * {@link com.hp.autonomy.hod.client.token.TokenProxyService}
+     * @param text The query text
+     * @param template Precompiled parameters to be sent as part of the request
+     * @return A list of documents that are similar to the query text
+     * @throws NullPointerException If a TokenProxyService has not been defined
+     * @throws com.hp.autonomy.hod.client.api.authentication.HodAuthenticationFailedException If the token associated
+     * with the token proxy has expired
+     */
+    QueryResults<T> findSimilarDocumentsToText(
+        String text,
+        QueryTemplate template
+    ) throws HodErrorException;
+
+    /**
+     * Finds similar documents to the given text using the given token proxy
+     * @param tokenProxy The token proxy to use to authenticate the request
+     * @param text The query text
+     * @param template Precompiled parameters to be sent as part of the request
+     * @return A list of documents that are similar to the query text
+     * @throws com.hp.autonomy.hod.client.api.authentication.HodAuthenticationFailedException If the token associated
+     * with the token proxy has expired
+     */
+    QueryResults<T> findSimilarDocumentsToText(
+        TokenProxy<?, TokenType.Simple> tokenProxy,
+        String text,
+        QueryTemplate template
+    ) throws HodErrorException;
+
+    /**
+     * Finds similar documents to the text from an object store object using a token proxy provided by a
+     * {@link com.hp.autonomy.hod.client.token.TokenProxyService}
+     * @param reference An HP Haven OnDemand reference obtained from either the Expand Container or Store Object API.
+     * The contents of the object will be used as the query text
+     * @param template Precompiled parameters to be sent as part of the request
+     * @return A list of documents that are similar to the query text
+     * @throws NullPointerException If a TokenProxyService has not been defined
+     * @throws com.hp.autonomy.hod.client.api.authentication.HodAuthenticationFailedException If the token associated
+     * with the token proxy has expired
+     */
+    QueryResults<T> findSimilarDocumentsToReference(
+        String reference,
+        QueryTemplate template
+    ) throws HodErrorException;
+
+    /**
+     * Finds similar documents to the text from an object store object using the given token proxy
+     * @param tokenProxy The token proxy to use to authenticate the request
+     * @param reference An HP Haven OnDemand reference obtained from either the Expand Container or Store Object API.
+     * The contents of the object will be used as the query text
+     * @param template Precompiled parameters to be sent as part of the request
+     * @return A list of documents that are similar to the query text
+     * @throws com.hp.autonomy.hod.client.api.authentication.HodAuthenticationFailedException If the token associated
+     * with the token proxy has expired
+     */
+    QueryResults<T> findSimilarDocumentsToReference(
+        TokenProxy<?, TokenType.Simple> tokenProxy,
+        String reference,
+        QueryTemplate template
+    ) throws HodErrorException;
+
+    /**
+     * Finds similar documents to the text from a url using a token proxy provided by a
+     * {@link com.hp.autonomy.hod.client.token.TokenProxyService}
+     * @param url A publicly accessible HTTP URL from which the query text can be retrieved
+     * @param template Precompiled parameters to be sent as part of the request
+     * @return A list of documents that are similar to the query text
+     * @throws NullPointerException If a TokenProxyService has not been defined
+     * @throws com.hp.autonomy.hod.client.api.authentication.HodAuthenticationFailedException If the token associated
+     * with the token proxy has expired
+     */
+    QueryResults<T> findSimilarDocumentsToUrl(
+        String url,
+        QueryTemplate template
+    ) throws HodErrorException;
+
+    /**
+     * Finds similar documents to the text from a url using the given token proxy
+     * @param tokenProxy The token proxy to use to authenticate the request
+     * @param url A publicly accessible HTTP URL from which the query text can be retrieved
+     * @param template Precompiled parameters to be sent as part of the request
+     * @return A list of documents that are similar to the query text
+     * @throws com.hp.autonomy.hod.client.api.authentication.HodAuthenticationFailedException If the token associated
+     * with the token proxy has expired
+     */
+    QueryResults<T> findSimilarDocumentsToUrl(
+        TokenProxy<?, TokenType.Simple> tokenProxy,
+        String url,
+        QueryTemplate template
+    ) throws HodErrorException;
+
+    /**
+     * Finds similar documents to the text from a document in HP Haven OnDemand using a token proxy provided by a
+     * {@link com.hp.autonomy.hod.client.token.TokenProxyService}
+     * @param indexReference The reference of a document in HP Haven OnDemand
+     * @param template Precompiled parameters to be sent as part of the request
+     * @return A list of documents that are similar to the query text
+     * @throws NullPointerException If a TokenProxyService has not been defined
+     * @throws com.hp.autonomy.hod.client.api.authentication.HodAuthenticationFailedException If the token associated
+     * with the token proxy has expired
+     */
+    QueryResults<T> findSimilarDocumentsToIndexReference(
+        String indexReference,
+        QueryTemplate template
+    ) throws HodErrorException;
+
+    /**
+     * Finds similar documents to the text from a document in HP Haven OnDemand using the given token proxy
+     * @param tokenProxy The token proxy to use to authenticate the request
+     * @param indexReference The reference of a document in HP Haven OnDemand
+     * @param template Precompiled parameters to be sent as part of the request
+     * @return A list of documents that are similar to the query text
+     * @throws com.hp.autonomy.hod.client.api.authentication.HodAuthenticationFailedException If the token associated
+     * with the token proxy has expired
+     */
+    QueryResults<T> findSimilarDocumentsToIndexReference(
+        TokenProxy<?, TokenType.Simple> tokenProxy,
+        String indexReference,
+        QueryTemplate template
+    ) throws HodErrorException;
+
 }
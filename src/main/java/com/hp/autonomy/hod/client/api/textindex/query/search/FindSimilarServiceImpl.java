@@ -14,14 +14,14 @@ import com.hp.autonomy.hod.client.config.Requester;
 import com.hp.autonomy.hod.client.error.HodErrorException;
 import com.hp.autonomy.hod.client.token.TokenProxy;
 import com.hp.autonomy.hod.client.util.TypedByteArrayWithFilename;
-import org.apache.commons.io.IOUtils;
+import com.hp.autonomy.hod.client.util.TypedInputStream;
 import retrofit.client.Response;
 import retrofit.mime.TypedFile;
 
 import java.io.File;
-import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
+import java.util.Map;
 
 /**
  * Default implementation of FindSimilarService
@@ -61,42 +61,42 @@ public class FindSimilarServiceImpl<T extends Serializable> implements FindSimil
 
     @Override
     public QueryResults<T> findSimilarDocumentsToText(final String text, final QueryRequestBuilder params) throws HodErrorException {
-        return requester.unsafeMakeRequest(returnType, getTextBackendCaller(text, params));
+        return requester.unsafeMakeRequest(returnType, getTextBackendCaller(text, params.build()));
     }
 
     @Override
     public QueryResults<T> findSimilarDocumentsToText(final TokenProxy<?, TokenType.Simple> tokenProxy, final String text, final QueryRequestBuilder params) throws HodErrorException {
-        return requester.unsafeMakeRequest(tokenProxy, returnType, getTextBackendCaller(text, params));
+        return requester.unsafeMakeRequest(tokenProxy, returnType, getTextBackendCaller(text, params.build()));
     }
 
     @Override
     public QueryResults<T> findSimilarDocumentsToReference(final String reference, final QueryRequestBuilder params) throws HodErrorException {
-        return requester.unsafeMakeRequest(returnType, getReferenceBackendCaller(reference, params));
+        return requester.unsafeMakeRequest(returnType, getReferenceBackendCaller(reference, params.build()));
     }
 
     @Override
     public QueryResults<T> findSimilarDocumentsToReference(final TokenProxy<?, TokenType.Simple> tokenProxy, final String reference, final QueryRequestBuilder params) throws HodErrorException {
-        return requester.unsafeMakeRequest(tokenProxy, returnType, getReferenceBackendCaller(reference, params));
+        return requester.unsafeMakeRequest(tokenProxy, returnType, getReferenceBackendCaller(reference, params.build()));
     }
 
     @Override
     public QueryResults<T> findSimilarDocumentsToUrl(final String url, final QueryRequestBuilder params) throws HodErrorException {
-        return requester.unsafeMakeRequest(returnType, getUrlBackendCaller(url, params));
+        return requester.unsafeMakeRequest(returnType, getUrlBackendCaller(url, params.build()));
     }
 
     @Override
     public QueryResults<T> findSimilarDocumentsToUrl(final TokenProxy<?, TokenType.Simple> tokenProxy, final String url, final QueryRequestBuilder params) throws HodErrorException {
-        return requester.unsafeMakeRequest(tokenProxy, returnType, getUrlBackendCaller(url, params));
+        return requester.unsafeMakeRequest(tokenProxy, returnType, getUrlBackendCaller(url, params.build()));
     }
 
     @Override
     public QueryResults<T> findSimilarDocumentsToIndexReference(final String indexReference, final QueryRequestBuilder params) throws HodErrorException {
-        return requester.unsafeMakeRequest(returnType, getIndexReferenceBackendCaller(indexReference, params));
+        return requester.unsafeMakeRequest(returnType, getIndexReferenceBackendCaller(indexReference, params.build()));
     }
 
     @Override
     public QueryResults<T> findSimilarDocumentsToIndexReference(final TokenProxy<?, TokenType.Simple> tokenProxy, final String indexReference, final QueryRequestBuilder params) throws HodErrorException {
-        return requester.unsafeMakeRequest(tokenProxy, returnType, getIndexReferenceBackendCaller(indexReference, params));
+        return requester.unsafeMakeRequest(tokenProxy, returnType, getIndexReferenceBackendCaller(indexReference, params.build()));
     }
 
     @Override
@@ -129,20 +129,77 @@ public class FindSimilarServiceImpl<T extends Serializable> implements FindSimil
         return requester.unsafeMakeRequest(tokenProxy, returnType, getInputStreamBackendCaller(inputStream, params));
     }
 
-    private Requester.BackendCaller<EntityType, TokenType.Simple> getTextBackendCaller(final String text, final QueryRequestBuilder params) {
-        return authenticationToken -> findSimilarBackend.findSimilarDocumentsToText(authenticationToken, text, params.build());
+    @Override
+    public QueryResults<T> findSimilarDocumentsToText(final String text, final QueryTemplate template) throws HodErrorException {
+        return requester.unsafeMakeRequest(returnType, getTextBackendCaller(text, template));
+    }
+
+    @Override
+    public QueryResults<T> findSimilarDocumentsToText(final TokenProxy<?, TokenType.Simple> tokenProxy, final String text, final QueryTemplate template) throws HodErrorException {
+        return requester.unsafeMakeRequest(tokenProxy, returnType, getTextBackendCaller(text, template));
+    }
+
+    @Override
+    public QueryResults<T> findSimilarDocumentsToReference(final String reference, final QueryTemplate template) throws HodErrorException {
+        return requester.unsafeMakeRequest(returnType, getReferenceBackendCaller(reference, template));
+    }
+
+    @Override
+    public QueryResults<T> findSimilarDocumentsToReference(final TokenProxy<?, TokenType.Simple> tokenProxy, final String reference, final QueryTemplate template) throws HodErrorException {
+        return requester.unsafeMakeRequest(tokenProxy, returnType, getReferenceBackendCaller(reference, template));
+    }
+
+    @Override
+    public QueryResults<T> findSimilarDocumentsToUrl(final String url, final QueryTemplate template) throws HodErrorException {
+        return requester.unsafeMakeRequest(returnType, getUrlBackendCaller(url, template));
+    }
+
+    @Override
+    public QueryResults<T> findSimilarDocumentsToUrl(final TokenProxy<?, TokenType.Simple> tokenProxy, final String url, final QueryTemplate template) throws HodErrorException {
+        return requester.unsafeMakeRequest(tokenProxy, returnType, getUrlBackendCaller(url, template));
+    }
+
+    @Override
+    public QueryResults<T> findSimilarDocumentsToIndexReference(final String indexReference, final QueryTemplate template) throws HodErrorException {
+        return requester.unsafeMakeRequest(returnType, getIndexReferenceBackendCaller(indexReference, template));
+    }
+
+    @Override
+    public QueryResults<T> findSimilarDocumentsToIndexReference(final TokenProxy<?, TokenType.Simple> tokenProxy, final String indexReference, final QueryTemplate template) throws HodErrorException {
+        return requester.unsafeMakeRequest(tokenProxy, returnType, getIndexReferenceBackendCaller(indexReference, template));
+    }
+
+    private Requester.BackendCaller<EntityType, TokenType.Simple> getTextBackendCaller(final String text, final Map<String, Object> params) {
+        return authenticationToken -> findSimilarBackend.findSimilarDocumentsToText(authenticationToken, text, params);
+    }
+
+    // the template's values are already encoded
+    private Requester.BackendCaller<EntityType, TokenType.Simple> getTextBackendCaller(final String text, final QueryTemplate template) {
+        return authenticationToken -> findSimilarBackend.findSimilarDocumentsToTextEncoded(authenticationToken, text, template.getEncodedParameters());
+    }
+
+    private Requester.BackendCaller<EntityType, TokenType.Simple> getReferenceBackendCaller(final String reference, final Map<String, Object> params) {
+        return authenticationToken -> findSimilarBackend.findSimilarDocumentsToReference(authenticationToken, reference, params);
+    }
+
+    private Requester.BackendCaller<EntityType, TokenType.Simple> getReferenceBackendCaller(final String reference, final QueryTemplate template) {
+        return authenticationToken -> findSimilarBackend.findSimilarDocumentsToReferenceEncoded(authenticationToken, reference, template.getEncodedParameters());
+    }
+
+    private Requester.BackendCaller<EntityType, TokenType.Simple> getUrlBackendCaller(final String url, final Map<String, Object> params) {
+        return authenticationToken -> findSimilarBackend.findSimilarDocumentsToUrl(authenticationToken, url, params);
     }
 
-    private Requester.BackendCaller<EntityType, TokenType.Simple> getReferenceBackendCaller(final String reference, final QueryRequestBuilder params) {
-        return authenticationToken -> findSimilarBackend.findSimilarDocumentsToReference(authenticationToken, reference, params.build());
+    private Requester.BackendCaller<EntityType, TokenType.Simple> getUrlBackendCaller(final String url, final QueryTemplate template) {
+        return authenticationToken -> findSimilarBackend.findSimilarDocumentsToUrlEncoded(authenticationToken, url, template.getEncodedParameters());
     }
 
-    private Requester.BackendCaller<EntityType, TokenType.Simple> getUrlBackendCaller(final String url, final QueryRequestBuilder params) {
-        return authenticationToken -> findSimilarBackend.findSimilarDocumentsToUrl(authenticationToken, url, params.build());
+    private Requester.BackendCaller<EntityType, TokenType.Simple> getIndexReferenceBackendCaller(final String indexReference, final Map<String, Object> params) {
+        return authenticationToken -> findSimilarBackend.findSimilarDocumentsToIndexReference(authenticationToken, indexReference, params);
     }
 
-    private Requester.BackendCaller<EntityType, TokenType.Simple> getIndexReferenceBackendCaller(final String indexReference, final QueryRequestBuilder params) {
-        return authenticationToken -> findSimilarBackend.findSimilarDocumentsToIndexReference(authenticationToken, indexReference, params.build());
+    private Requester.BackendCaller<EntityType, TokenType.Simple> getIndexReferenceBackendCaller(final String indexReference, final QueryTemplate template) {
+        return authenticationToken -> findSimilarBackend.findSimilarDocumentsToIndexReferenceEncoded(authenticationToken, indexReference, template.getEncodedParameters());
     }
 
     private Requester.BackendCaller<EntityType, TokenType.Simple> getFileBackendCaller(final File file, final QueryRequestBuilder params) {
@@ -154,12 +211,6 @@ public class FindSimilarServiceImpl<T extends Serializable> implements FindSimil
     }
 
     private Requester.BackendCaller<EntityType, TokenType.Simple> getInputStreamBackendCaller(final InputStream inputStream, final QueryRequestBuilder params) {
-        return authenticationToken -> {
-            try {
-                return findSimilarBackend.findSimilarDocumentsToFile(authenticationToken, new TypedByteArrayWithFilename(MIME_TYPE, IOUtils.toByteArray(inputStream)), params.build());
-            } catch (final IOException e) {
-                throw new RuntimeException(e);
-            }
-        };
+        return authenticationToken -> findSimilarBackend.findSimilarDocumentsToFile(authenticationToken, new TypedInputStream(MIME_TYPE, inputStream), params.build());
     }
 }
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.api.textindex.query.search;
+
+import com.hp.autonomy.hod.client.error.HodErrorException;
+import com.hp.autonomy.hod.client.error.UncheckedHodErrorException;
+import com.hp.autonomy.hod.client.util.MultiMap;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterator over every result of a query, which requests one page at a time using the start and max_page_results
+ * parameters. The next page is requested in the background while the current page is consumed, so at most two pages
+ * are held in memory.
+ * <p/>
+ * The start, max_page_results and absolute_max_results parameters of the original request give the first result, the
+ * page size and the last result respectively.
+ * @param <T> The type of the returned documents
+ */
+class PagingQueryIterator<T extends Serializable> implements Iterator<T> {
+
+    static final int DEFAULT_PAGE_SIZE = 100;
+
+    private static final String START = "start";
+    private static final String MAX_PAGE_RESULTS = "max_page_results";
+    private static final String ABSOLUTE_MAX_RESULTS = "absolute_max_results";
+
+    private final PageRequester<T> pageRequester;
+    private final Executor executor;
+    private final Map<String, Object> baseParams;
+    private final int pageSize;
+
+    private int lastResult;
+    private int nextStart;
+
+    private Iterator<T> currentPage = Collections.emptyIterator();
+    private FutureTask<QueryResults<T>> nextPage;
+    private int nextPageSize;
+    private boolean started = false;
+
+    PagingQueryIterator(final QueryRequestBuilder params, final Executor executor, final PageRequester<T> pageRequester) {
+        this.pageRequester = pageRequester;
+        this.executor = executor;
+
+        nextStart = params.getStart() != null ? params.getStart() : 1;
+        pageSize = params.getMaxPageResults() != null ? params.getMaxPageResults() : DEFAULT_PAGE_SIZE;
+        lastResult = params.getAbsoluteMaxResults() != null ? params.getAbsoluteMaxResults() : Integer.MAX_VALUE;
+
+        // a page size of zero would never advance the start
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("max_page_results must be positive");
+        }
+
+        if (nextStart > lastResult) {
+            throw new IllegalArgumentException("start must not be greater than absolute_max_results");
+        }
+
+        baseParams = params.build();
+        baseParams.remove(START);
+        baseParams.remove(MAX_PAGE_RESULTS);
+        baseParams.remove(ABSOLUTE_MAX_RESULTS);
+    }
+
+    /**
+     * @return A sequential stream over the remaining results. Closing the stream cancels any page being prefetched
+     */
+    Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(this::close);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!started) {
+            started = true;
+            requestNextPage();
+        }
+
+        while (!currentPage.hasNext()) {
+            if (nextPage == null) {
+                return false;
+            }
+
+            final QueryResults<T> page = awaitPage(nextPage);
+            final int requestedSize = nextPageSize;
+            nextPage = null;
+
+            if (page.getTotalResults() != null) {
+                lastResult = Math.min(lastResult, page.getTotalResults());
+            }
+
+            // a short page means there are no more results
+            if (page.getDocuments().size() >= requestedSize) {
+                requestNextPage();
+            }
+
+            currentPage = page.getDocuments().iterator();
+        }
+
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        return currentPage.next();
+    }
+
+    /**
+     * Cancels the request for the next page. If the request is running it is interrupted, which cancels its HTTP call
+     * if the transport supports it
+     */
+    void close() {
+        if (nextPage != null) {
+            nextPage.cancel(true);
+            nextPage = null;
+        }
+    }
+
+    private void requestNextPage() {
+        if (nextStart > lastResult) {
+            return;
+        }
+
+        final int start = nextStart;
+        nextPageSize = (int) Math.min(pageSize, (long) lastResult - start + 1);
+        nextStart = start + nextPageSize;
+
+        final Map<String, Object> pageParams = new MultiMap<>();
+        pageParams.putAll(baseParams);
+        pageParams.put(START, start);
+        pageParams.put(MAX_PAGE_RESULTS, nextPageSize);
+        pageParams.put(ABSOLUTE_MAX_RESULTS, start + nextPageSize - 1);
+
+        final FutureTask<QueryResults<T>> task = new FutureTask<>(() -> pageRequester.getPage(pageParams));
+        executor.execute(task);
+
+        nextPage = task;
+    }
+
+    private QueryResults<T> awaitPage(final FutureTask<QueryResults<T>> page) {
+        try {
+            return page.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the next page", e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+
+            if (cause instanceof HodErrorException) {
+                throw new UncheckedHodErrorException((HodErrorException) cause);
+            }
+            else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            else {
+                throw new IllegalStateException(cause);
+            }
+        }
+    }
+
+    /**
+     * Requests a single page of results
+     * @param <T> The type of the returned documents
+     */
+    @FunctionalInterface
+    interface PageRequester<T extends Serializable> {
+
+        /**
+         * @param params The query parameters for the page, including the paging parameters. get is NOT supported on
+         * this map
+         * @return The page of results
+         * @throws HodErrorException If HP Haven OnDemand returns an error
+         */
+        QueryResults<T> getPage(Map<String, Object> params) throws HodErrorException;
+    }
+}
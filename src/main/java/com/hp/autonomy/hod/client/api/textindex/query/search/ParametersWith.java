@@ -0,0 +1,66 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.api.textindex.query.search;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A read only view of query parameters followed by one additional parameter, used to identify a request without copying
+ * its parameters
+ */
+class ParametersWith extends AbstractMap<String, Object> {
+
+    private final Map<String, Object> parameters;
+    private final Map.Entry<String, Object> extra;
+
+    ParametersWith(final Map<String, Object> parameters, final String name, final String value) {
+        this.parameters = parameters;
+        extra = new AbstractMap.SimpleImmutableEntry<>(name, value);
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        return new AbstractSet<Map.Entry<String, Object>>() {
+            @Override
+            public Iterator<Map.Entry<String, Object>> iterator() {
+                final Iterator<Map.Entry<String, Object>> iterator = parameters.entrySet().iterator();
+
+                return new Iterator<Map.Entry<String, Object>>() {
+                    private boolean extraReturned;
+
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext() || !extraReturned;
+                    }
+
+                    @Override
+                    public Map.Entry<String, Object> next() {
+                        if (iterator.hasNext()) {
+                            return iterator.next();
+                        }
+
+                        if (extraReturned) {
+                            throw new NoSuchElementException();
+                        }
+
+                        extraReturned = true;
+                        return extra;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return parameters.size() + 1;
+            }
+        };
+    }
+}
@@ -166,6 +166,14 @@ public class QueryRequestBuilder {
         return this;
     }
 
+    /**
+     * @return An immutable template containing the current parameters, which can be used for many requests without
+     * building the parameters again. Later changes to this builder do not affect the template
+     */
+    public QueryTemplate compile() {
+        return QueryTemplate.compile(build());
+    }
+
     /**
      * @return A map of query parameters suitable for use with {@link QueryTextIndexBackend}. get is NOT supported on
      * the resulting map
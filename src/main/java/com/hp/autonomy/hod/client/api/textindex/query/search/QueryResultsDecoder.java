@@ -0,0 +1,423 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.api.textindex.query.search;
+
+import com.hp.autonomy.hod.client.warning.HodWarning;
+import com.hp.autonomy.types.requests.Spelling;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.DOCUMENT_CONTENT;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.DOCUMENT_FIELD;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.DOCUMENT_INDEX;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.DOCUMENT_LINKS;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.DOCUMENT_PROMOTION;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.DOCUMENT_REFERENCE;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.DOCUMENT_SECTION;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.DOCUMENT_SUMMARY;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.DOCUMENT_TITLE;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.DOCUMENT_WEIGHT;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.END;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.ENTITY_CLUSTER;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.ENTITY_DOCS_WITH_ALL_TERMS;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.ENTITY_DOCS_WITH_PHRASE;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.ENTITY_OCCURRENCES;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.ENTITY_TEXT;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.MAGIC_0;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.MAGIC_1;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.RESULTS_AUTO_CORRECTION;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.RESULTS_DOCUMENTS;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.RESULTS_EXPANDED_QUERY;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.RESULTS_SUGGESTION;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.RESULTS_TOTAL_RESULTS;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.RESULTS_WARNINGS;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.STRING_NEW;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.STRING_NULL;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.STRING_REFERENCE_OFFSET;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.VALUE_DATE;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.VALUE_DOUBLE;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.VALUE_FALSE;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.VALUE_INTEGER;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.VALUE_LIST;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.VALUE_LONG;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.VALUE_MAP;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.VALUE_NULL;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.VALUE_SERIALIZED;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.VALUE_STRING;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.VALUE_TRUE;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.VERSION;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.WARNING_CODE;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.WARNING_DETAILS;
+
+/**
+ * Reads query results, documents, entities and warnings written by a {@link QueryResultsEncoder}. Objects must be read
+ * in the order they were written. This class is not thread safe
+ */
+public class QueryResultsDecoder {
+
+    private final InputStream inputStream;
+    private final List<String> strings = new ArrayList<>();
+    private byte[] buffer = new byte[256];
+
+    /**
+     * Creates a new QueryResultsDecoder, reading the header from the input stream
+     * @param inputStream The stream to read from. Callers should provide a buffered stream
+     * @throws IOException If the header cannot be read, or was not written by a compatible encoder
+     */
+    public QueryResultsDecoder(final InputStream inputStream) throws IOException {
+        this.inputStream = inputStream;
+
+        if (readByte() != MAGIC_0 || readByte() != MAGIC_1) {
+            throw new StreamCorruptedException("Not an encoded query result");
+        }
+
+        final int version = readByte();
+
+        if (version != VERSION) {
+            throw new StreamCorruptedException("Unsupported version " + version);
+        }
+    }
+
+    /**
+     * @param bytes Query results encoded by {@link QueryResultsEncoder#encode(QueryResults)}
+     * @return The decoded query results
+     * @throws IOException If the bytes are not valid encoded query results
+     */
+    public static QueryResults<Document> decode(final byte[] bytes) throws IOException {
+        return new QueryResultsDecoder(new ByteArrayInputStream(bytes)).readQueryResults();
+    }
+
+    public QueryResults<Document> readQueryResults() throws IOException {
+        List<Document> documents = Collections.emptyList();
+        Integer totalResults = null;
+        String expandedQuery = null;
+        Spelling suggestion = null;
+        Spelling autoCorrection = null;
+        List<HodWarning> warnings = null;
+
+        for (int tag = readVarint(); tag != END; tag = readVarint()) {
+            switch (tag) {
+                case RESULTS_DOCUMENTS:
+                    final int documentCount = readVarint();
+                    documents = new ArrayList<>(documentCount);
+
+                    for (int i = 0; i < documentCount; i++) {
+                        documents.add(readDocument());
+                    }
+
+                    break;
+                case RESULTS_TOTAL_RESULTS:
+                    totalResults = (int) readSignedVarint();
+                    break;
+                case RESULTS_EXPANDED_QUERY:
+                    expandedQuery = readString();
+                    break;
+                case RESULTS_SUGGESTION:
+                    suggestion = readSpelling();
+                    break;
+                case RESULTS_AUTO_CORRECTION:
+                    autoCorrection = readSpelling();
+                    break;
+                case RESULTS_WARNINGS:
+                    final int warningCount = readVarint();
+                    warnings = new ArrayList<>(warningCount);
+
+                    for (int i = 0; i < warningCount; i++) {
+                        warnings.add(readHodWarning());
+                    }
+
+                    break;
+                default:
+                    throw unknownTag(tag);
+            }
+        }
+
+        return new QueryResults<>(documents, totalResults, expandedQuery, suggestion, autoCorrection, warnings);
+    }
+
+    public Document readDocument() throws IOException {
+        final Document.Builder builder = new Document.Builder();
+
+        for (int tag = readVarint(); tag != END; tag = readVarint()) {
+            switch (tag) {
+                case DOCUMENT_REFERENCE:
+                    builder.setReference(readString());
+                    break;
+                case DOCUMENT_WEIGHT:
+                    builder.setWeight(readDouble());
+                    break;
+                case DOCUMENT_LINKS:
+                    builder.setLinks(readStringSet());
+                    break;
+                case DOCUMENT_INDEX:
+                    builder.setIndex(readString());
+                    break;
+                case DOCUMENT_TITLE:
+                    builder.setTitle(readString());
+                    break;
+                case DOCUMENT_SUMMARY:
+                    builder.setSummary(readString());
+                    break;
+                case DOCUMENT_CONTENT:
+                    builder.setContent(readString());
+                    break;
+                case DOCUMENT_SECTION:
+                    builder.setSection((int) readSignedVarint());
+                    break;
+                case DOCUMENT_PROMOTION:
+                    builder.setPromotionType(PromotionType.valueOf(readString()));
+                    break;
+                case DOCUMENT_FIELD:
+                    builder.addField(readString(), (Serializable) readValue());
+                    break;
+                default:
+                    throw unknownTag(tag);
+            }
+        }
+
+        return builder.build();
+    }
+
+    public Entity readEntity() throws IOException {
+        final Entity.Builder builder = new Entity.Builder();
+
+        for (int tag = readVarint(); tag != END; tag = readVarint()) {
+            switch (tag) {
+                case ENTITY_TEXT:
+                    builder.setText(readString());
+                    break;
+                case ENTITY_DOCS_WITH_PHRASE:
+                    builder.setDocsWithPhrase((int) readSignedVarint());
+                    break;
+                case ENTITY_OCCURRENCES:
+                    builder.setOccurrences((int) readSignedVarint());
+                    break;
+                case ENTITY_DOCS_WITH_ALL_TERMS:
+                    builder.setDocsWithAllTerms((int) readSignedVarint());
+                    break;
+                case ENTITY_CLUSTER:
+                    builder.setCluster((int) readSignedVarint());
+                    break;
+                default:
+                    throw unknownTag(tag);
+            }
+        }
+
+        return builder.build();
+    }
+
+    public HodWarning readHodWarning() throws IOException {
+        final HodWarning.Builder builder = new HodWarning.Builder();
+
+        for (int tag = readVarint(); tag != END; tag = readVarint()) {
+            switch (tag) {
+                case WARNING_CODE:
+                    builder.setCode((int) readSignedVarint());
+                    break;
+                case WARNING_DETAILS:
+                    builder.setDetails(readString());
+                    break;
+                default:
+                    throw unknownTag(tag);
+            }
+        }
+
+        return builder.build();
+    }
+
+    private Spelling readSpelling() throws IOException {
+        final int correctionCount = readVarint() - 1;
+        final List<String> corrections;
+
+        if (correctionCount < 0) {
+            corrections = null;
+        }
+        else {
+            corrections = new ArrayList<>(correctionCount);
+
+            for (int i = 0; i < correctionCount; i++) {
+                corrections.add(readString());
+            }
+        }
+
+        return new Spelling(corrections, readString(), readString());
+    }
+
+    private Object readValue() throws IOException {
+        final int type = readVarint();
+
+        switch (type) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_STRING:
+                return readString();
+            case VALUE_INTEGER:
+                return (int) readSignedVarint();
+            case VALUE_LONG:
+                return readSignedVarint();
+            case VALUE_DOUBLE:
+                return readDouble();
+            case VALUE_TRUE:
+                return true;
+            case VALUE_FALSE:
+                return false;
+            case VALUE_DATE:
+                return new Date(readSignedVarint());
+            case VALUE_LIST:
+                final int size = readVarint();
+                final List<Object> list = new ArrayList<>(size);
+
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue());
+                }
+
+                return list;
+            case VALUE_MAP:
+                final int entries = readVarint();
+                final Map<String, Object> map = new LinkedHashMap<>();
+
+                for (int i = 0; i < entries; i++) {
+                    map.put(readString(), readValue());
+                }
+
+                return map;
+            case VALUE_SERIALIZED:
+                final byte[] bytes = new byte[readVarint()];
+                readFully(bytes, bytes.length);
+
+                try (final ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                    return objectInputStream.readObject();
+                } catch (final ClassNotFoundException e) {
+                    throw new IOException(e);
+                }
+            default:
+                throw new StreamCorruptedException("Unknown value type " + type);
+        }
+    }
+
+    private Set<String> readStringSet() throws IOException {
+        final int size = readVarint();
+        final Set<String> values = new LinkedHashSet<>();
+
+        for (int i = 0; i < size; i++) {
+            values.add(readString());
+        }
+
+        return values;
+    }
+
+    private String readString() throws IOException {
+        final int reference = readVarint();
+
+        if (reference == STRING_NULL) {
+            return null;
+        }
+        else if (reference != STRING_NEW) {
+            final int index = reference - STRING_REFERENCE_OFFSET;
+
+            if (index >= strings.size()) {
+                throw new StreamCorruptedException("Unknown string reference " + index);
+            }
+
+            return strings.get(index);
+        }
+
+        final int length = readVarint();
+
+        if (buffer.length < length) {
+            buffer = new byte[Math.max(length, buffer.length * 2)];
+        }
+
+        readFully(buffer, length);
+
+        final String value = new String(buffer, 0, length, StandardCharsets.UTF_8);
+        strings.add(value);
+        return value;
+    }
+
+    private double readDouble() throws IOException {
+        long bits = 0;
+
+        for (int i = 0; i < 8; i++) {
+            bits = (bits << 8) | readByte();
+        }
+
+        return Double.longBitsToDouble(bits);
+    }
+
+    private long readSignedVarint() throws IOException {
+        final long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private int readVarint() throws IOException {
+        final long value = readVarLong();
+
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new StreamCorruptedException("Invalid length or tag " + value);
+        }
+
+        return (int) value;
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+
+        for (int shift = 0; shift < 64; shift += 7) {
+            final int next = readByte();
+            value |= (long) (next & 0x7F) << shift;
+
+            if ((next & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new StreamCorruptedException("Varint is too long");
+    }
+
+    private int readByte() throws IOException {
+        final int value = inputStream.read();
+
+        if (value < 0) {
+            throw new EOFException();
+        }
+
+        return value;
+    }
+
+    private void readFully(final byte[] bytes, final int length) throws IOException {
+        int offset = 0;
+
+        while (offset < length) {
+            final int read = inputStream.read(bytes, offset, length - offset);
+
+            if (read < 0) {
+                throw new EOFException();
+            }
+
+            offset += read;
+        }
+    }
+
+    private StreamCorruptedException unknownTag(final int tag) {
+        return new StreamCorruptedException("Unknown tag " + tag);
+    }
+}
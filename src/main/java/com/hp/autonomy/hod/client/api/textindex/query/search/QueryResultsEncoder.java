@@ -0,0 +1,396 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.api.textindex.query.search;
+
+import com.hp.autonomy.hod.client.warning.HodWarning;
+import com.hp.autonomy.types.requests.Spelling;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.DOCUMENT_CONTENT;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.DOCUMENT_FIELD;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.DOCUMENT_INDEX;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.DOCUMENT_LINKS;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.DOCUMENT_PROMOTION;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.DOCUMENT_REFERENCE;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.DOCUMENT_SECTION;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.DOCUMENT_SUMMARY;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.DOCUMENT_TITLE;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.DOCUMENT_WEIGHT;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.END;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.ENTITY_CLUSTER;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.ENTITY_DOCS_WITH_ALL_TERMS;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.ENTITY_DOCS_WITH_PHRASE;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.ENTITY_OCCURRENCES;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.ENTITY_TEXT;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.MAGIC_0;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.MAGIC_1;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.MAX_SHARED_STRING_LENGTH;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.RESULTS_AUTO_CORRECTION;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.RESULTS_DOCUMENTS;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.RESULTS_EXPANDED_QUERY;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.RESULTS_SUGGESTION;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.RESULTS_TOTAL_RESULTS;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.RESULTS_WARNINGS;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.STRING_NEW;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.STRING_NULL;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.STRING_REFERENCE_OFFSET;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.VALUE_DATE;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.VALUE_DOUBLE;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.VALUE_FALSE;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.VALUE_INTEGER;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.VALUE_LIST;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.VALUE_LONG;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.VALUE_MAP;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.VALUE_NULL;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.VALUE_SERIALIZED;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.VALUE_STRING;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.VALUE_TRUE;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.VERSION;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.WARNING_CODE;
+import static com.hp.autonomy.hod.client.api.textindex.query.search.QueryResultsFormat.WARNING_DETAILS;
+
+/**
+ * Writes query results, documents, entities and warnings in a compact binary form which can be read by a
+ * {@link QueryResultsDecoder}. This is smaller and faster than Java serialization, and also supports
+ * {@link HodWarning}, which is not serializable. Document fields may have any serializable value, but values other
+ * than strings, numbers, booleans, dates, lists and maps fall back to Java serialization.
+ * <p/>
+ * Each string is written once per encoder, so objects which will be decoded together should be written with the
+ * same encoder. This class is not thread safe
+ */
+public class QueryResultsEncoder implements Flushable {
+
+    private final OutputStream outputStream;
+    private final Map<String, Integer> strings = new HashMap<>();
+    private int stringCount = 0;
+
+    /**
+     * Creates a new QueryResultsEncoder, writing the header to the output stream
+     * @param outputStream The stream to write to. Callers should provide a buffered stream
+     * @throws IOException If the header cannot be written
+     */
+    public QueryResultsEncoder(final OutputStream outputStream) throws IOException {
+        this.outputStream = outputStream;
+
+        outputStream.write(MAGIC_0);
+        outputStream.write(MAGIC_1);
+        outputStream.write(VERSION);
+    }
+
+    /**
+     * @param results The query results to encode
+     * @return The encoded query results
+     */
+    public static byte[] encode(final QueryResults<Document> results) {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try {
+            new QueryResultsEncoder(outputStream).writeQueryResults(results);
+        } catch (final IOException e) {
+            // ByteArrayOutputStream does not throw IOException, so this must be an unsupported field value
+            throw new IllegalArgumentException(e);
+        }
+
+        return outputStream.toByteArray();
+    }
+
+    public void writeQueryResults(final QueryResults<Document> results) throws IOException {
+        writeVarint(RESULTS_DOCUMENTS);
+        writeVarint(results.getDocuments().size());
+
+        for (final Document document : results.getDocuments()) {
+            writeDocument(document);
+        }
+
+        if (results.getTotalResults() != null) {
+            writeVarint(RESULTS_TOTAL_RESULTS);
+            writeSignedVarint(results.getTotalResults());
+        }
+
+        if (results.getExpandedQuery() != null) {
+            writeVarint(RESULTS_EXPANDED_QUERY);
+            writeString(results.getExpandedQuery());
+        }
+
+        if (results.getSuggestion() != null) {
+            writeVarint(RESULTS_SUGGESTION);
+            writeSpelling(results.getSuggestion());
+        }
+
+        if (results.getAutoCorrection() != null) {
+            writeVarint(RESULTS_AUTO_CORRECTION);
+            writeSpelling(results.getAutoCorrection());
+        }
+
+        if (!results.getHodWarnings().isEmpty()) {
+            writeVarint(RESULTS_WARNINGS);
+            writeVarint(results.getHodWarnings().size());
+
+            for (final HodWarning warning : results.getHodWarnings()) {
+                writeHodWarning(warning);
+            }
+        }
+
+        writeVarint(END);
+    }
+
+    public void writeDocument(final Document document) throws IOException {
+        if (document.getReference() != null) {
+            writeVarint(DOCUMENT_REFERENCE);
+            writeString(document.getReference());
+        }
+
+        if (Double.doubleToRawLongBits(document.getWeight()) != 0) {
+            writeVarint(DOCUMENT_WEIGHT);
+            writeDouble(document.getWeight());
+        }
+
+        if (document.getLinks() != null) {
+            writeVarint(DOCUMENT_LINKS);
+            writeStrings(document.getLinks());
+        }
+
+        if (document.getIndex() != null) {
+            writeVarint(DOCUMENT_INDEX);
+            writeString(document.getIndex());
+        }
+
+        if (document.getTitle() != null) {
+            writeVarint(DOCUMENT_TITLE);
+            writeString(document.getTitle());
+        }
+
+        // the builder defaults summary and content to the empty string
+        if (!"".equals(document.getSummary())) {
+            writeVarint(DOCUMENT_SUMMARY);
+            writeString(document.getSummary());
+        }
+
+        if (!"".equals(document.getContent())) {
+            writeVarint(DOCUMENT_CONTENT);
+            writeString(document.getContent());
+        }
+
+        if (document.getSection() != null) {
+            writeVarint(DOCUMENT_SECTION);
+            writeSignedVarint(document.getSection());
+        }
+
+        if (document.getPromotionType() != PromotionType.NONE) {
+            writeVarint(DOCUMENT_PROMOTION);
+            writeString(document.getPromotionType().name());
+        }
+
+        for (final Map.Entry<String, Serializable> field : document.getFields().entrySet()) {
+            writeVarint(DOCUMENT_FIELD);
+            writeString(field.getKey());
+            writeValue(field.getValue());
+        }
+
+        writeVarint(END);
+    }
+
+    public void writeEntity(final Entity entity) throws IOException {
+        if (entity.getText() != null) {
+            writeVarint(ENTITY_TEXT);
+            writeString(entity.getText());
+        }
+
+        writeOptionalInteger(ENTITY_DOCS_WITH_PHRASE, entity.getDocsWithPhrase());
+        writeOptionalInteger(ENTITY_OCCURRENCES, entity.getOccurrences());
+        writeOptionalInteger(ENTITY_DOCS_WITH_ALL_TERMS, entity.getDocsWithAllTerms());
+        writeOptionalInteger(ENTITY_CLUSTER, entity.getCluster());
+
+        writeVarint(END);
+    }
+
+    public void writeHodWarning(final HodWarning warning) throws IOException {
+        if (warning.getCode() != null) {
+            writeVarint(WARNING_CODE);
+            writeSignedVarint(warning.getCode().getCode());
+        }
+
+        if (warning.getDetails() != null) {
+            writeVarint(WARNING_DETAILS);
+            writeString(warning.getDetails());
+        }
+
+        writeVarint(END);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        outputStream.flush();
+    }
+
+    private void writeSpelling(final Spelling spelling) throws IOException {
+        if (spelling.getCorrections() == null) {
+            writeVarint(0);
+        }
+        else {
+            // offset by one so that null can be distinguished from empty
+            writeVarint(spelling.getCorrections().size() + 1);
+
+            for (final String correction : spelling.getCorrections()) {
+                writeString(correction);
+            }
+        }
+
+        writeString(spelling.getCorrectedQuery());
+        writeString(spelling.getOriginalQuery());
+    }
+
+    private void writeOptionalInteger(final int tag, final Integer value) throws IOException {
+        if (value != null) {
+            writeVarint(tag);
+            writeSignedVarint(value);
+        }
+    }
+
+    private void writeValue(final Object value) throws IOException {
+        if (value == null) {
+            writeVarint(VALUE_NULL);
+        }
+        else if (value instanceof String) {
+            writeVarint(VALUE_STRING);
+            writeString((String) value);
+        }
+        else if (value instanceof Integer) {
+            writeVarint(VALUE_INTEGER);
+            writeSignedVarint((Integer) value);
+        }
+        else if (value instanceof Long) {
+            writeVarint(VALUE_LONG);
+            writeSignedVarint((Long) value);
+        }
+        else if (value instanceof Double) {
+            writeVarint(VALUE_DOUBLE);
+            writeDouble((Double) value);
+        }
+        else if (value instanceof Boolean) {
+            writeVarint((Boolean) value ? VALUE_TRUE : VALUE_FALSE);
+        }
+        else if (value.getClass() == Date.class) {
+            writeVarint(VALUE_DATE);
+            writeSignedVarint(((Date) value).getTime());
+        }
+        else if (value instanceof List) {
+            final List<?> list = (List<?>) value;
+            writeVarint(VALUE_LIST);
+            writeVarint(list.size());
+
+            for (final Object element : list) {
+                writeValue(element);
+            }
+        }
+        else if (value instanceof Map && hasStringKeys((Map<?, ?>) value)) {
+            final Map<?, ?> map = (Map<?, ?>) value;
+            writeVarint(VALUE_MAP);
+            writeVarint(map.size());
+
+            for (final Map.Entry<?, ?> entry : map.entrySet()) {
+                writeString((String) entry.getKey());
+                writeValue(entry.getValue());
+            }
+        }
+        else if (value instanceof Serializable) {
+            final ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+
+            try (final ObjectOutputStream objectOutputStream = new ObjectOutputStream(serialized)) {
+                objectOutputStream.writeObject(value);
+            }
+
+            writeVarint(VALUE_SERIALIZED);
+            writeVarint(serialized.size());
+            serialized.writeTo(outputStream);
+        }
+        else {
+            throw new NotSerializableException(value.getClass().getName());
+        }
+    }
+
+    private boolean hasStringKeys(final Map<?, ?> map) {
+        for (final Object key : map.keySet()) {
+            if (!(key instanceof String)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void writeStrings(final Collection<String> values) throws IOException {
+        writeVarint(values.size());
+
+        for (final String value : values) {
+            writeString(value);
+        }
+    }
+
+    private void writeString(final String value) throws IOException {
+        if (value == null) {
+            writeVarint(STRING_NULL);
+            return;
+        }
+
+        final boolean shared = value.length() <= MAX_SHARED_STRING_LENGTH;
+
+        if (shared) {
+            final Integer index = strings.get(value);
+
+            if (index != null) {
+                writeVarint(index + STRING_REFERENCE_OFFSET);
+                return;
+            }
+
+            strings.put(value, stringCount);
+        }
+
+        // every new string takes an index, so that the decoder need not know which strings are shared
+        stringCount++;
+
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(STRING_NEW);
+        writeVarint(bytes.length);
+        outputStream.write(bytes);
+    }
+
+    private void writeDouble(final double value) throws IOException {
+        final long bits = Double.doubleToRawLongBits(value);
+
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            outputStream.write((int) (bits >>> shift));
+        }
+    }
+
+    private void writeSignedVarint(final long value) throws IOException {
+        writeVarint((value << 1) ^ (value >> 63));
+    }
+
+    private void writeVarint(final long value) throws IOException {
+        long remaining = value;
+
+        while ((remaining & ~0x7FL) != 0) {
+            outputStream.write((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+
+        outputStream.write((int) remaining);
+    }
+}
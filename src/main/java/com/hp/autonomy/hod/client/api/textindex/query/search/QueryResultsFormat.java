@@ -0,0 +1,71 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.api.textindex.query.search;
+
+/**
+ * Constants describing the binary form written by {@link QueryResultsEncoder} and read by {@link QueryResultsDecoder}.
+ * <p/>
+ * The data starts with two magic bytes and a version byte. Integers are written as varints, with signed values zigzag
+ * encoded. Strings are written as a varint reference: 0 for null, 1 for a new string followed by its UTF-8 length and
+ * bytes, or n for the (n - 2)th new string. Objects are written as a sequence of tagged properties terminated by
+ * {@link #END}; properties with their default value are omitted.
+ */
+final class QueryResultsFormat {
+
+    static final int MAGIC_0 = 'H';
+    static final int MAGIC_1 = 'Q';
+    static final int VERSION = 1;
+
+    static final int END = 0;
+
+    static final int STRING_NULL = 0;
+    static final int STRING_NEW = 1;
+    static final int STRING_REFERENCE_OFFSET = 2;
+
+    // strings longer than this are unlikely to repeat, so are not looked up in the string table
+    static final int MAX_SHARED_STRING_LENGTH = 256;
+
+    static final int RESULTS_DOCUMENTS = 1;
+    static final int RESULTS_TOTAL_RESULTS = 2;
+    static final int RESULTS_EXPANDED_QUERY = 3;
+    static final int RESULTS_SUGGESTION = 4;
+    static final int RESULTS_AUTO_CORRECTION = 5;
+    static final int RESULTS_WARNINGS = 6;
+
+    static final int DOCUMENT_REFERENCE = 1;
+    static final int DOCUMENT_WEIGHT = 2;
+    static final int DOCUMENT_LINKS = 3;
+    static final int DOCUMENT_INDEX = 4;
+    static final int DOCUMENT_TITLE = 5;
+    static final int DOCUMENT_SUMMARY = 6;
+    static final int DOCUMENT_CONTENT = 7;
+    static final int DOCUMENT_SECTION = 8;
+    static final int DOCUMENT_PROMOTION = 9;
+    static final int DOCUMENT_FIELD = 10;
+
+    static final int ENTITY_TEXT = 1;
+    static final int ENTITY_DOCS_WITH_PHRASE = 2;
+    static final int ENTITY_OCCURRENCES = 3;
+    static final int ENTITY_DOCS_WITH_ALL_TERMS = 4;
+    static final int ENTITY_CLUSTER = 5;
+
+    static final int WARNING_CODE = 1;
+    static final int WARNING_DETAILS = 2;
+
+    static final int VALUE_NULL = 0;
+    static final int VALUE_STRING = 1;
+    static final int VALUE_INTEGER = 2;
+    static final int VALUE_LONG = 3;
+    static final int VALUE_DOUBLE = 4;
+    static final int VALUE_TRUE = 5;
+    static final int VALUE_FALSE = 6;
+    static final int VALUE_LIST = 7;
+    static final int VALUE_MAP = 8;
+    static final int VALUE_DATE = 9;
+    static final int VALUE_SERIALIZED = 10;
+
+    private QueryResultsFormat() {}
+}
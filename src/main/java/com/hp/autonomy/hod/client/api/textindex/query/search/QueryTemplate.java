@@ -0,0 +1,224 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.api.textindex.query.search;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An immutable, precompiled set of parameters for the QueryTextIndex API and FindSimilar API. The parameters are
+ * converted to the strings sent to HP Haven OnDemand, and URL encoded, once, when the template is created with
+ * {@link QueryRequestBuilder#compile()}, so the same template can be used for many requests which differ only in
+ * their query text and paging.
+ * <p/>
+ * Templates are thread safe.
+ */
+public final class QueryTemplate {
+
+    private static final String START = "start";
+    private static final String MAX_PAGE_RESULTS = "max_page_results";
+
+    private final String[] names;
+    private final String[] values;
+    private final String[] encodedValues;
+    private final Integer start;
+    private final Integer maxPageResults;
+
+    private QueryTemplate(final String[] names, final String[] values, final String[] encodedValues, final Integer start, final Integer maxPageResults) {
+        this.names = names;
+        this.values = values;
+        this.encodedValues = encodedValues;
+        this.start = start;
+        this.maxPageResults = maxPageResults;
+    }
+
+    static QueryTemplate compile(final Map<String, Object> builtParams) {
+        final int size = builtParams.size();
+        final String[] names = new String[size];
+        final String[] values = new String[size];
+        final String[] encodedValues = new String[size];
+
+        Integer start = null;
+        Integer maxPageResults = null;
+        int count = 0;
+
+        for (final Map.Entry<String, Object> entry : builtParams.entrySet()) {
+            final String name = entry.getKey();
+            final Object value = entry.getValue();
+
+            // paging is kept separately so it can be replaced without copying the other parameters
+            if (START.equals(name)) {
+                start = (Integer) value;
+            } else if (MAX_PAGE_RESULTS.equals(name)) {
+                maxPageResults = (Integer) value;
+            } else {
+                names[count] = name;
+                // parameters are sent using their string representation
+                values[count] = String.valueOf(value);
+                encodedValues[count] = encode(values[count]);
+                count++;
+            }
+        }
+
+        return new QueryTemplate(trim(names, count), trim(values, count), trim(encodedValues, count), start, maxPageResults);
+    }
+
+    /**
+     * @param start The value for the start parameter
+     * @param maxPageResults The value for the max_page_results parameter
+     * @return A template with the same parameters as this one, except for the given paging parameters
+     */
+    public QueryTemplate withPage(final int start, final int maxPageResults) {
+        return new QueryTemplate(names, values, encodedValues, start, maxPageResults);
+    }
+
+    /**
+     * @return The value of the start parameter, or null if it is not set
+     */
+    public Integer getStart() {
+        return start;
+    }
+
+    /**
+     * @return The value of the max_page_results parameter, or null if it is not set
+     */
+    public Integer getMaxPageResults() {
+        return maxPageResults;
+    }
+
+    /**
+     * @return A read only view of the parameters
+     */
+    Map<String, Object> getParameters() {
+        return new Parameters(values, null, null);
+    }
+
+    /**
+     * @param name The name of an additional parameter
+     * @param value The value of the additional parameter
+     * @return A read only view of the parameters, together with the given parameter
+     */
+    Map<String, Object> getParameters(final String name, final String value) {
+        return new Parameters(values, name, value);
+    }
+
+    /**
+     * @return A read only view of the parameters with URL encoded values, suitable for use with the methods of
+     * {@link QueryTextIndexBackend} and {@link FindSimilarBackend} which do not encode their parameters
+     */
+    Map<String, Object> getEncodedParameters() {
+        return new Parameters(encodedValues, null, null);
+    }
+
+    // encoded as Retrofit encodes query parameters
+    private static String encode(final String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (final UnsupportedEncodingException e) {
+            throw new IllegalStateException("This should never happen", e);
+        }
+    }
+
+    private static String[] trim(final String[] array, final int length) {
+        if (array.length == length) {
+            return array;
+        }
+
+        final String[] trimmed = new String[length];
+        System.arraycopy(array, 0, trimmed, 0, length);
+        return trimmed;
+    }
+
+    // The frozen parameters followed by the paging parameters and the additional parameter, skipping any which are unset
+    private class Parameters extends AbstractMap<String, Object> {
+        private final String[] parameterValues;
+        private final String extraName;
+        private final String extraValue;
+
+        private Parameters(final String[] parameterValues, final String extraName, final String extraValue) {
+            this.parameterValues = parameterValues;
+            this.extraName = extraName;
+            this.extraValue = extraValue;
+        }
+
+        @Override
+        public Set<Map.Entry<String, Object>> entrySet() {
+            return new AbstractSet<Map.Entry<String, Object>>() {
+                @Override
+                public Iterator<Map.Entry<String, Object>> iterator() {
+                    return new ParameterIterator(parameterValues, extraName, extraValue);
+                }
+
+                @Override
+                public int size() {
+                    return names.length + (start == null ? 0 : 1) + (maxPageResults == null ? 0 : 1) + (extraValue == null ? 0 : 1);
+                }
+            };
+        }
+    }
+
+    private class ParameterIterator implements Iterator<Map.Entry<String, Object>> {
+        private final String[] parameterValues;
+        private final String extraName;
+        private final String extraValue;
+
+        // positions after the frozen parameters are start, max_page_results and the additional parameter
+        private int position;
+
+        private ParameterIterator(final String[] parameterValues, final String extraName, final String extraValue) {
+            this.parameterValues = parameterValues;
+            this.extraName = extraName;
+            this.extraValue = extraValue;
+
+            skipUnset();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < names.length + 3;
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            final Map.Entry<String, Object> entry;
+            final int extra = position - names.length;
+
+            if (extra < 0) {
+                entry = new AbstractMap.SimpleImmutableEntry<>(names[position], parameterValues[position]);
+            } else if (extra == 0) {
+                entry = new AbstractMap.SimpleImmutableEntry<>(START, start);
+            } else if (extra == 1) {
+                entry = new AbstractMap.SimpleImmutableEntry<>(MAX_PAGE_RESULTS, maxPageResults);
+            } else {
+                entry = new AbstractMap.SimpleImmutableEntry<>(extraName, extraValue);
+            }
+
+            position++;
+            skipUnset();
+            return entry;
+        }
+
+        private void skipUnset() {
+            while (hasNext() && isUnset(position - names.length)) {
+                position++;
+            }
+        }
+
+        private boolean isUnset(final int extra) {
+            return extra == 0 && start == null || extra == 1 && maxPageResults == null || extra == 2 && extraValue == null;
+        }
+    }
+}
@@ -16,6 +16,7 @@ import retrofit.http.Part;
 import retrofit.http.PartMap;
 import retrofit.http.Query;
 import retrofit.http.QueryMap;
+import retrofit.http.Streaming;
 import retrofit.mime.TypedOutput;
 
 import java.util.Map;
@@ -41,6 +42,20 @@ interface QueryTextIndexBackend {
         @QueryMap Map<String, Object> params
     ) throws HodErrorException;
 
+    /**
+     * Query HP Haven OnDemand for documents matching query text using the given token
+     * @param token The token to use to authenticate the request
+     * @param text The query text
+     * @param params Additional parameters to be sent as part of the request, whose values are already URL encoded
+     * @return A list of documents that match the query text
+     */
+    @GET(URL)
+    Response queryTextIndexWithTextEncoded(
+        @Header("token") AuthenticationToken<?, ?> token,
+        @Query("text") String text,
+        @QueryMap(encodeValues = false) Map<String, Object> params
+    ) throws HodErrorException;
+
     /**
      * Query HP Haven OnDemand for documents using query text from an object store object using the given token
      * @param token The token to use to authenticate the request
@@ -56,6 +71,21 @@ interface QueryTextIndexBackend {
         @QueryMap Map<String, Object> params
     ) throws HodErrorException;
 
+    /**
+     * Query HP Haven OnDemand for documents using query text from an object store object using the given token
+     * @param token The token to use to authenticate the request
+     * @param reference An HP Haven OnDemand reference obtained from either the Expand Container or Store Object API.
+     * The contents of the object will be used as the query text
+     * @param params Additional parameters to be sent as part of the request, whose values are already URL encoded
+     * @return A list of documents that match the query text
+     */
+    @GET(URL)
+    Response queryTextIndexWithReferenceEncoded(
+        @Header("token") AuthenticationToken<?, ?> token,
+        @Query("reference") String reference,
+        @QueryMap(encodeValues = false) Map<String, Object> params
+    ) throws HodErrorException;
+
     /**
      * Query HP Haven OnDemand for documents using query text from a url using the given token
      * @param token The token to use to authenticate the request
@@ -70,6 +100,20 @@ interface QueryTextIndexBackend {
         @QueryMap Map<String, Object> params
     ) throws HodErrorException;
 
+    /**
+     * Query HP Haven OnDemand for documents using query text from a url using the given token
+     * @param token The token to use to authenticate the request
+     * @param url A publicly accessible HTTP URL from which the query text can be retrieved
+     * @param params Additional parameters to be sent as part of the request, whose values are already URL encoded
+     * @return A list of documents that match the query text
+     */
+    @GET(URL)
+    Response queryTextIndexWithUrlEncoded(
+        @Header("token") AuthenticationToken<?, ?> token,
+        @Query("url") String url,
+        @QueryMap(encodeValues = false) Map<String, Object> params
+    ) throws HodErrorException;
+
     /**
      * Query HP Haven OnDemand for documents using query text in a file using the given token
      * @param token The token to use to authenticate the request
@@ -85,4 +129,53 @@ interface QueryTextIndexBackend {
         @PartMap Map<String, Object> params
     ) throws HodErrorException;
 
+    /**
+     * Query HP Haven OnDemand for documents matching query text using the given token, without reading the response
+     * body into memory
+     * @param token The token to use to authenticate the request
+     * @param text The query text
+     * @param params Additional parameters to be sent as part of the request
+     * @return A response whose body is read as it is parsed
+     */
+    @GET(URL)
+    @Streaming
+    Response streamQueryTextIndexWithText(
+        @Header("token") AuthenticationToken<?, ?> token,
+        @Query("text") String text,
+        @QueryMap Map<String, Object> params
+    ) throws HodErrorException;
+
+    /**
+     * Query HP Haven OnDemand for documents using query text from an object store object using the given token,
+     * without reading the response body into memory
+     * @param token The token to use to authenticate the request
+     * @param reference An HP Haven OnDemand reference obtained from either the Expand Container or Store Object API.
+     * The contents of the object will be used as the query text
+     * @param params Additional parameters to be sent as part of the request
+     * @return A response whose body is read as it is parsed
+     */
+    @GET(URL)
+    @Streaming
+    Response streamQueryTextIndexWithReference(
+        @Header("token") AuthenticationToken<?, ?> token,
+        @Query("reference") String reference,
+        @QueryMap Map<String, Object> params
+    ) throws HodErrorException;
+
+    /**
+     * Query HP Haven OnDemand for documents using query text from a url using the given token, without reading the
+     * response body into memory
+     * @param token The token to use to authenticate the request
+     * @param url A publicly accessible HTTP URL from which the query text can be retrieved
+     * @param params Additional parameters to be sent as part of the request
+     * @return A response whose body is read as it is parsed
+     */
+    @GET(URL)
+    @Streaming
+    Response streamQueryTextIndexWithUrl(
+        @Header("token") AuthenticationToken<?, ?> token,
+        @Query("url") String url,
+        @QueryMap Map<String, Object> params
+    ) throws HodErrorException;
+
 }
@@ -12,6 +12,8 @@ import com.hp.autonomy.hod.client.token.TokenProxy;
 import java.io.File;
 import java.io.InputStream;
 import java.io.Serializable;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Interface representing the QueryTextIndex API
@@ -202,4 +204,423 @@ public interface QueryTextIndexService<T extends Serializable> {
         QueryRequestBuilder params
     ) throws HodErrorException;
 
+    /**
+     * Query HP Haven OnDemand for documents matching query text using a token proxy provided by a
+     * {@link com.hp.autonomy.hod.client.token.TokenProxyService}. Each document is passed to the consumer as soon as it
+     * has been parsed, so the whole page is never held in memory
+     * @param text The query text
+     * @param params Additional parameters to be sent as part of the request
+     * @param documentConsumer Receives each document in order
+     * @return The rest of the response. The list of documents will be empty
+     * @throws NullPointerException If a TokenProxyService has not been defined
+     * @throws com.hp.autonomy.hod.client.api.authentication.HodAuthenticationFailedException If the token associated
+     * with the token proxy has expired
+     */
+    QueryResults<T> queryTextIndexWithText(
+        String text,
+        QueryRequestBuilder params,
+        Consumer<? super T> documentConsumer
+    ) throws HodErrorException;
+
+    /**
+     * Query HP Haven OnDemand for documents matching query text using the given token proxy. Each document is
+     * passed to the consumer as soon as it has been parsed, so the whole page is never held in memory
+     * @param tokenProxy The token proxy to use to authenticate the request
+     * @param text The query text
+     * @param params Additional parameters to be sent as part of the request
+     * @param documentConsumer Receives each document in order
+     * @return The rest of the response. The list of documents will be empty
+     * @throws com.hp.autonomy.hod.client.api.authentication.HodAuthenticationFailedException If the token associated
+     * with the token proxy has expired
+     */
+    QueryResults<T> queryTextIndexWithText(
+        TokenProxy<?, TokenType.Simple> tokenProxy,
+        String text,
+        QueryRequestBuilder params,
+        Consumer<? super T> documentConsumer
+    ) throws HodErrorException;
+
+    /**
+     * Query HP Haven OnDemand for documents using query text from an object store object using a token proxy provided by a
+     * {@link com.hp.autonomy.hod.client.token.TokenProxyService}. Each document is passed to the consumer as soon as it
+     * has been parsed, so the whole page is never held in memory
+     * @param reference An HP Haven OnDemand reference obtained from either the Expand Container or Store Object API.
+     * The contents of the object will be used as the query text
+     * @param params Additional parameters to be sent as part of the request
+     * @param documentConsumer Receives each document in order
+     * @return The rest of the response. The list of documents will be empty
+     * @throws NullPointerException If a TokenProxyService has not been defined
+     * @throws com.hp.autonomy.hod.client.api.authentication.HodAuthenticationFailedException If the token associated
+     * with the token proxy has expired
+     */
+    QueryResults<T> queryTextIndexWithReference(
+        String reference,
+        QueryRequestBuilder params,
+        Consumer<? super T> documentConsumer
+    ) throws HodErrorException;
+
+    /**
+     * Query HP Haven OnDemand for documents using query text from an object store object using the given token proxy. Each document is
+     * passed to the consumer as soon as it has been parsed, so the whole page is never held in memory
+     * @param tokenProxy The token proxy to use to authenticate the request
+     * @param reference An HP Haven OnDemand reference obtained from either the Expand Container or Store Object API.
+     * The contents of the object will be used as the query text
+     * @param params Additional parameters to be sent as part of the request
+     * @param documentConsumer Receives each document in order
+     * @return The rest of the response. The list of documents will be empty
+     * @throws com.hp.autonomy.hod.client.api.authentication.HodAuthenticationFailedException If the token associated
+     * with the token proxy has expired
+     */
+    QueryResults<T> queryTextIndexWithReference(
+        TokenProxy<?, TokenType.Simple> tokenProxy,
+        String reference,
+        QueryRequestBuilder params,
+        Consumer<? super T> documentConsumer
+    ) throws HodErrorException;
+
+    /**
+     * Query HP Haven OnDemand for documents using query text from a url using a token proxy provided by a
+     * {@link com.hp.autonomy.hod.client.token.TokenProxyService}. Each document is passed to the consumer as soon as it
+     * has been parsed, so the whole page is never held in memory
+     * @param url A publicly accessible HTTP URL from which the query text can be retrieved
+     * @param params Additional parameters to be sent as part of the request
+     * @param documentConsumer Receives each document in order
+     * @return The rest of the response. The list of documents will be empty
+     * @throws NullPointerException If a TokenProxyService has not been defined
+     * @throws com.hp.autonomy.hod.client.api.authentication.HodAuthenticationFailedException If the token associated
+     * with the token proxy has expired
+     */
+    QueryResults<T> queryTextIndexWithUrl(
+        String url,
+        QueryRequestBuilder params,
+        Consumer<? super T> documentConsumer
+    ) throws HodErrorException;
+
+    /**
+     * Query HP Haven OnDemand for documents using query text from a url using the given token proxy. Each document is
+     * passed to the consumer as soon as it has been parsed, so the whole page is never held in memory
+     * @param tokenProxy The token proxy to use to authenticate the request
+     * @param url A publicly accessible HTTP URL from which the query text can be retrieved
+     * @param params Additional parameters to be sent as part of the request
+     * @param documentConsumer Receives each document in order
+     * @return The rest of the response. The list of documents will be empty
+     * @throws com.hp.autonomy.hod.client.api.authentication.HodAuthenticationFailedException If the token associated
+     * with the token proxy has expired
+     */
+    QueryResults<T> queryTextIndexWithUrl(
+        TokenProxy<?, TokenType.Simple> tokenProxy,
+        String url,
+        QueryRequestBuilder params,
+        Consumer<? super T> documentConsumer
+    ) throws HodErrorException;
+
+    /**
+     * Lazily stream every document matching query text using a token proxy provided by a
+     * {@link com.hp.autonomy.hod.client.token.TokenProxyService}. Pages are requested using the start and
+     * max_page_results parameters, and the next page is requested in the background while the current one is consumed.
+     * The stream ends after absolute_max_results documents, or when there are no more results
+     * @param text The query text
+     * @param params Additional parameters to be sent as part of each request
+     * @return A stream of the documents that match the query. Errors from HP Haven OnDemand are thrown as
+     * {@link com.hp.autonomy.hod.client.error.UncheckedHodErrorException}
+     * @throws IllegalArgumentException If max_page_results is not positive, or start is greater than absolute_max_results
+     * @throws NullPointerException If a TokenProxyService has not been defined
+     */
+    Stream<T> streamQueryTextIndexWithText(
+        String text,
+        QueryRequestBuilder params
+    );
+
+    /**
+     * Lazily stream every document matching query text using the given token proxy. Pages are requested using the
+     * start and max_page_results parameters, and the next page is requested in the background while the current one is
+     * consumed. The stream ends after absolute_max_results documents, or when there are no more results
+     * @param tokenProxy The token proxy to use to authenticate the requests
+     * @param text The query text
+     * @param params Additional parameters to be sent as part of each request
+     * @return A stream of the documents that match the query. Errors from HP Haven OnDemand are thrown as
+     * {@link com.hp.autonomy.hod.client.error.UncheckedHodErrorException}
+     * @throws IllegalArgumentException If max_page_results is not positive, or start is greater than absolute_max_results
+     */
+    Stream<T> streamQueryTextIndexWithText(
+        TokenProxy<?, TokenType.Simple> tokenProxy,
+        String text,
+        QueryRequestBuilder params
+    );
+
+    /**
+     * Lazily stream every document using query text from an object store object using a token proxy provided by a
+     * {@link com.hp.autonomy.hod.client.token.TokenProxyService}. Pages are requested using the start and
+     * max_page_results parameters, and the next page is requested in the background while the current one is consumed.
+     * The stream ends after absolute_max_results documents, or when there are no more results
+     * @param reference An HP Haven OnDemand reference obtained from either the Expand Container or Store Object API.
+     * The contents of the object will be used as the query text
+     * @param params Additional parameters to be sent as part of each request
+     * @return A stream of the documents that match the query. Errors from HP Haven OnDemand are thrown as
+     * {@link com.hp.autonomy.hod.client.error.UncheckedHodErrorException}
+     * @throws IllegalArgumentException If max_page_results is not positive, or start is greater than absolute_max_results
+     * @throws NullPointerException If a TokenProxyService has not been defined
+     */
+    Stream<T> streamQueryTextIndexWithReference(
+        String reference,
+        QueryRequestBuilder params
+    );
+
+    /**
+     * Lazily stream every document using query text from an object store object using the given token proxy. Pages are requested using the
+     * start and max_page_results parameters, and the next page is requested in the background while the current one is
+     * consumed. The stream ends after absolute_max_results documents, or when there are no more results
+     * @param tokenProxy The token proxy to use to authenticate the requests
+     * @param reference An HP Haven OnDemand reference obtained from either the Expand Container or Store Object API.
+     * The contents of the object will be used as the query text
+     * @param params Additional parameters to be sent as part of each request
+     * @return A stream of the documents that match the query. Errors from HP Haven OnDemand are thrown as
+     * {@link com.hp.autonomy.hod.client.error.UncheckedHodErrorException}
+     * @throws IllegalArgumentException If max_page_results is not positive, or start is greater than absolute_max_results
+     */
+    Stream<T> streamQueryTextIndexWithReference(
+        TokenProxy<?, TokenType.Simple> tokenProxy,
+        String reference,
+        QueryRequestBuilder params
+    );
+
+    /**
+     * Lazily stream every document using query text from a url using a token proxy provided by a
+     * {@link com.hp.autonomy.hod.client.token.TokenProxyService}. Pages are requested using the start and
+     * max_page_results parameters, and the next page is requested in the background while the current one is consumed.
+     * The stream ends after absolute_max_results documents, or when there are no more results
+     * @param url A publicly accessible HTTP URL from which the query text can be retrieved
+     * @param params Additional parameters to be sent as part of each request
+     * @return A stream of the documents that match the query. Errors from HP Haven OnDemand are thrown as
+     * {@link com.hp.autonomy.hod.client.error.UncheckedHodErrorException}
+     * @throws IllegalArgumentException If max_page_results is not positive, or start is greater than absolute_max_results
+     * @throws NullPointerException If a TokenProxyService has not been defined
+     */
+    Stream<T> streamQueryTextIndexWithUrl(
+        String url,
+        QueryRequestBuilder params
+    );
+
+    /**
+     * Lazily stream every document using query text from a url using the given token proxy. Pages are requested using the
+     * start and max_page_results parameters, and the next page is requested in the background while the current one is
+     * consumed. The stream ends after absolute_max_results documents, or when there are no more results
+     * @param tokenProxy The token proxy to use to authenticate the requests
+     * @param url A publicly accessible HTTP URL from which the query text can be retrieved
+     * @param params Additional parameters to be sent as part of each request
+     * @return A stream of the documents that match the query. Errors from HP Haven OnDemand are thrown as
+     * {@link com.hp.autonomy.hod.client.error.UncheckedHodErrorException}
+     * @throws IllegalArgumentException If max_page_results is not positive, or start is greater than absolute_max_results
+     */
+    Stream<T> streamQueryTextIndexWithUrl(
+        TokenProxy<?, TokenType.Simple> tokenProxy,
+        String url,
+        QueryRequestBuilder params
+    );
+
+    /**
+     * Query HP Haven OnDemand for documents matching query text using a token proxy provided by a
+     * {@link com.hp.autonomy.hod.client.token.TokenProxyService}
+     * @param text The query text
+     * @param template Precompiled parameters to be sent as part of the request
+     * @return A list of documents that match the query text
+     * @throws NullPointerException If a TokenProxyService has not been defined
+     * @throws com.hp.autonomy.hod.client.api.authentication.HodAuthenticationFailedException If the token associated
+     * with the token proxy has expired
+     */
+    QueryResults<T> queryTextIndexWithText(
+        String text,
+        QueryTemplate template
+    ) throws HodErrorException;
+
+    /**
+     * Query HP Haven OnDemand for documents matching query text using the given token proxy
+     * @param tokenProxy The token proxy to use to authenticate the request
+     * @param text The query text
+     * @param template Precompiled parameters to be sent as part of the request
+     * @return A list of documents that match the query text
+     * @throws com.hp.autonomy.hod.client.api.authentication.HodAuthenticationFailedException If the token associated
+     * with the token proxy has expired
+     */
+    QueryResults<T> queryTextIndexWithText(
+        TokenProxy<?, TokenType.Simple> tokenProxy,
+        String text,
+        QueryTemplate template
+    ) throws HodErrorException;
+
+    /**
+     * Query HP Haven OnDemand for documents using query text from an object store object using a token proxy provided by a
+     * {@link com.hp.autonomy.hod.client.token.TokenProxyService}
+     * @param reference An HP Haven OnDemand reference obtained from either the Expand Container or Store Object API.
+     * The contents of the object will be used as the query text
+     * @param template Precompiled parameters to be sent as part of the request
+     * @return A list of documents that match the query text
+     * @throws NullPointerException If a TokenProxyService has not been defined
+     * @throws com.hp.autonomy.hod.client.api.authentication.HodAuthenticationFailedException If the token associated
+     * with the token proxy has expired
+     */
+    QueryResults<T> queryTextIndexWithReference(
+        String reference,
+        QueryTemplate template
+    ) throws HodErrorException;
+
+    /**
+     * Query HP Haven OnDemand for documents using query text from an object store object using the given token proxy
+     * @param tokenProxy The token proxy to use to authenticate the request
+     * @param reference An HP Haven OnDemand reference obtained from either the Expand Container or Store Object API.
+     * The contents of the object will be used as the query text
+     * @param template Precompiled parameters to be sent as part of the request
+     * @return A list of documents that match the query text
+     * @throws com.hp.autonomy.hod.client.api.authentication.HodAuthenticationFailedException If the token associated
+     * with the token proxy has expired
+     */
+    QueryResults<T> queryTextIndexWithReference(
+        TokenProxy<?, TokenType.Simple> tokenProxy,
+        String reference,
+        QueryTemplate template
+    ) throws HodErrorException;
+
+    /**
+     * Query HP Haven OnDemand for documents using query text from a url using a token proxy provided by a
+     * {@link com.hp.autonomy.hod.client.token.TokenProxyService}
+     * @param url A publicly accessible HTTP URL from which the query text can be retrieved
+     * @param template Precompiled parameters to be sent as part of the request
+     * @return A list of documents that match the query text
+     * @throws NullPointerException If a TokenProxyService has not been defined
+     * @throws com.hp.autonomy.hod.client.api.authentication.HodAuthenticationFailedException If the token associated
+     * with the token proxy has expired
+     */
+    QueryResults<T> queryTextIndexWithUrl(
+        String url,
+        QueryTemplate template
+    ) throws HodErrorException;
+
+    /**
+     * Query HP Haven OnDemand for documents using query text from a url using the given token proxy
+     * @param tokenProxy The token proxy to use to authenticate the request
+     * @param url A publicly accessible HTTP URL from which the query text can be retrieved
+     * @param template Precompiled parameters to be sent as part of the request
+     * @return A list of documents that match the query text
+     * @throws com.hp.autonomy.hod.client.api.authentication.HodAuthenticationFailedException If the token associated
+     * with the token proxy has expired
+     */
+    QueryResults<T> queryTextIndexWithUrl(
+        TokenProxy<?, TokenType.Simple> tokenProxy,
+        String url,
+        QueryTemplate template
+    ) throws HodErrorException;
+
+    /**
+     * Query HP Haven OnDemand for documents matching query text using a token proxy provided by a
+     * {@link com.hp.autonomy.hod.client.token.TokenProxyService}. The indexes are queried in parallel, in groups given
+     * by the settings, and the results are merged into the page a single query would have returned
+     * @param text The query text
+     * @param params Additional parameters to be sent as part of each request
+     * @param settings Settings controlling how the indexes are grouped and the results are merged
+     * @return The merged results, and the groups of indexes which timed out or failed
+     * @throws HodErrorException If every group of indexes failed
+     * @throws IllegalArgumentException If the requested page ends beyond the maximum results per shard
+     * @throws NullPointerException If a TokenProxyService has not been defined
+     */
+    ScatterGatherResults<T> scatterGatherQueryTextIndexWithText(
+        String text,
+        QueryRequestBuilder params,
+        ScatterGatherSettings<? super T> settings
+    ) throws HodErrorException;
+
+    /**
+     * Query HP Haven OnDemand for documents matching query text using the given token proxy. The indexes are queried in
+     * parallel, in groups given by the settings, and the results are merged into the page a single query would have
+     * returned
+     * @param tokenProxy The token proxy to use to authenticate the requests
+     * @param text The query text
+     * @param params Additional parameters to be sent as part of each request
+     * @param settings Settings controlling how the indexes are grouped and the results are merged
+     * @return The merged results, and the groups of indexes which timed out or failed
+     * @throws HodErrorException If every group of indexes failed
+     * @throws IllegalArgumentException If the requested page ends beyond the maximum results per shard
+     */
+    ScatterGatherResults<T> scatterGatherQueryTextIndexWithText(
+        TokenProxy<?, TokenType.Simple> tokenProxy,
+        String text,
+        QueryRequestBuilder params,
+        ScatterGatherSettings<? super T> settings
+    ) throws HodErrorException;
+
+    /**
+     * Query HP Haven OnDemand for documents using query text from an object store object using a token proxy provided by a
+     * {@link com.hp.autonomy.hod.client.token.TokenProxyService}. The indexes are queried in parallel, in groups given
+     * by the settings, and the results are merged into the page a single query would have returned
+     * @param reference An HP Haven OnDemand reference obtained from either the Expand Container or Store Object API.
+     * The contents of the object will be used as the query text
+     * @param params Additional parameters to be sent as part of each request
+     * @param settings Settings controlling how the indexes are grouped and the results are merged
+     * @return The merged results, and the groups of indexes which timed out or failed
+     * @throws HodErrorException If every group of indexes failed
+     * @throws IllegalArgumentException If the requested page ends beyond the maximum results per shard
+     * @throws NullPointerException If a TokenProxyService has not been defined
+     */
+    ScatterGatherResults<T> scatterGatherQueryTextIndexWithReference(
+        String reference,
+        QueryRequestBuilder params,
+        ScatterGatherSettings<? super T> settings
+    ) throws HodErrorException;
+
+    /**
+     * Query HP Haven OnDemand for documents using query text from an object store object using the given token proxy. The indexes are queried in
+     * parallel, in groups given by the settings, and the results are merged into the page a single query would have
+     * returned
+     * @param tokenProxy The token proxy to use to authenticate the requests
+     * @param reference An HP Haven OnDemand reference obtained from either the Expand Container or Store Object API.
+     * The contents of the object will be used as the query text
+     * @param params Additional parameters to be sent as part of each request
+     * @param settings Settings controlling how the indexes are grouped and the results are merged
+     * @return The merged results, and the groups of indexes which timed out or failed
+     * @throws HodErrorException If every group of indexes failed
+     * @throws IllegalArgumentException If the requested page ends beyond the maximum results per shard
+     */
+    ScatterGatherResults<T> scatterGatherQueryTextIndexWithReference(
+        TokenProxy<?, TokenType.Simple> tokenProxy,
+        String reference,
+        QueryRequestBuilder params,
+        ScatterGatherSettings<? super T> settings
+    ) throws HodErrorException;
+
+    /**
+     * Query HP Haven OnDemand for documents using query text from a url using a token proxy provided by a
+     * {@link com.hp.autonomy.hod.client.token.TokenProxyService}. The indexes are queried in parallel, in groups given
+     * by the settings, and the results are merged into the page a single query would have returned
+     * @param url A publicly accessible HTTP URL from which the query text can be retrieved
+     * @param params Additional parameters to be sent as part of each request
+     * @param settings Settings controlling how the indexes are grouped and the results are merged
+     * @return The merged results, and the groups of indexes which timed out or failed
+     * @throws HodErrorException If every group of indexes failed
+     * @throws IllegalArgumentException If the requested page ends beyond the maximum results per shard
+     * @throws NullPointerException If a TokenProxyService has not been defined
+     */
+    ScatterGatherResults<T> scatterGatherQueryTextIndexWithUrl(
+        String url,
+        QueryRequestBuilder params,
+        ScatterGatherSettings<? super T> settings
+    ) throws HodErrorException;
+
+    /**
+     * Query HP Haven OnDemand for documents using query text from a url using the given token proxy. The indexes are queried in
+     * parallel, in groups given by the settings, and the results are merged into the page a single query would have
+     * returned
+     * @param tokenProxy The token proxy to use to authenticate the requests
+     * @param url A publicly accessible HTTP URL from which the query text can be retrieved
+     * @param params Additional parameters to be sent as part of each request
+     * @param settings Settings controlling how the indexes are grouped and the results are merged
+     * @return The merged results, and the groups of indexes which timed out or failed
+     * @throws HodErrorException If every group of indexes failed
+     * @throws IllegalArgumentException If the requested page ends beyond the maximum results per shard
+     */
+    ScatterGatherResults<T> scatterGatherQueryTextIndexWithUrl(
+        TokenProxy<?, TokenType.Simple> tokenProxy,
+        String url,
+        QueryRequestBuilder params,
+        ScatterGatherSettings<? super T> settings
+    ) throws HodErrorException;
+
 }
@@ -14,14 +14,18 @@ import com.hp.autonomy.hod.client.config.Requester;
 import com.hp.autonomy.hod.client.error.HodErrorException;
 import com.hp.autonomy.hod.client.token.TokenProxy;
 import com.hp.autonomy.hod.client.util.TypedByteArrayWithFilename;
-import org.apache.commons.io.IOUtils;
+import com.hp.autonomy.hod.client.util.TypedInputStream;
 import retrofit.client.Response;
 import retrofit.mime.TypedFile;
 
 import java.io.File;
-import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Default implementation of QueryTextIndexService
@@ -32,9 +36,13 @@ import java.io.Serializable;
 @SuppressWarnings("WeakerAccess")
 public class QueryTextIndexServiceImpl<T extends Serializable> implements QueryTextIndexService<T> {
 
+    private static final String DOCUMENTS = "documents";
+
     private final QueryTextIndexBackend queryTextIndexBackend;
     private final JavaType returnType;
+    private final JavaType documentType;
     private final Requester<?, TokenType.Simple> requester;
+    private final Executor asyncExecutor;
 
     /**
      * Creates a new QueryTextIndexServiceImpl with the given configuration and return type
@@ -45,7 +53,9 @@ public class QueryTextIndexServiceImpl<T extends Serializable> implements QueryT
     public QueryTextIndexServiceImpl(final HodServiceConfig<?, TokenType.Simple> config, final Class<T> documentType) {
         queryTextIndexBackend = config.getRestAdapter().create(QueryTextIndexBackend.class);
         requester = config.getRequester();
+        asyncExecutor = config.getAsyncExecutor();
         returnType = config.getObjectMapper().getTypeFactory().constructParametrizedType(QueryResults.class, QueryResults.class, documentType);
+        this.documentType = config.getObjectMapper().getTypeFactory().constructType(documentType);
     }
 
     /**
@@ -59,32 +69,32 @@ public class QueryTextIndexServiceImpl<T extends Serializable> implements QueryT
 
     @Override
     public QueryResults<T> queryTextIndexWithText(final String text, final QueryRequestBuilder params) throws HodErrorException {
-        return requester.unsafeMakeRequest(returnType, getTextBackendCaller(text, params));
+        return makeRequest(null, "text", text, params.build(), this::getTextBackendCaller);
     }
 
     @Override
     public QueryResults<T> queryTextIndexWithText(final TokenProxy<?, TokenType.Simple> tokenProxy, final String text, final QueryRequestBuilder params) throws HodErrorException {
-        return requester.unsafeMakeRequest(tokenProxy, returnType, getTextBackendCaller(text, params));
+        return makeRequest(tokenProxy, "text", text, params.build(), this::getTextBackendCaller);
     }
 
     @Override
     public QueryResults<T> queryTextIndexWithReference(final String reference, final QueryRequestBuilder params) throws HodErrorException {
-        return requester.unsafeMakeRequest(returnType, getReferenceBackendCaller(reference, params));
+        return makeRequest(null, "reference", reference, params.build(), this::getReferenceBackendCaller);
     }
 
     @Override
     public QueryResults<T> queryTextIndexWithReference(final TokenProxy<?, TokenType.Simple> tokenProxy, final String reference, final QueryRequestBuilder params) throws HodErrorException {
-        return requester.unsafeMakeRequest(tokenProxy, returnType, getReferenceBackendCaller(reference, params));
+        return makeRequest(tokenProxy, "reference", reference, params.build(), this::getReferenceBackendCaller);
     }
 
     @Override
     public QueryResults<T> queryTextIndexWithUrl(final String url, final QueryRequestBuilder params) throws HodErrorException {
-        return requester.unsafeMakeRequest(returnType, getUrlBackendCaller(url, params));
+        return makeRequest(null, "url", url, params.build(), this::getUrlBackendCaller);
     }
 
     @Override
     public QueryResults<T> queryTextIndexWithUrl(final TokenProxy<?, TokenType.Simple> tokenProxy, final String url, final QueryRequestBuilder params) throws HodErrorException {
-        return requester.unsafeMakeRequest(tokenProxy, returnType, getUrlBackendCaller(url, params));
+        return makeRequest(tokenProxy, "url", url, params.build(), this::getUrlBackendCaller);
     }
 
     @Override
@@ -117,16 +127,208 @@ public class QueryTextIndexServiceImpl<T extends Serializable> implements QueryT
         return requester.unsafeMakeRequest(tokenProxy, returnType, getInputStreamBackendCaller(inputStream, params));
     }
 
-    private Requester.BackendCaller<EntityType, TokenType.Simple> getTextBackendCaller(final String text, final QueryRequestBuilder params) {
-        return authenticationToken -> queryTextIndexBackend.queryTextIndexWithText(authenticationToken, text, params.build());
+    @Override
+    public QueryResults<T> queryTextIndexWithText(final String text, final QueryRequestBuilder params, final Consumer<? super T> documentConsumer) throws HodErrorException {
+        return requester.unsafeMakeStreamingRequest(returnType, DOCUMENTS, documentType, documentConsumer, getStreamingTextBackendCaller(text, params.build()));
+    }
+
+    @Override
+    public QueryResults<T> queryTextIndexWithText(final TokenProxy<?, TokenType.Simple> tokenProxy, final String text, final QueryRequestBuilder params, final Consumer<? super T> documentConsumer) throws HodErrorException {
+        return requester.unsafeMakeStreamingRequest(tokenProxy, returnType, DOCUMENTS, documentType, documentConsumer, getStreamingTextBackendCaller(text, params.build()));
+    }
+
+    @Override
+    public QueryResults<T> queryTextIndexWithReference(final String reference, final QueryRequestBuilder params, final Consumer<? super T> documentConsumer) throws HodErrorException {
+        return requester.unsafeMakeStreamingRequest(returnType, DOCUMENTS, documentType, documentConsumer, getStreamingReferenceBackendCaller(reference, params.build()));
+    }
+
+    @Override
+    public QueryResults<T> queryTextIndexWithReference(final TokenProxy<?, TokenType.Simple> tokenProxy, final String reference, final QueryRequestBuilder params, final Consumer<? super T> documentConsumer) throws HodErrorException {
+        return requester.unsafeMakeStreamingRequest(tokenProxy, returnType, DOCUMENTS, documentType, documentConsumer, getStreamingReferenceBackendCaller(reference, params.build()));
+    }
+
+    @Override
+    public QueryResults<T> queryTextIndexWithUrl(final String url, final QueryRequestBuilder params, final Consumer<? super T> documentConsumer) throws HodErrorException {
+        return requester.unsafeMakeStreamingRequest(returnType, DOCUMENTS, documentType, documentConsumer, getStreamingUrlBackendCaller(url, params.build()));
+    }
+
+    @Override
+    public QueryResults<T> queryTextIndexWithUrl(final TokenProxy<?, TokenType.Simple> tokenProxy, final String url, final QueryRequestBuilder params, final Consumer<? super T> documentConsumer) throws HodErrorException {
+        return requester.unsafeMakeStreamingRequest(tokenProxy, returnType, DOCUMENTS, documentType, documentConsumer, getStreamingUrlBackendCaller(url, params.build()));
+    }
+
+    @Override
+    public Stream<T> streamQueryTextIndexWithText(final String text, final QueryRequestBuilder params) {
+        return stream(params, pageParams -> makeRequest(null, "text", text, pageParams, this::getTextBackendCaller));
+    }
+
+    @Override
+    public Stream<T> streamQueryTextIndexWithText(final TokenProxy<?, TokenType.Simple> tokenProxy, final String text, final QueryRequestBuilder params) {
+        return stream(params, pageParams -> makeRequest(tokenProxy, "text", text, pageParams, this::getTextBackendCaller));
+    }
+
+    @Override
+    public Stream<T> streamQueryTextIndexWithReference(final String reference, final QueryRequestBuilder params) {
+        return stream(params, pageParams -> makeRequest(null, "reference", reference, pageParams, this::getReferenceBackendCaller));
+    }
+
+    @Override
+    public Stream<T> streamQueryTextIndexWithReference(final TokenProxy<?, TokenType.Simple> tokenProxy, final String reference, final QueryRequestBuilder params) {
+        return stream(params, pageParams -> makeRequest(tokenProxy, "reference", reference, pageParams, this::getReferenceBackendCaller));
+    }
+
+    @Override
+    public Stream<T> streamQueryTextIndexWithUrl(final String url, final QueryRequestBuilder params) {
+        return stream(params, pageParams -> makeRequest(null, "url", url, pageParams, this::getUrlBackendCaller));
+    }
+
+    @Override
+    public Stream<T> streamQueryTextIndexWithUrl(final TokenProxy<?, TokenType.Simple> tokenProxy, final String url, final QueryRequestBuilder params) {
+        return stream(params, pageParams -> makeRequest(tokenProxy, "url", url, pageParams, this::getUrlBackendCaller));
+    }
+
+    @Override
+    public QueryResults<T> queryTextIndexWithText(final String text, final QueryTemplate template) throws HodErrorException {
+        return makeRequest(null, "text", text, template, this::getEncodedTextBackendCaller);
+    }
+
+    @Override
+    public QueryResults<T> queryTextIndexWithText(final TokenProxy<?, TokenType.Simple> tokenProxy, final String text, final QueryTemplate template) throws HodErrorException {
+        return makeRequest(tokenProxy, "text", text, template, this::getEncodedTextBackendCaller);
+    }
+
+    @Override
+    public QueryResults<T> queryTextIndexWithReference(final String reference, final QueryTemplate template) throws HodErrorException {
+        return makeRequest(null, "reference", reference, template, this::getEncodedReferenceBackendCaller);
+    }
+
+    @Override
+    public QueryResults<T> queryTextIndexWithReference(final TokenProxy<?, TokenType.Simple> tokenProxy, final String reference, final QueryTemplate template) throws HodErrorException {
+        return makeRequest(tokenProxy, "reference", reference, template, this::getEncodedReferenceBackendCaller);
+    }
+
+    @Override
+    public QueryResults<T> queryTextIndexWithUrl(final String url, final QueryTemplate template) throws HodErrorException {
+        return makeRequest(null, "url", url, template, this::getEncodedUrlBackendCaller);
+    }
+
+    @Override
+    public QueryResults<T> queryTextIndexWithUrl(final TokenProxy<?, TokenType.Simple> tokenProxy, final String url, final QueryTemplate template) throws HodErrorException {
+        return makeRequest(tokenProxy, "url", url, template, this::getEncodedUrlBackendCaller);
+    }
+
+    @Override
+    public ScatterGatherResults<T> scatterGatherQueryTextIndexWithText(final String text, final QueryRequestBuilder params, final ScatterGatherSettings<? super T> settings) throws HodErrorException {
+        return scatterGather(params, settings, shardParams -> makeRequest(null, "text", text, shardParams, this::getTextBackendCaller));
+    }
+
+    @Override
+    public ScatterGatherResults<T> scatterGatherQueryTextIndexWithText(final TokenProxy<?, TokenType.Simple> tokenProxy, final String text, final QueryRequestBuilder params, final ScatterGatherSettings<? super T> settings) throws HodErrorException {
+        return scatterGather(params, settings, shardParams -> makeRequest(tokenProxy, "text", text, shardParams, this::getTextBackendCaller));
+    }
+
+    @Override
+    public ScatterGatherResults<T> scatterGatherQueryTextIndexWithReference(final String reference, final QueryRequestBuilder params, final ScatterGatherSettings<? super T> settings) throws HodErrorException {
+        return scatterGather(params, settings, shardParams -> makeRequest(null, "reference", reference, shardParams, this::getReferenceBackendCaller));
+    }
+
+    @Override
+    public ScatterGatherResults<T> scatterGatherQueryTextIndexWithReference(final TokenProxy<?, TokenType.Simple> tokenProxy, final String reference, final QueryRequestBuilder params, final ScatterGatherSettings<? super T> settings) throws HodErrorException {
+        return scatterGather(params, settings, shardParams -> makeRequest(tokenProxy, "reference", reference, shardParams, this::getReferenceBackendCaller));
+    }
+
+    @Override
+    public ScatterGatherResults<T> scatterGatherQueryTextIndexWithUrl(final String url, final QueryRequestBuilder params, final ScatterGatherSettings<? super T> settings) throws HodErrorException {
+        return scatterGather(params, settings, shardParams -> makeRequest(null, "url", url, shardParams, this::getUrlBackendCaller));
+    }
+
+    @Override
+    public ScatterGatherResults<T> scatterGatherQueryTextIndexWithUrl(final TokenProxy<?, TokenType.Simple> tokenProxy, final String url, final QueryRequestBuilder params, final ScatterGatherSettings<? super T> settings) throws HodErrorException {
+        return scatterGather(params, settings, shardParams -> makeRequest(tokenProxy, "url", url, shardParams, this::getUrlBackendCaller));
+    }
+
+    private ScatterGatherResults<T> scatterGather(
+        final QueryRequestBuilder params,
+        final ScatterGatherSettings<? super T> settings,
+        final PagingQueryIterator.PageRequester<T> shardRequester
+    ) throws HodErrorException {
+        return new ScatterGatherQuery<>(settings, asyncExecutor, shardRequester).execute(params);
+    }
+
+    private Stream<T> stream(final QueryRequestBuilder params, final PagingQueryIterator.PageRequester<T> pageRequester) {
+        return new PagingQueryIterator<>(params, asyncExecutor, pageRequester).stream();
+    }
+
+    // queries by text, reference or url are idempotent, so their results may be cached and shared. The parameters are
+    // passed as a view, so they are only copied if the requester builds a key from them
+    private QueryResults<T> makeRequest(
+        final TokenProxy<?, TokenType.Simple> tokenProxy,
+        final String name,
+        final String value,
+        final Map<String, Object> builtParams,
+        final BiFunction<String, Map<String, Object>, Requester.BackendCaller<EntityType, TokenType.Simple>> backendCallerFactory
+    ) throws HodErrorException {
+        return makeIdempotentRequest(tokenProxy, new ParametersWith(builtParams, name, value), backendCallerFactory.apply(value, builtParams));
+    }
+
+    // the template's parameter views are used as they are, rather than copied, and its values are already encoded
+    private QueryResults<T> makeRequest(
+        final TokenProxy<?, TokenType.Simple> tokenProxy,
+        final String name,
+        final String value,
+        final QueryTemplate template,
+        final BiFunction<String, Map<String, Object>, Requester.BackendCaller<EntityType, TokenType.Simple>> backendCallerFactory
+    ) throws HodErrorException {
+        return makeIdempotentRequest(tokenProxy, template.getParameters(name, value), backendCallerFactory.apply(value, template.getEncodedParameters()));
+    }
+
+    private QueryResults<T> makeIdempotentRequest(
+        final TokenProxy<?, TokenType.Simple> tokenProxy,
+        final Map<String, Object> allParams,
+        final Requester.BackendCaller<EntityType, TokenType.Simple> backendCaller
+    ) throws HodErrorException {
+        if (tokenProxy == null) {
+            return requester.unsafeMakeIdempotentRequest(returnType, QueryTextIndexBackend.URL, allParams, backendCaller);
+        }
+        else {
+            return requester.unsafeMakeIdempotentRequest(tokenProxy, returnType, QueryTextIndexBackend.URL, allParams, backendCaller);
+        }
+    }
+
+    private Requester.BackendCaller<EntityType, TokenType.Simple> getTextBackendCaller(final String text, final Map<String, Object> params) {
+        return authenticationToken -> queryTextIndexBackend.queryTextIndexWithText(authenticationToken, text, params);
+    }
+
+    private Requester.BackendCaller<EntityType, TokenType.Simple> getEncodedTextBackendCaller(final String text, final Map<String, Object> encodedParams) {
+        return authenticationToken -> queryTextIndexBackend.queryTextIndexWithTextEncoded(authenticationToken, text, encodedParams);
+    }
+
+    private Requester.BackendCaller<EntityType, TokenType.Simple> getReferenceBackendCaller(final String reference, final Map<String, Object> params) {
+        return authenticationToken -> queryTextIndexBackend.queryTextIndexWithReference(authenticationToken, reference, params);
+    }
+
+    private Requester.BackendCaller<EntityType, TokenType.Simple> getEncodedReferenceBackendCaller(final String reference, final Map<String, Object> encodedParams) {
+        return authenticationToken -> queryTextIndexBackend.queryTextIndexWithReferenceEncoded(authenticationToken, reference, encodedParams);
+    }
+
+    private Requester.BackendCaller<EntityType, TokenType.Simple> getUrlBackendCaller(final String url, final Map<String, Object> params) {
+        return authenticationToken -> queryTextIndexBackend.queryTextIndexWithUrl(authenticationToken, url, params);
+    }
+
+    private Requester.BackendCaller<EntityType, TokenType.Simple> getEncodedUrlBackendCaller(final String url, final Map<String, Object> encodedParams) {
+        return authenticationToken -> queryTextIndexBackend.queryTextIndexWithUrlEncoded(authenticationToken, url, encodedParams);
+    }
+
+    private Requester.BackendCaller<EntityType, TokenType.Simple> getStreamingTextBackendCaller(final String text, final Map<String, Object> params) {
+        return authenticationToken -> queryTextIndexBackend.streamQueryTextIndexWithText(authenticationToken, text, params);
     }
 
-    private Requester.BackendCaller<EntityType, TokenType.Simple> getReferenceBackendCaller(final String reference, final QueryRequestBuilder params) {
-        return authenticationToken -> queryTextIndexBackend.queryTextIndexWithReference(authenticationToken, reference, params.build());
+    private Requester.BackendCaller<EntityType, TokenType.Simple> getStreamingReferenceBackendCaller(final String reference, final Map<String, Object> params) {
+        return authenticationToken -> queryTextIndexBackend.streamQueryTextIndexWithReference(authenticationToken, reference, params);
     }
 
-    private Requester.BackendCaller<EntityType, TokenType.Simple> getUrlBackendCaller(final String url, final QueryRequestBuilder params) {
-        return authenticationToken -> queryTextIndexBackend.queryTextIndexWithUrl(authenticationToken, url, params.build());
+    private Requester.BackendCaller<EntityType, TokenType.Simple> getStreamingUrlBackendCaller(final String url, final Map<String, Object> params) {
+        return authenticationToken -> queryTextIndexBackend.streamQueryTextIndexWithUrl(authenticationToken, url, params);
     }
 
     private Requester.BackendCaller<EntityType, TokenType.Simple> getFileBackendCaller(final File file, final QueryRequestBuilder params) {
@@ -138,12 +340,6 @@ public class QueryTextIndexServiceImpl<T extends Serializable> implements QueryT
     }
 
     private Requester.BackendCaller<EntityType, TokenType.Simple> getInputStreamBackendCaller(final InputStream file, final QueryRequestBuilder params) {
-        return authenticationToken -> {
-            try {
-                return queryTextIndexBackend.queryTextIndexWithFile(authenticationToken, new TypedByteArrayWithFilename("text/plain", IOUtils.toByteArray(file)), params.build());
-            } catch (final IOException e) {
-                throw new RuntimeException("Error reading bytes from stream", e);
-            }
-        };
+        return authenticationToken -> queryTextIndexBackend.queryTextIndexWithFile(authenticationToken, new TypedInputStream("text/plain", file), params.build());
     }
 }
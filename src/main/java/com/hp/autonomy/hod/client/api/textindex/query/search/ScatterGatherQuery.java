@@ -0,0 +1,296 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.api.textindex.query.search;
+
+import com.hp.autonomy.hod.client.api.resource.ResourceIdentifier;
+import com.hp.autonomy.hod.client.error.HodErrorException;
+import com.hp.autonomy.hod.client.util.MultiMap;
+import com.hp.autonomy.hod.client.warning.HodWarning;
+import com.hp.autonomy.types.requests.Spelling;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs a query as one request per group of indexes in parallel, and merges the shard results into the page the
+ * original query would have returned. Each shard is asked for every result up to the end of the requested page, and
+ * the best of these are kept in a heap bounded by the same size, so the depth of the page is limited by
+ * {@link ScatterGatherSettings#getMaxResultsPerShard()}.
+ * <p/>
+ * The first shard is requested on the calling thread and the others on the executor. Once the caller has its own
+ * results, it requests any shards which the executor has not yet started itself, so the query completes even if the
+ * executor is saturated or is running the caller.
+ * @param <T> The type of the returned documents
+ */
+@Slf4j
+class ScatterGatherQuery<T extends Serializable> {
+
+    // used by HP Haven OnDemand if max_page_results is not set
+    static final int DEFAULT_MAX_PAGE_RESULTS = 10;
+
+    private static final String INDEXES = "indexes";
+    private static final String START = "start";
+    private static final String MAX_PAGE_RESULTS = "max_page_results";
+    private static final String ABSOLUTE_MAX_RESULTS = "absolute_max_results";
+
+    private final ScatterGatherSettings<? super T> settings;
+    private final Executor executor;
+    private final PagingQueryIterator.PageRequester<T> shardRequester;
+
+    ScatterGatherQuery(final ScatterGatherSettings<? super T> settings, final Executor executor, final PagingQueryIterator.PageRequester<T> shardRequester) {
+        this.settings = settings;
+        this.executor = executor;
+        this.shardRequester = shardRequester;
+    }
+
+    ScatterGatherResults<T> execute(final QueryRequestBuilder params) throws HodErrorException {
+        final int start = params.getStart() != null ? params.getStart() : 1;
+        final int maxPageResults = params.getMaxPageResults() != null ? params.getMaxPageResults() : DEFAULT_MAX_PAGE_RESULTS;
+        final long lastResult = Math.min((long) start + maxPageResults - 1, params.getAbsoluteMaxResults() != null ? params.getAbsoluteMaxResults() : Integer.MAX_VALUE);
+
+        // the requested page may come entirely from one shard, so every shard must return all the results up to its end
+        final int resultsPerShard = (int) Math.max(lastResult, 0);
+
+        if (resultsPerShard > settings.getMaxResultsPerShard()) {
+            throw new IllegalArgumentException("A scatter-gather query can only return the first " + settings.getMaxResultsPerShard() + " results, but results up to " + resultsPerShard + " were requested");
+        }
+
+        final Map<String, Object> baseParams = params.build();
+        baseParams.remove(INDEXES);
+        baseParams.remove(START);
+        baseParams.remove(MAX_PAGE_RESULTS);
+        baseParams.remove(ABSOLUTE_MAX_RESULTS);
+
+        final List<List<ResourceIdentifier>> shards = partition(new ArrayList<>(params.getIndexes()), settings.getIndexesPerShard());
+        final List<ShardRequest> requests = new ArrayList<>(shards.size());
+
+        for (final List<ResourceIdentifier> shard : shards) {
+            requests.add(new ShardRequest(shard, baseParams, resultsPerShard));
+        }
+
+        // the first shard is always requested on the calling thread
+        final Set<ShardRequest> callerRequests = new HashSet<>();
+        callerRequests.add(requests.get(0));
+
+        for (final ShardRequest request : requests.subList(1, requests.size())) {
+            try {
+                executor.execute(request);
+            } catch (final RejectedExecutionException e) {
+                log.debug("Executor is saturated, shard {} will be requested on the calling thread", request.shard);
+                callerRequests.add(request);
+            }
+        }
+
+        final List<QueryResults<T>> shardResults = new ArrayList<>(shards.size());
+        final List<List<ResourceIdentifier>> timedOutShards = new ArrayList<>();
+        final Map<List<ResourceIdentifier>, HodErrorException> failedShards = new LinkedHashMap<>();
+
+        final long deadline = settings.getShardTimeout() == null ? Long.MAX_VALUE : System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.getShardTimeout().getMillis());
+
+        for (int i = 0; i < shards.size(); i++) {
+            final List<ResourceIdentifier> shard = shards.get(i);
+            final ShardRequest request = requests.get(i);
+            final CompletableFuture<QueryResults<T>> future = request.future;
+
+            // without a timeout, the calling thread requests any shard the executor has not started yet, since waiting
+            // for it cannot be cut short; with a timeout, a shard still queued on the executor simply times out
+            if (deadline == Long.MAX_VALUE || callerRequests.contains(request)) {
+                // does nothing if the executor has already started the shard
+                request.run();
+            }
+
+            try {
+                shardResults.add(await(future, deadline));
+            } catch (final TimeoutException e) {
+                log.debug("Shard {} did not complete in time", shard);
+                future.cancel(false);
+                shardResults.add(null);
+                timedOutShards.add(shard);
+            } catch (final HodErrorException e) {
+                log.debug("Shard {} failed", shard, e);
+                shardResults.add(null);
+                failedShards.put(shard, e);
+            }
+        }
+
+        // partial results are only useful if some shard succeeded
+        if (!failedShards.isEmpty() && failedShards.size() == shards.size()) {
+            throw failedShards.values().iterator().next();
+        }
+
+        return new ScatterGatherResults<>(merge(shardResults, start, resultsPerShard), timedOutShards, failedShards);
+    }
+
+    private QueryResults<T> await(final CompletableFuture<QueryResults<T>> future, final long deadline) throws TimeoutException, HodErrorException {
+        try {
+            if (deadline == Long.MAX_VALUE) {
+                return future.get();
+            }
+
+            return future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for shard results", e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+
+            if (cause instanceof HodErrorException) {
+                throw (HodErrorException) cause;
+            }
+            else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            else {
+                throw new IllegalStateException(cause);
+            }
+        }
+    }
+
+    private QueryResults<T> merge(final List<QueryResults<T>> shardResults, final int start, final int resultsPerShard) {
+        // the heap holds the best results seen so far, with the worst at its head so it can be replaced
+        final Comparator<Candidate<T>> order = candidateOrder();
+        final PriorityQueue<Candidate<T>> heap = new PriorityQueue<>(Math.max(resultsPerShard, 1) + 1, order.reversed());
+
+        Integer totalResults = null;
+        String expandedQuery = null;
+        Spelling suggestion = null;
+        Spelling autoCorrection = null;
+        final Set<HodWarning> warnings = new LinkedHashSet<>();
+
+        for (int shard = 0; shard < shardResults.size(); shard++) {
+            final QueryResults<T> results = shardResults.get(shard);
+
+            if (results == null) {
+                continue;
+            }
+
+            final List<T> documents = results.getDocuments();
+
+            for (int position = 0; position < documents.size(); position++) {
+                final Candidate<T> candidate = new Candidate<>(documents.get(position), shard, position);
+                heap.add(candidate);
+
+                if (heap.size() > resultsPerShard) {
+                    // each shard is already in order, so none of its remaining documents can be kept either
+                    if (heap.poll() == candidate) {
+                        break;
+                    }
+                }
+            }
+
+            if (results.getTotalResults() != null) {
+                totalResults = (totalResults == null ? 0 : totalResults) + results.getTotalResults();
+            }
+
+            expandedQuery = expandedQuery != null ? expandedQuery : results.getExpandedQuery();
+            suggestion = suggestion != null ? suggestion : results.getSuggestion();
+            autoCorrection = autoCorrection != null ? autoCorrection : results.getAutoCorrection();
+            warnings.addAll(results.getHodWarnings());
+        }
+
+        final List<Candidate<T>> candidates = new ArrayList<>(heap);
+        candidates.sort(order);
+
+        final List<T> documents = new ArrayList<>();
+
+        for (int i = start - 1; i < candidates.size(); i++) {
+            documents.add(candidates.get(i).document);
+        }
+
+        return new QueryResults<>(documents, totalResults, expandedQuery, suggestion, autoCorrection, new ArrayList<>(warnings));
+    }
+
+    // ties are broken by shard and then position, so the merge is stable and documents are never reordered within a shard
+    private Comparator<Candidate<T>> candidateOrder() {
+        final Comparator<? super T> comparator = settings.getComparator();
+        final Comparator<Candidate<T>> tieBreak = Comparator.<Candidate<T>>comparingInt(candidate -> candidate.shard).thenComparingInt(candidate -> candidate.position);
+
+        if (comparator == null) {
+            return tieBreak;
+        }
+
+        return Comparator.<Candidate<T>, T>comparing(candidate -> candidate.document, comparator).thenComparing(tieBreak);
+    }
+
+    private static <I> List<List<I>> partition(final List<I> items, final int size) {
+        if (items.isEmpty()) {
+            // a query with no indexes is sent as it is, so HP Haven OnDemand reports the error
+            return Collections.singletonList(Collections.emptyList());
+        }
+
+        final List<List<I>> partitions = new ArrayList<>();
+
+        for (int i = 0; i < items.size(); i += size) {
+            partitions.add(Collections.unmodifiableList(new ArrayList<>(items.subList(i, Math.min(i + size, items.size())))));
+        }
+
+        return partitions;
+    }
+
+    // a shard is requested by whichever of the executor and the caller starts it first
+    private class ShardRequest implements Runnable {
+        private final List<ResourceIdentifier> shard;
+        private final Map<String, Object> shardParams = new MultiMap<>();
+        private final CompletableFuture<QueryResults<T>> future = new CompletableFuture<>();
+        private final AtomicBoolean started = new AtomicBoolean(false);
+
+        private ShardRequest(final List<ResourceIdentifier> shard, final Map<String, Object> baseParams, final int resultsPerShard) {
+            this.shard = shard;
+
+            shardParams.putAll(baseParams);
+            shardParams.put(START, 1);
+            shardParams.put(MAX_PAGE_RESULTS, resultsPerShard);
+            shardParams.put(ABSOLUTE_MAX_RESULTS, resultsPerShard);
+
+            for (final ResourceIdentifier index : shard) {
+                shardParams.put(INDEXES, index);
+            }
+        }
+
+        @Override
+        public void run() {
+            // a shard which has timed out is not requested at all if it has not started yet
+            if (future.isDone() || !started.compareAndSet(false, true)) {
+                return;
+            }
+
+            try {
+                future.complete(shardRequester.getPage(shardParams));
+            } catch (final HodErrorException | RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static class Candidate<T> {
+        private final T document;
+        private final int shard;
+        private final int position;
+
+        private Candidate(final T document, final int shard, final int position) {
+            this.document = document;
+            this.shard = shard;
+            this.position = position;
+        }
+    }
+}
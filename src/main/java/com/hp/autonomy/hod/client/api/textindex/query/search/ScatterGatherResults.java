@@ -0,0 +1,45 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.api.textindex.query.search;
+
+import com.hp.autonomy.hod.client.api.resource.ResourceIdentifier;
+import com.hp.autonomy.hod.client.error.HodErrorException;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The merged results of a scatter-gather query, together with the shards which did not contribute to them
+ * @param <T> The type of the returned documents
+ */
+@Data
+public class ScatterGatherResults<T extends Serializable> {
+
+    /**
+     * @return The merged results of the shards which completed. The total results are the sum of the shard totals, and
+     * duplicate warnings are removed
+     */
+    private final QueryResults<T> results;
+
+    /**
+     * @return The indexes of the shards which did not complete before the shard timeout
+     */
+    private final List<List<ResourceIdentifier>> timedOutShards;
+
+    /**
+     * @return The errors returned for shards which failed, keyed by the indexes of the shard
+     */
+    private final Map<List<ResourceIdentifier>, HodErrorException> failedShards;
+
+    /**
+     * @return True if every shard contributed to the results
+     */
+    public boolean isComplete() {
+        return timedOutShards.isEmpty() && failedShards.isEmpty();
+    }
+}
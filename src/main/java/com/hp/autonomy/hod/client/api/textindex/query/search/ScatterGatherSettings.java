@@ -0,0 +1,92 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.api.textindex.query.search;
+
+import lombok.Data;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.joda.time.Duration;
+
+import java.util.Comparator;
+
+/**
+ * Settings controlling how a scatter-gather query is split into shards and how their results are merged
+ * @param <T> The type of the returned documents
+ */
+@Data
+public class ScatterGatherSettings<T> {
+
+    /**
+     * @return The number of indexes queried by each request
+     */
+    private final int indexesPerShard;
+
+    /**
+     * @return The time to wait for all the shards, after which any shards which have not completed are omitted from the
+     * results. If null, the query waits for every shard
+     */
+    private final Duration shardTimeout;
+
+    /**
+     * @return The maximum number of results requested from each shard. Every shard is asked for all the results up to
+     * the end of the requested page, so queries for pages which end beyond this are rejected
+     */
+    private final int maxResultsPerShard;
+
+    /**
+     * @return The order of the merged documents, which must match the order HP Haven OnDemand uses for the sort
+     * parameter. If null, the documents from each shard are returned in turn
+     */
+    private final Comparator<? super T> comparator;
+
+    private ScatterGatherSettings(final Builder<T> builder) {
+        if (builder.indexesPerShard <= 0 || builder.maxResultsPerShard <= 0) {
+            throw new IllegalArgumentException("Indexes per shard and maximum results per shard must be positive");
+        }
+
+        indexesPerShard = builder.indexesPerShard;
+        maxResultsPerShard = builder.maxResultsPerShard;
+        shardTimeout = builder.shardTimeout;
+        comparator = builder.comparator;
+    }
+
+    /**
+     * @param sort The sort parameter of the query, or null if it was not set
+     * @return The order HP Haven OnDemand uses for documents with the given sort
+     * @throws IllegalArgumentException If the sort depends on fields which are not part of {@link Document}
+     */
+    public static Comparator<Document> documentComparator(final Sort sort) {
+        if (sort == null) {
+            return Comparator.comparingDouble(Document::getWeight).reversed();
+        }
+
+        switch (sort) {
+            case autn_rank:
+            case relevance:
+                return Comparator.comparingDouble(Document::getWeight).reversed();
+            case reverse_relevance:
+                return Comparator.comparingDouble(Document::getWeight);
+            case off:
+                return (document1, document2) -> 0;
+            default:
+                throw new IllegalArgumentException("Documents cannot be compared for sort " + sort + ", a custom comparator must be used");
+        }
+    }
+
+    @Setter
+    @Accessors(chain = true)
+    public static class Builder<T> {
+        private int indexesPerShard = 1;
+        private int maxResultsPerShard = 1000;
+        private Duration shardTimeout;
+        private Comparator<? super T> comparator;
+
+        public ScatterGatherSettings<T> build() {
+            return new ScatterGatherSettings<>(this);
+        }
+    }
+
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.cache;
+
+import org.joda.time.Duration;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A {@link ResponseCache} which is backed by a {@link LinkedHashMap}. When the cache is full, the least recently used
+ * response is evicted. Responses expire after a fixed time to live, and expired responses are removed in the order in
+ * which they were added, whether or not they have been used since.
+ *
+ * This class is thread safe
+ */
+public class InMemoryResponseCache implements ResponseCache {
+
+    private final int maximumSize;
+    private final long timeToLiveNanos;
+    private final LongSupplier clock;
+
+    private final LinkedHashMap<ResponseCacheKey, CacheEntry> map;
+
+    // every entry has the same time to live, so entries expire in the order in which they were put
+    private final Deque<CacheEntry> expiryQueue = new ArrayDeque<>();
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Creates a new InMemoryResponseCache
+     * @param maximumSize The maximum number of responses to hold
+     * @param timeToLive The time for which a response may be returned from the cache
+     */
+    public InMemoryResponseCache(final int maximumSize, final Duration timeToLive) {
+        this(maximumSize, timeToLive, System::nanoTime);
+    }
+
+    InMemoryResponseCache(final int maximumSize, final Duration timeToLive, final LongSupplier clock) {
+        if (maximumSize <= 0 || timeToLive.getMillis() <= 0) {
+            throw new IllegalArgumentException("Maximum size and time to live must be positive");
+        }
+
+        this.maximumSize = maximumSize;
+        this.clock = clock;
+
+        timeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(timeToLive.getMillis());
+
+        // access ordered, so iteration starts at the least recently used entry
+        map = new LinkedHashMap<ResponseCacheKey, CacheEntry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<ResponseCacheKey, CacheEntry> eldest) {
+                final boolean full = size() > InMemoryResponseCache.this.maximumSize;
+
+                if (full) {
+                    eldest.getValue().removed = true;
+                    evictions++;
+                }
+
+                return full;
+            }
+        };
+    }
+
+    @Override
+    public synchronized Object get(final ResponseCacheKey key) {
+        final CacheEntry entry = map.get(key);
+
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+
+        if (entry.hasExpired(clock.getAsLong())) {
+            map.remove(key).removed = true;
+            evictions++;
+            misses++;
+            return null;
+        }
+
+        hits++;
+        return entry.value;
+    }
+
+    @Override
+    public synchronized void put(final ResponseCacheKey key, final Object value) {
+        final long now = clock.getAsLong();
+
+        removeExpired(now);
+
+        final CacheEntry entry = new CacheEntry(key, value, now + timeToLiveNanos);
+        final CacheEntry previous = map.put(key, entry);
+
+        if (previous != null) {
+            previous.removed = true;
+        }
+
+        expiryQueue.addLast(entry);
+
+        // entries which were replaced or evicted stay queued until they expire, so drop them if they build up
+        if (expiryQueue.size() > 2 * maximumSize) {
+            expiryQueue.removeIf(queued -> queued.removed);
+        }
+    }
+
+    @Override
+    public synchronized void invalidateAll() {
+        map.clear();
+        expiryQueue.clear();
+    }
+
+    @Override
+    public synchronized ResponseCacheStatistics getStatistics() {
+        return new ResponseCacheStatistics(hits, misses, evictions, map.size());
+    }
+
+    private void removeExpired(final long now) {
+        while (!expiryQueue.isEmpty() && expiryQueue.peekFirst().hasExpired(now)) {
+            final CacheEntry entry = expiryQueue.removeFirst();
+
+            if (!entry.removed) {
+                map.remove(entry.key);
+                evictions++;
+            }
+        }
+    }
+
+    private static class CacheEntry {
+        private final ResponseCacheKey key;
+        private final Object value;
+        private final long expiry;
+
+        // set when the entry leaves the map before it expires
+        private boolean removed;
+
+        private CacheEntry(final ResponseCacheKey key, final Object value, final long expiry) {
+            this.key = key;
+            this.value = value;
+            this.expiry = expiry;
+        }
+
+        private boolean hasExpired(final long now) {
+            return now - expiry >= 0;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.cache;
+
+/**
+ * A cache of parsed responses from HP Haven OnDemand, used by {@link com.hp.autonomy.hod.client.config.Requester} for
+ * idempotent requests. Only successful responses are cached. Cached values are shared between callers, so they should
+ * not be modified.
+ *
+ * Implementations must be thread safe
+ */
+public interface ResponseCache {
+
+    /**
+     * Retrieves a cached response
+     * @param key The key for the request
+     * @return The cached response, or null if there is no valid response in the cache
+     */
+    Object get(ResponseCacheKey key);
+
+    /**
+     * Adds a response to the cache
+     * @param key The key for the request
+     * @param value The parsed response
+     */
+    void put(ResponseCacheKey key, Object value);
+
+    /**
+     * Removes all responses from the cache
+     */
+    void invalidateAll();
+
+    /**
+     * @return Statistics describing the effectiveness of the cache
+     */
+    ResponseCacheStatistics getStatistics();
+
+}
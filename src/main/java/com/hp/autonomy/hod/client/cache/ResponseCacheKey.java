@@ -0,0 +1,67 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.hp.autonomy.hod.client.token.TokenProxy;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Identifies a cacheable request to HP Haven OnDemand. Keys are scoped to a token proxy, so responses are never shared
+ * between users or applications with different permissions.
+ */
+@Data
+public class ResponseCacheKey {
+
+    /**
+     * @return The token proxy used to make the request
+     */
+    private final TokenProxy<?, ?> tokenProxy;
+
+    /**
+     * @return The type the response was parsed into
+     */
+    private final JavaType type;
+
+    /**
+     * @return The path of the API
+     */
+    private final String path;
+
+    /**
+     * @return The parameters of the request, sorted by name. Values are stored as they are sent to HP Haven OnDemand
+     */
+    private final SortedMap<String, List<String>> parameters;
+
+    /**
+     * Creates a new ResponseCacheKey
+     * @param tokenProxy The token proxy used to make the request
+     * @param type The type the response is parsed into
+     * @param path The path of the API
+     * @param parameters The parameters of the request. This may be a {@link com.hp.autonomy.hod.client.util.MultiMap}
+     */
+    public ResponseCacheKey(final TokenProxy<?, ?> tokenProxy, final JavaType type, final String path, final Map<String, ?> parameters) {
+        this.tokenProxy = tokenProxy;
+        this.type = type;
+        this.path = path;
+
+        final SortedMap<String, List<String>> sortedParameters = new TreeMap<>();
+
+        for (final Map.Entry<String, ?> entry : parameters.entrySet()) {
+            // parameters are sent using their string representation
+            sortedParameters.computeIfAbsent(entry.getKey(), key -> new ArrayList<>()).add(String.valueOf(entry.getValue()));
+        }
+
+        this.parameters = Collections.unmodifiableSortedMap(sortedParameters);
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.cache;
+
+import lombok.Data;
+
+/**
+ * Statistics describing the effectiveness of a {@link ResponseCache}
+ */
+@Data
+public class ResponseCacheStatistics {
+
+    /**
+     * @return The number of lookups which returned a cached response
+     */
+    private final long hits;
+
+    /**
+     * @return The number of lookups which did not return a cached response
+     */
+    private final long misses;
+
+    /**
+     * @return The number of responses removed from the cache because it was full or they had expired
+     */
+    private final long evictions;
+
+    /**
+     * @return The number of responses currently in the cache
+     */
+    private final long size;
+
+    /**
+     * @return The proportion of lookups which returned a cached response, or 0 if there have been no lookups
+     */
+    public double getHitRate() {
+        final long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
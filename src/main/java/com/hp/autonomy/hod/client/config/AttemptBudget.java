@@ -0,0 +1,70 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the attempts made in addition to the first attempt of each request, such as retries and hedges. Each request
+ * adds a percentage of an attempt to the budget, which may accumulate enough for a short burst of extra attempts.
+ */
+class AttemptBudget {
+
+    // the budget is held in millionths of an attempt
+    private static final long ATTEMPT_COST = 1_000_000;
+    private static final long MAXIMUM_CREDIT = 10 * ATTEMPT_COST;
+
+    private final long creditPerRequest;
+    private final AtomicLong credit;
+
+    /**
+     * @param percentage The number of extra attempts added to the budget for each request, as a percentage
+     * @param startFull If true, the budget starts with the maximum burst of extra attempts; otherwise it starts empty
+     */
+    AttemptBudget(final double percentage, final boolean startFull) {
+        creditPerRequest = (long) (percentage / 100 * ATTEMPT_COST);
+        credit = new AtomicLong(startFull ? MAXIMUM_CREDIT : 0);
+    }
+
+    /**
+     * Adds the credit for one request
+     */
+    void addCredit() {
+        long current;
+
+        do {
+            current = credit.get();
+        } while (current < MAXIMUM_CREDIT && !credit.compareAndSet(current, Math.min(current + creditPerRequest, MAXIMUM_CREDIT)));
+    }
+
+    /**
+     * @return True if an extra attempt was withdrawn from the budget, false if there is not enough credit
+     */
+    boolean tryWithdraw() {
+        long current;
+
+        do {
+            current = credit.get();
+
+            if (current < ATTEMPT_COST) {
+                return false;
+            }
+        } while (!credit.compareAndSet(current, current - ATTEMPT_COST));
+
+        return true;
+    }
+
+    /**
+     * Returns an extra attempt which was withdrawn but not made
+     */
+    void refund() {
+        long current;
+
+        do {
+            current = credit.get();
+        } while (current < MAXIMUM_CREDIT && !credit.compareAndSet(current, Math.min(current + ATTEMPT_COST, MAXIMUM_CREDIT)));
+    }
+}
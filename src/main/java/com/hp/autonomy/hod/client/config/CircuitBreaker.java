@@ -0,0 +1,163 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The circuit breaker for a single API, implementing a {@link CircuitBreakerPolicy}. Each state change starts a new
+ * generation, and outcomes from requests permitted in an earlier generation are ignored, so a request which started
+ * before the circuit opened is never mistaken for a probe.
+ */
+@Slf4j
+class CircuitBreaker {
+
+    static final long REJECTED = -1;
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final CircuitBreakerPolicy policy;
+    private final String path;
+    private final long slowNanos;
+    private final long openNanos;
+
+    // ring buffer of the outcomes of recent requests while closed
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int size;
+    private int next;
+    private int failures;
+    private int slowRequests;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+    private volatile long lastUsed = System.nanoTime();
+
+    CircuitBreaker(final CircuitBreakerPolicy policy, final String path) {
+        this.policy = policy;
+        this.path = path;
+
+        slowNanos = TimeUnit.MILLISECONDS.toNanos(policy.getSlowRequestDuration().getMillis());
+        openNanos = TimeUnit.MILLISECONDS.toNanos(policy.getOpenDuration().getMillis());
+        failed = new boolean[policy.getSlidingWindowSize()];
+        slow = new boolean[policy.getSlidingWindowSize()];
+    }
+
+    /**
+     * @param now The current value of {@link System#nanoTime()}
+     * @return The generation to pass to {@link #record}, or {@link #REJECTED} if the request must not be sent
+     */
+    synchronized long tryAcquire(final long now) {
+        lastUsed = now;
+
+        if (state == State.OPEN) {
+            if (now - openedAt < openNanos) {
+                return REJECTED;
+            }
+
+            log.debug("Circuit for {} is half open, sending probe requests", path);
+            transition(State.HALF_OPEN);
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= policy.getProbeRequests()) {
+                return REJECTED;
+            }
+
+            probesStarted++;
+        }
+
+        return generation;
+    }
+
+    /**
+     * Records the outcome of a permitted request
+     * @param generation The value returned by {@link #tryAcquire}
+     * @param failure True if the request failed
+     * @param durationNanos The time taken by the request
+     * @param now The current value of {@link System#nanoTime()}
+     */
+    synchronized void record(final long generation, final boolean failure, final long durationNanos, final long now) {
+        if (generation != this.generation) {
+            return;
+        }
+
+        final boolean isSlow = durationNanos >= slowNanos;
+
+        if (state == State.HALF_OPEN) {
+            if (failure || isSlow) {
+                open(now);
+            }
+            else if (++probesSucceeded >= policy.getProbeRequests()) {
+                log.debug("Probe requests for {} succeeded, closing circuit", path);
+                transition(State.CLOSED);
+            }
+
+            return;
+        }
+
+        if (size == failed.length) {
+            failures -= failed[next] ? 1 : 0;
+            slowRequests -= slow[next] ? 1 : 0;
+        }
+        else {
+            size++;
+        }
+
+        failed[next] = failure;
+        slow[next] = isSlow;
+        failures += failure ? 1 : 0;
+        slowRequests += isSlow ? 1 : 0;
+        next = (next + 1) % failed.length;
+
+        if (size >= policy.getMinimumRequests()
+            && (failures * 100.0 >= policy.getFailureRateThreshold() * size || slowRequests * 100.0 >= policy.getSlowRequestRateThreshold() * size)) {
+            open(now);
+        }
+    }
+
+    /**
+     * @param now The current value of {@link System#nanoTime()}
+     * @param idleNanos The time without requests after which a closed circuit breaker is idle
+     * @return True if the circuit is closed and no requests have been made for the given time, so the circuit breaker
+     * can be discarded without losing anything important
+     */
+    synchronized boolean isIdle(final long now, final long idleNanos) {
+        return state == State.CLOSED && now - lastUsed > idleNanos;
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    private void open(final long now) {
+        log.warn("Opening circuit for {} for {}", path, policy.getOpenDuration());
+        openedAt = now;
+        transition(State.OPEN);
+    }
+
+    private void transition(final State newState) {
+        state = newState;
+        generation++;
+        probesStarted = 0;
+        probesSucceeded = 0;
+
+        // the window starts again when the circuit closes
+        size = 0;
+        next = 0;
+        failures = 0;
+        slowRequests = 0;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.config;
+
+import lombok.Data;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.joda.time.Duration;
+
+/**
+ * Policy for the circuit breakers which stop requests being sent to an API of HP Haven OnDemand which is failing or
+ * responding slowly. Each API has its own circuit breaker, which records the outcome of its most recent requests.
+ * <p/>
+ * A request fails if it could not be sent or no response was received, or if the response had a 5xx status code. When
+ * enough requests have been recorded and either the failure rate or the slow request rate reaches its threshold, the
+ * circuit opens, and requests fail immediately with a {@link com.hp.autonomy.hod.client.error.CircuitOpenException}.
+ * After the open duration a limited number of probe requests are sent; if they all succeed the circuit closes, and
+ * otherwise it opens again.
+ */
+@Data
+public class CircuitBreakerPolicy {
+
+    /**
+     * @return The number of recent requests whose outcomes are recorded for each API
+     */
+    private final int slidingWindowSize;
+
+    /**
+     * @return The number of requests which must be recorded before the circuit can open
+     */
+    private final int minimumRequests;
+
+    /**
+     * @return The percentage of failed requests at which the circuit opens
+     */
+    private final double failureRateThreshold;
+
+    /**
+     * @return Requests taking at least this long are slow
+     */
+    private final Duration slowRequestDuration;
+
+    /**
+     * @return The percentage of slow requests at which the circuit opens
+     */
+    private final double slowRequestRateThreshold;
+
+    /**
+     * @return How long the circuit stays open before probe requests are sent
+     */
+    private final Duration openDuration;
+
+    /**
+     * @return The number of probe requests which must succeed for the circuit to close
+     */
+    private final int probeRequests;
+
+    private CircuitBreakerPolicy(final Builder builder) {
+        if (builder.slidingWindowSize <= 0 || builder.minimumRequests <= 0 || builder.minimumRequests > builder.slidingWindowSize || builder.probeRequests <= 0) {
+            throw new IllegalArgumentException("Window size, minimum requests and probe requests must be positive, and the minimum requests must fit in the window");
+        }
+
+        slidingWindowSize = builder.slidingWindowSize;
+        minimumRequests = builder.minimumRequests;
+        failureRateThreshold = builder.failureRateThreshold;
+        slowRequestDuration = builder.slowRequestDuration;
+        slowRequestRateThreshold = builder.slowRequestRateThreshold;
+        openDuration = builder.openDuration;
+        probeRequests = builder.probeRequests;
+    }
+
+    @Setter
+    @Accessors(chain = true)
+    public static class Builder {
+        private int slidingWindowSize = 50;
+        private int minimumRequests = 20;
+        private double failureRateThreshold = 50;
+        private Duration slowRequestDuration = Duration.standardSeconds(10);
+        private double slowRequestRateThreshold = 80;
+        private Duration openDuration = Duration.standardSeconds(30);
+        private int probeRequests = 3;
+
+        public CircuitBreakerPolicy build() {
+            return new CircuitBreakerPolicy(this);
+        }
+    }
+
+}
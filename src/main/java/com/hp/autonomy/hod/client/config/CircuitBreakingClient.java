@@ -0,0 +1,89 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.config;
+
+import com.hp.autonomy.hod.client.error.CircuitOpenException;
+import retrofit.client.Client;
+import retrofit.client.Request;
+import retrofit.client.Response;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Client which passes each request through the {@link CircuitBreaker} for its API. Requests for different resources
+ * or jobs share the circuit breaker of their API
+ */
+class CircuitBreakingClient implements Client {
+
+    // closed circuit breakers which have not been used for this long are removed
+    private static final long IDLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+    private static final int SWEEP_INTERVAL = 1024;
+
+    private final Client delegate;
+    private final CircuitBreakerPolicy policy;
+    private final String endpoint;
+    private final ConcurrentMap<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final AtomicInteger requestsSinceSweep = new AtomicInteger(0);
+
+    CircuitBreakingClient(final Client delegate, final CircuitBreakerPolicy policy, final String endpoint) {
+        this.delegate = delegate;
+        this.policy = policy;
+        this.endpoint = endpoint;
+    }
+
+    @Override
+    public Response execute(final Request request) throws IOException {
+        final String path = RequestPaths.getApiPath(endpoint, request.getUrl());
+        final long now = System.nanoTime();
+
+        if (requestsSinceSweep.incrementAndGet() >= SWEEP_INTERVAL) {
+            requestsSinceSweep.set(0);
+            circuitBreakers.values().removeIf(circuitBreaker -> circuitBreaker.isIdle(now, IDLE_NANOS));
+        }
+
+        final CircuitBreaker circuitBreaker = circuitBreakers.computeIfAbsent(path, key -> new CircuitBreaker(policy, key));
+        final long generation = circuitBreaker.tryAcquire(now);
+
+        if (generation == CircuitBreaker.REJECTED) {
+            throw new CircuitOpenException(path);
+        }
+
+        final long start = System.nanoTime();
+        boolean failure = true;
+
+        try {
+            final Response response = delegate.execute(request);
+            failure = isFailure(response);
+            return response;
+        } finally {
+            final long end = System.nanoTime();
+            circuitBreaker.record(generation, failure, end - start, end);
+        }
+    }
+
+    // client errors are normally the caller's fault, but a client error without a JSON body did not come from HOD
+    // (e.g. an HTML page from a gateway) and cannot be parsed as a HOD error, so it counts as a failure of the API
+    private static boolean isFailure(final Response response) {
+        final int status = response.getStatus();
+
+        if (status >= 500) {
+            return true;
+        }
+
+        if (status < 400 || response.getBody() == null) {
+            return false;
+        }
+
+        final String mimeType = response.getBody().mimeType();
+        return mimeType != null && !mimeType.toLowerCase(Locale.ENGLISH).contains("json");
+    }
+
+}
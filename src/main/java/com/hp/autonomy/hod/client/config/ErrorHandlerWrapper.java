@@ -5,21 +5,38 @@
 
 package com.hp.autonomy.hod.client.config;
 
+import com.hp.autonomy.hod.client.error.CircuitOpenException;
+import com.hp.autonomy.hod.client.error.HodErrorException;
 import com.hp.autonomy.hod.client.error.HodErrorHandler;
+import com.hp.autonomy.hod.client.error.RateLimitExceededException;
 import retrofit.ErrorHandler;
 import retrofit.RetrofitError;
 
 class ErrorHandlerWrapper implements ErrorHandler {
 
     private final HodErrorHandler errorHandler;
+    private final RateLimiter rateLimiter;
 
-    ErrorHandlerWrapper(final HodErrorHandler errorHandler) {
+    ErrorHandlerWrapper(final HodErrorHandler errorHandler, final RateLimiter rateLimiter) {
         this.errorHandler = errorHandler;
+        this.rateLimiter = rateLimiter;
     }
 
     @Override
     public Throwable handleError(final RetrofitError cause) {
-        return errorHandler.handleError(cause);
+        // Retrofit wraps exceptions thrown by the client, but requests which were never sent should be reported as they are
+        if (cause.getCause() instanceof CircuitOpenException || cause.getCause() instanceof RateLimitExceededException) {
+            return cause.getCause();
+        }
+
+        final Throwable error = errorHandler.handleError(cause);
+
+        // errors are handled on the thread which made the request, so the rate limiter can find its token proxy
+        if (rateLimiter != null && error instanceof HodErrorException) {
+            rateLimiter.onError(cause.getUrl(), ((HodErrorException) error).getErrorCode());
+        }
+
+        return error;
     }
 
 }
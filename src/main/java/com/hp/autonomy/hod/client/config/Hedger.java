@@ -0,0 +1,269 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.config;
+
+import com.hp.autonomy.hod.client.error.HodErrorException;
+import com.hp.autonomy.hod.client.util.DaemonThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Makes requests according to a {@link HedgingPolicy}. The request is made on the calling thread, and if it has not
+ * completed after the hedge delay a second attempt is made on the executor. Whichever attempt succeeds first is
+ * returned, and the other is interrupted, which cancels its HTTP call if the transport supports it.
+ * <p/>
+ * The caller never waits for the executor, so hedging cannot deadlock with other tasks queued on it. If the executor
+ * is saturated the request is simply not hedged.
+ */
+@Slf4j
+class Hedger {
+
+    // the hedge delay is only recalculated periodically, as it requires sorting the samples
+    private static final int RECALCULATION_INTERVAL = 16;
+    private static final int MINIMUM_SAMPLES = 20;
+
+    // only hands hedges to the executor, so one thread is shared by every hedger
+    private static final ScheduledThreadPoolExecutor HEDGE_TIMER = createHedgeTimer();
+
+    private final HedgingPolicy policy;
+    private final Executor executor;
+    private final AttemptBudget budget;
+    private final AttemptBudget sharedBudget;
+
+    private final ConcurrentMap<String, LatencyTracker> latencyTrackers = new ConcurrentHashMap<>();
+
+    Hedger(final HedgingPolicy policy, final Executor executor) {
+        this(policy, executor, null);
+    }
+
+    /**
+     * @param policy The hedging policy
+     * @param executor Runs hedged requests
+     * @param sharedBudget A budget which each hedge must also be taken from, so that hedges and retries together are
+     * limited. May be null
+     */
+    Hedger(final HedgingPolicy policy, final Executor executor, final AttemptBudget sharedBudget) {
+        this.policy = policy;
+        this.executor = executor;
+        this.sharedBudget = sharedBudget;
+
+        budget = new AttemptBudget(policy.getMaxHedgePercentage(), false);
+    }
+
+    /**
+     * @param path The path of the API, used to group response times
+     * @param supplier Makes the request
+     * @param <U> The type of the response
+     * @return The first successful response
+     * @throws HodErrorException If the request made on the calling thread failed before a hedge succeeded
+     */
+    <U> U execute(final String path, final Requester.RequestSupplier<U> supplier) throws HodErrorException {
+        final LatencyTracker latencyTracker = latencyTrackers.computeIfAbsent(path, key -> new LatencyTracker(policy.getSampleSize()));
+        final HedgedRequest<U> request = new HedgedRequest<>(supplier, latencyTracker);
+
+        budget.addCredit();
+
+        final long delayNanos = latencyTracker.getHedgeDelayNanos();
+        final ScheduledFuture<?> hedgeTimer = HEDGE_TIMER.schedule(() -> request.hedge(path, delayNanos), delayNanos, TimeUnit.NANOSECONDS);
+
+        try {
+            return request.runPrimary();
+        } finally {
+            hedgeTimer.cancel(false);
+            request.finish();
+        }
+    }
+
+    private boolean tryWithdrawCredit() {
+        if (!budget.tryWithdraw()) {
+            return false;
+        }
+
+        if (sharedBudget != null && !sharedBudget.tryWithdraw()) {
+            budget.refund();
+            return false;
+        }
+
+        return true;
+    }
+
+    private static ScheduledThreadPoolExecutor createHedgeTimer() {
+        final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory("hod-client-hedge-timer"));
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    // the result completes with the first success, from either the primary attempt or the hedge
+    private class HedgedRequest<U> {
+        private final CompletableFuture<U> result = new CompletableFuture<>();
+        private final Attempt primary = new Attempt();
+        private final Requester.RequestSupplier<U> supplier;
+        private final LatencyTracker latencyTracker;
+        private Attempt hedge;
+        private boolean finished;
+
+        private HedgedRequest(final Requester.RequestSupplier<U> supplier, final LatencyTracker latencyTracker) {
+            this.supplier = supplier;
+            this.latencyTracker = latencyTracker;
+        }
+
+        private U runPrimary() throws HodErrorException {
+            primary.begin();
+            final long start = System.nanoTime();
+
+            try {
+                final U value = supplier.get();
+                latencyTracker.record(System.nanoTime() - start);
+                result.complete(value);
+            } catch (final HodErrorException | RuntimeException e) {
+                // the primary may have failed because a successful hedge interrupted it
+                if (!result.isDone()) {
+                    throw e;
+                }
+            } finally {
+                primary.end();
+            }
+
+            return result.getNow(null);
+        }
+
+        // called by the hedge timer
+        private void hedge(final String path, final long delayNanos) {
+            if (result.isDone() || !tryWithdrawCredit()) {
+                return;
+            }
+
+            final Attempt attempt = new Attempt();
+
+            synchronized (this) {
+                if (finished) {
+                    return;
+                }
+
+                hedge = attempt;
+            }
+
+            log.debug("No response from {} after {}ms, sending hedged request", path, TimeUnit.NANOSECONDS.toMillis(delayNanos));
+
+            try {
+                executor.execute(() -> runHedge(attempt));
+            } catch (final RejectedExecutionException e) {
+                log.debug("Executor is saturated, not hedging request to {}", path);
+            }
+        }
+
+        private void runHedge(final Attempt attempt) {
+            if (!attempt.begin()) {
+                return;
+            }
+
+            final long start = System.nanoTime();
+
+            try {
+                final U value = supplier.get();
+                latencyTracker.record(System.nanoTime() - start);
+
+                if (result.complete(value)) {
+                    primary.cancel();
+                }
+            } catch (final HodErrorException | RuntimeException e) {
+                log.debug("Hedged request failed", e);
+            } finally {
+                attempt.end();
+            }
+        }
+
+        private void finish() {
+            final Attempt attempt;
+
+            synchronized (this) {
+                finished = true;
+                attempt = hedge;
+            }
+
+            if (attempt != null) {
+                attempt.cancel();
+            }
+        }
+    }
+
+    // tracks the thread making an attempt, so it can be interrupted if the attempt loses
+    private static class Attempt {
+        private Thread thread;
+        private boolean cancelled;
+
+        private synchronized boolean begin() {
+            if (cancelled) {
+                return false;
+            }
+
+            thread = Thread.currentThread();
+            return true;
+        }
+
+        private synchronized void end() {
+            thread = null;
+
+            // clear an interrupt from cancel, so it does not affect whatever the thread does next
+            if (cancelled) {
+                Thread.interrupted();
+            }
+        }
+
+        private synchronized void cancel() {
+            cancelled = true;
+
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+    }
+
+    // a ring buffer of recent successful response times
+    private class LatencyTracker {
+        private final long[] samples;
+        private int count;
+        private int next;
+        private int sinceRecalculation;
+        private volatile long hedgeDelayNanos = TimeUnit.MILLISECONDS.toNanos(policy.getInitialDelay().getMillis());
+
+        private LatencyTracker(final int sampleSize) {
+            samples = new long[sampleSize];
+        }
+
+        private synchronized void record(final long latencyNanos) {
+            samples[next] = latencyNanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+
+            if (count >= Math.min(MINIMUM_SAMPLES, samples.length) && ++sinceRecalculation >= RECALCULATION_INTERVAL) {
+                sinceRecalculation = 0;
+                recalculate();
+            }
+        }
+
+        private long getHedgeDelayNanos() {
+            return hedgeDelayNanos;
+        }
+
+        private void recalculate() {
+            final long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+
+            final int index = Math.max((int) Math.ceil(policy.getPercentile() * count) - 1, 0);
+            hedgeDelayNanos = Math.max(sorted[index], TimeUnit.MILLISECONDS.toNanos(policy.getMinimumDelay().getMillis()));
+        }
+    }
+}
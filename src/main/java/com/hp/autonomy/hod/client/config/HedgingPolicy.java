@@ -0,0 +1,76 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.config;
+
+import lombok.Data;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.joda.time.Duration;
+
+/**
+ * Policy for hedging idempotent requests. If a request has not completed within the given latency percentile of recent
+ * requests to the same API, a duplicate request is sent; the first successful response is used and the other request is
+ * cancelled. Hedges are limited to a percentage of requests, so a slow backend does not receive twice the traffic.
+ */
+@Data
+public class HedgingPolicy {
+
+    /**
+     * @return The percentile of recent successful response times after which a hedge is sent, between 0 and 1
+     */
+    private final double percentile;
+
+    /**
+     * @return The number of recent response times used to calculate the percentile for each API
+     */
+    private final int sampleSize;
+
+    /**
+     * @return The delay before sending a hedge, used until enough response times have been recorded for an API
+     */
+    private final Duration initialDelay;
+
+    /**
+     * @return The shortest delay before sending a hedge, however fast recent responses have been
+     */
+    private final Duration minimumDelay;
+
+    /**
+     * @return The maximum number of hedges, as a percentage of requests
+     */
+    private final double maxHedgePercentage;
+
+    private HedgingPolicy(final Builder builder) {
+        if (builder.percentile <= 0 || builder.percentile > 1) {
+            throw new IllegalArgumentException("Percentile must be greater than 0 and at most 1");
+        }
+
+        if (builder.sampleSize <= 0 || builder.maxHedgePercentage < 0 || builder.maxHedgePercentage > 100) {
+            throw new IllegalArgumentException("Sample size must be positive and the maximum hedge percentage must be between 0 and 100");
+        }
+
+        percentile = builder.percentile;
+        sampleSize = builder.sampleSize;
+        initialDelay = builder.initialDelay;
+        minimumDelay = builder.minimumDelay;
+        maxHedgePercentage = builder.maxHedgePercentage;
+    }
+
+    @Setter
+    @Accessors(chain = true)
+    public static class Builder {
+        private double percentile = 0.95;
+        private int sampleSize = 1000;
+        private Duration initialDelay = Duration.millis(500);
+        private Duration minimumDelay = Duration.millis(10);
+        private double maxHedgePercentage = 5;
+
+        public HedgingPolicy build() {
+            return new HedgingPolicy(this);
+        }
+    }
+
+}
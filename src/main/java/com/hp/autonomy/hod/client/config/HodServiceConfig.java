@@ -9,12 +9,17 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hp.autonomy.hod.client.api.authentication.EntityType;
 import com.hp.autonomy.hod.client.api.authentication.TokenType;
+import com.hp.autonomy.hod.client.cache.ResponseCache;
 import com.hp.autonomy.hod.client.converter.HodConverter;
 import com.hp.autonomy.hod.client.error.DefaultHodErrorHandler;
 import com.hp.autonomy.hod.client.error.HodErrorHandler;
+import com.hp.autonomy.hod.client.job.JobPoller;
+import com.hp.autonomy.hod.client.job.JobPollingPolicy;
 import com.hp.autonomy.hod.client.token.InMemoryTokenRepository;
 import com.hp.autonomy.hod.client.token.TokenProxyService;
 import com.hp.autonomy.hod.client.token.TokenRepository;
+import com.hp.autonomy.hod.client.transport.HttpTransport;
+import com.hp.autonomy.hod.client.util.DaemonThreadFactory;
 import lombok.Data;
 import lombok.Setter;
 import lombok.experimental.Accessors;
@@ -23,28 +28,76 @@ import org.joda.time.Duration;
 import retrofit.RestAdapter;
 import retrofit.client.ApacheClient;
 import retrofit.client.Client;
+import retrofit.client.UrlConnectionClient;
 import retrofit.converter.JacksonConverter;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Configuration class for a HodService
  */
 @Data
 public class HodServiceConfig<E extends EntityType, T extends TokenType> {
 
+    // the default async executor is bounded, since every request in flight occupies one of its threads
     private final RestAdapter restAdapter;
     private final TokenRepository tokenRepository;
     private final Requester<E, T> requester;
     private final String endpoint;
     private final ObjectMapper objectMapper;
     private final Duration asyncTimeout;
+    private final Executor asyncExecutor;
+    private final JobPoller jobPoller;
+    private final JobPollingPolicy jobPollingPolicy;
+    private final ResponseCache responseCache;
+    private final HttpTransport transport;
 
     private HodServiceConfig(final Builder<E, T> builder) {
+        final RateLimiter rateLimiter = builder.rateLimitPolicy != null ? new RateLimiter(builder.rateLimitPolicy, builder.endpoint) : null;
+
         final RestAdapter.Builder restAdapterBuilder = new RestAdapter.Builder()
             .setEndpoint(builder.endpoint)
-            .setErrorHandler(new ErrorHandlerWrapper(builder.errorHandler));
+            .setErrorHandler(new ErrorHandlerWrapper(builder.errorHandler, rateLimiter));
+
+        final Retrier retrier;
+
+        if (builder.retryPolicy != null || !builder.apiRetryPolicies.isEmpty()) {
+            final RetryPolicy defaultRetryPolicy = builder.retryPolicy != null ? builder.retryPolicy : new RetryPolicy.Builder().build();
+            retrier = new Retrier(defaultRetryPolicy, new HashMap<>(builder.apiRetryPolicies), builder.endpoint);
+        }
+        else {
+            retrier = null;
+        }
+
+        Client client = builder.client;
+
+        if (builder.circuitBreakerPolicy != null || rateLimiter != null || retrier != null) {
+            // Retrofit uses a UrlConnectionClient by default
+            if (client == null) {
+                client = new UrlConnectionClient();
+            }
+
+            // the circuit breaker is inside the rate limiter so time spent waiting for the rate limit is not slow
+            if (builder.circuitBreakerPolicy != null) {
+                client = new CircuitBreakingClient(client, builder.circuitBreakerPolicy, builder.endpoint);
+            }
+
+            if (rateLimiter != null) {
+                client = new RateLimitingClient(client, rateLimiter);
+            }
 
-        if(builder.client != null) {
-            restAdapterBuilder.setClient(builder.client);
+            if (retrier != null) {
+                client = retrier.wrap(client);
+            }
+        }
+
+        if(client != null) {
+            restAdapterBuilder.setClient(client);
         }
 
         if (builder.objectMapper != null) {
@@ -65,7 +118,34 @@ public class HodServiceConfig<E extends EntityType, T extends TokenType> {
         restAdapter = restAdapterBuilder.build();
         tokenRepository = builder.tokenRepository;
 
-        requester = new Requester<>(tokenRepository, new ResponseParser(tokenRepository, objectMapper), builder.tokenProxyService);
+        if (builder.asyncExecutor != null) {
+            asyncExecutor = builder.asyncExecutor;
+        }
+        else {
+            if (builder.asyncThreads <= 0 || builder.asyncQueueSize <= 0) {
+                throw new IllegalArgumentException("The number of async threads and the async queue size must be positive");
+            }
+
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                builder.asyncThreads,
+                builder.asyncThreads,
+                60,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(builder.asyncQueueSize),
+                new DaemonThreadFactory("hod-client-async")
+            );
+
+            executor.allowCoreThreadTimeOut(true);
+            asyncExecutor = executor;
+        }
+
+        jobPoller = builder.jobPoller != null ? builder.jobPoller : JobPoller.getDefault();
+        jobPollingPolicy = builder.jobPollingPolicy;
+
+        responseCache = builder.responseCache;
+        transport = builder.transport;
+
+        requester = new Requester<>(tokenRepository, new ResponseParser(tokenRepository, objectMapper), builder.tokenProxyService, asyncExecutor, responseCache, builder.coalesceRequests, builder.hedgingPolicy, rateLimiter, retrier);
         endpoint = builder.endpoint;
 
         asyncTimeout = builder.asyncTimeout;
@@ -101,6 +181,85 @@ public class HodServiceConfig<E extends EntityType, T extends TokenType> {
 
         private HodErrorHandler errorHandler = new DefaultHodErrorHandler();
         private Client client;
+        private HttpTransport transport;
+        private Executor asyncExecutor;
+        private int asyncThreads = 16;
+        private int asyncQueueSize = 1024;
+
+        /**
+         * Sets the JobPoller which tracks asynchronous jobs for all polling services created with the configuration. If
+         * not provided, the process wide {@link JobPoller#getDefault()} is used, so that configurations do not each start
+         * a timer and pool of status checking threads. A JobPoller supplied here is not destroyed by the configuration
+         * @param jobPoller The JobPoller to use
+         */
+        @Setter
+        private JobPoller jobPoller;
+
+        /**
+         * Sets the policy which determines how often polling services created with the configuration check the status
+         * of their jobs. If not provided, {@link JobPollingPolicy#DEFAULT} will be used
+         * @param jobPollingPolicy The policy to use
+         */
+        @Setter
+        private JobPollingPolicy jobPollingPolicy = JobPollingPolicy.DEFAULT;
+
+        /**
+         * Sets the cache used for the responses to idempotent requests, such as Query Text Index and Get Content. If
+         * not provided, responses will not be cached
+         * @param responseCache The cache to use
+         */
+        @Setter
+        private ResponseCache responseCache;
+
+        /**
+         * Sets whether concurrent identical idempotent requests, such as Query Text Index and Get Parametric Values,
+         * should share a single call to HP Haven OnDemand. Requests are identical if they use the same token proxy,
+         * API and parameters. Every caller receives the same response object, so responses should not be modified.
+         * Defaults to false
+         * @param coalesceRequests True if identical requests should be coalesced
+         */
+        @Setter
+        private boolean coalesceRequests;
+
+        /**
+         * Sets the policy for hedging idempotent requests, such as Query Text Index and Get Content, which have not
+         * completed within a percentile of recent response times. The request is made on the calling thread and only the
+         * hedge runs on the async executor; if the executor is saturated the request is not hedged. If not provided,
+         * requests are not hedged
+         * @param hedgingPolicy The policy to use
+         */
+        @Setter
+        private HedgingPolicy hedgingPolicy;
+
+        /**
+         * Sets the policy for limiting the rate of requests to each API for each token proxy. Requests which would
+         * exceed the limit wait before they are sent, and the limit is reduced when HP Haven OnDemand reports too many
+         * requests. If not provided, the rate of requests is not limited
+         * @param rateLimitPolicy The policy to use
+         */
+        @Setter
+        private RateLimitPolicy rateLimitPolicy;
+
+        /**
+         * Sets the policy for the circuit breakers which make requests to an API fail immediately with a
+         * {@link com.hp.autonomy.hod.client.error.CircuitOpenException} while it is failing or responding slowly. If not
+         * provided, requests are always sent
+         * @param circuitBreakerPolicy The policy to use
+         */
+        @Setter
+        private CircuitBreakerPolicy circuitBreakerPolicy;
+
+        /**
+         * Sets the policy for retrying requests which fail with a transient error, such as a network error or
+         * {@link com.hp.autonomy.hod.client.error.HodErrorCode#BACKEND_REQUEST_FAILED}. This policy is used for APIs
+         * without a policy set by {@link #setApiRetryPolicy(String, RetryPolicy)}. If neither is provided, requests are
+         * not retried
+         * @param retryPolicy The policy to use
+         */
+        @Setter
+        private RetryPolicy retryPolicy;
+
+        private final Map<String, RetryPolicy> apiRetryPolicies = new HashMap<>();
 
         /**
          * Creates a new HodServiceConfig pointing at the given endpoint
@@ -118,6 +277,19 @@ public class HodServiceConfig<E extends EntityType, T extends TokenType> {
          */
         public Builder<E, T> setHttpClient(final HttpClient httpClient) {
             client = new ApacheClient(httpClient);
+            transport = null;
+            return this;
+        }
+
+        /**
+         * Configures the transport to use for communication with HP Haven OnDemand, replacing any HttpClient set with
+         * {@link #setHttpClient(HttpClient)}. The transport is not closed by the HodServiceConfig
+         * @param transport The transport to use
+         * @return this
+         */
+        public Builder<E, T> setTransport(final HttpTransport transport) {
+            client = transport.getClient();
+            this.transport = transport;
             return this;
         }
 
@@ -141,6 +313,57 @@ public class HodServiceConfig<E extends EntityType, T extends TokenType> {
             return this;
         }
 
+        /**
+         * Configures the executor used to run requests made through the asynchronous methods of {@link Requester}, as
+         * well as hedges, paged queries and scatter-gather queries. HTTP calls are blocking, so each request occupies
+         * a thread while it is in flight, and the number of asynchronous requests in flight is limited by the number
+         * of threads. If not provided, a pool of daemon threads sized by {@link #setAsyncThreads(int)} and
+         * {@link #setAsyncQueueSize(int)} will be used, and requests are rejected with a
+         * {@link java.util.concurrent.RejectedExecutionException} when its queue is full
+         * @param asyncExecutor The executor to use
+         * @return this
+         */
+        public Builder<E, T> setAsyncExecutor(final Executor asyncExecutor) {
+            this.asyncExecutor = asyncExecutor;
+            return this;
+        }
+
+        /**
+         * Sets the number of threads in the default async executor, which is the maximum number of asynchronous
+         * requests in flight at once. Ignored if an executor is set with {@link #setAsyncExecutor(Executor)}. Defaults
+         * to 16
+         * @param asyncThreads The number of threads
+         * @return this
+         */
+        public Builder<E, T> setAsyncThreads(final int asyncThreads) {
+            this.asyncThreads = asyncThreads;
+            return this;
+        }
+
+        /**
+         * Sets the number of asynchronous requests which may wait for a thread of the default async executor before
+         * further requests are rejected. Ignored if an executor is set with {@link #setAsyncExecutor(Executor)}.
+         * Defaults to 1024
+         * @param asyncQueueSize The size of the queue
+         * @return this
+         */
+        public Builder<E, T> setAsyncQueueSize(final int asyncQueueSize) {
+            this.asyncQueueSize = asyncQueueSize;
+            return this;
+        }
+
+        /**
+         * Sets the retry policy for the APIs whose paths start with the given path, overriding the policy set by
+         * {@link #setRetryPolicy(RetryPolicy)}. The longest matching path is used
+         * @param path The start of the path, for example /2/api/sync/textindex/query/search/v1
+         * @param retryPolicy The policy to use
+         * @return this
+         */
+        public Builder<E, T> setApiRetryPolicy(final String path, final RetryPolicy retryPolicy) {
+            apiRetryPolicies.put(path, retryPolicy);
+            return this;
+        }
+
         /**
          * @return A HodServiceConfig with the given options
          */
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.config;
+
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.joda.time.Duration;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Policy for limiting the rate of requests sent to HP Haven OnDemand. Each API has a separate limit for each token
+ * proxy, and requests wait on the client until they can be sent within the limit. When HP Haven OnDemand reports that a
+ * limit or quota has been exceeded, the rate for that API and token proxy is reduced, and then recovers gradually.
+ * Requests for different resources or jobs share the limit of their API.
+ */
+@Data
+public class RateLimitPolicy {
+
+    /**
+     * @return The maximum rate of requests to each synchronous API, per second
+     */
+    private final double syncRequestsPerSecond;
+
+    /**
+     * @return The maximum rate of requests to each asynchronous API, per second
+     */
+    private final double asyncRequestsPerSecond;
+
+    /**
+     * @return Maximum rates for particular APIs, per second, keyed by the start of the path of the API. These override
+     * the sync and async rates, and the longest matching path is used
+     */
+    private final Map<String, Double> apiRequestsPerSecond;
+
+    /**
+     * @return The number of requests which may be sent at once after a period of inactivity
+     */
+    private final int burstSize;
+
+    /**
+     * @return The factor by which the rate is multiplied when HP Haven OnDemand reports too many requests
+     */
+    private final double backoffFactor;
+
+    /**
+     * @return The lowest rate the backoff may reduce an API to, per second
+     */
+    private final double minimumRequestsPerSecond;
+
+    /**
+     * @return The time taken to recover from the minimum rate to the maximum rate
+     */
+    private final Duration recoveryTime;
+
+    /**
+     * @return The longest time a request may wait for the rate limit. Requests which would wait longer fail immediately
+     * with a {@link com.hp.autonomy.hod.client.error.RateLimitExceededException}
+     */
+    private final Duration maximumWait;
+
+    private RateLimitPolicy(final Builder builder) {
+        if (builder.syncRequestsPerSecond <= 0 || builder.asyncRequestsPerSecond <= 0 || builder.minimumRequestsPerSecond <= 0 || builder.burstSize <= 0) {
+            throw new IllegalArgumentException("Rates and burst size must be positive");
+        }
+
+        if (builder.backoffFactor <= 0 || builder.backoffFactor >= 1) {
+            throw new IllegalArgumentException("Backoff factor must be between 0 and 1");
+        }
+
+        if (builder.maximumWait.getMillis() <= 0) {
+            throw new IllegalArgumentException("Maximum wait must be positive");
+        }
+
+        syncRequestsPerSecond = builder.syncRequestsPerSecond;
+        asyncRequestsPerSecond = builder.asyncRequestsPerSecond;
+        apiRequestsPerSecond = Collections.unmodifiableMap(new HashMap<>(builder.apiRequestsPerSecond));
+        burstSize = builder.burstSize;
+        backoffFactor = builder.backoffFactor;
+        minimumRequestsPerSecond = builder.minimumRequestsPerSecond;
+        recoveryTime = builder.recoveryTime;
+        maximumWait = builder.maximumWait;
+    }
+
+    @Setter
+    @Accessors(chain = true)
+    public static class Builder {
+        private double syncRequestsPerSecond = 10;
+        private double asyncRequestsPerSecond = 2;
+        private int burstSize = 5;
+        private double backoffFactor = 0.5;
+        private double minimumRequestsPerSecond = 0.1;
+        private Duration recoveryTime = Duration.standardSeconds(30);
+        private Duration maximumWait = Duration.standardSeconds(30);
+
+        @Setter(AccessLevel.NONE)
+        private final Map<String, Double> apiRequestsPerSecond = new HashMap<>();
+
+        /**
+         * Sets the maximum rate for the APIs whose paths start with the given path
+         * @param path The start of the path, for example /2/api/sync/textindex/query/search/v1
+         * @param requestsPerSecond The maximum rate of requests, per second
+         * @return this
+         */
+        public Builder setApiRequestsPerSecond(final String path, final double requestsPerSecond) {
+            if (requestsPerSecond <= 0) {
+                throw new IllegalArgumentException("Rates must be positive");
+            }
+
+            apiRequestsPerSecond.put(path, requestsPerSecond);
+            return this;
+        }
+
+        public RateLimitPolicy build() {
+            return new RateLimitPolicy(this);
+        }
+    }
+
+}
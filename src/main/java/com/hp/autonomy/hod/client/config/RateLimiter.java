@@ -0,0 +1,200 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.config;
+
+import com.hp.autonomy.hod.client.error.HodErrorCode;
+import com.hp.autonomy.hod.client.error.HodErrorException;
+import com.hp.autonomy.hod.client.error.RateLimitExceededException;
+import com.hp.autonomy.hod.client.token.TokenProxy;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.InterruptedIOException;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Token buckets implementing a {@link RateLimitPolicy}, one for each API and token proxy. The token proxy of the current
+ * request is passed from the {@link Requester} to the {@link RateLimitingClient} on the calling thread, since Retrofit
+ * makes synchronous calls on the thread which invoked them. Requests which are not made through a Requester, such as
+ * authentication requests, share a bucket for each API.
+ */
+@Slf4j
+class RateLimiter {
+
+    private static final Set<HodErrorCode> THROTTLING_ERRORS = EnumSet.of(HodErrorCode.TOO_MANY_REQUESTS, HodErrorCode.QUOTA_VIOLATION, HodErrorCode.CONCURRENT_API_CALL);
+    private static final String ASYNC_PREFIX = "/2/api/async/";
+
+    // buckets which have been idle for this long have refilled and recovered, so they are removed
+    private static final long IDLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+    private static final int SWEEP_INTERVAL = 1024;
+
+    private final RateLimitPolicy policy;
+    private final String endpoint;
+    private final long maximumWaitNanos;
+    private final ThreadLocal<TokenProxy<?, ?>> currentTokenProxy = new ThreadLocal<>();
+    private final ConcurrentMap<BucketKey, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger requestsSinceSweep = new AtomicInteger(0);
+
+    RateLimiter(final RateLimitPolicy policy, final String endpoint) {
+        this.policy = policy;
+        this.endpoint = endpoint;
+
+        maximumWaitNanos = TimeUnit.MILLISECONDS.toNanos(policy.getMaximumWait().getMillis());
+    }
+
+    /**
+     * Makes a request through the Requester, associating any HTTP requests it makes with the token proxy
+     */
+    <U> U withTokenProxy(final TokenProxy<?, ?> tokenProxy, final Requester.RequestSupplier<U> supplier) throws HodErrorException {
+        final TokenProxy<?, ?> previous = currentTokenProxy.get();
+        currentTokenProxy.set(tokenProxy);
+
+        try {
+            return supplier.get();
+        } finally {
+            if (previous == null) {
+                currentTokenProxy.remove();
+            }
+            else {
+                currentTokenProxy.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Waits until a request to the given URL may be sent
+     * @throws InterruptedIOException If the thread is interrupted while waiting
+     * @throws RateLimitExceededException If the request would wait longer than the maximum wait
+     */
+    void acquire(final String url) throws InterruptedIOException {
+        final long now = System.nanoTime();
+
+        if (requestsSinceSweep.incrementAndGet() >= SWEEP_INTERVAL) {
+            requestsSinceSweep.set(0);
+            buckets.values().removeIf(bucket -> bucket.isIdle(now));
+        }
+
+        final String path = RequestPaths.getApiPath(endpoint, url);
+        final long waitNanos = getBucket(path).reserve(now);
+
+        if (waitNanos < 0) {
+            throw new RateLimitExceededException(path);
+        }
+
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the rate limit");
+            }
+        }
+    }
+
+    /**
+     * Reduces the rate for the given URL if the error shows too many requests have been sent
+     */
+    void onError(final String url, final HodErrorCode errorCode) {
+        if (THROTTLING_ERRORS.contains(errorCode)) {
+            log.debug("Received {} for {}, reducing request rate", errorCode, url);
+            getBucket(RequestPaths.getApiPath(endpoint, url)).backOff(System.nanoTime());
+        }
+    }
+
+    private Bucket getBucket(final String path) {
+        return buckets.computeIfAbsent(new BucketKey(currentTokenProxy.get(), path), key -> new Bucket(getMaximumRate(path)));
+    }
+
+    private double getMaximumRate(final String path) {
+        String longestMatch = null;
+
+        for (final Map.Entry<String, Double> entry : policy.getApiRequestsPerSecond().entrySet()) {
+            final String prefix = entry.getKey();
+
+            if (path.startsWith(prefix) && (longestMatch == null || prefix.length() > longestMatch.length())) {
+                longestMatch = prefix;
+            }
+        }
+
+        if (longestMatch != null) {
+            return policy.getApiRequestsPerSecond().get(longestMatch);
+        }
+
+        return path.startsWith(ASYNC_PREFIX) ? policy.getAsyncRequestsPerSecond() : policy.getSyncRequestsPerSecond();
+    }
+
+    @Data
+    private static class BucketKey {
+        private final TokenProxy<?, ?> tokenProxy;
+        private final String path;
+    }
+
+    // The tokens may become negative, in which case callers queue for the time needed to refill them, up to the
+    // maximum wait. The rate is halved (by default) on each throttling error and recovers linearly over the recovery time
+    private class Bucket {
+        private final double maximumRate;
+        private final double recoveryPerNano;
+        private final double minimumRate;
+
+        private double rate;
+        private double tokens;
+        private long lastRefill;
+        private volatile long lastUsed;
+
+        private Bucket(final double maximumRate) {
+            this.maximumRate = maximumRate;
+            minimumRate = Math.min(policy.getMinimumRequestsPerSecond(), maximumRate);
+            recoveryPerNano = (maximumRate - minimumRate) / Math.max(TimeUnit.MILLISECONDS.toNanos(policy.getRecoveryTime().getMillis()), 1);
+
+            rate = maximumRate;
+            tokens = policy.getBurstSize();
+            lastRefill = System.nanoTime();
+            lastUsed = lastRefill;
+        }
+
+        // returns the time to wait, or -1 if the request would wait too long, in which case no token is taken
+        private synchronized long reserve(final long now) {
+            refill(now);
+            lastUsed = now;
+
+            final double remaining = tokens - 1;
+            final long waitNanos = remaining >= 0 ? 0 : (long) Math.ceil(-remaining / rate * TimeUnit.SECONDS.toNanos(1));
+
+            if (waitNanos > maximumWaitNanos) {
+                return -1;
+            }
+
+            tokens = remaining;
+            return waitNanos;
+        }
+
+        private synchronized void backOff(final long now) {
+            refill(now);
+            rate = Math.max(rate * policy.getBackoffFactor(), minimumRate);
+
+            // stop sending requests immediately, rather than using up the remaining burst
+            tokens = Math.min(tokens, 0);
+        }
+
+        private void refill(final long now) {
+            final long elapsed = Math.max(now - lastRefill, 0);
+            lastRefill = now;
+
+            rate = Math.min(rate + recoveryPerNano * elapsed, maximumRate);
+            tokens = Math.min(tokens + rate * elapsed / TimeUnit.SECONDS.toNanos(1), policy.getBurstSize());
+        }
+
+        private boolean isIdle(final long now) {
+            return now - lastUsed > IDLE_NANOS;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.config;
+
+import retrofit.client.Client;
+import retrofit.client.Request;
+import retrofit.client.Response;
+
+import java.io.IOException;
+
+/**
+ * Client which waits for the {@link RateLimiter} before each request
+ */
+class RateLimitingClient implements Client {
+
+    private final Client delegate;
+    private final RateLimiter rateLimiter;
+
+    RateLimitingClient(final Client delegate, final RateLimiter rateLimiter) {
+        this.delegate = delegate;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public Response execute(final Request request) throws IOException {
+        rateLimiter.acquire(request.getUrl());
+        return delegate.execute(request);
+    }
+
+}
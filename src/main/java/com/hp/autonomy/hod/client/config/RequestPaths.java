@@ -0,0 +1,88 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.config;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Utility for finding the API a request is for from its URL
+ */
+final class RequestPaths {
+
+    private static final String VARIABLE_START = "{";
+
+    // The paths of APIs which contain resource names or job IDs. Segments in braces match any value, so that requests
+    // for every index or job share the same API path
+    private static final List<String[]> TEMPLATES = Arrays.asList(
+        split("/2/job/{jobId}/status"),
+        split("/2/job/{jobId}/result"),
+        split("/2/api/sync/textindex/{indexName}/v1"),
+        split("/2/api/async/textindex/{indexName}/v1"),
+        split("/2/api/async/textindex/{indexName}/v2"),
+        split("/2/api/async/textindex/{indexName}/document/v1"),
+        split("/2/api/sync/textindex/{index_identifier}/status/v2"),
+        split("/2/api/sync/queryprofile/{query_profile}/v1"),
+        split("/2/api/sync/queryprofile/{query_profile}/v2"),
+        split("/2/api/sync/domain/{domain_name}/application/v1"),
+        split("/2/api/sync/domain/{domain_name}/application/{application_name}/v1"),
+        split("/2/api/sync/domain/{domain_name}/application/{application_name}/authentication/v1")
+    );
+
+    private RequestPaths() {}
+
+    /**
+     * @param endpoint The HP Haven OnDemand endpoint
+     * @param url The URL of the request
+     * @return The path of the API, relative to the endpoint and without the query string. Resource names and job IDs
+     * are replaced with the variable names used by the API, so every request to an API has the same path
+     */
+    static String getApiPath(final String endpoint, final String url) {
+        final String path = getPath(endpoint, url);
+        final String[] segments = split(path);
+
+        for (final String[] template : TEMPLATES) {
+            if (matches(template, segments)) {
+                return String.join("/", template);
+            }
+        }
+
+        return path;
+    }
+
+    private static String getPath(final String endpoint, final String url) {
+        final int queryStart = url.indexOf('?');
+        final String withoutQuery = queryStart < 0 ? url : url.substring(0, queryStart);
+
+        if (withoutQuery.startsWith(endpoint)) {
+            return withoutQuery.substring(endpoint.length());
+        }
+
+        // the url has a different host, so remove the scheme and host
+        final int schemeEnd = withoutQuery.indexOf("://");
+        final int pathStart = schemeEnd < 0 ? -1 : withoutQuery.indexOf('/', schemeEnd + 3);
+        return pathStart < 0 ? withoutQuery : withoutQuery.substring(pathStart);
+    }
+
+    private static boolean matches(final String[] template, final String[] segments) {
+        if (template.length != segments.length) {
+            return false;
+        }
+
+        for (int i = 0; i < template.length; i++) {
+            if (!template[i].startsWith(VARIABLE_START) && !template[i].equals(segments[i])) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static String[] split(final String path) {
+        return path.split("/", -1);
+    }
+
+}
@@ -7,10 +7,13 @@ package com.hp.autonomy.hod.client.config;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
 import com.hp.autonomy.hod.client.api.authentication.AuthenticationToken;
 import com.hp.autonomy.hod.client.api.authentication.EntityType;
 import com.hp.autonomy.hod.client.api.authentication.HodAuthenticationFailedException;
 import com.hp.autonomy.hod.client.api.authentication.TokenType;
+import com.hp.autonomy.hod.client.cache.ResponseCache;
+import com.hp.autonomy.hod.client.cache.ResponseCacheKey;
 import com.hp.autonomy.hod.client.error.HodErrorException;
 import com.hp.autonomy.hod.client.token.TokenProxy;
 import com.hp.autonomy.hod.client.token.TokenProxyService;
@@ -20,6 +23,15 @@ import retrofit.client.Response;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Makes a request to HP Haven OnDemand
@@ -29,11 +41,49 @@ public class Requester<E extends EntityType, T extends TokenType> {
     private final TokenRepository tokenRepository;
     private final ResponseParser responseParser;
     private final TokenProxyService<? extends E, ? extends T> tokenProxyService;
+    private final Executor asyncExecutor;
+    private final ResponseCache responseCache;
+    private final ConcurrentMap<ResponseCacheKey, CompletableFuture<Object>> inFlightRequests;
+    private final Hedger hedger;
+    private final RateLimiter rateLimiter;
+    private final Retrier retrier;
 
     Requester(final TokenRepository tokenRepository, final ResponseParser responseParser, final TokenProxyService<? extends E, ? extends T> tokenProxyService) {
+        this(tokenRepository, responseParser, tokenProxyService, Runnable::run, null, false);
+    }
+
+    Requester(
+        final TokenRepository tokenRepository,
+        final ResponseParser responseParser,
+        final TokenProxyService<? extends E, ? extends T> tokenProxyService,
+        final Executor asyncExecutor,
+        final ResponseCache responseCache,
+        final boolean coalesceRequests
+    ) {
+        this(tokenRepository, responseParser, tokenProxyService, asyncExecutor, responseCache, coalesceRequests, null, null, null);
+    }
+
+    Requester(
+        final TokenRepository tokenRepository,
+        final ResponseParser responseParser,
+        final TokenProxyService<? extends E, ? extends T> tokenProxyService,
+        final Executor asyncExecutor,
+        final ResponseCache responseCache,
+        final boolean coalesceRequests,
+        final HedgingPolicy hedgingPolicy,
+        final RateLimiter rateLimiter,
+        final Retrier retrier
+    ) {
         this.tokenRepository = tokenRepository;
         this.responseParser = responseParser;
         this.tokenProxyService = tokenProxyService;
+        this.asyncExecutor = asyncExecutor;
+        this.responseCache = responseCache;
+
+        inFlightRequests = coalesceRequests ? new ConcurrentHashMap<>() : null;
+        hedger = hedgingPolicy != null ? new Hedger(hedgingPolicy, asyncExecutor, retrier != null ? retrier.getBudget() : null) : null;
+        this.rateLimiter = rateLimiter;
+        this.retrier = retrier;
     }
 
     /**
@@ -70,7 +120,7 @@ public class Requester<E extends EntityType, T extends TokenType> {
      * Makes a request to HP Haven OnDemand using a TokenProxy provided by a {@link TokenProxyService}, returning the
      * response body as an input stream.
      * @param backendCaller Makes the request to HP Haven OnDemand
-     * @return The response body
+     * @return The response body, which must be closed to release its connection
      * @throws HodErrorException
      * @throws NullPointerException If a TokenProxyService has not been configured
      */
@@ -110,7 +160,7 @@ public class Requester<E extends EntityType, T extends TokenType> {
         final Class<U> returnType,
         final BackendCaller<? super BE, ? super BT> backendCaller
     ) throws HodErrorException {
-        return responseParser.parseResponse(tokenProxy, returnType, backendCaller.makeRequest(getAuthenticationToken(tokenProxy)));
+        return responseParser.parseResponse(tokenProxy, returnType, callBackend(tokenProxy, backendCaller));
     }
 
     /**
@@ -129,7 +179,7 @@ public class Requester<E extends EntityType, T extends TokenType> {
         final TypeReference<U> typeReference,
         final BackendCaller<? super BE, ? super BT> backendCaller
     ) throws HodErrorException {
-        return responseParser.parseResponse(tokenProxy, typeReference, backendCaller.makeRequest(getAuthenticationToken(tokenProxy)));
+        return responseParser.parseResponse(tokenProxy, typeReference, callBackend(tokenProxy, backendCaller));
     }
 
     /**
@@ -138,14 +188,14 @@ public class Requester<E extends EntityType, T extends TokenType> {
      * @param backendCaller Makes the request to HP Haven OnDemand
      * @param <BE> The entity type of the token proxy
      * @param <BT> The token type of the token proxy
-     * @return The response body
+     * @return The response body, which must be closed to release its connection
      * @throws HodErrorException
      */
     public <BE extends EntityType, BT extends TokenType> InputStream makeRequest(
         final TokenProxy<BE, BT> tokenProxy,
         final BackendCaller<? super BE, ? super BT> backendCaller
     ) throws HodErrorException {
-        return responseParser.parseResponse(tokenProxy, backendCaller.makeRequest(getAuthenticationToken(tokenProxy)));
+        return responseParser.parseResponse(tokenProxy, callBackend(tokenProxy, backendCaller));
     }
 
     /**
@@ -166,7 +216,501 @@ public class Requester<E extends EntityType, T extends TokenType> {
         final JavaType type,
         final BackendCaller<? super BE, ? super BT> backendCaller
     ) throws HodErrorException {
-        return responseParser.unsafeParseResponse(tokenProxy, type, backendCaller.makeRequest(getAuthenticationToken(tokenProxy)));
+        return responseParser.unsafeParseResponse(tokenProxy, type, callBackend(tokenProxy, backendCaller));
+    }
+
+    /**
+     * Makes a request to HP Haven OnDemand using a TokenProxy provided by a {@link TokenProxyService}, converting the
+     * response body to the type specified by the JavaType. The elements of the given array property are passed to the
+     * consumer as they are parsed rather than being held in memory, and the array is empty in the returned object. This
+     * method does not guarantee that the type parameters represent the given JavaTypes.
+     * @param type The desired type of the value returned by HP Haven OnDemand
+     * @param arrayProperty The name of the array property to stream
+     * @param elementType The desired type of the array elements
+     * @param elementConsumer Receives each element of the array in order
+     * @param backendCaller Makes the request to HP Haven OnDemand
+     * @param <U> The desired type of the value returned by HP Haven OnDemand
+     * @param <D> The desired type of the array elements
+     * @return An object representing the output from HP Haven OnDemand, with an empty array
+     * @throws HodErrorException
+     * @throws NullPointerException If a TokenProxyService has not been configured
+     */
+    public <U, D> U unsafeMakeStreamingRequest(
+        final JavaType type,
+        final String arrayProperty,
+        final JavaType elementType,
+        final Consumer<? super D> elementConsumer,
+        final BackendCaller<? super E, ? super T> backendCaller
+    ) throws HodErrorException {
+        checkTokenProxyService();
+        return unsafeMakeStreamingRequest(tokenProxyService.getTokenProxy(), type, arrayProperty, elementType, elementConsumer, backendCaller);
+    }
+
+    /**
+     * Makes a request to HP Haven OnDemand, converting the response body to the type specified by the JavaType. The
+     * elements of the given array property are passed to the consumer as they are parsed rather than being held in
+     * memory, and the array is empty in the returned object. This method does not guarantee that the type parameters
+     * represent the given JavaTypes.
+     * @param tokenProxy The token proxy to use to make the request
+     * @param type The desired type of the value returned by HP Haven OnDemand
+     * @param arrayProperty The name of the array property to stream
+     * @param elementType The desired type of the array elements
+     * @param elementConsumer Receives each element of the array in order
+     * @param backendCaller Makes the request to HP Haven OnDemand
+     * @param <U> The desired type of the value returned by HP Haven OnDemand
+     * @param <D> The desired type of the array elements
+     * @param <BE> The entity type of the token proxy
+     * @param <BT> The token type of the token proxy
+     * @return An object representing the output from HP Haven OnDemand, with an empty array
+     * @throws HodErrorException
+     */
+    public <U, D, BE extends EntityType, BT extends TokenType> U unsafeMakeStreamingRequest(
+        final TokenProxy<BE, BT> tokenProxy,
+        final JavaType type,
+        final String arrayProperty,
+        final JavaType elementType,
+        final Consumer<? super D> elementConsumer,
+        final BackendCaller<? super BE, ? super BT> backendCaller
+    ) throws HodErrorException {
+        final Response response = callBackend(tokenProxy, backendCaller);
+        return responseParser.unsafeParseStreamingResponse(tokenProxy, type, arrayProperty, elementType, elementConsumer, response);
+    }
+
+    /**
+     * Makes an idempotent request to HP Haven OnDemand using a TokenProxy provided by a {@link TokenProxyService},
+     * converting the response body to the type specified by the Class object. If a {@link ResponseCache} has been
+     * configured, a cached response for the same token proxy, path and parameters is returned without making a request.
+     * If request coalescing is enabled, concurrent identical requests share a single call to HP Haven OnDemand.
+     * @param returnType The desired type of the value returned by HP Haven OnDemand
+     * @param path The path of the API
+     * @param parameters All the parameters sent by the backend caller
+     * @param backendCaller Makes the request to HP Haven OnDemand
+     * @param <U> The desired type of the value returned by HP Haven OnDemand
+     * @return An object representing the output from HP Haven OnDemand
+     * @throws HodErrorException
+     * @throws NullPointerException If a TokenProxyService has not been configured
+     */
+    public <U> U makeIdempotentRequest(
+        final Class<U> returnType,
+        final String path,
+        final Map<String, ?> parameters,
+        final BackendCaller<? super E, ? super T> backendCaller
+    ) throws HodErrorException {
+        checkTokenProxyService();
+        return makeIdempotentRequest(tokenProxyService.getTokenProxy(), returnType, path, parameters, backendCaller);
+    }
+
+    /**
+     * Makes an idempotent request to HP Haven OnDemand, converting the response body to the type specified by the
+     * Class object. If a {@link ResponseCache} has been configured, a cached response for the same token proxy, path
+     * and parameters is returned without making a request. If request coalescing is enabled, concurrent identical
+     * requests share a single call to HP Haven OnDemand.
+     * @param tokenProxy The token proxy to use to make the request
+     * @param returnType The desired type of the value returned by HP Haven OnDemand
+     * @param path The path of the API
+     * @param parameters All the parameters sent by the backend caller
+     * @param backendCaller Makes the request to HP Haven OnDemand
+     * @param <U> The desired type of the value returned by HP Haven OnDemand
+     * @param <BE> The entity type of the token proxy
+     * @param <BT> The token type of the token proxy
+     * @return An object representing the output from HP Haven OnDemand
+     * @throws HodErrorException
+     */
+    public <U, BE extends EntityType, BT extends TokenType> U makeIdempotentRequest(
+        final TokenProxy<BE, BT> tokenProxy,
+        final Class<U> returnType,
+        final String path,
+        final Map<String, ?> parameters,
+        final BackendCaller<? super BE, ? super BT> backendCaller
+    ) throws HodErrorException {
+        return makeIdempotentRequest(
+            path,
+            () -> new ResponseCacheKey(tokenProxy, TypeFactory.defaultInstance().constructType(returnType), path, parameters),
+            () -> makeRequest(tokenProxy, returnType, backendCaller)
+        );
+    }
+
+    /**
+     * Makes an idempotent request to HP Haven OnDemand using a TokenProxy provided by a {@link TokenProxyService},
+     * converting the response body to the type specified by the JavaType. If a {@link ResponseCache} has been
+     * configured, a cached response for the same token proxy, path and parameters is returned without making a request.
+     * If request coalescing is enabled, concurrent identical requests share a single call to HP Haven OnDemand. This
+     * method does not guarantee that the type parameter U represents the given JavaType.
+     * @param type The desired type of the value returned by HP Haven OnDemand
+     * @param path The path of the API
+     * @param parameters All the parameters sent by the backend caller
+     * @param backendCaller Makes the request to HP Haven OnDemand
+     * @param <U> The desired type of the value returned by HP Haven OnDemand
+     * @return An object representing the output from HP Haven OnDemand
+     * @throws HodErrorException
+     * @throws NullPointerException If a TokenProxyService has not been configured
+     */
+    public <U> U unsafeMakeIdempotentRequest(
+        final JavaType type,
+        final String path,
+        final Map<String, ?> parameters,
+        final BackendCaller<? super E, ? super T> backendCaller
+    ) throws HodErrorException {
+        checkTokenProxyService();
+        return unsafeMakeIdempotentRequest(tokenProxyService.getTokenProxy(), type, path, parameters, backendCaller);
+    }
+
+    /**
+     * Makes an idempotent request to HP Haven OnDemand, converting the response body to the type specified by the
+     * JavaType. If a {@link ResponseCache} has been configured, a cached response for the same token proxy, path and
+     * parameters is returned without making a request. If request coalescing is enabled, concurrent identical requests
+     * share a single call to HP Haven OnDemand. This method does not guarantee that the type parameter U represents the
+     * given JavaType.
+     * @param tokenProxy The token proxy to use to make the request
+     * @param type The desired type of the value returned by HP Haven OnDemand
+     * @param path The path of the API
+     * @param parameters All the parameters sent by the backend caller
+     * @param backendCaller Makes the request to HP Haven OnDemand
+     * @param <U> The desired type of the value returned by HP Haven OnDemand
+     * @param <BE> The entity type of the token proxy
+     * @param <BT> The token type of the token proxy
+     * @return An object representing the output from HP Haven OnDemand
+     * @throws HodErrorException
+     */
+    public <U, BE extends EntityType, BT extends TokenType> U unsafeMakeIdempotentRequest(
+        final TokenProxy<BE, BT> tokenProxy,
+        final JavaType type,
+        final String path,
+        final Map<String, ?> parameters,
+        final BackendCaller<? super BE, ? super BT> backendCaller
+    ) throws HodErrorException {
+        return makeIdempotentRequest(path, () -> new ResponseCacheKey(tokenProxy, type, path, parameters), () -> unsafeMakeRequest(tokenProxy, type, backendCaller));
+    }
+
+    /**
+     * Makes a request to HP Haven OnDemand without blocking the calling thread, using a TokenProxy provided by a
+     * {@link TokenProxyService} and converting the response body to the type specified by the Class object. The token
+     * proxy is obtained on the calling thread.
+     * <p/>
+     * The HTTP call itself is blocking, so the request occupies a thread of the async executor until the response is
+     * received, and the number of requests in flight is limited by the size of the executor.
+     * @param returnType The desired type of the value returned by HP Haven OnDemand
+     * @param backendCaller Makes the request to HP Haven OnDemand
+     * @param <U> The desired type of the value returned by HP Haven OnDemand
+     * @return A future which will complete with the output from HP Haven OnDemand, or complete exceptionally with a
+     * {@link HodErrorException}
+     * @throws NullPointerException If a TokenProxyService has not been configured
+     * @throws RejectedExecutionException If the async executor is saturated and cannot accept the request
+     */
+    public <U> CompletableFuture<U> makeRequestAsync(final Class<U> returnType, final BackendCaller<? super E, ? super T> backendCaller) {
+        checkTokenProxyService();
+        return makeRequestAsync(tokenProxyService.getTokenProxy(), returnType, backendCaller);
+    }
+
+    /**
+     * Makes a request to HP Haven OnDemand without blocking the calling thread, using a TokenProxy provided by a
+     * {@link TokenProxyService} and converting the response body to the type specified by the type reference. The token
+     * proxy is obtained on the calling thread.
+     * <p/>
+     * The HTTP call itself is blocking, so the request occupies a thread of the async executor until the response is
+     * received, and the number of requests in flight is limited by the size of the executor.
+     * @param typeReference The desired type of the value returned by HP Haven OnDemand
+     * @param backendCaller Makes the request to HP Haven OnDemand
+     * @param <U> The desired type of the value returned by HP Haven OnDemand
+     * @return A future which will complete with the output from HP Haven OnDemand, or complete exceptionally with a
+     * {@link HodErrorException}
+     * @throws NullPointerException If a TokenProxyService has not been configured
+     * @throws RejectedExecutionException If the async executor is saturated and cannot accept the request
+     */
+    public <U> CompletableFuture<U> makeRequestAsync(final TypeReference<U> typeReference, final BackendCaller<? super E, ? super T> backendCaller) {
+        checkTokenProxyService();
+        return makeRequestAsync(tokenProxyService.getTokenProxy(), typeReference, backendCaller);
+    }
+
+    /**
+     * Makes a request to HP Haven OnDemand without blocking the calling thread, using a TokenProxy provided by a
+     * {@link TokenProxyService} and converting the response body to the type specified by the JavaType. This method
+     * does not guarantee that the type parameter U represents the given JavaType. The token proxy is obtained on the
+     * calling thread.
+     * <p/>
+     * The HTTP call itself is blocking, so the request occupies a thread of the async executor until the response is
+     * received, and the number of requests in flight is limited by the size of the executor.
+     * @param type The desired type of the value returned by HP Haven OnDemand
+     * @param backendCaller Makes the request to HP Haven OnDemand
+     * @param <U> The desired type of the value returned by HP Haven OnDemand
+     * @return A future which will complete with the output from HP Haven OnDemand, or complete exceptionally with a
+     * {@link HodErrorException}
+     * @throws NullPointerException If a TokenProxyService has not been configured
+     * @throws RejectedExecutionException If the async executor is saturated and cannot accept the request
+     */
+    public <U> CompletableFuture<U> unsafeMakeRequestAsync(final JavaType type, final BackendCaller<? super E, ? super T> backendCaller) {
+        checkTokenProxyService();
+        return unsafeMakeRequestAsync(tokenProxyService.getTokenProxy(), type, backendCaller);
+    }
+
+    /**
+     * Makes a request to HP Haven OnDemand without blocking the calling thread, converting the response body to the
+     * type specified by the Class object.
+     * <p/>
+     * The HTTP call itself is blocking, so the request occupies a thread of the async executor until the response is
+     * received, and the number of requests in flight is limited by the size of the executor.
+     * @param tokenProxy The token proxy to use to make the request
+     * @param returnType The desired type of the value returned by HP Haven OnDemand
+     * @param backendCaller Makes the request to HP Haven OnDemand
+     * @param <U> The desired type of the value returned by HP Haven OnDemand
+     * @param <BE> The entity type of the token proxy
+     * @param <BT> The token type of the token proxy
+     * @return A future which will complete with the output from HP Haven OnDemand, or complete exceptionally with a
+     * {@link HodErrorException}
+     * @throws RejectedExecutionException If the async executor is saturated and cannot accept the request
+     */
+    public <U, BE extends EntityType, BT extends TokenType> CompletableFuture<U> makeRequestAsync(
+        final TokenProxy<BE, BT> tokenProxy,
+        final Class<U> returnType,
+        final BackendCaller<? super BE, ? super BT> backendCaller
+    ) {
+        return supplyAsync(() -> makeRequest(tokenProxy, returnType, backendCaller));
+    }
+
+    /**
+     * Makes a request to HP Haven OnDemand without blocking the calling thread, converting the response body to the
+     * type specified by the type reference.
+     * <p/>
+     * The HTTP call itself is blocking, so the request occupies a thread of the async executor until the response is
+     * received, and the number of requests in flight is limited by the size of the executor.
+     * @param tokenProxy The token proxy to use to make the request
+     * @param typeReference The desired type of the value returned by HP Haven OnDemand
+     * @param backendCaller Makes the request to HP Haven OnDemand
+     * @param <U> The desired type of the value returned by HP Haven OnDemand
+     * @param <BE> The entity type of the token proxy
+     * @param <BT> The token type of the token proxy
+     * @return A future which will complete with the output from HP Haven OnDemand, or complete exceptionally with a
+     * {@link HodErrorException}
+     * @throws RejectedExecutionException If the async executor is saturated and cannot accept the request
+     */
+    public <U, BE extends EntityType, BT extends TokenType> CompletableFuture<U> makeRequestAsync(
+        final TokenProxy<BE, BT> tokenProxy,
+        final TypeReference<U> typeReference,
+        final BackendCaller<? super BE, ? super BT> backendCaller
+    ) {
+        return supplyAsync(() -> makeRequest(tokenProxy, typeReference, backendCaller));
+    }
+
+    /**
+     * Makes a request to HP Haven OnDemand without blocking the calling thread, converting the response body to the
+     * type specified by the JavaType. This method does not guarantee that the type parameter U represents the given
+     * JavaType. If possible, use one of the safe makeRequestAsync methods instead.
+     * <p/>
+     * The HTTP call itself is blocking, so the request occupies a thread of the async executor until the response is
+     * received, and the number of requests in flight is limited by the size of the executor.
+     * @param tokenProxy The token proxy to use to make the request
+     * @param type The desired type of the value returned by HP Haven OnDemand
+     * @param backendCaller Makes the request to HP Haven OnDemand
+     * @param <U> The desired type of the value returned by HP Haven OnDemand
+     * @param <BE> The entity type of the token proxy
+     * @param <BT> The token type of the token proxy
+     * @return A future which will complete with the output from HP Haven OnDemand, or complete exceptionally with a
+     * {@link HodErrorException}
+     * @throws RejectedExecutionException If the async executor is saturated and cannot accept the request
+     */
+    public <U, BE extends EntityType, BT extends TokenType> CompletableFuture<U> unsafeMakeRequestAsync(
+        final TokenProxy<BE, BT> tokenProxy,
+        final JavaType type,
+        final BackendCaller<? super BE, ? super BT> backendCaller
+    ) {
+        return supplyAsync(() -> unsafeMakeRequest(tokenProxy, type, backendCaller));
+    }
+
+    /**
+     * Makes an idempotent request to HP Haven OnDemand without blocking the calling thread, using a TokenProxy provided
+     * by a {@link TokenProxyService} and converting the response body to the type specified by the JavaType. Responses
+     * are cached, coalesced and hedged as for {@link #unsafeMakeIdempotentRequest(JavaType, String, Map, BackendCaller)}.
+     * This method does not guarantee that the type parameter U represents the given JavaType. The token proxy is
+     * obtained on the calling thread.
+     * <p/>
+     * A cached response, or an identical request already in flight, completes the future without using the async
+     * executor. Otherwise the request occupies a thread of the executor until the response is received.
+     * @param type The desired type of the value returned by HP Haven OnDemand
+     * @param path The path of the API
+     * @param parameters All the parameters sent by the backend caller
+     * @param backendCaller Makes the request to HP Haven OnDemand
+     * @param <U> The desired type of the value returned by HP Haven OnDemand
+     * @return A future which will complete with the output from HP Haven OnDemand, or complete exceptionally with a
+     * {@link HodErrorException}
+     * @throws NullPointerException If a TokenProxyService has not been configured
+     * @throws RejectedExecutionException If the async executor is saturated and cannot accept the request
+     */
+    public <U> CompletableFuture<U> unsafeMakeIdempotentRequestAsync(
+        final JavaType type,
+        final String path,
+        final Map<String, ?> parameters,
+        final BackendCaller<? super E, ? super T> backendCaller
+    ) {
+        checkTokenProxyService();
+        return unsafeMakeIdempotentRequestAsync(tokenProxyService.getTokenProxy(), type, path, parameters, backendCaller);
+    }
+
+    /**
+     * Makes an idempotent request to HP Haven OnDemand without blocking the calling thread, converting the response body
+     * to the type specified by the JavaType. Responses are cached, coalesced and hedged as for
+     * {@link #unsafeMakeIdempotentRequest(TokenProxy, JavaType, String, Map, BackendCaller)}. This method does not
+     * guarantee that the type parameter U represents the given JavaType.
+     * <p/>
+     * A cached response, or an identical request already in flight, completes the future without using the async
+     * executor. Otherwise the request occupies a thread of the executor until the response is received.
+     * @param tokenProxy The token proxy to use to make the request
+     * @param type The desired type of the value returned by HP Haven OnDemand
+     * @param path The path of the API
+     * @param parameters All the parameters sent by the backend caller
+     * @param backendCaller Makes the request to HP Haven OnDemand
+     * @param <U> The desired type of the value returned by HP Haven OnDemand
+     * @param <BE> The entity type of the token proxy
+     * @param <BT> The token type of the token proxy
+     * @return A future which will complete with the output from HP Haven OnDemand, or complete exceptionally with a
+     * {@link HodErrorException}
+     * @throws RejectedExecutionException If the async executor is saturated and cannot accept the request
+     */
+    public <U, BE extends EntityType, BT extends TokenType> CompletableFuture<U> unsafeMakeIdempotentRequestAsync(
+        final TokenProxy<BE, BT> tokenProxy,
+        final JavaType type,
+        final String path,
+        final Map<String, ?> parameters,
+        final BackendCaller<? super BE, ? super BT> backendCaller
+    ) {
+        return makeIdempotentRequestAsync(path, () -> new ResponseCacheKey(tokenProxy, type, path, parameters), () -> unsafeMakeRequest(tokenProxy, type, backendCaller));
+    }
+
+    // the key includes the type, so cached and shared values have the requested type
+    @SuppressWarnings("unchecked")
+    private <U> U makeIdempotentRequest(final String path, final Supplier<ResponseCacheKey> keySupplier, final RequestSupplier<U> supplier) throws HodErrorException {
+        // the key copies and sorts every parameter, so it is only built if it is used
+        if (responseCache == null && inFlightRequests == null) {
+            return hedge(path, supplier);
+        }
+
+        final ResponseCacheKey key = keySupplier.get();
+
+        if (responseCache != null) {
+            final U cachedValue = (U) responseCache.get(key);
+
+            if (cachedValue != null) {
+                return cachedValue;
+            }
+        }
+
+        return coalesceAndCache(key, supplier);
+    }
+
+    // completes without occupying an executor thread if the response is cached or an identical request is in flight
+    @SuppressWarnings("unchecked")
+    private <U> CompletableFuture<U> makeIdempotentRequestAsync(final String path, final Supplier<ResponseCacheKey> keySupplier, final RequestSupplier<U> supplier) {
+        if (responseCache == null && inFlightRequests == null) {
+            return supplyAsync(() -> hedge(path, supplier));
+        }
+
+        final ResponseCacheKey key = keySupplier.get();
+
+        if (responseCache != null) {
+            final U cachedValue = (U) responseCache.get(key);
+
+            if (cachedValue != null) {
+                return CompletableFuture.completedFuture(cachedValue);
+            }
+        }
+
+        if (inFlightRequests != null) {
+            final CompletableFuture<Object> inFlightRequest = inFlightRequests.get(key);
+
+            if (inFlightRequest != null) {
+                return inFlightRequest.thenApply(value -> (U) value);
+            }
+        }
+
+        return supplyAsync(() -> coalesceAndCache(key, supplier));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <U> U coalesceAndCache(final ResponseCacheKey key, final RequestSupplier<U> supplier) throws HodErrorException {
+        if (inFlightRequests == null) {
+            return getAndCache(key, supplier);
+        }
+
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+        final CompletableFuture<Object> inFlightRequest = inFlightRequests.putIfAbsent(key, future);
+
+        if (inFlightRequest != null) {
+            return (U) awaitInFlightRequest(inFlightRequest);
+        }
+
+        try {
+            final U value = getAndCache(key, supplier);
+            future.complete(value);
+            return value;
+        } catch (final HodErrorException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightRequests.remove(key, future);
+        }
+    }
+
+    private <U> U getAndCache(final ResponseCacheKey key, final RequestSupplier<U> supplier) throws HodErrorException {
+        final U value = hedge(key.getPath(), supplier);
+
+        if (responseCache != null) {
+            responseCache.put(key, value);
+        }
+
+        return value;
+    }
+
+    private <U> U hedge(final String path, final RequestSupplier<U> supplier) throws HodErrorException {
+        return hedger != null ? hedger.execute(path, supplier) : supplier.get();
+    }
+
+    private Object awaitInFlightRequest(final CompletableFuture<Object> inFlightRequest) throws HodErrorException {
+        try {
+            return inFlightRequest.join();
+        } catch (final CompletionException e) {
+            final Throwable cause = e.getCause();
+
+            if (cause instanceof HodErrorException) {
+                throw (HodErrorException) cause;
+            }
+            else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            else {
+                throw e;
+            }
+        }
+    }
+
+    private <U> CompletableFuture<U> supplyAsync(final RequestSupplier<U> supplier) {
+        final CompletableFuture<U> future = new CompletableFuture<>();
+
+        asyncExecutor.execute(() -> {
+            try {
+                future.complete(supplier.get());
+            } catch (final HodErrorException | RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+
+        return future;
+    }
+
+    private <BE extends EntityType, BT extends TokenType> Response callBackend(
+        final TokenProxy<BE, BT> tokenProxy,
+        final BackendCaller<? super BE, ? super BT> backendCaller
+    ) throws HodErrorException {
+        final AuthenticationToken<BE, BT> authenticationToken = getAuthenticationToken(tokenProxy);
+        final RequestSupplier<Response> supplier;
+
+        if (rateLimiter == null) {
+            supplier = () -> backendCaller.makeRequest(authenticationToken);
+        }
+        else {
+            // the rate limiting client finds the token proxy from the calling thread
+            supplier = () -> rateLimiter.withTokenProxy(tokenProxy, () -> backendCaller.makeRequest(authenticationToken));
+        }
+
+        return retrier != null ? retrier.execute(supplier) : supplier.get();
     }
 
     private void checkTokenProxyService() {
@@ -214,4 +758,9 @@ public class Requester<E extends EntityType, T extends TokenType> {
         Response makeRequest(final AuthenticationToken<? extends E, ? extends T> authenticationToken) throws HodErrorException;
 
     }
+
+    @FunctionalInterface
+    interface RequestSupplier<U> {
+        U get() throws HodErrorException;
+    }
 }
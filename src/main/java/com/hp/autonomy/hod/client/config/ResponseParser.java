@@ -5,9 +5,14 @@
 
 package com.hp.autonomy.hod.client.config;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import com.hp.autonomy.hod.client.api.authentication.AuthenticationToken;
 import com.hp.autonomy.hod.client.api.authentication.EntityType;
 import com.hp.autonomy.hod.client.api.authentication.TokenType;
@@ -20,6 +25,7 @@ import retrofit.client.Response;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Parses a response from HP Haven OnDemand. If a token is refreshed, this will update the token repository.
@@ -87,6 +93,68 @@ class ResponseParser {
         }
     }
 
+    /**
+     * Parse the response into a type represented by the JavaType object, without holding the elements of one of its
+     * array properties in memory. Each element of the array is passed to the consumer as soon as it has been parsed, and
+     * the array is empty in the returned object. Checks for a refreshed token and updates the token repository
+     * accordingly. This method does not guarantee that the type parameters represent the given JavaTypes.
+     * @param <T> The desired type of the response body
+     * @param <D> The desired type of the array elements
+     * @param tokenProxy The token proxy to update in the token repository if required
+     * @param type A JavaType representing the desired type of the response body
+     * @param arrayProperty The name of the array property to stream
+     * @param elementType A JavaType representing the desired type of the array elements
+     * @param elementConsumer Receives each element of the array in order
+     * @param response The response to parse
+     * @return An object representing the result from HP Haven OnDemand, with an empty array
+     */
+    <T, D> T unsafeParseStreamingResponse(
+        final TokenProxy<?, ?> tokenProxy,
+        final JavaType type,
+        final String arrayProperty,
+        final JavaType elementType,
+        final Consumer<? super D> elementConsumer,
+        final Response response
+    ) {
+        checkRefresh(tokenProxy, response);
+
+        try (final JsonParser parser = objectMapper.getFactory().createParser(response.getBody().in())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonMappingException("Expected a JSON object", parser.getCurrentLocation());
+            }
+
+            final ObjectReader elementReader = objectMapper.readerFor(elementType);
+
+            // everything except the array elements is buffered and then read as normal
+            final TokenBuffer remainder = new TokenBuffer(parser);
+            remainder.writeStartObject();
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String fieldName = parser.getCurrentName();
+                final JsonToken valueToken = parser.nextToken();
+                remainder.writeFieldName(fieldName);
+
+                if (arrayProperty.equals(fieldName) && valueToken == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        elementConsumer.accept(elementReader.<D>readValue(parser));
+                    }
+
+                    remainder.writeStartArray();
+                    remainder.writeEndArray();
+                }
+                else {
+                    remainder.copyCurrentStructure(parser);
+                }
+            }
+
+            remainder.writeEndObject();
+
+            return objectMapper.readValue(remainder.asParser(), type);
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     /**
      * Checks the response headers for a refreshed authentication token then returns the response body as an input stream.
      * @param tokenProxy The token proxy to update in the token repository if required
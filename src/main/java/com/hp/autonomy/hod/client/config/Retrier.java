@@ -0,0 +1,178 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.config;
+
+import com.hp.autonomy.hod.client.converter.HodUnavailableException;
+import com.hp.autonomy.hod.client.error.HodErrorException;
+import com.hp.autonomy.hod.client.util.TypedInputStream;
+import lombok.extern.slf4j.Slf4j;
+import retrofit.RetrofitError;
+import retrofit.client.Client;
+import retrofit.client.Request;
+import retrofit.client.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retries requests according to a {@link RetryPolicy}. The method and URL of a request are only known to the HTTP
+ * client, so the client returned by {@link #wrap(Client)} records the last request made on each thread.
+ */
+@Slf4j
+class Retrier {
+
+    private final RetryPolicy defaultPolicy;
+    private final Map<String, RetryPolicy> apiPolicies;
+    private final String endpoint;
+
+    // starts full so early failures can be retried
+    private final AttemptBudget budget;
+
+    private final ThreadLocal<Request> lastRequest = new ThreadLocal<>();
+
+    /**
+     * @param defaultPolicy The policy for APIs without their own policy, which also sets the budget
+     * @param apiPolicies Policies for particular APIs, keyed by the start of the path of the API
+     * @param endpoint The HP Haven OnDemand endpoint
+     */
+    Retrier(final RetryPolicy defaultPolicy, final Map<String, RetryPolicy> apiPolicies, final String endpoint) {
+        this.defaultPolicy = defaultPolicy;
+        this.apiPolicies = apiPolicies;
+        this.endpoint = endpoint;
+
+        budget = new AttemptBudget(defaultPolicy.getBudgetPercentage(), true);
+    }
+
+    /**
+     * @return The budget for retries, which hedged requests also draw from
+     */
+    AttemptBudget getBudget() {
+        return budget;
+    }
+
+    /**
+     * @param delegate The client which makes requests
+     * @return A client which records each request for this retrier
+     */
+    Client wrap(final Client delegate) {
+        return new RecordingClient(delegate);
+    }
+
+    /**
+     * @param supplier Makes the request
+     * @param <U> The type of the response
+     * @return The response from the first successful attempt
+     * @throws HodErrorException If the last attempt failed
+     */
+    <U> U execute(final Requester.RequestSupplier<U> supplier) throws HodErrorException {
+        budget.addCredit();
+
+        long delayMillis = 0;
+
+        try {
+            for (int retries = 0; ; retries++) {
+                lastRequest.remove();
+
+                try {
+                    return supplier.get();
+                } catch (final HodErrorException | RuntimeException e) {
+                    final Request request = lastRequest.get();
+
+                    // errors which happen before the request is sent are not transient
+                    if (request == null) {
+                        throw e;
+                    }
+
+                    final RetryPolicy policy = getPolicy(request.getUrl());
+
+                    if (retries >= policy.getMaxRetries() || !isRetryable(policy, request, e)) {
+                        throw e;
+                    }
+
+                    if (!budget.tryWithdraw()) {
+                        log.debug("Retry budget exhausted, not retrying");
+                        throw e;
+                    }
+
+                    delayMillis = nextDelayMillis(policy, delayMillis);
+                    log.debug("Retrying {} {} in {}ms after error", request.getMethod(), request.getUrl(), delayMillis, e);
+
+                    try {
+                        Thread.sleep(delayMillis);
+                    } catch (final InterruptedException ignored) {
+                        Thread.currentThread().interrupt();
+                        throw e;
+                    }
+                }
+            }
+        } finally {
+            lastRequest.remove();
+        }
+    }
+
+    private RetryPolicy getPolicy(final String url) {
+        final String path = RequestPaths.getApiPath(endpoint, url);
+        RetryPolicy policy = defaultPolicy;
+        int matchLength = -1;
+
+        for (final Map.Entry<String, RetryPolicy> entry : apiPolicies.entrySet()) {
+            final String prefix = entry.getKey();
+
+            if (prefix.length() > matchLength && path.startsWith(prefix)) {
+                policy = entry.getValue();
+                matchLength = prefix.length();
+            }
+        }
+
+        return policy;
+    }
+
+    private boolean isRetryable(final RetryPolicy policy, final Request request, final Exception e) {
+        // the stream has already been consumed
+        if (request.getBody() instanceof TypedInputStream || !policy.getRetryableMethods().contains(request.getMethod().toUpperCase())) {
+            return false;
+        }
+
+        if (e instanceof HodErrorException) {
+            return policy.getRetryableErrorCodes().contains(((HodErrorException) e).getErrorCode());
+        }
+
+        if (e instanceof RetrofitError && ((RetrofitError) e).getKind() == RetrofitError.Kind.NETWORK) {
+            final Throwable cause = e.getCause();
+
+            // interrupted while waiting, rather than timed out
+            return !(cause instanceof InterruptedIOException) || cause instanceof SocketTimeoutException;
+        }
+
+        return e instanceof HodUnavailableException;
+    }
+
+    // decorrelated jitter: a random delay between the base delay and three times the previous delay
+    private long nextDelayMillis(final RetryPolicy policy, final long previousDelayMillis) {
+        final long baseMillis = policy.getBaseDelay().getMillis();
+        final long upperMillis = Math.min(policy.getMaxDelay().getMillis(), Math.max(baseMillis, previousDelayMillis) * 3);
+
+        return upperMillis > baseMillis ? ThreadLocalRandom.current().nextLong(baseMillis, upperMillis + 1) : baseMillis;
+    }
+
+    private class RecordingClient implements Client {
+        private final Client delegate;
+
+        private RecordingClient(final Client delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Response execute(final Request request) throws IOException {
+            lastRequest.set(request);
+            return delegate.execute(request);
+        }
+    }
+}
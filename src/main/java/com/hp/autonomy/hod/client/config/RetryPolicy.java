@@ -0,0 +1,100 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.config;
+
+import com.hp.autonomy.hod.client.error.HodErrorCode;
+import lombok.Data;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.joda.time.Duration;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Policy for retrying requests to HP Haven OnDemand which fail with a transient error. A request is retried if its HTTP
+ * method is safe to repeat and it failed with a network error, an unavailable service or one of the retryable error
+ * codes. Requests which stream their body from an InputStream are never retried.
+ * <p/>
+ * Retries wait for an exponentially increasing delay with decorrelated jitter, so that clients which failed at the same
+ * time do not retry at the same time. Retries are also limited by a budget shared by every API, which grows by a
+ * percentage of each request, so that a failing service does not receive a storm of retries. Hedged requests are taken
+ * from the same budget.
+ */
+@Data
+public class RetryPolicy {
+
+    /**
+     * @return The maximum number of times a request is retried
+     */
+    private final int maxRetries;
+
+    /**
+     * @return The shortest delay before a retry
+     */
+    private final Duration baseDelay;
+
+    /**
+     * @return The longest delay before a retry
+     */
+    private final Duration maxDelay;
+
+    /**
+     * @return The error codes which are retried
+     */
+    private final Set<HodErrorCode> retryableErrorCodes;
+
+    /**
+     * @return The HTTP methods which are retried, in upper case
+     */
+    private final Set<String> retryableMethods;
+
+    /**
+     * @return The number of retries added to the budget for each request, as a percentage. Only the budget percentage
+     * of the default policy is used
+     */
+    private final double budgetPercentage;
+
+    private RetryPolicy(final Builder builder) {
+        if (builder.maxRetries < 0 || builder.budgetPercentage < 0) {
+            throw new IllegalArgumentException("Max retries and budget percentage must not be negative");
+        }
+
+        if (builder.baseDelay.isLongerThan(builder.maxDelay)) {
+            throw new IllegalArgumentException("Base delay must not be longer than max delay");
+        }
+
+        maxRetries = builder.maxRetries;
+        baseDelay = builder.baseDelay;
+        maxDelay = builder.maxDelay;
+        retryableErrorCodes = Collections.unmodifiableSet(builder.retryableErrorCodes.isEmpty() ? EnumSet.noneOf(HodErrorCode.class) : EnumSet.copyOf(builder.retryableErrorCodes));
+        retryableMethods = Collections.unmodifiableSet(new HashSet<>(builder.retryableMethods));
+        budgetPercentage = builder.budgetPercentage;
+    }
+
+    @Setter
+    @Accessors(chain = true)
+    public static class Builder {
+        private int maxRetries = 2;
+        private Duration baseDelay = Duration.millis(100);
+        private Duration maxDelay = Duration.standardSeconds(2);
+        private Set<HodErrorCode> retryableErrorCodes = EnumSet.of(HodErrorCode.BACKEND_REQUEST_FAILED, HodErrorCode.REQUEST_TOOK_TOO_LONG);
+
+        // the methods which HTTP defines as safe; HOD's PUT and DELETE APIs change resources, and a retry after a lost
+        // response would repeat the change
+        private Set<String> retryableMethods = new HashSet<>(Arrays.asList("GET", "HEAD", "OPTIONS"));
+
+        private double budgetPercentage = 10;
+
+        public RetryPolicy build() {
+            return new RetryPolicy(this);
+        }
+    }
+
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.error;
+
+import lombok.Getter;
+
+/**
+ * Thrown instead of making a request to an API of HP Haven OnDemand which has recently been failing or responding
+ * slowly, until the circuit breaker for the API allows requests again
+ * @see com.hp.autonomy.hod.client.config.CircuitBreakerPolicy
+ */
+@Getter
+public class CircuitOpenException extends RuntimeException {
+    private static final long serialVersionUID = -4254394725637453313L;
+
+    /**
+     * @return The path of the API
+     */
+    private final String path;
+
+    public CircuitOpenException(final String path) {
+        super("Circuit breaker is open for " + path + ", not sending request");
+        this.path = path;
+    }
+}
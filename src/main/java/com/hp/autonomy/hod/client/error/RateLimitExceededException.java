@@ -0,0 +1,28 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.error;
+
+import lombok.Getter;
+
+/**
+ * Thrown instead of making a request to an API of HP Haven OnDemand when the request would have to wait longer than
+ * the maximum wait of the rate limit policy before it could be sent
+ * @see com.hp.autonomy.hod.client.config.RateLimitPolicy
+ */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+    private static final long serialVersionUID = 2969488618720651393L;
+
+    /**
+     * @return The path of the API
+     */
+    private final String path;
+
+    public RateLimitExceededException(final String path) {
+        super("Rate limit for " + path + " would require waiting longer than the maximum wait, not sending request");
+        this.path = path;
+    }
+}
@@ -0,0 +1,25 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.error;
+
+/**
+ * Wraps a {@link HodErrorException} where a checked exception cannot be thrown, such as from an Iterator or Stream
+ */
+public class UncheckedHodErrorException extends RuntimeException {
+    private static final long serialVersionUID = 4412253717786287113L;
+
+    public UncheckedHodErrorException(final HodErrorException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    /**
+     * @return The wrapped HodErrorException
+     */
+    @Override
+    public HodErrorException getCause() {
+        return (HodErrorException) super.getCause();
+    }
+}
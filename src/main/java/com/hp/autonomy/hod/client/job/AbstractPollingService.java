@@ -5,6 +5,8 @@
 
 package com.hp.autonomy.hod.client.job;
 
+import com.hp.autonomy.hod.client.api.authentication.TokenType;
+import com.hp.autonomy.hod.client.token.TokenProxy;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -20,12 +22,21 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public abstract class AbstractPollingService {
 
+    /**
+     * @return The executor service owned by this service, or null if this service uses a shared {@link JobPoller}
+     */
     @Getter(AccessLevel.PROTECTED)
     private final ScheduledExecutorService executorService;
 
+    @Getter(AccessLevel.PROTECTED)
+    private final JobScheduler jobScheduler;
+
     @Getter(AccessLevel.PROTECTED)
     private final Duration timeout;
 
+    @Getter(AccessLevel.PROTECTED)
+    private final JobPollingPolicy pollingPolicy;
+
     /**
      * Constructs a new service with the default executor service
      */
@@ -37,15 +48,61 @@ public abstract class AbstractPollingService {
      * Constructs a new service with the given executor service
      */
     public AbstractPollingService(final ScheduledExecutorService executorService, final Duration timeout) {
+        this(executorService, timeout, JobPollingPolicy.DEFAULT);
+    }
+
+    /**
+     * Constructs a new service with the given executor service and polling policy
+     */
+    public AbstractPollingService(final ScheduledExecutorService executorService, final Duration timeout, final JobPollingPolicy pollingPolicy) {
         this.executorService = executorService;
         this.timeout = timeout;
+        this.pollingPolicy = pollingPolicy;
+
+        jobScheduler = executorService::schedule;
+    }
+
+    /**
+     * Constructs a new service which tracks jobs with the given shared job poller. The job poller will not be shut down
+     * when this service is destroyed
+     */
+    public AbstractPollingService(final JobPoller jobPoller, final Duration timeout, final JobPollingPolicy pollingPolicy) {
+        this.timeout = timeout;
+        this.pollingPolicy = pollingPolicy;
+
+        executorService = null;
+        jobScheduler = jobPoller;
+    }
+
+    /**
+     * Polls the status of the given job until it has finished, failed or timed out
+     * @param tokenProxy The token proxy used to submit the job. If null, a token proxy will be obtained from the
+     * {@link com.hp.autonomy.hod.client.token.TokenProxyService}
+     * @param jobId The ID of the job
+     * @param callback The callback that will be called with the result
+     * @param jobService The job service used to check the status of the job
+     * @param <T> The type returned by the job
+     */
+    protected <T> void pollJob(
+        final TokenProxy<?, TokenType.Simple> tokenProxy,
+        final JobId jobId,
+        final HodJobCallback<T> callback,
+        final JobService<? extends JobStatus<T>> jobService
+    ) {
+        final PollingJobStatusRunnable<T> runnable = new PollingJobStatusRunnable<>(tokenProxy, timeout, jobId, callback, jobScheduler, jobService, pollingPolicy);
+
+        jobScheduler.schedule(runnable, runnable.getNextDelayMillis(), TimeUnit.MILLISECONDS);
     }
 
     /**
      * Shuts down the executor service. This method should be called when the job service is no longer needed, if the
-     * default executor service was used
+     * default executor service was used. Shared job pollers are not affected
      */
     public void destroy() {
+        if (executorService == null) {
+            return;
+        }
+
         log.debug("Shutting down executor service");
 
         executorService.shutdown();
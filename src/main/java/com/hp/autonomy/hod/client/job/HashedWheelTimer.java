@@ -0,0 +1,220 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.job;
+
+import com.hp.autonomy.hod.client.util.DaemonThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Timer which stores scheduled tasks in a hashed wheel of buckets. Scheduling and expiring a task are both O(1), which
+ * makes it suitable for tracking very large numbers of timeouts where precision finer than the tick duration is not
+ * required.
+ * <p/>
+ * A single daemon thread advances the wheel once per tick and hands expired tasks to the given dispatcher. The thread is
+ * started when the first task is scheduled. Tasks should be short, or the dispatcher should run them on another thread.
+ */
+@Slf4j
+class HashedWheelTimer {
+
+    private final long tickNanos;
+    private final int mask;
+    private final List<Queue<Timeout>> wheel;
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final TaskDispatcher dispatcher;
+    private final Thread workerThread;
+    private final AtomicBoolean started = new AtomicBoolean(false);
+
+    // fixed before the timer is shared, so every deadline is relative to the same time
+    private final long startTime;
+
+    private volatile boolean stopped;
+
+    /**
+     * Creates a new HashedWheelTimer
+     * @param tickDuration The duration of a tick
+     * @param unit The unit of the tick duration
+     * @param wheelSize The number of buckets in the wheel. This will be rounded up to a power of two
+     * @param dispatcher Receives tasks when they expire
+     */
+    HashedWheelTimer(final long tickDuration, final TimeUnit unit, final int wheelSize, final TaskDispatcher dispatcher) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration must be positive");
+        }
+
+        if (wheelSize <= 0 || wheelSize > 1 << 30) {
+            throw new IllegalArgumentException("wheelSize must be between 1 and 2^30");
+        }
+
+        int normalizedWheelSize = 1;
+
+        while (normalizedWheelSize < wheelSize) {
+            normalizedWheelSize <<= 1;
+        }
+
+        tickNanos = unit.toNanos(tickDuration);
+        mask = normalizedWheelSize - 1;
+        wheel = new ArrayList<>(normalizedWheelSize);
+
+        for (int i = 0; i < normalizedWheelSize; i++) {
+            wheel.add(new ArrayDeque<>());
+        }
+
+        this.dispatcher = dispatcher;
+        startTime = System.nanoTime();
+        workerThread = new DaemonThreadFactory("hod-job-timer").newThread(this::runWheel);
+    }
+
+    /**
+     * Schedules a task to be dispatched after the given delay
+     * @param task The task
+     * @param delay The delay
+     * @param unit The unit of the delay
+     * @throws IllegalStateException If the timer has been stopped
+     */
+    void newTimeout(final Runnable task, final long delay, final TimeUnit unit) {
+        if (stopped) {
+            throw new IllegalStateException("Timer has been stopped");
+        }
+
+        start();
+
+        pendingTimeouts.add(new Timeout(task, System.nanoTime() - startTime + unit.toNanos(delay)));
+    }
+
+    /**
+     * @return The number of tasks which are scheduled but have not yet been dispatched
+     */
+    int pendingTimeouts() {
+        int count = pendingTimeouts.size();
+
+        synchronized (wheel) {
+            for (final Queue<Timeout> bucket : wheel) {
+                count += bucket.size();
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Stops the timer. Tasks which have not yet been dispatched will be discarded
+     */
+    void stop() {
+        stopped = true;
+        workerThread.interrupt();
+    }
+
+    private void start() {
+        if (started.compareAndSet(false, true)) {
+            workerThread.start();
+        }
+    }
+
+    private void runWheel() {
+        long tick = 0;
+
+        while (!stopped) {
+            final long deadline = waitForNextTick(tick);
+
+            if (deadline < 0) {
+                break;
+            }
+
+            synchronized (wheel) {
+                transferPendingTimeouts(tick);
+                expireTimeouts(wheel.get((int) (tick & mask)), deadline);
+            }
+
+            tick++;
+        }
+
+        log.debug("Job timer stopped");
+    }
+
+    // Moves newly scheduled timeouts into their buckets. Timeouts which are already due go into the current bucket.
+    private void transferPendingTimeouts(final long tick) {
+        Timeout timeout;
+
+        while ((timeout = pendingTimeouts.poll()) != null) {
+            final long calculatedTick = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculatedTick - tick) / wheel.size();
+
+            final long bucketTick = Math.max(calculatedTick, tick);
+            wheel.get((int) (bucketTick & mask)).add(timeout);
+        }
+    }
+
+    private void expireTimeouts(final Queue<Timeout> bucket, final long deadline) {
+        final Iterator<Timeout> iterator = bucket.iterator();
+
+        while (iterator.hasNext()) {
+            final Timeout timeout = iterator.next();
+
+            if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+                iterator.remove();
+
+                try {
+                    dispatcher.dispatch(timeout.task);
+                } catch (final RuntimeException e) {
+                    log.error("Error dispatching expired task", e);
+                }
+            }
+            else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    // Returns the deadline of the given tick relative to the start time, or -1 if the timer was stopped while waiting
+    private long waitForNextTick(final long tick) {
+        final long deadline = tickNanos * (tick + 1);
+
+        while (true) {
+            final long sleepNanos = deadline - (System.nanoTime() - startTime);
+
+            if (sleepNanos <= 0) {
+                return deadline;
+            }
+
+            try {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            } catch (final InterruptedException e) {
+                if (stopped) {
+                    return -1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Receives tasks from the timer when they expire
+     */
+    @FunctionalInterface
+    interface TaskDispatcher {
+        void dispatch(Runnable task);
+    }
+
+    private static class Timeout {
+        private final Runnable task;
+        private final long deadline;
+        private long remainingRounds;
+
+        private Timeout(final Runnable task, final long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+    }
+
+}
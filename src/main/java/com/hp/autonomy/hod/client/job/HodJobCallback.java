@@ -20,7 +20,8 @@ public interface HodJobCallback<T> {
     void success(final T result);
 
     /**
-     * Called when a job returns an error or an error occurs checking the job status
+     * Called when a job returns an error, ends without a result, or an error occurs checking the job status. If the job
+     * returns several errors this is called once for each of them
      * @param error The error returned by HP Haven OnDemand
      */
     void error(final HodErrorCode error);
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.job;
+
+import com.hp.autonomy.hod.client.util.DaemonThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.joda.time.Duration;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared engine for tracking HP Haven OnDemand jobs. All pending status checks are held in a single
+ * {@link HashedWheelTimer}, and due checks are run on a fixed size pool of worker threads which bounds the number of
+ * concurrent status requests.
+ * <p/>
+ * Unless a JobPoller is supplied, every {@link com.hp.autonomy.hod.client.config.HodServiceConfig} uses the process wide
+ * poller returned by {@link #getDefault()}, so configurations never start threads of their own. Threads are only started
+ * once a job is submitted, and idle worker threads are stopped. JobPollers created with a constructor should be destroyed
+ * when they are no longer needed.
+ */
+@Slf4j
+public class JobPoller implements JobScheduler {
+
+    public static final Duration DEFAULT_TICK_DURATION = Duration.millis(100);
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+    public static final int DEFAULT_MAX_CONCURRENT_STATUS_CHECKS = 8;
+
+    private static final long WORKER_KEEP_ALIVE_SECONDS = 60;
+
+    private final HashedWheelTimer timer;
+    private final ThreadPoolExecutor workerService;
+    private final boolean shared;
+
+    /**
+     * Creates a new JobPoller with the default tick duration and concurrency
+     */
+    public JobPoller() {
+        this(DEFAULT_TICK_DURATION, DEFAULT_MAX_CONCURRENT_STATUS_CHECKS);
+    }
+
+    /**
+     * Creates a new JobPoller
+     * @param tickDuration The resolution of the timer. Status checks may run up to one tick later than requested
+     * @param maxConcurrentStatusChecks The maximum number of status checks which may run at the same time
+     */
+    public JobPoller(final Duration tickDuration, final int maxConcurrentStatusChecks) {
+        this(tickDuration, maxConcurrentStatusChecks, false);
+    }
+
+    private JobPoller(final Duration tickDuration, final int maxConcurrentStatusChecks, final boolean shared) {
+        this.shared = shared;
+
+        workerService = new ThreadPoolExecutor(
+            maxConcurrentStatusChecks,
+            maxConcurrentStatusChecks,
+            WORKER_KEEP_ALIVE_SECONDS,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            new DaemonThreadFactory("hod-job-poller")
+        );
+
+        workerService.allowCoreThreadTimeOut(true);
+        timer = new HashedWheelTimer(tickDuration.getMillis(), TimeUnit.MILLISECONDS, DEFAULT_WHEEL_SIZE, workerService::execute);
+    }
+
+    /**
+     * @return The JobPoller shared by every configuration which was not given its own. It is created when first used,
+     * has the default tick duration and concurrency, and cannot be destroyed
+     */
+    public static JobPoller getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    @Override
+    public void schedule(final Runnable task, final long delay, final TimeUnit unit) {
+        if (delay <= 0) {
+            workerService.execute(task);
+        }
+        else {
+            timer.newTimeout(task, delay, unit);
+        }
+    }
+
+    /**
+     * @return The number of status checks which are waiting for their scheduled time
+     */
+    public int getPendingChecks() {
+        return timer.pendingTimeouts();
+    }
+
+    /**
+     * Stops the timer and shuts down the worker threads. Jobs which are still being tracked will not be checked again.
+     * This does nothing for the default JobPoller, which other configurations may be using
+     */
+    public void destroy() {
+        if (shared) {
+            log.debug("Ignoring request to destroy the default job poller");
+            return;
+        }
+
+        log.debug("Shutting down job poller");
+
+        timer.stop();
+        workerService.shutdown();
+
+        try {
+            if (!workerService.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.debug("Timed out waiting for job poller to die, calling shutdownNow");
+                workerService.shutdownNow();
+            }
+        } catch (final InterruptedException e) {
+            log.debug("Interrupted waiting for job poller to die, calling shutdownNow");
+            workerService.shutdownNow();
+        }
+    }
+
+    // the default poller is only created if a configuration uses it
+    private static class DefaultHolder {
+        private static final JobPoller INSTANCE = new JobPoller(DEFAULT_TICK_DURATION, DEFAULT_MAX_CONCURRENT_STATUS_CHECKS, true);
+    }
+
+}
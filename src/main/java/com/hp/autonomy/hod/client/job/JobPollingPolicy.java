@@ -0,0 +1,102 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.job;
+
+import lombok.Data;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.joda.time.Duration;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Determines how often the status of an HP Haven OnDemand job is checked. The first check is made after a short initial
+ * delay, and each subsequent delay grows exponentially up to a maximum. Random jitter is applied to each delay so that
+ * jobs submitted together do not poll in lockstep.
+ */
+@Data
+public class JobPollingPolicy {
+
+    /**
+     * The policy used if none is configured
+     */
+    public static final JobPollingPolicy DEFAULT = new Builder().build();
+
+    /**
+     * @return The delay before the first status check
+     */
+    private final Duration initialDelay;
+
+    /**
+     * @return The factor by which the delay grows after each status check
+     */
+    private final double multiplier;
+
+    /**
+     * @return The largest delay between status checks, before jitter is applied
+     */
+    private final Duration maxDelay;
+
+    /**
+     * @return The proportion of each delay which is randomised, between 0 and 1
+     */
+    private final double jitter;
+
+    /**
+     * @return The number of consecutive errors retrieving the job status which will be tolerated before giving up
+     */
+    private final int maxErrorRetries;
+
+    private JobPollingPolicy(final Builder builder) {
+        if (builder.multiplier < 1) {
+            throw new IllegalArgumentException("multiplier must be at least 1");
+        }
+
+        if (builder.jitter < 0 || builder.jitter > 1) {
+            throw new IllegalArgumentException("jitter must be between 0 and 1");
+        }
+
+        if (builder.maxDelay.isShorterThan(builder.initialDelay)) {
+            throw new IllegalArgumentException("maxDelay must not be shorter than initialDelay");
+        }
+
+        initialDelay = builder.initialDelay;
+        multiplier = builder.multiplier;
+        maxDelay = builder.maxDelay;
+        jitter = builder.jitter;
+        maxErrorRetries = builder.maxErrorRetries;
+    }
+
+    /**
+     * Calculates the delay before the next status check
+     * @param attempt The number of status checks which have already been made for the job
+     * @return The delay in milliseconds
+     */
+    public long getDelayMillis(final int attempt) {
+        final double exponentialDelay = initialDelay.getMillis() * Math.pow(multiplier, attempt);
+        final double cappedDelay = Math.min(exponentialDelay, maxDelay.getMillis());
+
+        // spread the delay uniformly over [1 - jitter, 1 + jitter] of the capped value
+        final double jitterFactor = 1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+
+        return Math.max(0, Math.round(cappedDelay * jitterFactor));
+    }
+
+    @Setter
+    @Accessors(chain = true)
+    public static class Builder {
+        private Duration initialDelay = Duration.millis(250);
+        private double multiplier = 2;
+        private Duration maxDelay = Duration.standardSeconds(10);
+        private double jitter = 0.2;
+        private int maxErrorRetries = 3;
+
+        public JobPollingPolicy build() {
+            return new JobPollingPolicy(this);
+        }
+    }
+
+}
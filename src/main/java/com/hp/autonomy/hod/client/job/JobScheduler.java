@@ -0,0 +1,25 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.job;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules job status checks. A {@link java.util.concurrent.ScheduledExecutorService} can be adapted to this interface
+ * with a method reference to its schedule method.
+ */
+@FunctionalInterface
+public interface JobScheduler {
+
+    /**
+     * Run the given task after the given delay
+     * @param task The task to run
+     * @param delay The delay before running the task. A delay of zero or less will run the task as soon as possible
+     * @param unit The unit of the delay
+     */
+    void schedule(Runnable task, long delay, TimeUnit unit);
+
+}
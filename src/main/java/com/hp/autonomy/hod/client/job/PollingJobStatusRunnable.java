@@ -27,9 +27,6 @@ import java.util.concurrent.atomic.AtomicInteger;
 @Slf4j
 public class PollingJobStatusRunnable<T> implements Runnable {
 
-    private static final int MAX_TRIES = 3;
-    private static final int WAIT_SECONDS = 2;
-
     private final Set<HodErrorCode> DO_NOT_RETRY_CODES = EnumSet.of(
             HodErrorCode.API_KEY_REQUIRED,
             HodErrorCode.INVALID_API_KEY,
@@ -42,11 +39,13 @@ public class PollingJobStatusRunnable<T> implements Runnable {
     private final TokenProxy<?, TokenType.Simple> tokenProxy;
     private final JobId jobId;
     private final HodJobCallback<T> callback;
-    private final ScheduledExecutorService executorService;
+    private final JobScheduler jobScheduler;
     private final JobService<? extends JobStatus<T>> jobService;
     private final LocalDateTime timeout;
+    private final JobPollingPolicy pollingPolicy;
 
     private final AtomicInteger tries = new AtomicInteger(0);
+    private final AtomicInteger polls = new AtomicInteger(0);
 
     /**
      * Creates a new PollingJobStatusRunnable using a token provided by a {@link com.hp.autonomy.hod.client.token.TokenProxyService}
@@ -66,23 +65,54 @@ public class PollingJobStatusRunnable<T> implements Runnable {
      * @param executorService The executor service responsible for running the runnable
      */
     public PollingJobStatusRunnable(final TokenProxy<?, TokenType.Simple> tokenProxy, final Duration timeout, final JobId jobId, final HodJobCallback<T> callback, final ScheduledExecutorService executorService, final JobService<? extends JobStatus<T>> jobService) {
+        this(tokenProxy, timeout, jobId, callback, executorService::schedule, jobService, JobPollingPolicy.DEFAULT);
+    }
+
+    /**
+     * Creates a new PollingJobStatusRunnable using the given token proxy
+     * @param tokenProxy The token proxy used to submit the job. If null, a token proxy will be obtained from the
+     * {@link com.hp.autonomy.hod.client.token.TokenProxyService}
+     * @param jobId The ID of the job
+     * @param callback The callback that will be called with the result
+     * @param jobScheduler The scheduler responsible for running the runnable
+     * @param pollingPolicy Determines the delay between status checks
+     */
+    public PollingJobStatusRunnable(
+        final TokenProxy<?, TokenType.Simple> tokenProxy,
+        final Duration timeout,
+        final JobId jobId,
+        final HodJobCallback<T> callback,
+        final JobScheduler jobScheduler,
+        final JobService<? extends JobStatus<T>> jobService,
+        final JobPollingPolicy pollingPolicy
+    ) {
         this.tokenProxy = tokenProxy;
         this.jobId = jobId;
         this.callback = callback;
-        this.executorService = executorService;
+        this.jobScheduler = jobScheduler;
         this.jobService = jobService;
+        this.pollingPolicy = pollingPolicy;
         this.timeout = timeout != null ? LocalDateTime.now().plus(timeout) : null;
     }
 
+    /**
+     * @return The delay in milliseconds before the next status check, as determined by the polling policy
+     */
+    long getNextDelayMillis() {
+        return pollingPolicy.getDelayMillis(polls.get());
+    }
+
     /**
      * Checks the status of the job. If the job has not finished, the runnable will schedule itself to run again after a
-     * short wait
+     * wait determined by the polling policy
      */
     @Override
     public void run() {
         try {
             log.debug("About to check status for jobId {}", jobId);
 
+            polls.incrementAndGet();
+
             final JobStatus<T> jobStatus;
 
             if (tokenProxy != null) {
@@ -95,24 +125,37 @@ public class PollingJobStatusRunnable<T> implements Runnable {
             final Status jobStatusStatus = jobStatus.getStatus();
 
             if (jobStatusStatus == Status.FINISHED || jobStatusStatus == Status.FAILED) {
-                for (final Action<T> action : jobStatus.getActions()) {
-                    final Status status = action.getStatus();
+                boolean reported = false;
 
-                    if (status == Status.FINISHED) {
-                        log.debug("Found a finished action, calling callback");
+                if (jobStatus.getActions() != null) {
+                    for (final Action<T> action : jobStatus.getActions()) {
+                        final Status status = action.getStatus();
 
-                        callback.success(action.getResult());
-                    }
-                    else if (status == Status.FAILED) {
-                        log.debug("Found a failed action, calling callback");
+                        if (status == Status.FINISHED) {
+                            log.debug("Found a finished action, calling callback");
 
-                        for (final HodError error : action.getErrors()) {
-                            log.debug("Error callback called with: {}", error);
+                            callback.success(action.getResult());
+                            reported = true;
+                        }
+                        else if (status == Status.FAILED && action.getErrors() != null) {
+                            log.debug("Found a failed action, calling callback");
 
-                            callback.error(error.getErrorCode());
+                            for (final HodError error : action.getErrors()) {
+                                log.debug("Error callback called with: {}", error);
+
+                                callback.error(error.getErrorCode());
+                                reported = true;
+                            }
                         }
                     }
                 }
+
+                // the callback must always be called once the job has ended, or the caller may wait forever
+                if (!reported) {
+                    log.error("Job {} ended with status {} without a result or an error", jobId, jobStatusStatus);
+
+                    callback.error(HodErrorCode.UNKNOWN);
+                }
             }
             else if (timeout != null && timeout.isBefore(LocalDateTime.now())) {
                 callback.timeout();
@@ -124,7 +167,7 @@ public class PollingJobStatusRunnable<T> implements Runnable {
                 // we got a status successfully, so reset the counter
                 tries.set(0);
 
-                executorService.schedule(this, WAIT_SECONDS, TimeUnit.SECONDS);
+                jobScheduler.schedule(this, getNextDelayMillis(), TimeUnit.MILLISECONDS);
             }
         } catch (final HodErrorException e) {
             log.error("Error retrieving job status for jobId: {}", jobId);
@@ -135,7 +178,7 @@ public class PollingJobStatusRunnable<T> implements Runnable {
 
                 callback.error(e.getErrorCode());
             }
-            else if (tries.get() >= MAX_TRIES) {
+            else if (tries.get() >= pollingPolicy.getMaxErrorRetries()) {
                 log.error("Max retries reached, will not retry");
 
                 callback.error(e.getErrorCode());
@@ -145,7 +188,7 @@ public class PollingJobStatusRunnable<T> implements Runnable {
 
                 tries.incrementAndGet();
 
-                executorService.schedule(this, WAIT_SECONDS, TimeUnit.SECONDS);
+                jobScheduler.schedule(this, getNextDelayMillis(), TimeUnit.MILLISECONDS);
             }
         } catch (final RuntimeException e) {
             log.error("Error retrieving job status for jobId: {}", jobId);
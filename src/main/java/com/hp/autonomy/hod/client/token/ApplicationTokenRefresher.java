@@ -0,0 +1,216 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.token;
+
+import com.hp.autonomy.hod.client.api.authentication.ApiKey;
+import com.hp.autonomy.hod.client.api.authentication.AuthenticationService;
+import com.hp.autonomy.hod.client.api.authentication.AuthenticationToken;
+import com.hp.autonomy.hod.client.api.authentication.EntityType;
+import com.hp.autonomy.hod.client.api.authentication.TokenType;
+import com.hp.autonomy.hod.client.error.HodErrorException;
+import com.hp.autonomy.hod.client.util.DaemonThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps application tokens valid by re-authenticating in the background before they expire. A refresh is scheduled for
+ * the time given by the startRefresh property of the token; the new token replaces the old one in the
+ * {@link TokenRepository}, so the token proxy used by callers never changes and requests never see an expired token.
+ * <p/>
+ * Refreshing stops when the token proxy is removed from the repository or {@link #cancel(TokenProxy)} is called.
+ * The destroy method should be called when the refresher is no longer needed.
+ */
+@Slf4j
+public class ApplicationTokenRefresher {
+
+    private static final Duration DEFAULT_RETRY_DELAY = Duration.standardSeconds(10);
+    private static final long MINIMUM_DELAY_MILLIS = 1000;
+
+    private final AuthenticationService authenticationService;
+    private final TokenRepository tokenRepository;
+    private final ScheduledExecutorService executorService;
+    private final Duration retryDelay;
+
+    private final ConcurrentMap<TokenProxy<?, ?>, ScheduledFuture<?>> refreshes = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new ApplicationTokenRefresher with a default executor service
+     * @param authenticationService The service used to acquire new tokens
+     * @param tokenRepository The repository containing the tokens. This must be the repository used by the authentication
+     * service
+     */
+    public ApplicationTokenRefresher(final AuthenticationService authenticationService, final TokenRepository tokenRepository) {
+        this(authenticationService, tokenRepository, Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("hod-token-refresher")), DEFAULT_RETRY_DELAY);
+    }
+
+    /**
+     * Creates a new ApplicationTokenRefresher
+     * @param authenticationService The service used to acquire new tokens
+     * @param tokenRepository The repository containing the tokens. This must be the repository used by the authentication
+     * service
+     * @param executorService The executor service used to schedule refreshes
+     * @param retryDelay The time to wait before trying again if a refresh fails
+     */
+    public ApplicationTokenRefresher(
+        final AuthenticationService authenticationService,
+        final TokenRepository tokenRepository,
+        final ScheduledExecutorService executorService,
+        final Duration retryDelay
+    ) {
+        this.authenticationService = authenticationService;
+        this.tokenRepository = tokenRepository;
+        this.executorService = executorService;
+        this.retryDelay = retryDelay;
+    }
+
+    /**
+     * Acquire a token for an application, and keep it refreshed until it is cancelled
+     * @param apiKey The API key of the application
+     * @param applicationName The name of the application
+     * @param domain The domain of the application
+     * @param tokenType The type of the resulting token
+     * @param <T> The type of the required token type
+     * @return A token proxy which will remain valid while it is being refreshed
+     * @throws HodErrorException
+     */
+    public <T extends TokenType> TokenProxy<EntityType.Application, T> authenticateApplication(
+        final ApiKey apiKey,
+        final String applicationName,
+        final String domain,
+        final T tokenType
+    ) throws HodErrorException {
+        final TokenProxy<EntityType.Application, T> tokenProxy = authenticationService.authenticateApplication(apiKey, applicationName, domain, tokenType);
+        register(tokenProxy, apiKey, applicationName, domain);
+        return tokenProxy;
+    }
+
+    /**
+     * Start refreshing the token for an existing token proxy, which must have been obtained for the same application
+     * @param tokenProxy The token proxy to keep refreshed
+     * @param apiKey The API key of the application
+     * @param applicationName The name of the application
+     * @param domain The domain of the application
+     * @param <T> The token type of the token proxy
+     */
+    public <T extends TokenType> void register(
+        final TokenProxy<EntityType.Application, T> tokenProxy,
+        final ApiKey apiKey,
+        final String applicationName,
+        final String domain
+    ) {
+        final AuthenticationToken<EntityType.Application, T> token = getToken(tokenProxy);
+
+        if (token == null) {
+            throw new IllegalArgumentException("Token proxy is not in the repository");
+        }
+
+        final Refresh<T> refresh = new Refresh<>(tokenProxy, apiKey, applicationName, domain);
+        final long delayMillis = getRefreshDelayMillis(token, DateTime.now());
+
+        refreshes.compute(tokenProxy, (key, oldFuture) -> {
+            if (oldFuture != null) {
+                oldFuture.cancel(false);
+            }
+
+            return executorService.schedule(refresh, delayMillis, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    /**
+     * Stop refreshing the token for the given token proxy. The token remains in the repository until it expires
+     * @param tokenProxy The token proxy
+     */
+    public void cancel(final TokenProxy<?, ?> tokenProxy) {
+        final ScheduledFuture<?> future = refreshes.remove(tokenProxy);
+
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * Stops all refreshes and shuts down the executor service
+     */
+    public void destroy() {
+        refreshes.clear();
+        executorService.shutdownNow();
+    }
+
+    // only reschedules refreshes which are still registered, so a concurrent call to cancel always wins
+    private void reschedule(final Refresh<?> refresh, final long delayMillis) {
+        refreshes.computeIfPresent(refresh.tokenProxy, (key, oldFuture) -> executorService.schedule(refresh, delayMillis, TimeUnit.MILLISECONDS));
+    }
+
+    static long getRefreshDelayMillis(final AuthenticationToken<?, ?> token, final DateTime now) {
+        final long untilStartRefresh = token.getStartRefresh().getMillis() - now.getMillis();
+
+        if (untilStartRefresh > 0) {
+            return Math.max(untilStartRefresh, MINIMUM_DELAY_MILLIS);
+        }
+
+        // the refresh window has already started, so refresh well before the token expires
+        final long untilExpiry = token.getExpiry().getMillis() - now.getMillis();
+        return Math.max(untilExpiry / 2, MINIMUM_DELAY_MILLIS);
+    }
+
+    private <E extends EntityType, T extends TokenType> AuthenticationToken<E, T> getToken(final TokenProxy<E, T> tokenProxy) {
+        try {
+            return tokenRepository.get(tokenProxy);
+        } catch (final IOException e) {
+            throw new TokenRepositoryException(e);
+        }
+    }
+
+    private class Refresh<T extends TokenType> implements Runnable {
+        private final TokenProxy<EntityType.Application, T> tokenProxy;
+        private final ApiKey apiKey;
+        private final String applicationName;
+        private final String domain;
+
+        private Refresh(final TokenProxy<EntityType.Application, T> tokenProxy, final ApiKey apiKey, final String applicationName, final String domain) {
+            this.tokenProxy = tokenProxy;
+            this.apiKey = apiKey;
+            this.applicationName = applicationName;
+            this.domain = domain;
+        }
+
+        @Override
+        public void run() {
+            if (!refreshes.containsKey(tokenProxy)) {
+                return;
+            }
+
+            try {
+                final TokenProxy<EntityType.Application, T> newTokenProxy = authenticationService.authenticateApplication(apiKey, applicationName, domain, tokenProxy.getTokenType());
+
+                // the authentication service stores the new token under its own proxy, so move it to ours
+                final AuthenticationToken<EntityType.Application, T> newToken = tokenRepository.remove(newTokenProxy);
+
+                if (tokenRepository.update(tokenProxy, newToken) == null) {
+                    log.debug("Token proxy has been removed from the repository, not refreshing");
+                    refreshes.remove(tokenProxy);
+                    return;
+                }
+
+                log.debug("Refreshed application token");
+                reschedule(this, getRefreshDelayMillis(newToken, DateTime.now()));
+            } catch (final HodErrorException | IOException | RuntimeException e) {
+                log.error("Error refreshing application token, retrying in {}", retryDelay, e);
+                reschedule(this, retryDelay.getMillis());
+            }
+        }
+    }
+
+}
@@ -9,27 +9,85 @@ import com.hp.autonomy.hod.client.api.authentication.AuthenticationToken;
 import com.hp.autonomy.hod.client.api.authentication.EntityType;
 import com.hp.autonomy.hod.client.api.authentication.TokenType;
 
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
 
 /**
  * A {@link TokenRepository} which is backed by a {@link java.util.Map}
  *
  * This class is thread safe
  *
- * This class does not expire old tokens
+ * Tokens are grouped into buckets by expiry time. Expired tokens are removed a bucket at a time, at most once per bucket
+ * interval, as part of inserting and updating tokens. If the repository has a capacity, unexpired tokens with the
+ * earliest expiry are evicted when it is full. The capacity is not strictly enforced under concurrent insertion.
  */
 public class InMemoryTokenRepository implements TokenRepository {
 
-    private final ConcurrentMap<TokenProxy<?,?>, AuthenticationToken<?,?>> map = new ConcurrentHashMap<>();
+    private static final long DEFAULT_BUCKET_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    // token proxies are only created by this class, so the UUID alone identifies a token
+    private final ConcurrentMap<UUID, AuthenticationToken<?, ?>> map = new ConcurrentHashMap<>();
+
+    // keyed by the end of each bucket's time range
+    private final ConcurrentNavigableMap<Long, Set<UUID>> expiryBuckets = new ConcurrentSkipListMap<>();
+
+    private final int capacity;
+    private final long bucketMillis;
+    private final LongSupplier clock;
+    private final AtomicLong nextSweep = new AtomicLong(0);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a new InMemoryTokenRepository with no capacity limit
+     */
+    public InMemoryTokenRepository() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a new InMemoryTokenRepository
+     * @param capacity The maximum number of tokens to hold
+     */
+    public InMemoryTokenRepository(final int capacity) {
+        this(capacity, DEFAULT_BUCKET_MILLIS, System::currentTimeMillis);
+    }
+
+    InMemoryTokenRepository(final int capacity, final long bucketMillis, final LongSupplier clock) {
+        if (capacity <= 0 || bucketMillis <= 0) {
+            throw new IllegalArgumentException("Capacity and bucket interval must be positive");
+        }
+
+        this.capacity = capacity;
+        this.bucketMillis = bucketMillis;
+        this.clock = clock;
+    }
 
     @Override
     public <E extends EntityType, T extends TokenType> TokenProxy<E, T> insert(final AuthenticationToken<E, T> token) {
         checkTokenExpiry(token);
 
+        final long now = clock.getAsLong();
+        sweepIfDue(now);
+        ensureCapacity(now);
+
         final TokenProxy<E, T> key = new TokenProxy<>(token.getEntityType(), token.getTokenType());
 
-        map.put(key, token);
+        map.put(key.getUuid(), token);
+        addToBucket(key.getUuid(), token);
 
         return key;
     }
@@ -38,23 +96,143 @@ public class InMemoryTokenRepository implements TokenRepository {
     public <E extends EntityType, T extends TokenType> AuthenticationToken<E, T> update(final TokenProxy<E, T> key, final AuthenticationToken<E, T> newToken) {
         checkTokenExpiry(newToken);
 
+        sweepIfDue(clock.getAsLong());
+
         // we only put matching pairs into the map
         //noinspection unchecked
-        return (AuthenticationToken<E, T>) map.replace(key, newToken);
+        final AuthenticationToken<E, T> oldToken = (AuthenticationToken<E, T>) map.replace(key.getUuid(), newToken);
+
+        if (oldToken != null) {
+            final long oldBucket = getBucket(oldToken);
+
+            if (oldBucket != getBucket(newToken)) {
+                final Set<UUID> bucket = expiryBuckets.get(oldBucket);
+
+                if (bucket != null) {
+                    bucket.remove(key.getUuid());
+                }
+            }
+
+            addToBucket(key.getUuid(), newToken);
+        }
+
+        return oldToken;
     }
 
     @Override
     public <E extends EntityType, T extends TokenType> AuthenticationToken<E, T> get(final TokenProxy<E, T> key) {
         // we only put matching pairs into the map
         //noinspection unchecked
-        return (AuthenticationToken<E, T>) map.get(key);
+        final AuthenticationToken<E, T> token = (AuthenticationToken<E, T>) map.get(key.getUuid());
+
+        if (token == null) {
+            misses.increment();
+        }
+        else {
+            hits.increment();
+        }
+
+        return token;
     }
 
     @Override
     public <E extends EntityType, T extends TokenType> AuthenticationToken<E, T> remove(final TokenProxy<E, T> key) {
         // we only put matching pairs into the map
         //noinspection unchecked
-        return (AuthenticationToken<E, T>) map.remove(key);
+        return (AuthenticationToken<E, T>) map.remove(key.getUuid());
+    }
+
+    /**
+     * Removes all expired tokens from the repository
+     */
+    public void removeExpiredTokens() {
+        removeExpiredTokens(clock.getAsLong());
+    }
+
+    /**
+     * @return Statistics describing the contents and use of the repository
+     */
+    public TokenRepositoryStatistics getStatistics() {
+        return new TokenRepositoryStatistics(map.size(), hits.sum(), misses.sum(), expirations.sum(), evictions.sum());
+    }
+
+    private void sweepIfDue(final long now) {
+        final long next = nextSweep.get();
+
+        // only one thread wins the race to sweep
+        if (now >= next && nextSweep.compareAndSet(next, now + bucketMillis)) {
+            removeExpiredTokens(now);
+        }
+    }
+
+    private void removeExpiredTokens(final long now) {
+        final Iterator<Set<UUID>> iterator = expiryBuckets.headMap(now, true).values().iterator();
+
+        while (iterator.hasNext()) {
+            final Set<UUID> bucket = iterator.next();
+            iterator.remove();
+
+            for (final UUID uuid : bucket) {
+                final AuthenticationToken<?, ?> token = map.get(uuid);
+
+                // the token may have been updated since it was added to this bucket
+                if (token != null && hasExpired(token, now) && map.remove(uuid, token)) {
+                    expirations.increment();
+                }
+            }
+        }
+    }
+
+    private void ensureCapacity(final long now) {
+        if (map.size() < capacity) {
+            return;
+        }
+
+        removeExpiredTokens(now);
+
+        while (map.size() >= capacity) {
+            final Map.Entry<Long, Set<UUID>> bucket = expiryBuckets.firstEntry();
+
+            if (bucket == null) {
+                return;
+            }
+
+            final Iterator<UUID> iterator = bucket.getValue().iterator();
+
+            while (iterator.hasNext() && map.size() >= capacity) {
+                final UUID uuid = iterator.next();
+                iterator.remove();
+
+                final AuthenticationToken<?, ?> token = map.get(uuid);
+
+                // a token which has been updated since it was added to this bucket now belongs to a later one
+                if (token != null && getBucket(token) == bucket.getKey() && map.remove(uuid, token)) {
+                    evictions.increment();
+                }
+            }
+
+            if (bucket.getValue().isEmpty()) {
+                expiryBuckets.remove(bucket.getKey(), bucket.getValue());
+            }
+        }
+    }
+
+    private void addToBucket(final UUID uuid, final AuthenticationToken<?, ?> token) {
+        expiryBuckets.computeIfAbsent(getBucket(token), key -> ConcurrentHashMap.newKeySet()).add(uuid);
+    }
+
+    private long getBucket(final AuthenticationToken<?, ?> token) {
+        if (token.getExpiry() == null) {
+            return Long.MAX_VALUE;
+        }
+
+        // round up, so a bucket is only swept once every token in it has expired
+        final long expiry = token.getExpiry().getMillis();
+        return (expiry / bucketMillis + 1) * bucketMillis;
+    }
+
+    private boolean hasExpired(final AuthenticationToken<?, ?> token, final long now) {
+        return token.getExpiry() == null ? token.hasExpired() : token.getExpiry().getMillis() <= now;
     }
 
     private void checkTokenExpiry(final AuthenticationToken<?, ?> token) {
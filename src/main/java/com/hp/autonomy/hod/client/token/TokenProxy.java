@@ -29,10 +29,11 @@ public final class TokenProxy<E extends EntityType, T extends TokenType> impleme
     private static final long serialVersionUID = 2L;
 
     /**
-     * Identifier for the token proxy
+     * Identifier for the token proxy. This is exposed to the package so that repositories can use it as a cheaper key
+     * than the whole proxy
      * @serial
      */
-    @Getter(AccessLevel.NONE)
+    @Getter(AccessLevel.PACKAGE)
     private final UUID uuid = UUID.randomUUID();
 
     /**
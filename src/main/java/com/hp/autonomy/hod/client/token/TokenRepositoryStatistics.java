@@ -0,0 +1,41 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.token;
+
+import lombok.Data;
+
+/**
+ * Statistics describing the contents and use of an {@link InMemoryTokenRepository}
+ */
+@Data
+public class TokenRepositoryStatistics {
+
+    /**
+     * @return The number of tokens in the repository
+     */
+    private final long size;
+
+    /**
+     * @return The number of lookups which found a token
+     */
+    private final long hits;
+
+    /**
+     * @return The number of lookups which did not find a token
+     */
+    private final long misses;
+
+    /**
+     * @return The number of expired tokens removed from the repository
+     */
+    private final long expirations;
+
+    /**
+     * @return The number of unexpired tokens removed from the repository because it was full
+     */
+    private final long evictions;
+
+}
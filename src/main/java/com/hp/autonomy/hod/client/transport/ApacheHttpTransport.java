@@ -0,0 +1,105 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.transport;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.SocketConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import retrofit.client.ApacheClient;
+import retrofit.client.Client;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An {@link HttpTransport} which uses an Apache HttpClient with a pool of persistent HTTP/1.1 connections. Requests
+ * wait for a free connection when the pool is exhausted.
+ * <p/>
+ * The Apache HttpClient does not support HTTP/2; use an {@link OkHttpTransport} for HTTP/2.
+ */
+public class ApacheHttpTransport implements HttpTransport {
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final Client client;
+
+    /**
+     * Creates a new ApacheHttpTransport
+     * @param settings The settings for the connections
+     * @throws IllegalArgumentException If the settings require HTTP/2
+     */
+    public ApacheHttpTransport(final TransportSettings settings) {
+        if (settings.getProtocol() != TransportSettings.Protocol.HTTP_1_1) {
+            throw new IllegalArgumentException("The Apache HttpClient does not support " + settings.getProtocol());
+        }
+
+        final long keepAliveMillis = settings.getKeepAlive().getMillis();
+
+        connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(settings.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(settings.getMaxConnectionsPerRoute());
+        connectionManager.setDefaultSocketConfig(SocketConfig.custom()
+            .setTcpNoDelay(settings.isTcpNoDelay())
+            .setSoKeepAlive(true)
+            .setSoTimeout((int) settings.getReadTimeout().getMillis())
+            .build());
+
+        final ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> {
+            final long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+
+            // the server value is only used if it is shorter, since the server will close the connection anyway
+            return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAliveMillis) : keepAliveMillis;
+        };
+
+        final HttpClientBuilder builder = HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setKeepAliveStrategy(keepAliveStrategy)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectTimeout((int) settings.getConnectTimeout().getMillis())
+                .setSocketTimeout((int) settings.getReadTimeout().getMillis())
+                .build());
+
+        // the builder requests gzip and decompresses responses by default
+        if (!settings.isGzip()) {
+            builder.disableContentCompression();
+        }
+
+        httpClient = builder.build();
+        client = new ApacheClient(httpClient);
+    }
+
+    @Override
+    public Client getClient() {
+        return client;
+    }
+
+    @Override
+    public ConnectionPoolStatistics getStatistics() {
+        // idle connections which have passed their keep alive are only removed when they are next requested
+        connectionManager.closeExpiredConnections();
+
+        final PoolStats stats = connectionManager.getTotalStats();
+        return new ConnectionPoolStatistics(stats.getLeased(), stats.getAvailable(), stats.getPending(), stats.getMax());
+    }
+
+    @Override
+    public void close() {
+        try {
+            httpClient.close();
+        } catch (final IOException ignored) {
+            // the connection manager is shut down even if closing a connection fails
+        }
+
+        connectionManager.shutdown();
+    }
+
+}
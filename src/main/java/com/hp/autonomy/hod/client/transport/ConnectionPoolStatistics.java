@@ -0,0 +1,42 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.transport;
+
+import lombok.Data;
+
+/**
+ * A snapshot of the connections held by an {@link HttpTransport}
+ */
+@Data
+public class ConnectionPoolStatistics {
+
+    /**
+     * @return The number of connections currently carrying requests
+     */
+    private final int activeConnections;
+
+    /**
+     * @return The number of open connections waiting to be reused
+     */
+    private final int idleConnections;
+
+    /**
+     * @return The number of requests waiting for a connection or a free slot under the connection limits
+     */
+    private final int pendingRequests;
+
+    /**
+     * @return The maximum number of connections to all hosts
+     */
+    private final int maxConnections;
+
+    /**
+     * @return The number of open connections
+     */
+    public int getOpenConnections() {
+        return activeConnections + idleConnections;
+    }
+}
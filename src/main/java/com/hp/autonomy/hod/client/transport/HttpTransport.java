@@ -0,0 +1,37 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.transport;
+
+import retrofit.client.Client;
+
+import java.io.Closeable;
+
+/**
+ * The HTTP client used to communicate with HP Haven OnDemand, together with the pool of connections it owns. A
+ * transport may be shared between several {@link com.hp.autonomy.hod.client.config.HodServiceConfig}s, and should be
+ * closed when none of them are needed.
+ * @see ApacheHttpTransport
+ * @see OkHttpTransport
+ */
+public interface HttpTransport extends Closeable {
+
+    /**
+     * @return The client used to make requests
+     */
+    Client getClient();
+
+    /**
+     * @return The current state of the connection pool
+     */
+    ConnectionPoolStatistics getStatistics();
+
+    /**
+     * Closes every pooled connection. Requests must not be made once the transport has been closed
+     */
+    @Override
+    void close();
+
+}
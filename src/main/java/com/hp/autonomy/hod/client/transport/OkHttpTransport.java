@@ -0,0 +1,431 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.transport;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okio.BufferedSink;
+import retrofit.client.Client;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+import retrofit.mime.TypedInput;
+import retrofit.mime.TypedOutput;
+
+import javax.net.SocketFactory;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * An {@link HttpTransport} which uses OkHttp, supporting both pooled HTTP/1.1 connections and HTTP/2, where every
+ * request to a host is multiplexed over a single connection.
+ * <p/>
+ * Requests are queued when the connection limits are reached, and are counted as pending requests in the statistics.
+ * With HTTP/2 the per route limit is the number of concurrent streams on the connection. As with a pooled Apache
+ * HttpClient, a request holds its place under the limits until its response body is closed. OkHttp must be on the
+ * classpath to use this transport.
+ * <p/>
+ * A request which cannot start within the connect timeout plus the read timeout fails with a
+ * {@link SocketTimeoutException}. Response bodies returned as streams must be closed; a body which is neither read nor
+ * closed for longer than the read timeout is closed by the transport, so that it does not hold its place forever.
+ */
+@Slf4j
+public class OkHttpTransport implements HttpTransport {
+
+    private final OkHttpClient okHttpClient;
+    private final int maxConnections;
+    private final long startTimeoutMillis;
+    private final long idleBodyTimeoutMillis;
+    private final Client client;
+
+    /**
+     * Creates a new OkHttpTransport
+     * @param settings The settings for the connections
+     */
+    public OkHttpTransport(final TransportSettings settings) {
+        maxConnections = settings.getMaxConnections();
+        startTimeoutMillis = settings.getConnectTimeout().getMillis() + settings.getReadTimeout().getMillis();
+        idleBodyTimeoutMillis = settings.getReadTimeout().getMillis();
+
+        // OkHttp only applies the dispatcher limits to asynchronous calls, so every call is made asynchronously
+        final Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(settings.getMaxConnections());
+        dispatcher.setMaxRequestsPerHost(settings.getMaxConnectionsPerRoute());
+
+        final OkHttpClient.Builder builder = new OkHttpClient.Builder()
+            .dispatcher(dispatcher)
+            .connectionPool(new ConnectionPool(settings.getMaxConnections(), settings.getKeepAlive().getMillis(), TimeUnit.MILLISECONDS))
+            .protocols(getProtocols(settings.getProtocol()))
+            .connectTimeout(settings.getConnectTimeout().getMillis(), TimeUnit.MILLISECONDS)
+            .readTimeout(settings.getReadTimeout().getMillis(), TimeUnit.MILLISECONDS)
+            .writeTimeout(settings.getReadTimeout().getMillis(), TimeUnit.MILLISECONDS)
+            // application interceptors run once the dispatcher has started the call
+            .addInterceptor(chain -> {
+                final PendingCall pendingCall = chain.request().tag(PendingCall.class);
+
+                if (pendingCall != null) {
+                    pendingCall.started.complete(null);
+                }
+
+                return chain.proceed(chain.request());
+            });
+
+        if (settings.isTcpNoDelay()) {
+            builder.socketFactory(new NoDelaySocketFactory(SocketFactory.getDefault()));
+        }
+
+        // OkHttp requests gzip and decompresses responses unless the request already has an Accept-Encoding header
+        if (!settings.isGzip()) {
+            builder.addInterceptor(chain -> chain.proceed(chain.request().newBuilder().header("Accept-Encoding", "identity").build()));
+        }
+
+        okHttpClient = builder.build();
+        client = new OkHttpClientAdapter();
+    }
+
+    @Override
+    public Client getClient() {
+        return client;
+    }
+
+    @Override
+    public ConnectionPoolStatistics getStatistics() {
+        final ConnectionPool connectionPool = okHttpClient.connectionPool();
+        final int idleConnections = connectionPool.idleConnectionCount();
+
+        return new ConnectionPoolStatistics(
+            connectionPool.connectionCount() - idleConnections,
+            idleConnections,
+            okHttpClient.dispatcher().queuedCallsCount(),
+            maxConnections
+        );
+    }
+
+    @Override
+    public void close() {
+        okHttpClient.dispatcher().cancelAll();
+
+        // interrupts any calls still waiting for their response bodies to be closed
+        final ExecutorService executorService = okHttpClient.dispatcher().executorService();
+        executorService.shutdownNow();
+
+        okHttpClient.connectionPool().evictAll();
+    }
+
+    private static List<Protocol> getProtocols(final TransportSettings.Protocol protocol) {
+        switch (protocol) {
+            case HTTP_2:
+                return Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1);
+            case HTTP_2_PRIOR_KNOWLEDGE:
+                return Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE);
+            default:
+                return Collections.singletonList(Protocol.HTTP_1_1);
+        }
+    }
+
+    private static boolean requiresBody(final String method) {
+        return "POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method);
+    }
+
+    private class OkHttpClientAdapter implements Client {
+
+        @Override
+        public Response execute(final Request request) throws IOException {
+            final PendingCall pendingCall = new PendingCall(request.getUrl(), idleBodyTimeoutMillis);
+            final Call call = okHttpClient.newCall(toOkHttpRequest(request, pendingCall));
+            call.enqueue(pendingCall);
+
+            final okhttp3.Response response;
+
+            try {
+                try {
+                    // a call which fails before it starts completes the response without starting
+                    CompletableFuture.anyOf(pendingCall.started, pendingCall.response).get(startTimeoutMillis, TimeUnit.MILLISECONDS);
+                } catch (final TimeoutException e) {
+                    abandon(call, pendingCall);
+                    throw new SocketTimeoutException("Request to " + request.getUrl() + " did not start within " + startTimeoutMillis + "ms");
+                }
+
+                // once started, every step of the call is bounded by the connect, write and read timeouts
+                response = pendingCall.response.get();
+            } catch (final InterruptedException e) {
+                abandon(call, pendingCall);
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for response");
+            } catch (final ExecutionException e) {
+                final Throwable cause = e.getCause();
+
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+
+                throw new IOException(cause);
+            }
+
+            return fromOkHttpResponse(request.getUrl(), response, pendingCall);
+        }
+
+        private void abandon(final Call call, final PendingCall pendingCall) {
+            call.cancel();
+            // the call may already have completed, in which case its connection must be released
+            pendingCall.response.thenAccept(okhttp3.Response::close);
+            pendingCall.released.complete(null);
+        }
+
+        private okhttp3.Request toOkHttpRequest(final Request request, final PendingCall pendingCall) {
+            final okhttp3.Request.Builder builder = new okhttp3.Request.Builder().url(request.getUrl()).tag(PendingCall.class, pendingCall);
+
+            for (final Header header : request.getHeaders()) {
+                builder.addHeader(header.getName(), header.getValue());
+            }
+
+            final TypedOutput body = request.getBody();
+            final RequestBody requestBody;
+
+            if (body != null) {
+                requestBody = new TypedOutputRequestBody(body);
+            } else if (requiresBody(request.getMethod())) {
+                requestBody = RequestBody.create(null, new byte[0]);
+            } else {
+                requestBody = null;
+            }
+
+            return builder.method(request.getMethod(), requestBody).build();
+        }
+
+        private Response fromOkHttpResponse(final String url, final okhttp3.Response response, final PendingCall pendingCall) {
+            final okhttp3.Headers responseHeaders = response.headers();
+            final List<Header> headers = new ArrayList<>(responseHeaders.size());
+
+            for (int i = 0; i < responseHeaders.size(); i++) {
+                headers.add(new Header(responseHeaders.name(i), responseHeaders.value(i)));
+            }
+
+            final ResponseBody body = response.body();
+            final TypedInput typedInput;
+
+            if (body == null || body.contentLength() == 0) {
+                if (body != null) {
+                    body.close();
+                }
+
+                pendingCall.released.complete(null);
+                typedInput = null;
+            } else {
+                typedInput = new ResponseBodyTypedInput(body, pendingCall);
+            }
+
+            return new Response(url, response.code(), response.message(), headers, typedInput);
+        }
+    }
+
+    // OkHttp considers a call finished, and starts the next queued call, as soon as the callback returns, so the
+    // callback waits until the body has been closed to keep the connection counted against the limits
+    private static class PendingCall implements Callback {
+        private final String url;
+        private final long idleBodyTimeoutMillis;
+        private final CompletableFuture<Void> started = new CompletableFuture<>();
+        private final CompletableFuture<okhttp3.Response> response = new CompletableFuture<>();
+        private final CompletableFuture<Void> released = new CompletableFuture<>();
+        private volatile long lastBodyActivity;
+
+        private PendingCall(final String url, final long idleBodyTimeoutMillis) {
+            this.url = url;
+            this.idleBodyTimeoutMillis = idleBodyTimeoutMillis;
+        }
+
+        @Override
+        public void onFailure(final Call call, final IOException e) {
+            response.completeExceptionally(e);
+        }
+
+        @Override
+        public void onResponse(final Call call, final okhttp3.Response response) {
+            lastBodyActivity = System.nanoTime();
+            this.response.complete(response);
+
+            try {
+                while (true) {
+                    try {
+                        released.get(idleBodyTimeoutMillis, TimeUnit.MILLISECONDS);
+                        return;
+                    } catch (final TimeoutException e) {
+                        if (System.nanoTime() - lastBodyActivity >= TimeUnit.MILLISECONDS.toNanos(idleBodyTimeoutMillis)) {
+                            log.warn("Response body from {} was not read or closed for {}ms, closing it", url, idleBodyTimeoutMillis);
+                            response.close();
+                            return;
+                        }
+                    }
+                }
+            } catch (final InterruptedException e) {
+                // the transport is being closed
+                response.close();
+                Thread.currentThread().interrupt();
+            } catch (final ExecutionException ignored) {
+                // released is never completed exceptionally
+            }
+        }
+
+        private void onBodyActivity() {
+            lastBodyActivity = System.nanoTime();
+        }
+    }
+
+    private static class TypedOutputRequestBody extends RequestBody {
+        private final TypedOutput body;
+        private final MediaType mediaType;
+
+        private TypedOutputRequestBody(final TypedOutput body) {
+            this.body = body;
+            mediaType = body.mimeType() == null ? null : MediaType.parse(body.mimeType());
+        }
+
+        @Override
+        public MediaType contentType() {
+            return mediaType;
+        }
+
+        @Override
+        public long contentLength() {
+            return body.length();
+        }
+
+        @Override
+        public void writeTo(final BufferedSink sink) throws IOException {
+            body.writeTo(sink.outputStream());
+        }
+    }
+
+    private static class ResponseBodyTypedInput implements TypedInput {
+        private final ResponseBody body;
+        private final PendingCall pendingCall;
+
+        private ResponseBodyTypedInput(final ResponseBody body, final PendingCall pendingCall) {
+            this.body = body;
+            this.pendingCall = pendingCall;
+        }
+
+        @Override
+        public String mimeType() {
+            final MediaType mediaType = body.contentType();
+            return mediaType == null ? null : mediaType.toString();
+        }
+
+        @Override
+        public long length() {
+            return body.contentLength();
+        }
+
+        @Override
+        public InputStream in() {
+            return new FilterInputStream(body.byteStream()) {
+                @Override
+                public int read() throws IOException {
+                    pendingCall.onBodyActivity();
+
+                    try {
+                        return super.read();
+                    } finally {
+                        pendingCall.onBodyActivity();
+                    }
+                }
+
+                @Override
+                public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+                    pendingCall.onBodyActivity();
+
+                    try {
+                        return super.read(bytes, offset, length);
+                    } finally {
+                        pendingCall.onBodyActivity();
+                    }
+                }
+
+                @Override
+                public long skip(final long n) throws IOException {
+                    pendingCall.onBodyActivity();
+
+                    try {
+                        return super.skip(n);
+                    } finally {
+                        pendingCall.onBodyActivity();
+                    }
+                }
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        pendingCall.released.complete(null);
+                    }
+                }
+            };
+        }
+    }
+
+    // OkHttp creates unconnected sockets, but the other methods are implemented for completeness
+    private static class NoDelaySocketFactory extends SocketFactory {
+        private final SocketFactory delegate;
+
+        private NoDelaySocketFactory(final SocketFactory delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Socket createSocket() throws IOException {
+            return configure(delegate.createSocket());
+        }
+
+        @Override
+        public Socket createSocket(final String host, final int port) throws IOException {
+            return configure(delegate.createSocket(host, port));
+        }
+
+        @Override
+        public Socket createSocket(final String host, final int port, final InetAddress localHost, final int localPort) throws IOException {
+            return configure(delegate.createSocket(host, port, localHost, localPort));
+        }
+
+        @Override
+        public Socket createSocket(final InetAddress host, final int port) throws IOException {
+            return configure(delegate.createSocket(host, port));
+        }
+
+        @Override
+        public Socket createSocket(final InetAddress address, final int port, final InetAddress localAddress, final int localPort) throws IOException {
+            return configure(delegate.createSocket(address, port, localAddress, localPort));
+        }
+
+        private Socket configure(final Socket socket) throws IOException {
+            socket.setTcpNoDelay(true);
+            return socket;
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.transport;
+
+import lombok.Data;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.joda.time.Duration;
+
+/**
+ * Settings controlling the connections made by an {@link HttpTransport}
+ */
+@Data
+public class TransportSettings {
+
+    /**
+     * @return The maximum number of connections to a single host and port
+     */
+    private final int maxConnectionsPerRoute;
+
+    /**
+     * @return The maximum number of connections to all hosts
+     */
+    private final int maxConnections;
+
+    /**
+     * @return How long an idle connection is kept open for reuse, unless the server asks for less
+     */
+    private final Duration keepAlive;
+
+    /**
+     * @return The timeout for establishing a connection
+     */
+    private final Duration connectTimeout;
+
+    /**
+     * @return The timeout for reading from an established connection
+     */
+    private final Duration readTimeout;
+
+    /**
+     * @return True if Nagle's algorithm is disabled on the connections
+     */
+    private final boolean tcpNoDelay;
+
+    /**
+     * @return True if gzip compressed responses are requested and transparently decompressed
+     */
+    private final boolean gzip;
+
+    /**
+     * @return The HTTP protocol used by the transport
+     */
+    private final Protocol protocol;
+
+    private TransportSettings(final Builder builder) {
+        if (builder.maxConnectionsPerRoute <= 0 || builder.maxConnections < builder.maxConnectionsPerRoute) {
+            throw new IllegalArgumentException("Connection limits must be positive, and the total must be at least the limit per route");
+        }
+
+        if (builder.keepAlive == null || builder.connectTimeout == null || builder.readTimeout == null || builder.protocol == null) {
+            throw new IllegalArgumentException("Keep alive, timeouts and protocol are mandatory");
+        }
+
+        maxConnectionsPerRoute = builder.maxConnectionsPerRoute;
+        maxConnections = builder.maxConnections;
+        keepAlive = builder.keepAlive;
+        connectTimeout = builder.connectTimeout;
+        readTimeout = builder.readTimeout;
+        tcpNoDelay = builder.tcpNoDelay;
+        gzip = builder.gzip;
+        protocol = builder.protocol;
+    }
+
+    /**
+     * The HTTP protocols which a transport may use
+     */
+    public enum Protocol {
+        /**
+         * HTTP/1.1, with a pool of persistent connections
+         */
+        HTTP_1_1,
+
+        /**
+         * HTTP/2 multiplexed over a single connection per host where the server supports it, negotiated using ALPN.
+         * HTTPS endpoints which do not support HTTP/2 use HTTP/1.1
+         */
+        HTTP_2,
+
+        /**
+         * HTTP/2 over cleartext connections, without negotiation. Only suitable for servers and proxies known to
+         * support it
+         */
+        HTTP_2_PRIOR_KNOWLEDGE
+    }
+
+    @Setter
+    @Accessors(chain = true)
+    public static class Builder {
+        private int maxConnectionsPerRoute = 20;
+        private int maxConnections = 100;
+        private Duration keepAlive = Duration.standardSeconds(30);
+        private Duration connectTimeout = Duration.standardSeconds(15);
+        private Duration readTimeout = Duration.standardSeconds(60);
+        private boolean tcpNoDelay = true;
+        private boolean gzip = true;
+        private Protocol protocol = Protocol.HTTP_1_1;
+
+        public TransportSettings build() {
+            return new TransportSettings(this);
+        }
+    }
+
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.util;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ThreadFactory which creates named daemon threads, so that thread pools owned by the client never prevent the JVM from
+ * exiting
+ */
+public class DaemonThreadFactory implements ThreadFactory {
+
+    private final String prefix;
+    private final AtomicInteger count = new AtomicInteger(0);
+
+    /**
+     * Creates a new DaemonThreadFactory
+     * @param prefix The prefix for the names of created threads
+     */
+    public DaemonThreadFactory(final String prefix) {
+        this.prefix = prefix;
+    }
+
+    @Override
+    public Thread newThread(final Runnable runnable) {
+        final Thread thread = new Thread(runnable, prefix + '-' + count.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+}
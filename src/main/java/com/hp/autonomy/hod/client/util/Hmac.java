@@ -7,33 +7,71 @@ package com.hp.autonomy.hod.client.util;
 
 import com.hp.autonomy.hod.client.api.authentication.AuthenticationToken;
 import com.hp.autonomy.hod.client.api.authentication.TokenType;
-import org.apache.commons.codec.binary.Base64;
-import org.apache.commons.codec.binary.Hex;
-import org.apache.commons.lang.StringUtils;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
-import java.io.UnsupportedEncodingException;
-import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
-import java.security.Key;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.Arrays;
 import java.util.Collections;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
+/**
+ * Signs requests to Haven OnDemand with an HMAC SHA1 token. Message digests and MACs are cached per thread, and the
+ * signed message is built in a single buffer, so signing a request allocates little beyond its output.
+ */
 public class Hmac {
     private static final String HMAC_SHA1 = "HmacSHA1";
-    private static final String UTF8 = "UTF-8";
     public static final String MD5 = "MD5";
 
-    private static final String COLON = ":";
+    private static final char COLON = ':';
     private static final String EMPTY = "";
-    private static final String NEW_LINE = "\n";
+    private static final char NEW_LINE = '\n';
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final char[] URL_HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    // Standard base64, except that '+' and '/' are not valid in a URI and are replaced with '_' and '-'
+    private static final char[] URI_BASE64_DIGITS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789_-".toCharArray();
+
+    // Characters which URLEncoder leaves alone
+    private static final boolean[] URL_SAFE = new boolean[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            URL_SAFE[c] = true;
+        }
+
+        for (char c = 'A'; c <= 'Z'; c++) {
+            URL_SAFE[c] = true;
+        }
+
+        for (char c = '0'; c <= '9'; c++) {
+            URL_SAFE[c] = true;
+        }
+
+        URL_SAFE['-'] = true;
+        URL_SAFE['_'] = true;
+        URL_SAFE['.'] = true;
+        URL_SAFE['*'] = true;
+    }
+
+    private static final ThreadLocal<MessageDigest> MD5_DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance(MD5);
+        } catch (final NoSuchAlgorithmException e) {
+            // This should never happen on a sensible JVM
+            throw new AssertionError("MD5 is not supported", e);
+        }
+    });
+
+    private static final ThreadLocal<SecretMac> HMAC_SHA1_MAC = ThreadLocal.withInitial(SecretMac::new);
+
+    // Stands in for the value of the variable body parameter of a template
+    private static final Object VARIABLE_VALUE = new Object();
 
     /**
      * Generate the token header for an HMAC signed request to Haven OnDemand.
@@ -42,173 +80,338 @@ public class Hmac {
      * @return The token parameter for the request
      */
     public String generateToken(final Request<?, ?> request, final AuthenticationToken<?, TokenType.HmacSha1> token) {
-        return generateTokenHelper(request, token);
-    }
+        final StringBuilder builder = new StringBuilder(256);
 
-    // So we don't have to expose type parameters on the generateToken interface
-    private <Q, B> String generateTokenHelper(final Request<Q, B> request, final AuthenticationToken<?, TokenType.HmacSha1> token) {
-        final String bodyHash = createBodyHash(request.getBody());
-        final String message = createMessage(request, bodyHash);
-        final String signature = base64EncodeForUri(hmacSha1(message, token.getSecret()));
+        final String bodyHash = createBodyHash(request.getBody(), builder);
 
-        final List<String> components = Arrays.asList(
-            token.getType(),
-            token.getId(),
-            bodyHash,
-            signature
-        );
+        builder.setLength(0);
+        appendMessagePrefix(builder, request);
+        urlEncode(builder, bodyHash);
+        final String signature = base64EncodeForUri(hmacSha1(builder.toString(), token.getSecret()));
 
-        return StringUtils.join(components, COLON);
+        builder.setLength(0);
+        return appendTokenPrefix(builder, token).append(bodyHash).append(COLON).append(signature).toString();
     }
 
-    // Creates the representation of the request for HMAC signing, given a request and it's body hash
-    private <Q, B> String createMessage(final Request<Q, B> request, final String bodyHash) {
-        final List<String> components = new LinkedList<>();
-        components.add(encodeVerb(request.getVerb()));
-        components.add(encodePath(request.getPath()));
-        components.addAll(encodeQueryParameters(request.getQueryParameters()));
-        components.add(urlEncode(bodyHash));
-        return StringUtils.join(components, NEW_LINE);
+    /**
+     * Prepare to generate token headers for a request which differs between calls only in the value of one body
+     * parameter, such as a nonce. Everything which does not depend on that value is encoded and hashed once.
+     * @param request The request to authenticate, which must not contain the variable body parameter
+     * @param token The HMAC SHA1 authentication token
+     * @param variableBodyParameter The name of the body parameter whose value is given to {@link Template#generateToken(String)},
+     * or null if the request never changes
+     * @return A template for generating the token parameter
+     */
+    public Template createTemplate(final Request<?, ?> request, final AuthenticationToken<?, TokenType.HmacSha1> token, final String variableBodyParameter) {
+        return new Template(request, token, variableBodyParameter);
     }
 
-    private <T> List<String> encodeQueryParameters(final Map<String, List<T>> queryParameters) {
-        if (queryParameters == null || queryParameters.isEmpty()) {
-            return Collections.emptyList();
-        } else {
-            return encodeAndSpreadParameterMap(queryParameters, input -> urlEncode(input.toString()));
+    // Appends the representation of the request for HMAC signing which precedes the url encoded body hash
+    private void appendMessagePrefix(final StringBuilder builder, final Request<?, ?> request) {
+        builder.append(request.getVerb().name()).append(NEW_LINE);
+        appendPath(builder, request.getPath());
+
+        final Map<String, ? extends List<?>> queryParameters = request.getQueryParameters();
+
+        if (queryParameters != null && !queryParameters.isEmpty()) {
+            appendSortedParameters(builder, queryParameters, false);
         }
+
+        builder.append(NEW_LINE);
+    }
+
+    private StringBuilder appendTokenPrefix(final StringBuilder builder, final AuthenticationToken<?, TokenType.HmacSha1> token) {
+        appendNullable(builder, token.getType()).append(COLON);
+        return appendNullable(builder, token.getId()).append(COLON);
     }
 
-    private <T> String createBodyHash(final Map<String, List<T>> body) {
+    private String createBodyHash(final Map<String, ? extends List<?>> body, final StringBuilder builder) {
         if (body == null || body.isEmpty()) {
             // If no body, the body hash must be the empty string
             return EMPTY;
-        } else {
-            final List<String> components = encodeAndSpreadParameterMap(body, input -> {
-                final byte[] bytes;
+        }
 
-                if (input instanceof byte[]) {
-                    bytes = (byte[]) input;
-                } else {
-                    bytes = bytesFromString(input.toString());
-                }
+        builder.setLength(0);
+        appendSortedParameters(builder, body, true);
 
-                return Hex.encodeHexString(md5Hash(bytes));
-            });
+        // the representation has no leading separator
+        final int start = builder.length() > 0 ? 1 : 0;
+        return hashBodyRepresentation(builder.substring(start));
+    }
 
-            final String bodyRepresentation = StringUtils.join(components, NEW_LINE);
-            return base64EncodeForUri(md5Hash(bytesFromString(bodyRepresentation)));
-        }
+    private String hashBodyRepresentation(final String representation) {
+        return base64EncodeForUri(MD5_DIGEST.get().digest(representation.getBytes(StandardCharsets.UTF_8)));
     }
 
     /*
-        Takes a map of parameter name to list of parameter values. URI encodes every key and encodes every value using
-        the ValueEncoder, then returns a list containing each encoded value adjacent to it's encoded key. The list is
-        sorted by the encoded key, but maintains the order of each value associated with a given key.
+        Appends every value of the parameter map preceded by its url encoded key, each component preceded by a new
+        line. Parameters are sorted by encoded key, but the values for a given key keep their order. Values are either
+        url encoded, or replaced by the hex MD5 of their bytes when hashing the body. Returns the position at which the
+        hash of the variable value of a template belongs, or -1 if there is no variable value.
 
         {key1: [value11, value12], key2: [value21]}
         uri(key2) < uri(key1)
 
-        => [uri(key2), encode(value21), uri(key1), encode(value11), uri(key1), encode(value12)]
+        => \n uri(key2) \n encode(value21) \n uri(key1) \n encode(value11) \n uri(key1) \n encode(value12)
     */
-    private <T> List<String> encodeAndSpreadParameterMap(final Map<String, List<T>> parameterMap, final ValueEncoder encoder) {
-        final List<Parameter> parameters = new LinkedList<>();
+    private int appendSortedParameters(final StringBuilder builder, final Map<String, ? extends List<?>> parameterMap, final boolean hashValues) {
+        final int size = parameterMap.size();
+        final String[] keys = new String[size];
+        final List<?>[] values = new List<?>[size];
+
+        int index = 0;
+
+        for (final Map.Entry<String, ? extends List<?>> entry : parameterMap.entrySet()) {
+            final String key = urlEncode(entry.getKey());
+
+            // insertion sort in place, keeping equal keys in map order; there are only ever a few parameters
+            int position = index++;
 
-        for (final Map.Entry<String, List<T>> entry : parameterMap.entrySet()) {
-            final String encodedKey = urlEncode(entry.getKey());
-            final List<?> values = entry.getValue();
+            while (position > 0 && keys[position - 1].compareTo(key) > 0) {
+                keys[position] = keys[position - 1];
+                values[position] = values[position - 1];
+                position--;
+            }
 
-            parameters.addAll(values.stream().map(value -> new Parameter(encodedKey, encoder.encode(value))).collect(Collectors.toList()));
+            keys[position] = key;
+            values[position] = entry.getValue();
         }
 
-        // Sort is guaranteed to be stable, so parameters for a given key will remain in the same order
-        Collections.sort(parameters);
+        int variablePosition = -1;
 
-        final List<String> components = new LinkedList<>();
+        for (int i = 0; i < size; i++) {
+            for (final Object value : values[i]) {
+                builder.append(NEW_LINE).append(keys[i]).append(NEW_LINE);
 
-        for (final Parameter parameter : parameters) {
-            components.add(parameter.key);
-            components.add(parameter.value);
+                if (value == VARIABLE_VALUE) {
+                    variablePosition = builder.length();
+                } else if (hashValues) {
+                    final byte[] bytes = value instanceof byte[] ? (byte[]) value : value.toString().getBytes(StandardCharsets.UTF_8);
+                    appendHex(builder, MD5_DIGEST.get().digest(bytes));
+                } else {
+                    urlEncode(builder, value.toString());
+                }
+            }
         }
 
-        return components;
+        return variablePosition;
     }
 
-    private String encodePath(final String path) {
+    private void appendPath(final StringBuilder builder, final String path) {
         // Path must be url encoded and have no leading or trailing slashes
-        return urlEncode(path.replaceAll("^/|/$", EMPTY));
+        final int start = path.startsWith("/") ? 1 : 0;
+        int end = path.length();
+
+        if (end > start && path.charAt(end - 1) == '/') {
+            end--;
+        }
+
+        urlEncode(builder, path, start, end);
     }
 
-    private String encodeVerb(final Request.Verb verb) {
-        return verb.name();
+    private StringBuilder appendNullable(final StringBuilder builder, final String value) {
+        return value == null ? builder : builder.append(value);
     }
 
-    private byte[] bytesFromString(final String input) {
-        try {
-            return input.getBytes(UTF8);
-        } catch (final UnsupportedEncodingException e) {
-            // This should never happen on a sensible JVM
-            throw new AssertionError("UTF8 is not supported", e);
+    private void appendHex(final StringBuilder builder, final byte[] bytes) {
+        for (final byte b : bytes) {
+            builder.append(HEX_DIGITS[(b >> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
         }
     }
 
     private String base64EncodeForUri(final byte[] bytes) {
-        // Some base64 characters are not valid in a URI
-        return Base64.encodeBase64String(bytes).replaceAll("=", EMPTY).replaceAll("/", "-").replaceAll("[+]", "_");
+        // Unpadded, since '=' is not valid in a URI either
+        final char[] output = new char[(bytes.length * 4 + 2) / 3];
+        final int whole = bytes.length - bytes.length % 3;
+        int o = 0;
+
+        for (int i = 0; i < whole; i += 3) {
+            final int bits = (bytes[i] & 0xFF) << 16 | (bytes[i + 1] & 0xFF) << 8 | bytes[i + 2] & 0xFF;
+            output[o++] = URI_BASE64_DIGITS[bits >>> 18];
+            output[o++] = URI_BASE64_DIGITS[(bits >>> 12) & 0x3F];
+            output[o++] = URI_BASE64_DIGITS[(bits >>> 6) & 0x3F];
+            output[o++] = URI_BASE64_DIGITS[bits & 0x3F];
+        }
+
+        final int remaining = bytes.length - whole;
+
+        if (remaining > 0) {
+            final int bits = (bytes[whole] & 0xFF) << 16 | (remaining == 2 ? (bytes[whole + 1] & 0xFF) << 8 : 0);
+            output[o++] = URI_BASE64_DIGITS[bits >>> 18];
+            output[o++] = URI_BASE64_DIGITS[(bits >>> 12) & 0x3F];
+
+            if (remaining == 2) {
+                output[o] = URI_BASE64_DIGITS[(bits >>> 6) & 0x3F];
+            }
+        }
+
+        return new String(output);
     }
 
     private String urlEncode(final String input) {
-        try {
-            final String encode = URLEncoder.encode(input, UTF8);
+        final StringBuilder builder = new StringBuilder(input.length() + 16);
+        urlEncode(builder, input, 0, input.length());
+        return builder.toString();
+    }
 
-            // Haven OnDemand expects space to be encoded as %20, not plus
-            return encode.replaceAll("\\+", "%20");
-        } catch (final UnsupportedEncodingException e) {
-            // This should never happen on a sensible JVM
-            throw new AssertionError("UTF8 is not supported", e);
-        }
+    private void urlEncode(final StringBuilder builder, final String input) {
+        urlEncode(builder, input, 0, input.length());
     }
 
-    private byte[] md5Hash(final byte[] input) {
-        try {
-            return MessageDigest.getInstance(MD5).digest(input);
-        } catch (final NoSuchAlgorithmException e) {
-            // This should never happen on a sensible JVM
-            throw new AssertionError("UTF8 or MD5 is not supported");
+    // Equivalent to URLEncoder with UTF-8, except that Haven OnDemand expects space to be encoded as %20, not plus
+    private void urlEncode(final StringBuilder builder, final String input, final int start, final int end) {
+        int i = start;
+
+        while (i < end) {
+            final char c = input.charAt(i);
+
+            if (c < 0x80) {
+                if (URL_SAFE[c]) {
+                    builder.append(c);
+                } else {
+                    appendPercentEncoded(builder, c);
+                }
+
+                i++;
+            } else {
+                // encode each run of non-ASCII characters together, so surrogate pairs are handled as URLEncoder does
+                int runEnd = i + 1;
+
+                while (runEnd < end && input.charAt(runEnd) >= 0x80) {
+                    runEnd++;
+                }
+
+                for (final byte b : input.substring(i, runEnd).getBytes(StandardCharsets.UTF_8)) {
+                    appendPercentEncoded(builder, b & 0xFF);
+                }
+
+                i = runEnd;
+            }
         }
     }
 
+    private void appendPercentEncoded(final StringBuilder builder, final int b) {
+        builder.append('%').append(URL_HEX_DIGITS[b >> 4]).append(URL_HEX_DIGITS[b & 0xF]);
+    }
+
     private byte[] hmacSha1(final String message, final String secret) {
-        try {
-            final Mac mac = Mac.getInstance(HMAC_SHA1);
-            final Key key = new SecretKeySpec(bytesFromString(secret), HMAC_SHA1);
-            mac.init(key);
-            return mac.doFinal(bytesFromString(message));
-        } catch (final NoSuchAlgorithmException e) {
-            // This should never happen on a sensible JVM
-            throw new AssertionError("HMAC SHA1 is not supported", e);
-        } catch (final InvalidKeyException e) {
-            // In practice, this means that the token secret was invalid
-            throw new IllegalArgumentException("Invalid token secret", e);
-        }
+        return HMAC_SHA1_MAC.get().forSecret(secret).doFinal(message.getBytes(StandardCharsets.UTF_8));
     }
 
-    private static class Parameter implements Comparable<Parameter> {
-        private final String key;
-        private final String value;
+    /**
+     * Generates token headers for a request whose only varying part is the value of one body parameter. Templates are
+     * thread safe.
+     */
+    public final class Template {
+        private final String secret;
+        private final String tokenPrefix;
+        private final String messagePrefix;
+
+        // the body representation either side of the hash of the variable value
+        private final String bodyPrefix;
+        private final String bodySuffix;
+
+        // used when there is no variable body parameter
+        private final String token;
+
+        private Template(final Request<?, ?> request, final AuthenticationToken<?, TokenType.HmacSha1> token, final String variableBodyParameter) {
+            final StringBuilder builder = new StringBuilder(256);
 
-        private Parameter(final String key, final String value) {
-            this.key = key;
-            this.value = value;
+            secret = token.getSecret();
+            tokenPrefix = appendTokenPrefix(builder, token).toString();
+
+            builder.setLength(0);
+            appendMessagePrefix(builder, request);
+            messagePrefix = builder.toString();
+
+            if (variableBodyParameter == null) {
+                bodyPrefix = null;
+                bodySuffix = null;
+                this.token = Hmac.this.generateToken(request, token);
+            } else {
+                final Map<String, List<?>> body = new LinkedHashMap<>();
+
+                if (request.getBody() != null) {
+                    body.putAll(request.getBody());
+                }
+
+                if (body.put(variableBodyParameter, Collections.singletonList(VARIABLE_VALUE)) != null) {
+                    throw new IllegalArgumentException("The request already contains the variable body parameter");
+                }
+
+                builder.setLength(0);
+                final int variablePosition = appendSortedParameters(builder, body, true);
+
+                // the representation has no leading separator
+                bodyPrefix = builder.substring(1, variablePosition);
+                bodySuffix = builder.substring(variablePosition);
+                this.token = null;
+            }
+        }
+
+        /**
+         * @return The token parameter for a request without a variable body parameter
+         */
+        public String generateToken() {
+            if (token == null) {
+                throw new IllegalStateException("This template requires a value for its variable body parameter");
+            }
+
+            return token;
         }
 
-        @Override
-        public int compareTo(final Parameter other) {
-            return key.compareTo(other.key);
+        /**
+         * @param variableValue The value of the variable body parameter
+         * @return The token parameter for the request with the given value
+         */
+        public String generateToken(final String variableValue) {
+            if (token != null) {
+                throw new IllegalStateException("This template has no variable body parameter");
+            }
+
+            final StringBuilder builder = new StringBuilder(bodyPrefix.length() + bodySuffix.length() + 32);
+            builder.append(bodyPrefix);
+            appendHex(builder, MD5_DIGEST.get().digest(variableValue.getBytes(StandardCharsets.UTF_8)));
+            final String bodyHash = hashBodyRepresentation(builder.append(bodySuffix).toString());
+
+            builder.setLength(0);
+            builder.append(messagePrefix);
+            urlEncode(builder, bodyHash);
+            final String signature = base64EncodeForUri(hmacSha1(builder.toString(), secret));
+
+            builder.setLength(0);
+            return builder.append(tokenPrefix).append(bodyHash).append(COLON).append(signature).toString();
         }
     }
 
-    private interface ValueEncoder {
-        String encode(Object input);
+    // A MAC which is only initialised again when the secret changes
+    private static class SecretMac {
+        private final Mac mac;
+        private String secret;
+
+        private SecretMac() {
+            try {
+                mac = Mac.getInstance(HMAC_SHA1);
+            } catch (final NoSuchAlgorithmException e) {
+                // This should never happen on a sensible JVM
+                throw new AssertionError("HMAC SHA1 is not supported", e);
+            }
+        }
+
+        private Mac forSecret(final String secret) {
+            if (!secret.equals(this.secret)) {
+                try {
+                    mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_SHA1));
+                } catch (final InvalidKeyException | IllegalArgumentException e) {
+                    // In practice, this means that the token secret was invalid
+                    this.secret = null;
+                    throw new IllegalArgumentException("Invalid token secret", e);
+                }
+
+                this.secret = secret;
+            }
+
+            return mac;
+        }
     }
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.util;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import retrofit.mime.TypedOutput;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * TypedOutput which serializes an object as JSON directly to the request output stream using Jackson's streaming
+ * generator. Unlike the output produced by Retrofit's JacksonConverter the JSON is never held in memory, so memory use
+ * does not depend on the size of the object. The length is unknown in advance, so the request is sent with chunked
+ * encoding
+ */
+public class JsonTypedOutput implements TypedOutput {
+
+    private final ObjectMapper objectMapper;
+    private final Object value;
+
+    /**
+     * Creates a new JsonTypedOutput
+     * @param objectMapper The object mapper used to serialize the value
+     * @param value The value to serialize
+     */
+    public JsonTypedOutput(final ObjectMapper objectMapper, final Object value) {
+        this.objectMapper = objectMapper;
+        this.value = value;
+    }
+
+    @Override
+    public String fileName() {
+        return null;
+    }
+
+    @Override
+    public String mimeType() {
+        return "application/json; charset=UTF-8";
+    }
+
+    @Override
+    public long length() {
+        return -1;
+    }
+
+    @Override
+    public void writeTo(final OutputStream outputStream) throws IOException {
+        final JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8);
+
+        // the output stream belongs to the HTTP client, which will close it once the rest of the request is written
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        try {
+            objectMapper.writeValue(generator, value);
+        } finally {
+            generator.close();
+        }
+    }
+}
@@ -5,37 +5,57 @@
 
 package com.hp.autonomy.hod.client.util;
 
-import lombok.EqualsAndHashCode;
-
+import java.util.AbstractCollection;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
-import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.BiConsumer;
 
 /**
  * Map implementation which supports multiple values for keys. This allow converting items in a list to multiple HTTP
  * query parameters/parts. Adding a key pairing multiple times has no effect beyond the first.
  * <p/>
- * Somewhat unusually, get is NOT supported on this map, as it makes little semantic sense.
+ * Entries are kept in insertion order and indexed by key, so key lookups and removals do not scan the whole map. The
+ * key set, values and entry set are views of the map, and {@link #forEach(BiConsumer)} iterates without allocating.
+ * <p/>
+ * Somewhat unusually, get is NOT supported on this map, as it makes little semantic sense. Use {@link #asListMap()} to
+ * look up all the values for a key.
  * <p/>
- * This map does not support null keys and values
+ * This map does not support null keys. Null values are not stored, so optional parameters may be put unconditionally
  * @param <K> The type of the map's keys
  * @param <V> The type of the map's values
  */
 @SuppressWarnings("NullableProblems")
 public class MultiMap<K, V> implements Map<K, V> {
 
-    private final Set<Map.Entry<K, V>> entries = new LinkedHashSet<>();
+    // the values for each key, in order of the first value for the key
+    private final Map<K, KeyEntries> index = new LinkedHashMap<>();
+
+    private Entry head;
+    private Entry tail;
+    private int size;
+    private int modCount;
+
+    private Set<K> keySet;
+    private Collection<V> values;
+    private Set<Map.Entry<K, V>> entrySet;
+    private Map<K, List<V>> listMap;
 
     /**
      * @return The number of entries in the map
      */
     @Override
     public int size() {
-        return entries.size();
+        return size;
     }
 
     /**
@@ -43,7 +63,7 @@ public class MultiMap<K, V> implements Map<K, V> {
      */
     @Override
     public boolean isEmpty() {
-        return entries.isEmpty();
+        return size == 0;
     }
 
     /**
@@ -52,13 +72,7 @@ public class MultiMap<K, V> implements Map<K, V> {
      */
     @Override
     public boolean containsKey(final Object key) {
-        for (final Map.Entry<K, V> entry : entries) {
-            if (key.equals(entry.getKey())) {
-                return true;
-            }
-        }
-
-        return false;
+        return index.containsKey(key);
     }
 
     /**
@@ -67,8 +81,8 @@ public class MultiMap<K, V> implements Map<K, V> {
      */
     @Override
     public boolean containsValue(final Object value) {
-        for (final Map.Entry<K, V> entry : entries) {
-            if (value.equals(entry.getValue())) {
+        for (Entry entry = head; entry != null; entry = entry.after) {
+            if (entry.value.equals(value)) {
                 return true;
             }
         }
@@ -88,14 +102,54 @@ public class MultiMap<K, V> implements Map<K, V> {
     }
 
     /**
-     * Add an entry for the given key-value pair to the map
+     * Add an entry for the given key-value pair to the map. Null values are ignored
      * @param key The key
      * @param value The value
      * @return value
      */
     @Override
     public V put(final K key, final V value) {
-        entries.add(new Entry(key, value));
+        Objects.requireNonNull(key, "MultiMap does not support null keys");
+
+        if (value == null) {
+            return null;
+        }
+
+        KeyEntries keyEntries = index.get(key);
+
+        if (keyEntries == null) {
+            keyEntries = new KeyEntries();
+            index.put(key, keyEntries);
+        } else {
+            for (Entry entry = keyEntries.first; entry != null; entry = entry.nextForKey) {
+                if (entry.value.equals(value)) {
+                    return value;
+                }
+            }
+        }
+
+        final Entry entry = new Entry(key, value);
+
+        if (tail == null) {
+            head = entry;
+        } else {
+            tail.after = entry;
+            entry.before = tail;
+        }
+
+        tail = entry;
+
+        if (keyEntries.last == null) {
+            keyEntries.first = entry;
+        } else {
+            keyEntries.last.nextForKey = entry;
+        }
+
+        keyEntries.last = entry;
+        keyEntries.size++;
+
+        size++;
+        modCount++;
 
         return value;
     }
@@ -103,23 +157,21 @@ public class MultiMap<K, V> implements Map<K, V> {
     /**
      * Remove all entries for the given key
      * @param key The key
-     * @return Some value that was paired with the key. The exact value is indeterminate
+     * @return Some value that was paired with the key, or null if there were no entries for the key
      */
     @Override
     public V remove(final Object key) {
-        final Iterator<Map.Entry<K, V>> iterator = entries.iterator();
-        V lastValue = null;
+        final KeyEntries keyEntries = index.remove(key);
 
-        while (iterator.hasNext()) {
-            final Map.Entry<K, V> entry = iterator.next();
-            lastValue = entry.getValue();
+        if (keyEntries == null) {
+            return null;
+        }
 
-            if (key.equals(entry.getKey())) {
-                iterator.remove();
-            }
+        for (Entry entry = keyEntries.first; entry != null; entry = entry.nextForKey) {
+            unlink(entry);
         }
 
-        return lastValue;
+        return keyEntries.last.value;
     }
 
     /**
@@ -138,43 +190,200 @@ public class MultiMap<K, V> implements Map<K, V> {
      */
     @Override
     public void clear() {
-        entries.clear();
+        index.clear();
+        head = null;
+        tail = null;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Calls the action for every entry in the map, in insertion order
+     * @param action The action
+     */
+    @Override
+    public void forEach(final BiConsumer<? super K, ? super V> action) {
+        final int expectedModCount = modCount;
+
+        for (Entry entry = head; entry != null; entry = entry.after) {
+            action.accept(entry.key, entry.value);
+
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
     }
 
     /**
-     * @return A set containing all the keys in the map. Note that this will not have the same size as the map
+     * @return A set view of all the keys in the map. Note that this will not have the same size as the map
      */
     @Override
     public Set<K> keySet() {
-        final Set<K> keys = entries.stream().map(Map.Entry::getKey).collect(Collectors.toSet());
+        if (keySet == null) {
+            keySet = new AbstractSet<K>() {
+                @Override
+                public Iterator<K> iterator() {
+                    final Iterator<K> iterator = index.keySet().iterator();
+
+                    return new Iterator<K>() {
+                        private K current;
+
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public K next() {
+                            current = iterator.next();
+                            return current;
+                        }
+
+                        @Override
+                        public void remove() {
+                            MultiMap.this.remove(current);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return index.size();
+                }
+
+                @Override
+                public boolean contains(final Object key) {
+                    return index.containsKey(key);
+                }
+
+                @Override
+                public boolean remove(final Object key) {
+                    return MultiMap.this.remove(key) != null;
+                }
+            };
+        }
 
-        return keys;
+        return keySet;
     }
 
     /**
-     * @return A collection containing all the values in the map
+     * @return A collection view of all the values in the map, in insertion order
      */
     @Override
     public Collection<V> values() {
-        final Set<V> values = entries.stream().map(Map.Entry::getValue).collect(Collectors.toSet());
+        if (values == null) {
+            values = new AbstractCollection<V>() {
+                @Override
+                public Iterator<V> iterator() {
+                    return new EntryIterator<V>() {
+                        @Override
+                        V extract(final Entry entry) {
+                            return entry.value;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
 
         return values;
     }
 
     /**
-     * @return A set containing all the entries in the map
+     * @return A set view of all the entries in the map, in insertion order
      */
     @Override
     public Set<Map.Entry<K, V>> entrySet() {
-        return entries;
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Map.Entry<K, V>>() {
+                @Override
+                public Iterator<Map.Entry<K, V>> iterator() {
+                    return new EntryIterator<Map.Entry<K, V>>() {
+                        @Override
+                        Map.Entry<K, V> extract(final Entry entry) {
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+
+        return entrySet;
+    }
+
+    /**
+     * @return An unmodifiable view of this map which maps each key to the list of its values, in the form expected by
+     * {@link Request}
+     */
+    public Map<K, List<V>> asListMap() {
+        if (listMap == null) {
+            listMap = new ListMap();
+        }
+
+        return listMap;
+    }
+
+    // removes the entry from the insertion order; the caller is responsible for the key index
+    private void unlink(final Entry entry) {
+        if (entry.before == null) {
+            head = entry.after;
+        } else {
+            entry.before.after = entry.after;
+        }
+
+        if (entry.after == null) {
+            tail = entry.before;
+        } else {
+            entry.after.before = entry.before;
+        }
+
+        size--;
+        modCount++;
+    }
+
+    private void removeEntry(final Entry entry) {
+        final KeyEntries keyEntries = index.get(entry.key);
+        Entry previous = null;
+
+        for (Entry candidate = keyEntries.first; candidate != entry; candidate = candidate.nextForKey) {
+            previous = candidate;
+        }
+
+        if (previous == null) {
+            keyEntries.first = entry.nextForKey;
+        } else {
+            previous.nextForKey = entry.nextForKey;
+        }
+
+        if (keyEntries.last == entry) {
+            keyEntries.last = previous;
+        }
+
+        if (--keyEntries.size == 0) {
+            index.remove(entry.key);
+        }
+
+        unlink(entry);
     }
 
-    @EqualsAndHashCode
     private class Entry implements Map.Entry<K, V> {
 
         private final K key;
         private V value;
 
+        private Entry before;
+        private Entry after;
+        private Entry nextForKey;
+
         private Entry(final K key, final V value) {
             this.key = key;
             this.value = value;
@@ -194,9 +403,176 @@ public class MultiMap<K, V> implements Map<K, V> {
         public V setValue(final V value) {
             final V oldValue = this.value;
 
-            this.value = value;
+            this.value = Objects.requireNonNull(value, "MultiMap does not support null values");
 
             return oldValue;
         }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Map.Entry)) {
+                return false;
+            }
+
+            final Map.Entry<?, ?> other = (Map.Entry<?, ?>) obj;
+            return key.equals(other.getKey()) && value.equals(other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ value.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    private class KeyEntries {
+        private Entry first;
+        private Entry last;
+        private int size;
+    }
+
+    private abstract class EntryIterator<T> implements Iterator<T> {
+        private Entry next = head;
+        private Entry current;
+        private int expectedModCount = modCount;
+
+        abstract T extract(Entry entry);
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+
+            current = next;
+            next = next.after;
+            return extract(current);
+        }
+
+        @Override
+        public void remove() {
+            if (current == null) {
+                throw new IllegalStateException();
+            }
+
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+
+            removeEntry(current);
+            current = null;
+            expectedModCount = modCount;
+        }
+    }
+
+    private class ListMap extends AbstractMap<K, List<V>> {
+        @Override
+        public int size() {
+            return index.size();
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return index.containsKey(key);
+        }
+
+        @Override
+        public List<V> get(final Object key) {
+            final KeyEntries keyEntries = index.get(key);
+            return keyEntries == null ? null : new ValueList(keyEntries);
+        }
+
+        @Override
+        public Set<Map.Entry<K, List<V>>> entrySet() {
+            return new AbstractSet<Map.Entry<K, List<V>>>() {
+                @Override
+                public Iterator<Map.Entry<K, List<V>>> iterator() {
+                    final Iterator<Map.Entry<K, KeyEntries>> iterator = index.entrySet().iterator();
+
+                    return new Iterator<Map.Entry<K, List<V>>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Map.Entry<K, List<V>> next() {
+                            final Map.Entry<K, KeyEntries> entry = iterator.next();
+                            return new SimpleImmutableEntry<>(entry.getKey(), new ValueList(entry.getValue()));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return index.size();
+                }
+            };
+        }
+    }
+
+    // the values for a key, which are usually iterated rather than accessed by position
+    private class ValueList extends AbstractList<V> {
+        private final KeyEntries keyEntries;
+
+        private ValueList(final KeyEntries keyEntries) {
+            this.keyEntries = keyEntries;
+        }
+
+        @Override
+        public V get(final int position) {
+            if (position < 0 || position >= keyEntries.size) {
+                throw new IndexOutOfBoundsException("Index: " + position + ", Size: " + keyEntries.size);
+            }
+
+            Entry entry = keyEntries.first;
+
+            for (int i = 0; i < position; i++) {
+                entry = entry.nextForKey;
+            }
+
+            return entry.value;
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new Iterator<V>() {
+                private Entry next = keyEntries.first;
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public V next() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+
+                    final V value = next.value;
+                    next = next.nextForKey;
+                    return value;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return keyEntries.size;
+        }
     }
 }
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.util;
+
+import org.apache.commons.io.IOUtils;
+import retrofit.mime.TypedOutput;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.UUID;
+
+/**
+ * TypedOutput which copies an InputStream to the request output stream as the request is written, rather than reading
+ * it into memory first. The length is unknown in advance, so the request is sent with chunked encoding. The stream can
+ * only be read once, and is not closed by this class
+ */
+public class TypedInputStream implements TypedOutput {
+
+    private final String mimeType;
+    private final InputStream inputStream;
+
+    /**
+     * Creates a new TypedInputStream
+     * @param mimeType The mime type of the content
+     * @param inputStream The stream to read the content from
+     */
+    public TypedInputStream(final String mimeType, final InputStream inputStream) {
+        this.mimeType = mimeType;
+        this.inputStream = inputStream;
+    }
+
+    @Override
+    public String fileName() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Override
+    public String mimeType() {
+        return mimeType;
+    }
+
+    @Override
+    public long length() {
+        return -1;
+    }
+
+    @Override
+    public void writeTo(final OutputStream outputStream) throws IOException {
+        IOUtils.copyLarge(inputStream, outputStream);
+    }
+}
@@ -34,6 +34,10 @@ public enum HodWarningCode {
         this.code = code;
     }
 
+    public int getCode() {
+        return code;
+    }
+
     public static HodWarningCode fromCode(final int code) {
         final HodWarningCode warningCode = LOOKUP.get(code);
 
@@ -6,6 +6,7 @@
 package com.hp.autonomy.hod.client.api.authentication;
 
 import com.hp.autonomy.hod.client.config.HodServiceConfig;
+import com.hp.autonomy.hod.client.util.Hmac;
 import com.hp.autonomy.hod.client.util.Request;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.utils.URLEncodedUtils;
@@ -18,7 +19,10 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -136,6 +140,37 @@ public class AuthenticationServiceImplTest {
         assertThat(nonce, notNullValue());
     }
 
+    @Test
+    public void reusesSignedRequestsWhichDoNotChange() {
+        final SignedRequest first = service.combinedRequest(ALLOWED_ORIGINS, TOKEN, DOMAIN, APPLICATION, USER_STORE_DOMAIN, USER_STORE_NAME, TokenType.Simple.INSTANCE);
+        final SignedRequest second = service.combinedRequest(ALLOWED_ORIGINS, TOKEN, DOMAIN, APPLICATION, USER_STORE_DOMAIN, USER_STORE_NAME, TokenType.Simple.INSTANCE);
+
+        assertThat(second, is(sameInstance(first)));
+    }
+
+    @Test
+    public void signsEachNonceLikeAFullRequest() {
+        final SignedRequest first = service.combinedRequest(ALLOWED_ORIGINS, TOKEN, DOMAIN, APPLICATION, USER_STORE_DOMAIN, USER_STORE_NAME, TokenType.Simple.INSTANCE, true);
+        final SignedRequest second = service.combinedRequest(ALLOWED_ORIGINS, TOKEN, DOMAIN, APPLICATION, USER_STORE_DOMAIN, USER_STORE_NAME, TokenType.Simple.INSTANCE, true);
+
+        final String firstNonce = getParameterPair(URLEncodedUtils.parse(first.getBody(), StandardCharsets.UTF_8), "nonce").getValue();
+        final String secondNonce = getParameterPair(URLEncodedUtils.parse(second.getBody(), StandardCharsets.UTF_8), "nonce").getValue();
+        assertThat(firstNonce, is(not(secondNonce)));
+
+        for (final SignedRequest request : Arrays.asList(first, second)) {
+            final Map<String, List<String>> body = new HashMap<>();
+
+            for (final NameValuePair pair : URLEncodedUtils.parse(request.getBody(), StandardCharsets.UTF_8)) {
+                body.put(pair.getName(), Collections.singletonList(pair.getValue()));
+            }
+
+            final Map<String, List<String>> queryParameters = Collections.singletonMap("allowed_origins", ALLOWED_ORIGINS);
+            final Request<String, String> fullRequest = new Request<>(Request.Verb.POST, COMBINED_PATH, queryParameters, body);
+
+            assertThat(request, is(SignedRequest.sign(new Hmac(), ENDPOINT, TOKEN, fullRequest)));
+        }
+    }
+
     private void checkCombinedUrl(final SignedRequest request, final List<NameValuePair> expectedParameters) throws URISyntaxException {
         final URI uri = new URI(request.getUrl());
         assertThat(uri.getScheme() + "://" + uri.getHost(), is(ENDPOINT));
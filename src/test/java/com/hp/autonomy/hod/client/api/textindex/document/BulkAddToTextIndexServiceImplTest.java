@@ -0,0 +1,285 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.api.textindex.document;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hp.autonomy.hod.client.api.authentication.EntityType;
+import com.hp.autonomy.hod.client.api.authentication.TokenType;
+import com.hp.autonomy.hod.client.api.resource.ResourceIdentifier;
+import com.hp.autonomy.hod.client.api.resource.ResourceName;
+import com.hp.autonomy.hod.client.config.HodServiceConfig;
+import com.hp.autonomy.hod.client.error.HodError;
+import com.hp.autonomy.hod.client.error.HodErrorCode;
+import com.hp.autonomy.hod.client.error.HodErrorException;
+import com.hp.autonomy.hod.client.job.HodJobCallback;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+public class BulkAddToTextIndexServiceImplTest {
+
+    private static final ResourceIdentifier INDEX = new ResourceName("domain", "index");
+
+    private HodServiceConfig<EntityType.Application, TokenType.Simple> config;
+    private AddToTextIndexService addToTextIndexService;
+    private BlockingQueue<SubmittedBatch> submittedBatches;
+    private RecordingCallback callback;
+
+    @Before
+    public void setUp() throws HodErrorException {
+        config = new HodServiceConfig.Builder<EntityType.Application, TokenType.Simple>("http://example.com").build();
+        addToTextIndexService = mock(AddToTextIndexService.class);
+        submittedBatches = new LinkedBlockingQueue<>();
+        callback = new RecordingCallback();
+
+        doAnswer(invocation -> {
+            final Object[] arguments = invocation.getArguments();
+
+            @SuppressWarnings("unchecked")
+            final Documents<SerializedDocument> documents = (Documents<SerializedDocument>) arguments[0];
+
+            @SuppressWarnings("unchecked")
+            final HodJobCallback<AddToTextIndexResponse> jobCallback = (HodJobCallback<AddToTextIndexResponse>) arguments[3];
+
+            submittedBatches.add(new SubmittedBatch(documents, jobCallback));
+            return null;
+        }).when(addToTextIndexService).addJsonToTextIndex(any(Documents.class), eq(INDEX), any(AddToTextIndexRequestBuilder.class), any());
+    }
+
+    @Test
+    public void testDocumentsAreSplitByCount() throws InterruptedException {
+        final BulkAddToTextIndexService service = createService(2, 1024 * 1024, 10);
+        completeBatchesInBackground();
+
+        service.addDocuments(documents(5), INDEX, new AddToTextIndexRequestBuilder(), callback);
+
+        assertThat(callback.successes, contains(0, 1, 2));
+        assertThat(callback.batchSizes, contains(2, 2, 1));
+    }
+
+    @Test
+    public void testDocumentsAreSplitBySize() throws InterruptedException {
+        final BulkAddToTextIndexService service = createService(100, 150, 10);
+        completeBatchesInBackground();
+
+        service.addDocuments(documents(4), INDEX, new AddToTextIndexRequestBuilder(), callback);
+
+        assertThat(callback.successes, hasSize(4));
+        assertThat(callback.batchSizes, contains(1, 1, 1, 1));
+    }
+
+    @Test
+    public void testBatchesAreSentAsTheSerializedDocuments() throws InterruptedException, IOException {
+        final BulkAddToTextIndexService service = createService(3, 1024 * 1024, 10);
+        final List<Document> documents = documents(3).collect(Collectors.toList());
+
+        final Thread producer = new Thread(() -> {
+            try {
+                service.addDocuments(documents.stream(), INDEX, new AddToTextIndexRequestBuilder(), callback);
+            } catch (final InterruptedException ignored) {
+            }
+        });
+
+        producer.start();
+
+        final SubmittedBatch batch = submittedBatches.poll(5, TimeUnit.SECONDS);
+        assertThat(batch, is(notNullValue()));
+        batch.complete();
+        producer.join(5000);
+
+        final ObjectMapper objectMapper = config.getObjectMapper();
+        final JsonNode sent = objectMapper.readTree(objectMapper.writeValueAsBytes(batch.documents));
+        assertThat(sent, is(objectMapper.readTree(objectMapper.writeValueAsBytes(new Documents<>(documents)))));
+    }
+
+    @Test
+    public void testProducerBlocksWhileTooManyJobsAreInFlight() throws InterruptedException {
+        final BulkAddToTextIndexService service = createService(1, 1024 * 1024, 2);
+        final AtomicInteger consumed = new AtomicInteger(0);
+        final Stream<Document> documents = documents(5).peek(document -> consumed.incrementAndGet());
+
+        final Thread producer = new Thread(() -> {
+            try {
+                service.addDocuments(documents, INDEX, new AddToTextIndexRequestBuilder(), callback);
+            } catch (final InterruptedException ignored) {
+            }
+        });
+
+        producer.start();
+
+        final SubmittedBatch first = submittedBatches.poll(5, TimeUnit.SECONDS);
+        final SubmittedBatch second = submittedBatches.poll(5, TimeUnit.SECONDS);
+        assertThat(first, is(notNullValue()));
+        assertThat(second, is(notNullValue()));
+
+        // the third document has been read, but cannot be submitted until a job completes
+        assertThat(submittedBatches.poll(200, TimeUnit.MILLISECONDS), is(nullValue()));
+        assertThat(consumed.get(), is(3));
+
+        first.complete();
+        final SubmittedBatch third = submittedBatches.poll(5, TimeUnit.SECONDS);
+        assertThat(third, is(notNullValue()));
+
+        completeBatchesInBackground();
+        second.complete();
+        third.complete();
+
+        producer.join(5000);
+        assertThat(producer.isAlive(), is(false));
+        assertThat(callback.successes, hasSize(5));
+    }
+
+    @Test
+    public void testSubmissionErrorsAreReportedAndLaterBatchesContinue() throws HodErrorException, InterruptedException {
+        final HodErrorException exception = new HodErrorException(new HodError.Builder().setError(5000).build(), 500);
+        final BulkAddToTextIndexService service = createService(2, 1024 * 1024, 1);
+
+        doThrow(exception).doAnswer(invocation -> {
+            @SuppressWarnings("unchecked")
+            final HodJobCallback<AddToTextIndexResponse> jobCallback = (HodJobCallback<AddToTextIndexResponse>) invocation.getArguments()[3];
+            jobCallback.success(new AddToTextIndexResponse.Builder().setReferences(Collections.emptyList()).build());
+            return null;
+        }).when(addToTextIndexService).addJsonToTextIndex(any(Documents.class), eq(INDEX), any(AddToTextIndexRequestBuilder.class), any());
+
+        service.addDocuments(documents(4), INDEX, new AddToTextIndexRequestBuilder(), callback);
+
+        assertThat(callback.errors, contains(HodErrorCode.BACKEND_REQUEST_FAILED));
+        assertThat(callback.failedDocuments, hasSize(2));
+        assertThat(callback.successes, contains(1));
+        assertThat(callback.exceptions, is(empty()));
+    }
+
+    @Test
+    public void testOnlyTheFirstOutcomeOfABatchIsReported() throws HodErrorException, InterruptedException {
+        final BulkAddToTextIndexService service = createService(2, 1024 * 1024, 1);
+
+        doAnswer(invocation -> {
+            @SuppressWarnings("unchecked")
+            final HodJobCallback<AddToTextIndexResponse> jobCallback = (HodJobCallback<AddToTextIndexResponse>) invocation.getArguments()[3];
+            jobCallback.error(HodErrorCode.BACKEND_REQUEST_FAILED);
+            jobCallback.error(HodErrorCode.INVALID_JOB_ACTION);
+            jobCallback.timeout();
+            return null;
+        }).when(addToTextIndexService).addJsonToTextIndex(any(Documents.class), eq(INDEX), any(AddToTextIndexRequestBuilder.class), any());
+
+        service.addDocuments(documents(2), INDEX, new AddToTextIndexRequestBuilder(), callback);
+
+        assertThat(callback.errors, contains(HodErrorCode.BACKEND_REQUEST_FAILED));
+        assertThat(callback.failedDocuments, hasSize(2));
+    }
+
+    private BulkAddToTextIndexService createService(final int maxBatchDocuments, final long maxBatchBytes, final int maxJobsInFlight) {
+        final BulkAddToTextIndexSettings settings = new BulkAddToTextIndexSettings.Builder()
+            .setMaxBatchDocuments(maxBatchDocuments)
+            .setMaxBatchBytes(maxBatchBytes)
+            .setMaxJobsInFlight(maxJobsInFlight)
+            .build();
+
+        return new BulkAddToTextIndexServiceImpl(config, addToTextIndexService, settings);
+    }
+
+    private void completeBatchesInBackground() {
+        final Thread thread = new Thread(() -> {
+            try {
+                //noinspection InfiniteLoopStatement
+                while (true) {
+                    submittedBatches.take().complete();
+                }
+            } catch (final InterruptedException ignored) {
+            }
+        });
+
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private Stream<Document> documents(final int count) {
+        final List<Document> documents = IntStream.range(0, count)
+            .mapToObj(i -> new Document.Builder()
+                .setReference("reference-" + i)
+                .setContent("Some content which takes up roughly one hundred bytes once serialized to JSON")
+                .build())
+            .collect(Collectors.toList());
+
+        return documents.stream();
+    }
+
+    private static class SubmittedBatch {
+        private final Documents<SerializedDocument> documents;
+        private final HodJobCallback<AddToTextIndexResponse> jobCallback;
+
+        private SubmittedBatch(final Documents<SerializedDocument> documents, final HodJobCallback<AddToTextIndexResponse> jobCallback) {
+            this.documents = documents;
+            this.jobCallback = jobCallback;
+        }
+
+        private void complete() {
+            final List<AddToTextIndexReference> references = new ArrayList<>();
+
+            for (final SerializedDocument document : documents.getDocuments()) {
+                references.add(new AddToTextIndexReference.Builder().setReference(document.getDocument().getReference()).build());
+            }
+
+            jobCallback.success(new AddToTextIndexResponse.Builder().setIndex("index").setReferences(references).build());
+        }
+    }
+
+    private static class RecordingCallback implements BulkAddToTextIndexCallback {
+        private final List<Integer> successes = new CopyOnWriteArrayList<>();
+        private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        private final List<HodErrorCode> errors = new CopyOnWriteArrayList<>();
+        private final List<Document> failedDocuments = new CopyOnWriteArrayList<>();
+        private final List<RuntimeException> exceptions = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void success(final int batch, final AddToTextIndexResponse response) {
+            successes.add(batch);
+            batchSizes.add(response.getReferences().size());
+        }
+
+        @Override
+        public void error(final int batch, final List<Document> documents, final HodErrorCode error) {
+            errors.add(error);
+            failedDocuments.addAll(documents);
+        }
+
+        @Override
+        public void timeout(final int batch, final List<Document> documents) {
+            failedDocuments.addAll(documents);
+        }
+
+        @Override
+        public void handleException(final int batch, final List<Document> documents, final RuntimeException exception) {
+            exceptions.add(exception);
+        }
+    }
+}
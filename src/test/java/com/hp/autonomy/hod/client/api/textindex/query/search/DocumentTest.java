@@ -5,6 +5,7 @@
 
 package com.hp.autonomy.hod.client.api.textindex.query.search;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
@@ -12,11 +13,18 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 public class DocumentTest {
@@ -58,6 +66,73 @@ public class DocumentTest {
         serializeAndDeserialize(document);
     }
 
+    @Test
+    public void testFieldsKeepTheirValuesAndOrder() {
+        final Date date = new Date(1234567890L);
+        final ArrayList<String> list = new ArrayList<>(Arrays.asList("stuff", "more stuff"));
+
+        final Document document = new Document.Builder()
+            .addField("string", "hello world")
+            .addField("double", 42.5)
+            .addField("long", 1L << 40)
+            .addField("int", 7)
+            .addField("boolean", true)
+            .addField("date", date)
+            .addField("list", list)
+            .addField("null", null)
+            .build();
+
+        final Map<String, Serializable> expected = new LinkedHashMap<>();
+        expected.put("string", "hello world");
+        expected.put("double", 42.5);
+        expected.put("long", 1L << 40);
+        expected.put("int", 7);
+        expected.put("boolean", true);
+        expected.put("date", date);
+        expected.put("list", list);
+        expected.put("null", null);
+
+        assertThat(document.getFields(), is(expected));
+        assertThat(new ArrayList<>(document.getFields().keySet()), is(new ArrayList<>(expected.keySet())));
+        assertThat(document.getFields().get("int"), is((Serializable) 7));
+        assertThat(document.getFields().containsKey("null"), is(true));
+        assertThat(document.getFields().get("missing"), is(nullValue()));
+    }
+
+    @Test
+    public void testDocumentsWithTheSameFieldsShareASchema() throws IOException {
+        final ObjectMapper objectMapper = new ObjectMapper();
+
+        final Document document1 = objectMapper.readValue("{\"reference\":\"a\",\"author\":[\"Bob\"],\"price\":1.5}", Document.class);
+        final Document document2 = objectMapper.readValue("{\"reference\":\"b\",\"author\":[\"Alice\"],\"price\":2.5}", Document.class);
+
+        assertThat(document2.getFields().get("price"), is((Serializable) 2.5));
+        assertThat(document2.getFields().get("author"), is((Serializable) Collections.singletonList("Alice")));
+
+        final FieldSchema schema1 = ((CompactFieldMap) document1.getFields()).getSchema();
+        final FieldSchema schema2 = ((CompactFieldMap) document2.getFields()).getSchema();
+        assertThat(schema1, is(sameInstance(schema2)));
+    }
+
+    @Test
+    public void testSingleValuedJsonArraysAreHeldUnboxed() throws IOException, ClassNotFoundException {
+        final ObjectMapper objectMapper = new ObjectMapper();
+
+        final Document document = objectMapper.readValue("{\"reference\":\"a\",\"price\":[1.5],\"count\":[3],\"author\":[\"Bob\"],\"tags\":[1,2]}", Document.class);
+        final Map<String, Serializable> fields = document.getFields();
+
+        assertThat(fields.get("price"), is((Serializable) new ArrayList<>(Collections.singletonList(1.5))));
+        assertThat(fields.get("count"), is((Serializable) new ArrayList<>(Collections.singletonList(3))));
+        assertThat(fields.get("author"), is((Serializable) new ArrayList<>(Collections.singletonList("Bob"))));
+        assertThat(fields.get("tags"), is((Serializable) new ArrayList<>(Arrays.asList(1, 2))));
+
+        final FieldSchema schema = ((CompactFieldMap) fields).getSchema();
+        assertThat(schema.getPrimitiveCount(), is(2));
+        assertThat(schema.getObjectCount(), is(2));
+
+        serializeAndDeserialize(document);
+    }
+
     private void serializeAndDeserialize(final Document document) throws IOException, ClassNotFoundException {
         final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
 
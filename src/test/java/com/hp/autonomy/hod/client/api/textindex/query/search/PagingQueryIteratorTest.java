@@ -0,0 +1,193 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.api.textindex.query.search;
+
+import com.hp.autonomy.hod.client.error.HodError;
+import com.hp.autonomy.hod.client.error.HodErrorCode;
+import com.hp.autonomy.hod.client.error.HodErrorException;
+import com.hp.autonomy.hod.client.error.UncheckedHodErrorException;
+import com.hp.autonomy.hod.client.util.DaemonThreadFactory;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.fail;
+
+public class PagingQueryIteratorTest {
+
+    private static final Executor SAME_THREAD = Runnable::run;
+
+    @Test
+    public void testAllResultsAreReturnedInPages() {
+        final FakeIndex index = new FakeIndex(25, null);
+        final QueryRequestBuilder params = new QueryRequestBuilder().setMaxPageResults(10).setAbsoluteMaxResults(100);
+
+        final List<String> results = new PagingQueryIterator<>(params, SAME_THREAD, index).stream().collect(Collectors.toList());
+
+        assertThat(results, is(expectedResults(1, 25)));
+        assertThat(index.starts, contains(1, 11, 21));
+    }
+
+    @Test
+    public void testResultsStopAtAbsoluteMaxResults() {
+        final FakeIndex index = new FakeIndex(100, null);
+        final QueryRequestBuilder params = new QueryRequestBuilder().setStart(6).setMaxPageResults(10).setAbsoluteMaxResults(25);
+
+        final List<String> results = new PagingQueryIterator<>(params, SAME_THREAD, index).stream().collect(Collectors.toList());
+
+        assertThat(results, is(expectedResults(6, 25)));
+        assertThat(index.starts, contains(6, 16));
+        assertThat(index.pageSizes, contains(10, 10));
+    }
+
+    @Test
+    public void testTotalResultsAvoidsRequestingAnEmptyPage() {
+        final FakeIndex index = new FakeIndex(20, 20);
+        final QueryRequestBuilder params = new QueryRequestBuilder().setMaxPageResults(10);
+
+        final List<String> results = new PagingQueryIterator<>(params, SAME_THREAD, index).stream().collect(Collectors.toList());
+
+        assertThat(results, hasSize(20));
+        assertThat(index.starts, contains(1, 11));
+    }
+
+    @Test
+    public void testNextPageIsPrefetchedAndNothingIsRequestedUntilIteration() {
+        final FakeIndex index = new FakeIndex(100, null);
+        final QueryRequestBuilder params = new QueryRequestBuilder().setMaxPageResults(10);
+
+        final Iterator<String> iterator = new PagingQueryIterator<>(params, SAME_THREAD, index);
+        assertThat(index.starts, hasSize(0));
+
+        iterator.next();
+        assertThat(index.starts, contains(1, 11));
+    }
+
+    @Test
+    public void testResultsAreReturnedInOrderWithABackgroundExecutor() {
+        final FakeIndex index = new FakeIndex(95, null);
+        final QueryRequestBuilder params = new QueryRequestBuilder().setMaxPageResults(10).setAbsoluteMaxResults(1000);
+
+        final List<String> results = new PagingQueryIterator<>(params, Executors.newCachedThreadPool(new DaemonThreadFactory("paging-test")), index).stream().collect(Collectors.toList());
+
+        assertThat(results, is(expectedResults(1, 95)));
+    }
+
+    @Test
+    public void testErrorsAreThrownUnchecked() {
+        final QueryRequestBuilder params = new QueryRequestBuilder().setMaxPageResults(10);
+        final HodErrorException exception = new HodErrorException(new HodError.Builder().setError(5000).build(), 500);
+
+        try {
+            new PagingQueryIterator<String>(params, SAME_THREAD, pageParams -> {
+                throw exception;
+            }).stream().count();
+
+            fail("Expected an exception");
+        } catch (final UncheckedHodErrorException e) {
+            assertThat(e.getCause().getErrorCode(), is(HodErrorCode.BACKEND_REQUEST_FAILED));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroPageSizeIsRejected() {
+        new PagingQueryIterator<>(new QueryRequestBuilder().setMaxPageResults(0), SAME_THREAD, new FakeIndex(10, null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testStartAfterAbsoluteMaxResultsIsRejected() {
+        new PagingQueryIterator<>(new QueryRequestBuilder().setStart(11).setAbsoluteMaxResults(10), SAME_THREAD, new FakeIndex(10, null));
+    }
+
+    @Test
+    public void testClosingTheStreamInterruptsTheRunningRequest() throws InterruptedException {
+        final ExecutorService executor = Executors.newSingleThreadExecutor(new DaemonThreadFactory("paging-test"));
+        final CountDownLatch requestStarted = new CountDownLatch(2);
+        final CountDownLatch requestInterrupted = new CountDownLatch(1);
+        final FakeIndex index = new FakeIndex(100, null);
+
+        try {
+            final PagingQueryIterator<String> iterator = new PagingQueryIterator<>(new QueryRequestBuilder().setMaxPageResults(10), executor, pageParams -> {
+                requestStarted.countDown();
+
+                // the first page is returned, and the prefetch of the second blocks until it is interrupted
+                if (requestStarted.getCount() == 0) {
+                    try {
+                        Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+                    } catch (final InterruptedException e) {
+                        requestInterrupted.countDown();
+                    }
+                }
+
+                return index.getPage(pageParams);
+            });
+
+            assertThat(iterator.next(), is("1"));
+            assertThat(requestStarted.await(5, TimeUnit.SECONDS), is(true));
+
+            iterator.close();
+            assertThat(requestInterrupted.await(5, TimeUnit.SECONDS), is(true));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<String> expectedResults(final int first, final int last) {
+        return IntStream.rangeClosed(first, last).mapToObj(String::valueOf).collect(Collectors.toList());
+    }
+
+    private static class FakeIndex implements PagingQueryIterator.PageRequester<String> {
+        private final int size;
+        private final Integer totalResults;
+        private final List<Integer> starts = new CopyOnWriteArrayList<>();
+        private final List<Integer> pageSizes = new CopyOnWriteArrayList<>();
+
+        private FakeIndex(final int size, final Integer totalResults) {
+            this.size = size;
+            this.totalResults = totalResults;
+        }
+
+        @Override
+        public QueryResults<String> getPage(final Map<String, Object> params) {
+            final Map<String, Object> singleValues = new HashMap<>();
+
+            for (final Map.Entry<String, Object> entry : params.entrySet()) {
+                singleValues.put(entry.getKey(), entry.getValue());
+            }
+
+            final int start = (Integer) singleValues.get("start");
+            final int pageSize = (Integer) singleValues.get("max_page_results");
+            assertThat(singleValues.get("absolute_max_results"), is((Object) (start + pageSize - 1)));
+
+            starts.add(start);
+            pageSizes.add(pageSize);
+
+            final List<String> documents = new ArrayList<>();
+
+            for (int i = start; i < start + pageSize && i <= size; i++) {
+                documents.add(String.valueOf(i));
+            }
+
+            return new QueryResults<>(documents, totalResults, null, null, null, null);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.api.textindex.query.search;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hp.autonomy.hod.client.warning.HodWarning;
+import com.hp.autonomy.hod.client.warning.HodWarningCode;
+import com.hp.autonomy.types.requests.Spelling;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.core.Is.is;
+
+public class QueryResultsEncoderTest {
+
+    @Test
+    public void testQueryResultsRoundTrip() throws IOException {
+        final Map<String, Object> nested = new LinkedHashMap<>();
+        nested.put("name", "value");
+        nested.put("numbers", new ArrayList<>(Arrays.asList(1, 2L, 3.5)));
+
+        final Document document = new Document.Builder()
+            .setReference("my-reference")
+            .setTitle("My Title")
+            .setContent("Some cool stuff here")
+            .setIndex("cool_stuff")
+            .setLinks(new HashSet<>(Arrays.asList("cool", "stuff")))
+            .setSection(-3)
+            .setSummary(null)
+            .setWeight(99.5)
+            .setPromotionType(PromotionType.DYNAMIC_PROMOTION)
+            .addField("string", "hello world")
+            .addField("int", Integer.MIN_VALUE)
+            .addField("long", Long.MAX_VALUE)
+            .addField("double", -0.0)
+            .addField("boolean", false)
+            .addField("date", new Date(1234567890L))
+            .addField("list", new ArrayList<>(Arrays.asList("stuff", null, true)))
+            .addField("map", new LinkedHashMap<>(nested))
+            .addField("decimal", new BigDecimal("1.25"))
+            .addField("null", null)
+            .build();
+
+        final Document minimalDocument = new Document.Builder().build();
+
+        final QueryResults<Document> results = new QueryResults<>(
+            Arrays.asList(document, minimalDocument),
+            2,
+            "expanded",
+            new Spelling(Arrays.asList("cheese", "cheeses"), "cheese", "chese"),
+            new Spelling(null, null, "original"),
+            Arrays.asList(
+                new HodWarning.Builder().setCode(HodWarningCode.INPUT_FILE_IS_EMPTY.getCode()).setDetails("empty").build(),
+                new HodWarning.Builder().build()
+            )
+        );
+
+        assertThat(QueryResultsDecoder.decode(QueryResultsEncoder.encode(results)), is(results));
+    }
+
+    @Test
+    public void testRecordedResponseRoundTripIsSmallerThanJavaSerialization() throws IOException {
+        final QueryResults<Document> results = readRecordedResults();
+
+        final byte[] encoded = QueryResultsEncoder.encode(results);
+
+        assertThat(QueryResultsDecoder.decode(encoded), is(results));
+        assertThat(encoded.length, is(lessThan(javaSerialize(results).length)));
+    }
+
+    @Test
+    public void testEntitiesAndWarningsRoundTripThroughOneEncoder() throws IOException {
+        final Entity entity = new Entity.Builder()
+            .setText("cheese")
+            .setDocsWithPhrase(3)
+            .setOccurrences(10)
+            .setDocsWithAllTerms(4)
+            .setCluster(-1)
+            .build();
+
+        final Entity repeatedEntity = new Entity.Builder().setText("cheese").build();
+        final HodWarning warning = new HodWarning.Builder().setCode(40003).setDetails("details").build();
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final QueryResultsEncoder encoder = new QueryResultsEncoder(outputStream);
+        encoder.writeEntity(entity);
+        encoder.writeEntity(repeatedEntity);
+        encoder.writeHodWarning(warning);
+        encoder.flush();
+
+        final QueryResultsDecoder decoder = new QueryResultsDecoder(new ByteArrayInputStream(outputStream.toByteArray()));
+
+        assertThat(decoder.readEntity(), is(entity));
+        assertThat(decoder.readEntity(), is(repeatedEntity));
+        assertThat(decoder.readHodWarning(), is(warning));
+    }
+
+    @Test(expected = StreamCorruptedException.class)
+    public void testDecodingOtherDataFails() throws IOException {
+        QueryResultsDecoder.decode(javaSerialize(new QueryResults<>(Collections.<Document>emptyList(), null, null, null, null, null)));
+    }
+
+    private QueryResults<Document> readRecordedResults() throws IOException {
+        final ObjectMapper objectMapper = new ObjectMapper();
+        final JavaType type = objectMapper.getTypeFactory().constructParametrizedType(QueryResults.class, QueryResults.class, Document.class);
+
+        try (final InputStream inputStream = getClass().getResourceAsStream("/com/hp/autonomy/hod/client/queryResults/query-results.json")) {
+            final QueryResults<Document> results = objectMapper.readValue(inputStream, type);
+
+            // repeat the documents so that the string table has something to share
+            final List<Document> documents = new ArrayList<>();
+
+            for (int i = 0; i < 10; i++) {
+                documents.addAll(results.getDocuments());
+            }
+
+            return new QueryResults<>(documents, results.getTotalResults(), results.getExpandedQuery(), null, null, null);
+        }
+    }
+
+    private byte[] javaSerialize(final Object object) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try (final ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream)) {
+            objectOutputStream.writeObject(object);
+        }
+
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.api.textindex.query.search;
+
+import com.hp.autonomy.hod.client.api.resource.ResourceName;
+import org.joda.time.DateTime;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.core.Is.is;
+
+public class QueryTemplateTest {
+
+    private QueryRequestBuilder params;
+
+    @Before
+    public void setUp() {
+        params = new QueryRequestBuilder()
+            .setMaxPageResults(20)
+            .setStart(21)
+            .setFieldText("MATCH{cheese}:category")
+            .setMinDate(new DateTime(1425465540000L))
+            .setPrint(Print.fields)
+            .setPrintFields(Arrays.asList("title", "author"))
+            .setSummary(Summary.concept)
+            .setIndexes(Arrays.asList(ResourceName.WIKI_ENG, ResourceName.NEWS_ENG));
+    }
+
+    @Test
+    public void testTemplateSendsTheSameParametersAsTheBuilder() {
+        final QueryTemplate template = params.compile();
+
+        assertThat(template.getStart(), is(21));
+        assertThat(template.getMaxPageResults(), is(20));
+        assertThat(encode(template.getParameters()), is(encode(params.build())));
+    }
+
+    @Test
+    public void testWithPageReplacesOnlyThePagingParameters() {
+        final QueryTemplate template = params.compile().withPage(41, 10);
+
+        final SortedMap<String, List<String>> expected = encode(params.setStart(41).setMaxPageResults(10).build());
+        assertThat(encode(template.getParameters()), is(expected));
+    }
+
+    @Test
+    public void testLaterChangesToTheBuilderDoNotAffectTheTemplate() {
+        final QueryTemplate template = params.compile();
+        final SortedMap<String, List<String>> expected = encode(params.build());
+
+        params.setFieldText("MATCH{bread}:category").setIndexes(Arrays.asList(ResourceName.PATENTS));
+
+        assertThat(encode(template.getParameters()), is(expected));
+    }
+
+    @Test
+    public void testAdditionalParameter() {
+        final QueryTemplate template = new QueryRequestBuilder().setPrint(Print.none).compile();
+
+        final Map<String, Object> parameters = template.getParameters("text", "cats");
+        assertThat(parameters, not(hasKey("start")));
+        assertThat(encode(parameters).get("text"), contains("cats"));
+        assertThat(parameters.size(), is(2));
+    }
+
+    @Test
+    public void testEncodedParametersHaveUrlEncodedValues() throws UnsupportedEncodingException {
+        final QueryTemplate template = params.compile();
+
+        final SortedMap<String, List<String>> expected = new TreeMap<>();
+
+        for (final Map.Entry<String, List<String>> entry : encode(template.getParameters()).entrySet()) {
+            for (final String value : entry.getValue()) {
+                expected.computeIfAbsent(entry.getKey(), key -> new ArrayList<>()).add(URLEncoder.encode(value, "UTF-8"));
+            }
+        }
+
+        assertThat(encode(template.getEncodedParameters()), is(expected));
+        assertThat(encode(template.getEncodedParameters()).get("field_text"), contains("MATCH%7Bcheese%7D%3Acategory"));
+    }
+
+    // the parameters as Retrofit sends them, ignoring their order
+    private SortedMap<String, List<String>> encode(final Map<String, Object> parameters) {
+        final SortedMap<String, List<String>> encoded = new TreeMap<>();
+
+        for (final Map.Entry<String, Object> entry : parameters.entrySet()) {
+            encoded.computeIfAbsent(entry.getKey(), key -> new ArrayList<>()).add(String.valueOf(entry.getValue()));
+        }
+
+        return encoded;
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.api.textindex.query.search;
+
+import com.hp.autonomy.hod.client.api.authentication.AuthenticationToken;
+import com.hp.autonomy.hod.client.api.authentication.EntityType;
+import com.hp.autonomy.hod.client.api.authentication.TokenType;
+import com.hp.autonomy.hod.client.config.HodServiceConfig;
+import com.hp.autonomy.hod.client.error.HodErrorException;
+import com.hp.autonomy.hod.client.token.TokenProxy;
+import com.hp.autonomy.hod.client.transport.ConnectionPoolStatistics;
+import com.hp.autonomy.hod.client.transport.HttpTransport;
+import org.joda.time.DateTime;
+import org.junit.Test;
+import retrofit.client.Client;
+import retrofit.client.Header;
+import retrofit.client.Response;
+import retrofit.mime.TypedInput;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.core.Is.is;
+
+public class QueryTextIndexServiceImplTest {
+
+    private static final int DOCUMENTS = 50;
+
+    // the stream returns a few bytes at a time, so the parser cannot read far ahead of the document it is parsing
+    private static final int CHUNK_SIZE = 16;
+
+    @Test
+    public void testConsumerQueriesDoNotBufferTheResponse() throws HodErrorException {
+        final StringBuilder json = new StringBuilder("{\"documents\":[");
+        int firstDocumentEnd = -1;
+
+        for (int i = 0; i < DOCUMENTS; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+
+            json.append("{\"reference\":\"reference-").append(i).append("\",\"index\":\"index\",\"content\":\"");
+
+            for (int j = 0; j < 100; j++) {
+                json.append("Some content which makes each document much larger than a chunk. ");
+            }
+
+            json.append("\"}");
+
+            if (i == 0) {
+                firstDocumentEnd = json.length();
+            }
+        }
+
+        json.append("],\"totalhits\":").append(DOCUMENTS).append('}');
+
+        final List<Document> consumed = new ArrayList<>();
+        final GuardedInputStream body = new GuardedInputStream(json.toString().getBytes(StandardCharsets.UTF_8), firstDocumentEnd + CHUNK_SIZE, consumed);
+
+        final HodServiceConfig<EntityType.Application, TokenType.Simple> config = new HodServiceConfig.Builder<EntityType.Application, TokenType.Simple>("https://api.example.com")
+            .setTransport(new FakeTransport(body))
+            .build();
+
+        final TokenProxy<EntityType.Application, TokenType.Simple> tokenProxy = insertToken(config);
+        final QueryTextIndexService<Document> service = QueryTextIndexServiceImpl.documentsService(config);
+
+        final QueryResults<Document> results = service.queryTextIndexWithText(tokenProxy, "cats", new QueryRequestBuilder(), consumed::add);
+
+        assertThat(consumed, hasSize(DOCUMENTS));
+        assertThat(consumed.get(0).getReference(), is("reference-0"));
+        assertThat(results.getDocuments(), is(empty()));
+        assertThat(results.getTotalResults(), is(DOCUMENTS));
+    }
+
+    @Test
+    public void testTemplatesSendTheSameUrlAsTheBuilder() throws HodErrorException {
+        final QueryRequestBuilder params = new QueryRequestBuilder()
+            .setFieldText("MATCH{caf\u00e9 au lait}:category AND EXISTS{}:title")
+            .setPrintFields(Collections.singletonList("title & author"))
+            .setSort(Sort.date);
+
+        final String templateUrl = queryUrl((service, tokenProxy) -> service.queryTextIndexWithText(tokenProxy, "cats + dogs", params.compile()));
+        final String builderUrl = queryUrl((service, tokenProxy) -> service.queryTextIndexWithText(tokenProxy, "cats + dogs", params));
+
+        assertThat(templateUrl, is(builderUrl));
+    }
+
+    private String queryUrl(final Query query) throws HodErrorException {
+        final FakeTransport transport = new FakeTransport(new ByteArrayInputStream("{\"documents\":[],\"totalhits\":0}".getBytes(StandardCharsets.UTF_8)));
+
+        final HodServiceConfig<EntityType.Application, TokenType.Simple> config = new HodServiceConfig.Builder<EntityType.Application, TokenType.Simple>("https://api.example.com")
+            .setTransport(transport)
+            .build();
+
+        query.run(QueryTextIndexServiceImpl.documentsService(config), insertToken(config));
+
+        assertThat(transport.urls, hasSize(1));
+        return transport.urls.get(0);
+    }
+
+    private TokenProxy<EntityType.Application, TokenType.Simple> insertToken(final HodServiceConfig<EntityType.Application, TokenType.Simple> config) {
+        try {
+            return config.getTokenRepository().insert(new AuthenticationToken<>(
+                EntityType.Application.INSTANCE,
+                TokenType.Simple.INSTANCE,
+                DateTime.now().plusHours(1),
+                "token-id",
+                "token-secret",
+                DateTime.now().plusMinutes(30)
+            ));
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private interface Query {
+        void run(QueryTextIndexService<Document> service, TokenProxy<EntityType.Application, TokenType.Simple> tokenProxy) throws HodErrorException;
+    }
+
+    // fails if more than the first document is read before the consumer receives it
+    private static class GuardedInputStream extends InputStream {
+        private final ByteArrayInputStream delegate;
+        private final int limit;
+        private final List<Document> consumed;
+        private int position;
+
+        private GuardedInputStream(final byte[] bytes, final int limit, final List<Document> consumed) {
+            delegate = new ByteArrayInputStream(bytes);
+            this.limit = limit;
+            this.consumed = consumed;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] buffer = new byte[1];
+            return read(buffer, 0, 1) < 0 ? -1 : buffer[0] & 0xff;
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+            if (position >= limit && consumed.isEmpty()) {
+                throw new IOException("Response body was read past the first document before it was consumed");
+            }
+
+            final int read = delegate.read(buffer, offset, Math.min(length, CHUNK_SIZE));
+
+            if (read > 0) {
+                position += read;
+            }
+
+            return read;
+        }
+    }
+
+    private static class FakeTransport implements HttpTransport {
+        private final InputStream body;
+        private final List<String> urls = new ArrayList<>();
+
+        private FakeTransport(final InputStream body) {
+            this.body = body;
+        }
+
+        @Override
+        public Client getClient() {
+            return request -> {
+                urls.add(request.getUrl());
+                return new Response(request.getUrl(), 200, "OK", Collections.<Header>emptyList(), new TypedInput() {
+                    @Override
+                    public String mimeType() {
+                        return "application/json";
+                    }
+
+                    @Override
+                    public long length() {
+                        return -1;
+                    }
+
+                    @Override
+                    public InputStream in() {
+                        return body;
+                    }
+                });
+            };
+        }
+
+        @Override
+        public ConnectionPoolStatistics getStatistics() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.api.textindex.query.search;
+
+import com.hp.autonomy.hod.client.api.resource.ResourceIdentifier;
+import com.hp.autonomy.hod.client.api.resource.ResourceName;
+import com.hp.autonomy.hod.client.error.HodError;
+import com.hp.autonomy.hod.client.error.HodErrorException;
+import com.hp.autonomy.hod.client.util.DaemonThreadFactory;
+import com.hp.autonomy.hod.client.warning.HodWarning;
+import org.joda.time.Duration;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.core.Is.is;
+
+public class ScatterGatherQueryTest {
+
+    private static final Executor SAME_THREAD = Runnable::run;
+
+    private static final ResourceName INDEX_A = new ResourceName("domain", "a");
+    private static final ResourceName INDEX_B = new ResourceName("domain", "b");
+    private static final ResourceName INDEX_C = new ResourceName("domain", "c");
+
+    private static final HodWarning WARNING = new HodWarning.Builder().setCode(40001).setDetails("restricted").build();
+
+    @Test
+    public void testResultsAreMergedByWeight() throws HodErrorException {
+        final FakeIndexes indexes = new FakeIndexes()
+            .add(INDEX_A, 0.9, 0.5, 0.1)
+            .add(INDEX_B, 0.8, 0.7)
+            .add(INDEX_C, 0.6, 0.4, 0.3, 0.2);
+
+        final QueryRequestBuilder params = new QueryRequestBuilder().addIndexes(INDEX_A, INDEX_B, INDEX_C).setStart(2).setMaxPageResults(3);
+        final ScatterGatherResults<Document> results = query(indexes, params, settings(1, null, ScatterGatherSettings.documentComparator(null)), SAME_THREAD);
+
+        assertThat(references(results), contains("b-0", "b-1", "c-0"));
+        assertThat(results.getResults().getTotalResults(), is(9));
+        assertThat(results.getResults().getHodWarnings(), contains(WARNING));
+        assertThat(results.isComplete(), is(true));
+
+        // every shard must return the results up to the end of the requested page
+        assertThat(indexes.requests, hasSize(3));
+
+        for (final Map<String, Object> request : indexes.requests) {
+            assertThat(request.get("start"), is(1));
+            assertThat(request.get("max_page_results"), is(4));
+        }
+    }
+
+    @Test
+    public void testIndexesAreGroupedIntoShards() throws HodErrorException {
+        final FakeIndexes indexes = new FakeIndexes()
+            .add(INDEX_A, 0.3)
+            .add(INDEX_B, 0.2)
+            .add(INDEX_C, 0.1);
+
+        final QueryRequestBuilder params = new QueryRequestBuilder().addIndexes(INDEX_A, INDEX_B, INDEX_C);
+        final ScatterGatherResults<Document> results = query(indexes, params, settings(2, null, ScatterGatherSettings.documentComparator(Sort.reverse_relevance)), SAME_THREAD);
+
+        assertThat(references(results), contains("c-0", "b-0", "a-0"));
+        assertThat(indexes.requestedIndexes, containsInAnyOrder(Arrays.asList(INDEX_A, INDEX_B), Collections.singletonList(INDEX_C)));
+    }
+
+    @Test
+    public void testSlowShardsAreOmittedAfterTheTimeout() throws HodErrorException, InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final FakeIndexes indexes = new FakeIndexes()
+            .add(INDEX_A, 0.9)
+            .add(INDEX_B, 0.8);
+
+        // the first shard is requested on the calling thread, so only the others can time out
+        indexes.slowIndex = INDEX_B;
+        indexes.release = release;
+
+        final QueryRequestBuilder params = new QueryRequestBuilder().addIndexes(INDEX_A, INDEX_B);
+        final Executor executor = Executors.newCachedThreadPool(new DaemonThreadFactory("scatter-gather-test"));
+
+        try {
+            final ScatterGatherResults<Document> results = query(indexes, params, settings(1, Duration.millis(200), ScatterGatherSettings.documentComparator(null)), executor);
+
+            assertThat(references(results), contains("a-0"));
+            assertThat(results.getTimedOutShards(), contains(Collections.<ResourceIdentifier>singletonList(INDEX_B)));
+            assertThat(results.isComplete(), is(false));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testShardsAreRequestedByTheCallerIfTheExecutorDoesNotRunThem() throws HodErrorException {
+        final FakeIndexes indexes = new FakeIndexes()
+            .add(INDEX_A, 0.9)
+            .add(INDEX_B, 0.8)
+            .add(INDEX_C, 0.7);
+
+        final QueryRequestBuilder params = new QueryRequestBuilder().addIndexes(INDEX_A, INDEX_B, INDEX_C);
+        final List<Runnable> queued = new ArrayList<>();
+        final ScatterGatherResults<Document> results = query(indexes, params, settings(1, null, ScatterGatherSettings.documentComparator(null)), queued::add);
+
+        assertThat(references(results), contains("a-0", "b-0", "c-0"));
+        assertThat(queued, hasSize(2));
+
+        // a task which runs after the caller has requested its shard does nothing
+        queued.forEach(Runnable::run);
+        assertThat(indexes.requests, hasSize(3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPagesBeyondTheMaximumResultsPerShardAreRejected() throws HodErrorException {
+        final FakeIndexes indexes = new FakeIndexes().add(INDEX_A, 0.9);
+        final ScatterGatherSettings<Document> settings = new ScatterGatherSettings.Builder<Document>().setMaxResultsPerShard(100).build();
+
+        query(indexes, new QueryRequestBuilder().addIndexes(INDEX_A).setStart(95).setMaxPageResults(10), settings, SAME_THREAD);
+    }
+
+    @Test
+    public void testFailedShardsAreReported() throws HodErrorException {
+        final FakeIndexes indexes = new FakeIndexes()
+            .add(INDEX_A, 0.9)
+            .add(INDEX_B, 0.8);
+
+        indexes.failingIndexes.add(INDEX_B);
+
+        final QueryRequestBuilder params = new QueryRequestBuilder().addIndexes(INDEX_A, INDEX_B);
+        final ScatterGatherResults<Document> results = query(indexes, params, settings(1, null, null), SAME_THREAD);
+
+        assertThat(references(results), contains("a-0"));
+        assertThat(results.getTimedOutShards(), is(empty()));
+        assertThat(results.getFailedShards().keySet(), containsInAnyOrder(Collections.<ResourceIdentifier>singletonList(INDEX_B)));
+    }
+
+    @Test(expected = HodErrorException.class)
+    public void testErrorIsThrownIfEveryShardFails() throws HodErrorException {
+        final FakeIndexes indexes = new FakeIndexes()
+            .add(INDEX_A, 0.9)
+            .add(INDEX_B, 0.8);
+
+        indexes.failingIndexes.addAll(Arrays.asList(INDEX_A, INDEX_B));
+
+        query(indexes, new QueryRequestBuilder().addIndexes(INDEX_A, INDEX_B), settings(1, null, null), SAME_THREAD);
+    }
+
+    private ScatterGatherResults<Document> query(
+        final FakeIndexes indexes,
+        final QueryRequestBuilder params,
+        final ScatterGatherSettings<Document> settings,
+        final Executor executor
+    ) throws HodErrorException {
+        return new ScatterGatherQuery<>(settings, executor, indexes).execute(params);
+    }
+
+    private ScatterGatherSettings<Document> settings(final int indexesPerShard, final Duration shardTimeout, final Comparator<Document> comparator) {
+        return new ScatterGatherSettings.Builder<Document>()
+            .setIndexesPerShard(indexesPerShard)
+            .setShardTimeout(shardTimeout)
+            .setComparator(comparator)
+            .build();
+    }
+
+    private List<String> references(final ScatterGatherResults<Document> results) {
+        return results.getResults().getDocuments().stream().map(Document::getReference).collect(Collectors.toList());
+    }
+
+    // each index returns its documents in descending order of weight, named after the index and their position
+    private static class FakeIndexes implements PagingQueryIterator.PageRequester<Document> {
+        private final Map<ResourceIdentifier, List<Document>> documents = new HashMap<>();
+        private final List<Map<String, Object>> requests = new CopyOnWriteArrayList<>();
+        private final List<List<ResourceIdentifier>> requestedIndexes = new CopyOnWriteArrayList<>();
+        private final List<ResourceIdentifier> failingIndexes = new ArrayList<>();
+        private ResourceIdentifier slowIndex;
+        private CountDownLatch release;
+
+        private FakeIndexes add(final ResourceName index, final double... weights) {
+            final List<Document> indexDocuments = new ArrayList<>();
+
+            for (int i = 0; i < weights.length; i++) {
+                indexDocuments.add(new Document.Builder().setReference(index.getName() + '-' + i).setWeight(weights[i]).build());
+            }
+
+            documents.put(index, indexDocuments);
+            return this;
+        }
+
+        @Override
+        public QueryResults<Document> getPage(final Map<String, Object> params) throws HodErrorException {
+            final Map<String, Object> request = new HashMap<>();
+            final List<ResourceIdentifier> indexes = new ArrayList<>();
+
+            for (final Map.Entry<String, Object> entry : params.entrySet()) {
+                if ("indexes".equals(entry.getKey())) {
+                    indexes.add((ResourceIdentifier) entry.getValue());
+                } else {
+                    request.put(entry.getKey(), entry.getValue());
+                }
+            }
+
+            requests.add(request);
+            requestedIndexes.add(indexes);
+
+            if (indexes.contains(slowIndex)) {
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            if (!Collections.disjoint(indexes, failingIndexes)) {
+                throw new HodErrorException(new HodError.Builder().setError(4005).build(), 400);
+            }
+
+            final List<Document> results = indexes.stream()
+                .flatMap(index -> documents.get(index).stream())
+                .sorted(ScatterGatherSettings.documentComparator(null))
+                .limit((Integer) request.get("max_page_results"))
+                .collect(Collectors.toList());
+
+            final int totalResults = indexes.stream().mapToInt(index -> documents.get(index).size()).sum();
+
+            return new QueryResults<>(results, totalResults, null, null, null, Collections.singletonList(WARNING));
+        }
+    }
+}
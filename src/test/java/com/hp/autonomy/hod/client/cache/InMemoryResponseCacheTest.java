@@ -0,0 +1,141 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.hp.autonomy.hod.client.api.authentication.EntityType;
+import com.hp.autonomy.hod.client.api.authentication.TokenType;
+import com.hp.autonomy.hod.client.token.TokenProxy;
+import com.hp.autonomy.hod.client.util.MultiMap;
+import org.joda.time.Duration;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.core.Is.is;
+
+public class InMemoryResponseCacheTest {
+
+    private final TokenProxy<EntityType.Application, TokenType.Simple> tokenProxy = new TokenProxy<>(EntityType.Application.INSTANCE, TokenType.Simple.INSTANCE);
+    private final JavaType type = TypeFactory.defaultInstance().constructType(String.class);
+
+    private AtomicLong clock;
+    private InMemoryResponseCache cache;
+
+    @Before
+    public void setUp() {
+        clock = new AtomicLong(0);
+        cache = new InMemoryResponseCache(2, Duration.standardSeconds(10), clock::get);
+    }
+
+    @Test
+    public void testKeysIgnoreParameterOrder() {
+        final Map<String, Object> params = new MultiMap<>();
+        params.put("text", "cats");
+        params.put("max_results", 10);
+
+        final Map<String, Object> reorderedParams = new MultiMap<>();
+        reorderedParams.put("max_results", "10");
+        reorderedParams.put("text", "cats");
+
+        assertThat(new ResponseCacheKey(tokenProxy, type, "/path", params), is(new ResponseCacheKey(tokenProxy, type, "/path", reorderedParams)));
+        assertThat(new ResponseCacheKey(tokenProxy, type, "/path", params), is(not(new ResponseCacheKey(tokenProxy, type, "/other", params))));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedResponseIsEvicted() {
+        cache.put(key("one"), "1");
+        cache.put(key("two"), "2");
+
+        // make "one" the most recently used
+        assertThat(cache.get(key("one")), is("1"));
+
+        cache.put(key("three"), "3");
+
+        assertThat(cache.get(key("two")), is(nullValue()));
+        assertThat(cache.get(key("one")), is("1"));
+        assertThat(cache.get(key("three")), is("3"));
+        assertThat(cache.getStatistics().getEvictions(), is(1L));
+        assertThat(cache.getStatistics().getSize(), is(2L));
+    }
+
+    @Test
+    public void testResponsesExpire() {
+        cache.put(key("one"), "1");
+
+        clock.set(TimeUnit.SECONDS.toNanos(9));
+        assertThat(cache.get(key("one")), is("1"));
+
+        clock.set(TimeUnit.SECONDS.toNanos(10));
+        assertThat(cache.get(key("one")), is(nullValue()));
+        assertThat(cache.getStatistics().getSize(), is(0L));
+    }
+
+    @Test
+    public void testExpiredResponsesAreRemovedWhenRecentlyUsed() {
+        cache = new InMemoryResponseCache(3, Duration.standardSeconds(10), clock::get);
+
+        cache.put(key("one"), "1");
+
+        clock.set(TimeUnit.SECONDS.toNanos(1));
+        cache.put(key("two"), "2");
+
+        // "one" is now the most recently used, but still expires first
+        clock.set(TimeUnit.SECONDS.toNanos(2));
+        assertThat(cache.get(key("one")), is("1"));
+
+        clock.set(TimeUnit.SECONDS.toNanos(10));
+        cache.put(key("three"), "3");
+
+        assertThat(cache.getStatistics().getSize(), is(2L));
+        assertThat(cache.getStatistics().getEvictions(), is(1L));
+        assertThat(cache.get(key("two")), is("2"));
+    }
+
+    @Test
+    public void testReplacedResponseExpiresWithItsReplacement() {
+        cache.put(key("one"), "1");
+
+        clock.set(TimeUnit.SECONDS.toNanos(5));
+        cache.put(key("one"), "updated");
+
+        clock.set(TimeUnit.SECONDS.toNanos(12));
+        cache.put(key("two"), "2");
+
+        assertThat(cache.get(key("one")), is("updated"));
+        assertThat(cache.getStatistics().getEvictions(), is(0L));
+    }
+
+    @Test
+    public void testStatistics() {
+        cache.put(key("one"), "1");
+
+        cache.get(key("one"));
+        cache.get(key("one"));
+        cache.get(key("one"));
+        cache.get(key("two"));
+
+        final ResponseCacheStatistics statistics = cache.getStatistics();
+        assertThat(statistics.getHits(), is(3L));
+        assertThat(statistics.getMisses(), is(1L));
+        assertThat(statistics.getHitRate(), is(closeTo(0.75, 0.0001)));
+    }
+
+    private ResponseCacheKey key(final String text) {
+        final Map<String, Object> params = new MultiMap<>();
+        params.put("text", text);
+
+        return new ResponseCacheKey(tokenProxy, type, "/path", params);
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.config;
+
+import com.hp.autonomy.hod.client.error.CircuitOpenException;
+import org.joda.time.Duration;
+import org.junit.Test;
+import retrofit.client.Client;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+import retrofit.mime.TypedByteArray;
+import retrofit.mime.TypedInput;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.fail;
+
+public class CircuitBreakingClientTest {
+
+    private static final String ENDPOINT = "https://api.example.com";
+    private static final String QUERY_URL = ENDPOINT + "/2/api/sync/textindex/query/search/v1?text=cats";
+    private static final String CONTENT_URL = ENDPOINT + "/2/api/sync/textindex/query/content/v1";
+
+    private final FakeClient delegate = new FakeClient();
+
+    @Test
+    public void testCircuitOpensWhenRequestsFail() throws IOException {
+        final Client client = createClient(new CircuitBreakerPolicy.Builder().setSlidingWindowSize(4).setMinimumRequests(4).setFailureRateThreshold(50));
+
+        delegate.status = 200;
+        execute(client, QUERY_URL);
+        execute(client, QUERY_URL);
+
+        delegate.status = 503;
+        execute(client, QUERY_URL);
+        execute(client, QUERY_URL);
+
+        assertOpen(client, QUERY_URL);
+        assertThat(delegate.requests.get(), is(4));
+
+        // other APIs have their own circuit
+        delegate.status = 200;
+        execute(client, CONTENT_URL);
+        assertThat(delegate.requests.get(), is(5));
+    }
+
+    @Test
+    public void testRequestsForDifferentResourcesShareTheCircuitOfTheirApi() throws IOException {
+        final Client client = createClient(new CircuitBreakerPolicy.Builder().setSlidingWindowSize(3).setMinimumRequests(3));
+
+        delegate.status = 503;
+
+        for (int i = 0; i < 3; i++) {
+            execute(client, ENDPOINT + "/2/job/job-" + i + "/status");
+        }
+
+        assertOpen(client, ENDPOINT + "/2/job/another-job/status");
+    }
+
+    @Test
+    public void testExceptionsAreFailures() throws IOException {
+        final Client client = createClient(new CircuitBreakerPolicy.Builder().setSlidingWindowSize(2).setMinimumRequests(2));
+
+        delegate.exception = new IOException("Connection refused");
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                client.execute(request(QUERY_URL));
+                fail("Expected the request to fail");
+            } catch (final IOException e) {
+                assertThat(e, is(delegate.exception));
+            }
+        }
+
+        assertOpen(client, QUERY_URL);
+    }
+
+    @Test
+    public void testClientErrorsAreNotFailures() throws IOException {
+        final Client client = createClient(new CircuitBreakerPolicy.Builder().setSlidingWindowSize(2).setMinimumRequests(2));
+
+        delegate.status = 400;
+
+        for (int i = 0; i < 5; i++) {
+            execute(client, QUERY_URL);
+        }
+
+        assertThat(delegate.requests.get(), is(5));
+    }
+
+    @Test
+    public void testClientErrorsWithoutJsonAreFailures() throws IOException {
+        final Client client = createClient(new CircuitBreakerPolicy.Builder().setSlidingWindowSize(2).setMinimumRequests(2));
+
+        // a gateway error page, which cannot be parsed as a HOD error
+        delegate.status = 404;
+        delegate.mimeType = "text/html; charset=UTF-8";
+        execute(client, QUERY_URL);
+        execute(client, QUERY_URL);
+
+        assertOpen(client, QUERY_URL);
+    }
+
+    @Test
+    public void testClientErrorsWithJsonAreNotFailures() throws IOException {
+        final Client client = createClient(new CircuitBreakerPolicy.Builder().setSlidingWindowSize(2).setMinimumRequests(2));
+
+        delegate.status = 400;
+        delegate.mimeType = "application/json; charset=UTF-8";
+
+        for (int i = 0; i < 5; i++) {
+            execute(client, QUERY_URL);
+        }
+
+        assertThat(delegate.requests.get(), is(5));
+    }
+
+    @Test
+    public void testCircuitOpensWhenRequestsAreSlow() throws IOException {
+        final Client client = createClient(new CircuitBreakerPolicy.Builder()
+            .setSlidingWindowSize(2)
+            .setMinimumRequests(2)
+            .setSlowRequestDuration(Duration.millis(20))
+            .setSlowRequestRateThreshold(100));
+
+        delegate.status = 200;
+        delegate.delayMillis = 30;
+        execute(client, QUERY_URL);
+        execute(client, QUERY_URL);
+
+        assertOpen(client, QUERY_URL);
+    }
+
+    @Test
+    public void testSuccessfulProbesCloseTheCircuit() throws IOException, InterruptedException {
+        final Client client = createClient(new CircuitBreakerPolicy.Builder()
+            .setSlidingWindowSize(2)
+            .setMinimumRequests(2)
+            .setFailureRateThreshold(100)
+            .setOpenDuration(Duration.millis(50))
+            .setProbeRequests(2));
+
+        openCircuit(client);
+        Thread.sleep(100);
+
+        delegate.status = 200;
+        execute(client, QUERY_URL);
+        execute(client, QUERY_URL);
+
+        // closed again, with an empty window, so one failure does not reopen the circuit
+        delegate.status = 500;
+        execute(client, QUERY_URL);
+        delegate.status = 200;
+        execute(client, QUERY_URL);
+        execute(client, QUERY_URL);
+
+        assertThat(delegate.requests.get(), is(7));
+    }
+
+    @Test
+    public void testFailedProbeReopensTheCircuit() throws IOException, InterruptedException {
+        final Client client = createClient(new CircuitBreakerPolicy.Builder()
+            .setSlidingWindowSize(2)
+            .setMinimumRequests(2)
+            .setOpenDuration(Duration.millis(50))
+            .setProbeRequests(2));
+
+        openCircuit(client);
+        Thread.sleep(100);
+
+        execute(client, QUERY_URL);
+        assertOpen(client, QUERY_URL);
+        assertThat(delegate.requests.get(), is(3));
+    }
+
+    private Client createClient(final CircuitBreakerPolicy.Builder policy) {
+        return new CircuitBreakingClient(delegate, policy.build(), ENDPOINT);
+    }
+
+    private void openCircuit(final Client client) throws IOException {
+        delegate.status = 500;
+        execute(client, QUERY_URL);
+        execute(client, QUERY_URL);
+        assertOpen(client, QUERY_URL);
+    }
+
+    private void execute(final Client client, final String url) throws IOException {
+        client.execute(request(url));
+    }
+
+    private void assertOpen(final Client client, final String url) throws IOException {
+        final int requests = delegate.requests.get();
+
+        try {
+            client.execute(request(url));
+            fail("Expected the circuit to be open");
+        } catch (final CircuitOpenException e) {
+            assertThat(e.getPath(), is(RequestPaths.getApiPath(ENDPOINT, url)));
+        }
+
+        assertThat(delegate.requests.get(), is(requests));
+    }
+
+    private static Request request(final String url) {
+        return new Request("GET", url, Collections.<Header>emptyList(), null);
+    }
+
+    private static class FakeClient implements Client {
+        private final AtomicInteger requests = new AtomicInteger(0);
+        private volatile int status = 200;
+        private volatile long delayMillis;
+        private volatile IOException exception;
+        private volatile String mimeType;
+
+        @Override
+        public Response execute(final Request request) throws IOException {
+            requests.incrementAndGet();
+
+            if (delayMillis > 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            if (exception != null) {
+                throw exception;
+            }
+
+            final TypedInput body = mimeType == null ? null : new TypedByteArray(mimeType, new byte[0]);
+            return new Response(request.getUrl(), status, "", Collections.<Header>emptyList(), body);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.config;
+
+import com.hp.autonomy.hod.client.error.HodError;
+import com.hp.autonomy.hod.client.error.HodErrorException;
+import com.hp.autonomy.hod.client.util.DaemonThreadFactory;
+import org.joda.time.Duration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class HedgerTest {
+
+    private ExecutorService executorService;
+
+    @Before
+    public void setUp() {
+        executorService = Executors.newCachedThreadPool(new DaemonThreadFactory("hedger-test"));
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testRequestRunsOnTheCallingThreadWhenTheExecutorIsSaturated() throws HodErrorException {
+        final Hedger hedger = new Hedger(policy(100), command -> {
+            throw new RejectedExecutionException("Saturated");
+        });
+
+        final Thread caller = Thread.currentThread();
+        final String result = hedger.execute("/path", () -> Thread.currentThread() == caller ? "caller" : "executor");
+
+        assertThat(result, is("caller"));
+    }
+
+    @Test
+    public void testSlowRequestIsHedgedAndTheLoserIsCancelled() throws HodErrorException, InterruptedException {
+        final Hedger hedger = new Hedger(policy(100), executorService);
+        final AtomicInteger calls = new AtomicInteger(0);
+        final CountDownLatch loserInterrupted = new CountDownLatch(1);
+
+        final String result = hedger.execute("/path", () -> {
+            if (calls.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(10000);
+                } catch (final InterruptedException e) {
+                    loserInterrupted.countDown();
+                }
+
+                return "slow";
+            }
+
+            return "fast";
+        });
+
+        assertThat(result, is("fast"));
+        assertThat(calls.get(), is(2));
+        assertThat(loserInterrupted.await(5, TimeUnit.SECONDS), is(true));
+    }
+
+    @Test
+    public void testFastRequestIsNotHedged() throws HodErrorException {
+        final Hedger hedger = new Hedger(policy(100), executorService);
+        final AtomicInteger calls = new AtomicInteger(0);
+
+        final String result = hedger.execute("/path", () -> {
+            calls.incrementAndGet();
+            return "fast";
+        });
+
+        assertThat(result, is("fast"));
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    public void testHedgesAreLimitedByTheBudget() throws HodErrorException {
+        final Hedger hedger = new Hedger(policy(10), executorService);
+        final AtomicInteger calls = new AtomicInteger(0);
+
+        for (int i = 0; i < 10; i++) {
+            hedger.execute("/path", () -> {
+                calls.incrementAndGet();
+                sleep(100);
+                return "slow";
+            });
+        }
+
+        // ten percent of ten requests only pays for one hedge
+        assertThat(calls.get(), is(11));
+    }
+
+    @Test
+    public void testHedgesAreTakenFromTheSharedBudget() throws HodErrorException {
+        // the shared budget starts with ten attempts, which a failing service could have used for retries
+        final AttemptBudget sharedBudget = new AttemptBudget(0, true);
+
+        for (int i = 0; i < 9; i++) {
+            sharedBudget.tryWithdraw();
+        }
+
+        final Hedger hedger = new Hedger(policy(100), executorService, sharedBudget);
+        final AtomicInteger calls = new AtomicInteger(0);
+
+        for (int i = 0; i < 3; i++) {
+            hedger.execute("/path", () -> {
+                calls.incrementAndGet();
+                sleep(100);
+                return "slow";
+            });
+        }
+
+        // only one hedge is left in the shared budget
+        assertThat(calls.get(), is(4));
+        assertThat(sharedBudget.tryWithdraw(), is(false));
+    }
+
+    @Test
+    public void testRequestCompletesWhenTheExecutorIsBusy() throws HodErrorException, InterruptedException {
+        // the only thread is blocked, so a hedge would queue behind it forever
+        final ExecutorService busyExecutor = Executors.newSingleThreadExecutor(new DaemonThreadFactory("hedger-test-busy"));
+        final CountDownLatch release = new CountDownLatch(1);
+
+        try {
+            busyExecutor.execute(() -> {
+                try {
+                    release.await();
+                } catch (final InterruptedException ignored) {
+                }
+            });
+
+            final Hedger hedger = new Hedger(policy(100), busyExecutor);
+
+            final String result = hedger.execute("/path", () -> {
+                sleep(100);
+                return "primary";
+            });
+
+            assertThat(result, is("primary"));
+        } finally {
+            release.countDown();
+            busyExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCallingThreadIsNotLeftInterrupted() throws HodErrorException {
+        final Hedger hedger = new Hedger(policy(100), executorService);
+        final AtomicInteger calls = new AtomicInteger(0);
+
+        hedger.execute("/path", () -> {
+            if (calls.incrementAndGet() == 1) {
+                sleep(10000);
+                return "slow";
+            }
+
+            return "fast";
+        });
+
+        assertThat(Thread.interrupted(), is(false));
+    }
+
+    @Test(expected = HodErrorException.class)
+    public void testErrorIsThrownIfTheRequestFailsBeforeAHedgeSucceeds() throws HodErrorException {
+        final Hedger hedger = new Hedger(policy(100), executorService);
+
+        hedger.execute("/path", () -> {
+            sleep(100);
+            throw new HodErrorException(new HodError.Builder().setError(5000).build(), 500);
+        });
+    }
+
+    private HedgingPolicy policy(final double maxHedgePercentage) {
+        return new HedgingPolicy.Builder()
+            .setInitialDelay(Duration.millis(20))
+            .setMaxHedgePercentage(maxHedgePercentage)
+            .build();
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
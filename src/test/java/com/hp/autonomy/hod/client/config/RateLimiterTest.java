@@ -0,0 +1,172 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.config;
+
+import com.hp.autonomy.hod.client.api.authentication.EntityType;
+import com.hp.autonomy.hod.client.api.authentication.TokenType;
+import com.hp.autonomy.hod.client.error.HodErrorCode;
+import com.hp.autonomy.hod.client.error.HodErrorException;
+import com.hp.autonomy.hod.client.error.RateLimitExceededException;
+import com.hp.autonomy.hod.client.token.TokenProxy;
+import org.joda.time.Duration;
+import org.junit.Test;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.fail;
+
+public class RateLimiterTest {
+
+    private static final String ENDPOINT = "https://api.example.com";
+    private static final String QUERY_URL = ENDPOINT + "/2/api/sync/textindex/query/search/v1?text=cats";
+    private static final String ASYNC_URL = ENDPOINT + "/2/api/async/textindex/index/document/v1";
+
+    @Test
+    public void testRequestsAreLimitedToTheRate() throws InterruptedIOException {
+        final RateLimiter rateLimiter = new RateLimiter(new RateLimitPolicy.Builder().setSyncRequestsPerSecond(20).setBurstSize(1).build(), ENDPOINT);
+
+        final long elapsed = time(() -> {
+            for (int i = 0; i < 11; i++) {
+                rateLimiter.acquire(QUERY_URL);
+            }
+        });
+
+        // the first request uses the burst, and the others are spaced 50ms apart
+        assertThat(elapsed, is(greaterThanOrEqualTo(450L)));
+    }
+
+    @Test
+    public void testApisAndTokenProxiesHaveSeparateLimits() throws HodErrorException, InterruptedIOException {
+        final RateLimiter rateLimiter = new RateLimiter(new RateLimitPolicy.Builder().setSyncRequestsPerSecond(1).setAsyncRequestsPerSecond(1).setBurstSize(1).build(), ENDPOINT);
+        final TokenProxy<EntityType.Application, TokenType.Simple> tokenProxy = new TokenProxy<>(EntityType.Application.INSTANCE, TokenType.Simple.INSTANCE);
+
+        final long elapsed = time(() -> {
+            rateLimiter.acquire(QUERY_URL);
+            rateLimiter.acquire(ASYNC_URL);
+            rateLimiter.acquire(ENDPOINT + "/2/api/sync/textindex/query/content/v1");
+
+            try {
+                rateLimiter.withTokenProxy(tokenProxy, () -> {
+                    try {
+                        rateLimiter.acquire(QUERY_URL);
+                    } catch (final InterruptedIOException e) {
+                        throw new IllegalStateException(e);
+                    }
+
+                    return null;
+                });
+            } catch (final HodErrorException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(elapsed, is(lessThan(500L)));
+    }
+
+    @Test
+    public void testRequestsForDifferentResourcesShareTheLimitOfTheirApi() throws InterruptedIOException {
+        final RateLimiter rateLimiter = new RateLimiter(new RateLimitPolicy.Builder().setAsyncRequestsPerSecond(10).setBurstSize(1).build(), ENDPOINT);
+
+        final long elapsed = time(() -> {
+            for (int i = 0; i < 4; i++) {
+                rateLimiter.acquire(ENDPOINT + "/2/api/async/textindex/index-" + i + "/document/v1");
+            }
+        });
+
+        assertThat(elapsed, is(greaterThanOrEqualTo(250L)));
+    }
+
+    @Test
+    public void testRequestsWhichWouldWaitTooLongFailImmediately() throws InterruptedIOException {
+        final RateLimitPolicy policy = new RateLimitPolicy.Builder()
+            .setSyncRequestsPerSecond(10)
+            .setBurstSize(1)
+            .setMaximumWait(Duration.millis(250))
+            .build();
+
+        final RateLimiter rateLimiter = new RateLimiter(policy, ENDPOINT);
+        rateLimiter.acquire(QUERY_URL);
+        rateLimiter.onError(QUERY_URL, HodErrorCode.TOO_MANY_REQUESTS);
+        rateLimiter.onError(QUERY_URL, HodErrorCode.TOO_MANY_REQUESTS);
+
+        // the rate is now two and a half requests per second, so the next request would wait 400ms
+        final long elapsed = time(() -> {
+            try {
+                rateLimiter.acquire(QUERY_URL);
+                fail("Expected the request to be rejected");
+            } catch (final RateLimitExceededException e) {
+                assertThat(e.getPath(), is("/2/api/sync/textindex/query/search/v1"));
+            }
+        });
+
+        assertThat(elapsed, is(lessThan(100L)));
+    }
+
+    @Test
+    public void testApiRatesOverrideTheDefault() throws InterruptedIOException {
+        final RateLimitPolicy policy = new RateLimitPolicy.Builder()
+            .setSyncRequestsPerSecond(1)
+            .setBurstSize(1)
+            .setApiRequestsPerSecond("/2/api/sync/textindex/query/search", 1000)
+            .build();
+
+        final RateLimiter rateLimiter = new RateLimiter(policy, ENDPOINT);
+
+        final long elapsed = time(() -> {
+            for (int i = 0; i < 10; i++) {
+                rateLimiter.acquire(QUERY_URL);
+            }
+        });
+
+        assertThat(elapsed, is(lessThan(500L)));
+    }
+
+    @Test
+    public void testThrottlingErrorsReduceTheRate() throws InterruptedIOException {
+        final RateLimitPolicy policy = new RateLimitPolicy.Builder()
+            .setSyncRequestsPerSecond(10)
+            .setBurstSize(1)
+            .setRecoveryTime(Duration.standardHours(1))
+            .build();
+
+        final RateLimiter rateLimiter = new RateLimiter(policy, ENDPOINT);
+        rateLimiter.acquire(QUERY_URL);
+        rateLimiter.onError(QUERY_URL, HodErrorCode.TOO_MANY_REQUESTS);
+
+        // the rate has halved to five requests per second
+        final long elapsed = time(() -> rateLimiter.acquire(QUERY_URL));
+        assertThat(elapsed, is(greaterThanOrEqualTo(180L)));
+    }
+
+    @Test
+    public void testOtherErrorsDoNotReduceTheRate() throws InterruptedIOException {
+        final RateLimiter rateLimiter = new RateLimiter(new RateLimitPolicy.Builder().setSyncRequestsPerSecond(10).setBurstSize(2).build(), ENDPOINT);
+        rateLimiter.onError(QUERY_URL, HodErrorCode.BACKEND_REQUEST_FAILED);
+
+        final long elapsed = time(() -> {
+            rateLimiter.acquire(QUERY_URL);
+            rateLimiter.acquire(QUERY_URL);
+        });
+
+        assertThat(elapsed, is(lessThan(50L)));
+    }
+
+    private long time(final Action action) throws InterruptedIOException {
+        final long start = System.nanoTime();
+        action.run();
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    @FunctionalInterface
+    private interface Action {
+        void run() throws InterruptedIOException;
+    }
+}
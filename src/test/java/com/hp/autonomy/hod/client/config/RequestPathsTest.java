@@ -0,0 +1,41 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.config;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class RequestPathsTest {
+
+    private static final String ENDPOINT = "https://api.example.com";
+
+    @Test
+    public void testQueryStringIsRemoved() {
+        assertThat(RequestPaths.getApiPath(ENDPOINT, ENDPOINT + "/2/api/sync/textindex/query/search/v1?text=cats"), is("/2/api/sync/textindex/query/search/v1"));
+    }
+
+    @Test
+    public void testResourceNamesAndJobIdsAreReplaced() {
+        assertThat(RequestPaths.getApiPath(ENDPOINT, ENDPOINT + "/2/job/abc-123/status"), is("/2/job/{jobId}/status"));
+        assertThat(RequestPaths.getApiPath(ENDPOINT, ENDPOINT + "/2/job/abc-123/result"), is("/2/job/{jobId}/result"));
+        assertThat(RequestPaths.getApiPath(ENDPOINT, ENDPOINT + "/2/api/async/textindex/wiki/document/v1"), is("/2/api/async/textindex/{indexName}/document/v1"));
+        assertThat(RequestPaths.getApiPath(ENDPOINT, ENDPOINT + "/2/api/sync/textindex/wiki/status/v2?x=y"), is("/2/api/sync/textindex/{index_identifier}/status/v2"));
+        assertThat(RequestPaths.getApiPath(ENDPOINT, ENDPOINT + "/2/api/sync/domain/d/application/a/authentication/v1"), is("/2/api/sync/domain/{domain_name}/application/{application_name}/authentication/v1"));
+    }
+
+    @Test
+    public void testApisWithTheSameLengthAreNotConfused() {
+        assertThat(RequestPaths.getApiPath(ENDPOINT, ENDPOINT + "/2/api/sync/textindex/query/fields/v2"), is("/2/api/sync/textindex/query/fields/v2"));
+        assertThat(RequestPaths.getApiPath(ENDPOINT, ENDPOINT + "/2/api/sync/textindex/query/content/v1"), is("/2/api/sync/textindex/query/content/v1"));
+    }
+
+    @Test
+    public void testOtherHostsUseTheirPath() {
+        assertThat(RequestPaths.getApiPath(ENDPOINT, "https://other.example.com/2/job/abc/status"), is("/2/job/{jobId}/status"));
+    }
+}
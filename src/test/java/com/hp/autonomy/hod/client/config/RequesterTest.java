@@ -5,14 +5,21 @@
 
 package com.hp.autonomy.hod.client.config;
 
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
 import com.hp.autonomy.hod.client.api.authentication.AuthenticationToken;
 import com.hp.autonomy.hod.client.api.authentication.EntityType;
 import com.hp.autonomy.hod.client.api.authentication.HodAuthenticationFailedException;
 import com.hp.autonomy.hod.client.api.authentication.TokenType;
+import com.hp.autonomy.hod.client.cache.InMemoryResponseCache;
+import com.hp.autonomy.hod.client.cache.ResponseCache;
+import com.hp.autonomy.hod.client.error.HodError;
 import com.hp.autonomy.hod.client.error.HodErrorException;
 import com.hp.autonomy.hod.client.token.TokenProxy;
 import com.hp.autonomy.hod.client.token.TokenProxyService;
 import com.hp.autonomy.hod.client.token.TokenRepository;
+import com.hp.autonomy.hod.client.util.MultiMap;
+import org.joda.time.Duration;
 import org.junit.Before;
 import org.junit.Test;
 import retrofit.client.Header;
@@ -21,13 +28,24 @@ import retrofit.mime.TypedInput;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 public class RequesterTest {
@@ -129,6 +147,218 @@ public class RequesterTest {
         assertThat(result, is(expectedReturnValue));
     }
 
+    @Test
+    public void testMakeRequestAsyncCompletesWithParsedResponse() throws IOException, InterruptedException, ExecutionException {
+        @SuppressWarnings("unchecked")
+        final AuthenticationToken<EntityType.Application, TokenType.Simple> fakeToken = mock(AuthenticationToken.class);
+
+        final TokenProxy<EntityType.Application, TokenType.Simple> tokenProxy = new TokenProxy<>(EntityType.Application.INSTANCE, TokenType.Simple.INSTANCE);
+        when(fakeToken.hasExpired()).thenReturn(false);
+
+        when(tokenRepository.get(tokenProxy)).thenReturn(fakeToken);
+
+        final Response response = new Response("", 200, "", Collections.<Header>emptyList(), mock(TypedInput.class));
+        final Object expectedReturnValue = new Object();
+
+        when(responseParser.parseResponse(tokenProxy, Object.class, response)).thenReturn(expectedReturnValue);
+
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+        try {
+            final Requester<EntityType, TokenType.Simple> requester = new Requester<>(tokenRepository, responseParser, null, executorService, null, false);
+
+            final CompletableFuture<Object> result = requester.makeRequestAsync(tokenProxy, Object.class, getBackendCaller(fakeToken, response));
+
+            assertThat(result.get(), is(expectedReturnValue));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testMakeRequestAsyncCompletesExceptionallyWithHodErrorException() throws IOException, InterruptedException {
+        @SuppressWarnings("unchecked")
+        final AuthenticationToken<EntityType.Application, TokenType.Simple> fakeToken = mock(AuthenticationToken.class);
+
+        final TokenProxy<EntityType.Application, TokenType.Simple> tokenProxy = new TokenProxy<>(EntityType.Application.INSTANCE, TokenType.Simple.INSTANCE);
+        when(fakeToken.hasExpired()).thenReturn(false);
+
+        when(tokenRepository.get(tokenProxy)).thenReturn(fakeToken);
+
+        final HodErrorException exception = new HodErrorException(new HodError.Builder().setError(5000).build(), 500);
+
+        final CompletableFuture<Object> result = requester.makeRequestAsync(tokenProxy, Object.class, authenticationToken -> {
+            throw exception;
+        });
+
+        try {
+            result.get();
+            fail("ExecutionException not thrown");
+        } catch (final ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(HodErrorException.class)));
+        }
+    }
+
+    @Test
+    public void testCachedRequestsAreOnlyMadeOncePerTokenProxy() throws HodErrorException, IOException {
+        @SuppressWarnings("unchecked")
+        final AuthenticationToken<EntityType.Application, TokenType.Simple> fakeToken = mock(AuthenticationToken.class);
+
+        final TokenProxy<EntityType.Application, TokenType.Simple> tokenProxy = new TokenProxy<>(EntityType.Application.INSTANCE, TokenType.Simple.INSTANCE);
+        final TokenProxy<EntityType.Application, TokenType.Simple> otherTokenProxy = new TokenProxy<>(EntityType.Application.INSTANCE, TokenType.Simple.INSTANCE);
+        when(fakeToken.hasExpired()).thenReturn(false);
+
+        when(tokenRepository.get(tokenProxy)).thenReturn(fakeToken);
+        when(tokenRepository.get(otherTokenProxy)).thenReturn(fakeToken);
+
+        final Response response = new Response("", 200, "", Collections.<Header>emptyList(), mock(TypedInput.class));
+        final JavaType type = TypeFactory.defaultInstance().constructType(Object.class);
+        final Object expectedReturnValue = new Object();
+
+        when(responseParser.unsafeParseResponse(tokenProxy, type, response)).thenReturn(expectedReturnValue);
+        when(responseParser.unsafeParseResponse(otherTokenProxy, type, response)).thenReturn(expectedReturnValue);
+
+        final AtomicInteger calls = new AtomicInteger(0);
+        final Requester.BackendCaller<EntityType, TokenType.Simple> backendCaller = authenticationToken -> {
+            calls.incrementAndGet();
+            return response;
+        };
+
+        final ResponseCache responseCache = new InMemoryResponseCache(10, Duration.standardMinutes(1));
+        final Requester<EntityType, TokenType.Simple> requester = new Requester<>(tokenRepository, responseParser, null, Runnable::run, responseCache, false);
+
+        final MultiMap<String, Object> params = new MultiMap<>();
+        params.put("text", "cats");
+
+        assertThat(requester.unsafeMakeIdempotentRequest(tokenProxy, type, "/path", params, backendCaller), is(expectedReturnValue));
+        assertThat(requester.unsafeMakeIdempotentRequest(tokenProxy, type, "/path", params, backendCaller), is(expectedReturnValue));
+        assertThat(calls.get(), is(1));
+
+        assertThat(requester.unsafeMakeIdempotentRequest(otherTokenProxy, type, "/path", params, backendCaller), is(expectedReturnValue));
+        assertThat(calls.get(), is(2));
+
+        assertThat(responseCache.getStatistics().getHits(), is(1L));
+        assertThat(responseCache.getStatistics().getMisses(), is(2L));
+    }
+
+    @Test
+    public void testCachedAsyncRequestsDoNotUseTheExecutor() throws HodErrorException, IOException, InterruptedException, ExecutionException {
+        @SuppressWarnings("unchecked")
+        final AuthenticationToken<EntityType.Application, TokenType.Simple> fakeToken = mock(AuthenticationToken.class);
+
+        final TokenProxy<EntityType.Application, TokenType.Simple> tokenProxy = new TokenProxy<>(EntityType.Application.INSTANCE, TokenType.Simple.INSTANCE);
+        when(fakeToken.hasExpired()).thenReturn(false);
+        when(tokenRepository.get(tokenProxy)).thenReturn(fakeToken);
+
+        final Response response = new Response("", 200, "", Collections.<Header>emptyList(), mock(TypedInput.class));
+        final JavaType type = TypeFactory.defaultInstance().constructType(Object.class);
+        final Object expectedReturnValue = new Object();
+        when(responseParser.unsafeParseResponse(tokenProxy, type, response)).thenReturn(expectedReturnValue);
+
+        final AtomicInteger executions = new AtomicInteger(0);
+        final Executor countingExecutor = command -> {
+            executions.incrementAndGet();
+            command.run();
+        };
+
+        final ResponseCache responseCache = new InMemoryResponseCache(10, Duration.standardMinutes(1));
+        final Requester<EntityType, TokenType.Simple> requester = new Requester<>(tokenRepository, responseParser, null, countingExecutor, responseCache, false);
+
+        final MultiMap<String, Object> params = new MultiMap<>();
+        params.put("text", "cats");
+
+        final CompletableFuture<Object> first = requester.unsafeMakeIdempotentRequestAsync(tokenProxy, type, "/path", params, authenticationToken -> response);
+        final CompletableFuture<Object> second = requester.unsafeMakeIdempotentRequestAsync(tokenProxy, type, "/path", params, authenticationToken -> response);
+
+        assertThat(first.get(), is(expectedReturnValue));
+        assertThat(second.get(), is(expectedReturnValue));
+        assertThat(executions.get(), is(1));
+        assertThat(responseCache.getStatistics().getHits(), is(1L));
+    }
+
+    @Test
+    public void testParametersAreNotReadWithoutCachingOrCoalescing() throws HodErrorException, IOException {
+        @SuppressWarnings("unchecked")
+        final AuthenticationToken<EntityType.Application, TokenType.Simple> fakeToken = mock(AuthenticationToken.class);
+
+        final TokenProxy<EntityType.Application, TokenType.Simple> tokenProxy = new TokenProxy<>(EntityType.Application.INSTANCE, TokenType.Simple.INSTANCE);
+        when(fakeToken.hasExpired()).thenReturn(false);
+        when(tokenRepository.get(tokenProxy)).thenReturn(fakeToken);
+
+        final Response response = new Response("", 200, "", Collections.<Header>emptyList(), mock(TypedInput.class));
+        final Object expectedReturnValue = new Object();
+        when(responseParser.parseResponse(tokenProxy, Object.class, response)).thenReturn(expectedReturnValue);
+
+        @SuppressWarnings("unchecked")
+        final Map<String, Object> params = mock(Map.class);
+
+        final Requester<EntityType, TokenType.Simple> requester = new Requester<>(tokenRepository, responseParser, null, Runnable::run, null, false);
+
+        assertThat(requester.makeIdempotentRequest(tokenProxy, Object.class, "/path", params, authenticationToken -> response), is(expectedReturnValue));
+        verifyZeroInteractions(params);
+    }
+
+    @Test
+    public void testConcurrentIdenticalRequestsAreCoalesced() throws HodErrorException, IOException, InterruptedException, ExecutionException {
+        @SuppressWarnings("unchecked")
+        final AuthenticationToken<EntityType.Application, TokenType.Simple> fakeToken = mock(AuthenticationToken.class);
+
+        final TokenProxy<EntityType.Application, TokenType.Simple> tokenProxy = new TokenProxy<>(EntityType.Application.INSTANCE, TokenType.Simple.INSTANCE);
+        when(fakeToken.hasExpired()).thenReturn(false);
+        when(tokenRepository.get(tokenProxy)).thenReturn(fakeToken);
+
+        final Response response = new Response("", 200, "", Collections.<Header>emptyList(), mock(TypedInput.class));
+        final Object expectedReturnValue = new Object();
+        when(responseParser.parseResponse(tokenProxy, Object.class, response)).thenReturn(expectedReturnValue);
+
+        final CountDownLatch requestStarted = new CountDownLatch(1);
+        final CountDownLatch releaseRequest = new CountDownLatch(1);
+        final AtomicInteger calls = new AtomicInteger(0);
+
+        final Requester.BackendCaller<EntityType, TokenType.Simple> backendCaller = authenticationToken -> {
+            calls.incrementAndGet();
+            requestStarted.countDown();
+
+            try {
+                releaseRequest.await();
+            } catch (final InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+
+            return response;
+        };
+
+        final Requester<EntityType, TokenType.Simple> requester = new Requester<>(tokenRepository, responseParser, null, Runnable::run, null, true);
+        final MultiMap<String, Object> params = new MultiMap<>();
+        params.put("text", "cats");
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(3);
+
+        try {
+            final Future<Object> first = executorService.submit(() -> requester.makeIdempotentRequest(tokenProxy, Object.class, "/path", params, backendCaller));
+            requestStarted.await();
+
+            final Future<Object> second = executorService.submit(() -> requester.makeIdempotentRequest(tokenProxy, Object.class, "/path", params, backendCaller));
+            final Future<Object> third = executorService.submit(() -> requester.makeIdempotentRequest(tokenProxy, Object.class, "/path", params, backendCaller));
+
+            // give the other callers time to join the in flight request
+            Thread.sleep(100);
+            releaseRequest.countDown();
+
+            assertThat(first.get(), is(expectedReturnValue));
+            assertThat(second.get(), is(expectedReturnValue));
+            assertThat(third.get(), is(expectedReturnValue));
+            assertThat(calls.get(), is(1));
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        // once the request has completed, a new request is made
+        releaseRequest.countDown();
+        requester.makeIdempotentRequest(tokenProxy, Object.class, "/path", params, backendCaller);
+        assertThat(calls.get(), is(2));
+    }
+
     private Requester.BackendCaller<EntityType, TokenType.Simple> getBackendCaller(final AuthenticationToken<?, ? extends TokenType.Simple> fakeToken, final Response response) {
         return authenticationToken -> {
             assertEquals(authenticationToken, fakeToken);
@@ -12,12 +12,16 @@ import com.fasterxml.jackson.databind.type.TypeFactory;
 import com.hp.autonomy.hod.client.api.authentication.AuthenticationToken;
 import com.hp.autonomy.hod.client.api.authentication.EntityType;
 import com.hp.autonomy.hod.client.api.authentication.TokenType;
+import com.hp.autonomy.hod.client.api.textindex.query.search.Document;
+import com.hp.autonomy.hod.client.api.textindex.query.search.QueryResults;
 import com.hp.autonomy.hod.client.token.TokenProxy;
 import com.hp.autonomy.hod.client.token.TokenRepository;
+import org.apache.commons.io.IOUtils;
 import org.junit.Before;
 import org.junit.Test;
 import retrofit.client.Header;
 import retrofit.client.Response;
+import retrofit.mime.TypedByteArray;
 import retrofit.mime.TypedInput;
 
 import java.io.IOException;
@@ -28,6 +32,8 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.isA;
@@ -207,6 +213,30 @@ public class ResponseParserTest {
         assertThat(returnValue, is(responseAndBody.body));
     }
 
+    @Test
+    public void parseStreamingResponsePassesEachDocumentToTheConsumer() throws IOException {
+        final ObjectMapper realObjectMapper = new ObjectMapper();
+        final ResponseParser streamingResponseParser = new ResponseParser(tokenRepository, realObjectMapper);
+
+        final InputStream body = getClass().getResourceAsStream("/com/hp/autonomy/hod/client/queryResults/query-results.json");
+        final Response response = new Response("", 200, "", Collections.<Header>emptyList(), new TypedByteArray("application/json", IOUtils.toByteArray(body)));
+
+        final JavaType elementType = typeFactory.constructType(Document.class);
+        final JavaType resultsType = typeFactory.constructParametrizedType(QueryResults.class, QueryResults.class, Document.class);
+        final List<Document> documents = new ArrayList<>();
+
+        final TokenProxy<EntityType.Application, TokenType.Simple> tokenProxy = new TokenProxy<>(EntityType.Application.INSTANCE, TokenType.Simple.INSTANCE);
+        final QueryResults<Document> results = streamingResponseParser.<QueryResults<Document>, Document>unsafeParseStreamingResponse(tokenProxy, resultsType, "documents", elementType, documents::add, response);
+
+        assertThat(documents, hasSize(2));
+        assertThat(documents.get(0).getReference(), is("http://www.cheese.com/campfire/"));
+        assertThat(documents.get(1).getReference(), is("http://www.cheese.com/cameo/"));
+
+        assertThat(results.getDocuments(), is(empty()));
+        assertThat(results.getTotalResults(), is(2));
+        assertThat(results.getExpandedQuery(), is("Longer string than the original query with + lots + of + things + added"));
+    }
+
     private ResponseAndBody createTestResponse() throws IOException {
         return createTestResponseWithHeaders(Collections.<Header>emptyList());
     }
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.config;
+
+import com.hp.autonomy.hod.client.error.HodError;
+import com.hp.autonomy.hod.client.error.HodErrorCode;
+import com.hp.autonomy.hod.client.error.HodErrorException;
+import com.hp.autonomy.hod.client.util.TypedInputStream;
+import org.joda.time.Duration;
+import org.junit.Test;
+import retrofit.RetrofitError;
+import retrofit.client.Client;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+import retrofit.mime.TypedOutput;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.SocketException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.fail;
+
+public class RetrierTest {
+
+    private static final String ENDPOINT = "https://api.example.com";
+    private static final String QUERY_PATH = "/2/api/sync/textindex/query/search/v1";
+    private static final String QUERY_URL = ENDPOINT + QUERY_PATH + "?text=cats";
+
+    private final AtomicInteger requests = new AtomicInteger(0);
+
+    @Test
+    public void testRetryableErrorsAreRetried() throws HodErrorException {
+        final Retrier retrier = createRetrier(policy().build(), Collections.emptyMap());
+        final Client client = retrier.wrap(request -> response(request));
+
+        final String result = retrier.execute(() -> {
+            send(client, "GET", null);
+
+            if (requests.incrementAndGet() < 3) {
+                throw hodError(HodErrorCode.BACKEND_REQUEST_FAILED);
+            }
+
+            return "result";
+        });
+
+        assertThat(result, is("result"));
+        assertThat(requests.get(), is(3));
+    }
+
+    @Test
+    public void testNonRetryableErrorsAndMethodsAreNotRetried() {
+        final Retrier retrier = createRetrier(policy().build(), Collections.emptyMap());
+
+        assertFailsAfter(retrier, "GET", null, hodError(HodErrorCode.INVALID_QUERY_TEXT), 1);
+        assertFailsAfter(retrier, "POST", null, hodError(HodErrorCode.BACKEND_REQUEST_FAILED), 1);
+
+        // repeating these could repeat a change
+        assertFailsAfter(retrier, "PUT", null, hodError(HodErrorCode.BACKEND_REQUEST_FAILED), 1);
+        assertFailsAfter(retrier, "DELETE", null, hodError(HodErrorCode.BACKEND_REQUEST_FAILED), 1);
+
+        // retried twice before giving up
+        assertFailsAfter(retrier, "GET", null, hodError(HodErrorCode.REQUEST_TOOK_TOO_LONG), 3);
+    }
+
+    @Test
+    public void testStreamedRequestsAreNotRetried() {
+        final Retrier retrier = createRetrier(policy().setRetryableMethods(Collections.singleton("PUT")).build(), Collections.emptyMap());
+
+        assertFailsAfter(retrier, "PUT", null, hodError(HodErrorCode.BACKEND_REQUEST_FAILED), 3);
+        assertFailsAfter(retrier, "PUT", new TypedInputStream("text/plain", new ByteArrayInputStream(new byte[0])), hodError(HodErrorCode.BACKEND_REQUEST_FAILED), 1);
+    }
+
+    @Test
+    public void testNetworkErrorsAreRetried() {
+        final Retrier retrier = createRetrier(policy().build(), Collections.emptyMap());
+
+        assertFailsAfter(retrier, "GET", null, RetrofitError.networkError(QUERY_URL, new SocketException("Connection reset")), 3);
+    }
+
+    @Test
+    public void testApiPoliciesOverrideTheDefault() {
+        final Map<String, RetryPolicy> apiPolicies = new HashMap<>();
+        apiPolicies.put("/2/api/sync/textindex/query", policy().setMaxRetries(1).build());
+        apiPolicies.put(QUERY_PATH, policy().setRetryableMethods(Collections.singleton("POST")).build());
+
+        final Retrier retrier = createRetrier(policy().build(), apiPolicies);
+
+        // the longest matching path allows POST
+        assertFailsAfter(retrier, "POST", null, hodError(HodErrorCode.BACKEND_REQUEST_FAILED), 3);
+    }
+
+    @Test
+    public void testRetriesAreLimitedByTheBudget() {
+        final Retrier retrier = createRetrier(policy().setBudgetPercentage(0).build(), Collections.emptyMap());
+
+        // the budget starts with ten retries, two of which are used by each request
+        for (int i = 0; i < 5; i++) {
+            assertFailsAfter(retrier, "GET", null, hodError(HodErrorCode.BACKEND_REQUEST_FAILED), 3);
+        }
+
+        assertFailsAfter(retrier, "GET", null, hodError(HodErrorCode.BACKEND_REQUEST_FAILED), 1);
+    }
+
+    private Retrier createRetrier(final RetryPolicy defaultPolicy, final Map<String, RetryPolicy> apiPolicies) {
+        return new Retrier(defaultPolicy, apiPolicies, ENDPOINT);
+    }
+
+    private RetryPolicy.Builder policy() {
+        return new RetryPolicy.Builder().setBaseDelay(Duration.millis(1)).setMaxDelay(Duration.millis(5));
+    }
+
+    private void assertFailsAfter(final Retrier retrier, final String method, final TypedOutput body, final Exception error, final int expectedRequests) {
+        final Client client = retrier.wrap(request -> response(request));
+        requests.set(0);
+
+        try {
+            retrier.execute(() -> {
+                send(client, method, body);
+                requests.incrementAndGet();
+
+                if (error instanceof HodErrorException) {
+                    throw (HodErrorException) error;
+                }
+
+                throw (RuntimeException) error;
+            });
+
+            fail("Expected the request to fail");
+        } catch (final HodErrorException | RuntimeException e) {
+            assertThat(e, is(error));
+        }
+
+        assertThat(requests.get(), is(expectedRequests));
+    }
+
+    private static void send(final Client client, final String method, final TypedOutput body) {
+        try {
+            client.execute(new Request(method, QUERY_URL, Collections.<Header>emptyList(), body));
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static HodErrorException hodError(final HodErrorCode errorCode) {
+        return new HodErrorException(new HodError.Builder().setErrorCode(errorCode).build(), 500);
+    }
+
+    private static Response response(final Request request) {
+        return new Response(request.getUrl(), 200, "", Collections.<Header>emptyList(), null);
+    }
+}
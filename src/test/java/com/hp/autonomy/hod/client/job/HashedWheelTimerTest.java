@@ -0,0 +1,112 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.job;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.core.Is.is;
+
+public class HashedWheelTimerTest {
+
+    private HashedWheelTimer timer;
+
+    @Before
+    public void setUp() {
+        // a small wheel so that tasks have to survive multiple rotations
+        timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 4, Runnable::run);
+    }
+
+    @After
+    public void tearDown() {
+        timer.stop();
+    }
+
+    @Test
+    public void testTasksRunInDeadlineOrder() throws InterruptedException {
+        final List<Integer> order = new CopyOnWriteArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(3);
+
+        timer.newTimeout(() -> { order.add(3); latch.countDown(); }, 150, TimeUnit.MILLISECONDS);
+        timer.newTimeout(() -> { order.add(1); latch.countDown(); }, 0, TimeUnit.MILLISECONDS);
+        timer.newTimeout(() -> { order.add(2); latch.countDown(); }, 60, TimeUnit.MILLISECONDS);
+
+        assertThat(latch.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(order, contains(1, 2, 3));
+        assertThat(timer.pendingTimeouts(), is(0));
+    }
+
+    @Test
+    public void testTasksDoNotRunEarly() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final long start = System.nanoTime();
+        final long[] elapsed = new long[1];
+
+        timer.newTimeout(() -> {
+            elapsed[0] = System.nanoTime() - start;
+            latch.countDown();
+        }, 100, TimeUnit.MILLISECONDS);
+
+        assertThat(latch.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(TimeUnit.NANOSECONDS.toMillis(elapsed[0]), is(greaterThanOrEqualTo(100L)));
+    }
+
+    @Test
+    public void testConcurrentFirstTasksUseTheSameStartTime() throws InterruptedException {
+        final int threads = 8;
+
+        for (int attempt = 0; attempt < 20; attempt++) {
+            final HashedWheelTimer freshTimer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 4, Runnable::run);
+            final CyclicBarrier barrier = new CyclicBarrier(threads);
+            final CountDownLatch latch = new CountDownLatch(threads);
+            final List<Long> elapsed = new CopyOnWriteArrayList<>();
+
+            try {
+                for (int i = 0; i < threads; i++) {
+                    new Thread(() -> {
+                        try {
+                            barrier.await();
+                        } catch (final InterruptedException | BrokenBarrierException e) {
+                            return;
+                        }
+
+                        final long start = System.nanoTime();
+
+                        freshTimer.newTimeout(() -> {
+                            elapsed.add(System.nanoTime() - start);
+                            latch.countDown();
+                        }, 50, TimeUnit.MILLISECONDS);
+                    }).start();
+                }
+
+                assertThat(latch.await(5, TimeUnit.SECONDS), is(true));
+
+                for (final long nanos : elapsed) {
+                    assertThat(TimeUnit.NANOSECONDS.toMillis(nanos), is(greaterThanOrEqualTo(50L)));
+                }
+            } finally {
+                freshTimer.stop();
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testStoppedTimerRejectsTasks() {
+        timer.stop();
+        timer.newTimeout(() -> {}, 10, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.job;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+public class JobPollerTest {
+
+    @Test
+    public void testTheDefaultJobPollerIsShared() {
+        assertThat(JobPoller.getDefault(), is(sameInstance(JobPoller.getDefault())));
+    }
+
+    @Test
+    public void testTheDefaultJobPollerCannotBeDestroyed() throws InterruptedException {
+        final JobPoller jobPoller = JobPoller.getDefault();
+        jobPoller.destroy();
+
+        final CountDownLatch latch = new CountDownLatch(2);
+        jobPoller.schedule(latch::countDown, 0, TimeUnit.MILLISECONDS);
+        jobPoller.schedule(latch::countDown, 10, TimeUnit.MILLISECONDS);
+
+        assertThat(latch.await(5, TimeUnit.SECONDS), is(true));
+    }
+
+    @Test
+    public void testScheduledChecksRun() throws InterruptedException {
+        final JobPoller jobPoller = new JobPoller();
+
+        try {
+            final CountDownLatch latch = new CountDownLatch(2);
+            jobPoller.schedule(latch::countDown, 0, TimeUnit.MILLISECONDS);
+            jobPoller.schedule(latch::countDown, 10, TimeUnit.MILLISECONDS);
+
+            assertThat(latch.await(5, TimeUnit.SECONDS), is(true));
+            assertThat(jobPoller.getPendingChecks(), is(0));
+        } finally {
+            jobPoller.destroy();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.job;
+
+import org.joda.time.Duration;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.core.Is.is;
+
+public class JobPollingPolicyTest {
+
+    @Test
+    public void testDelayGrowsExponentiallyUpToTheCap() {
+        final JobPollingPolicy policy = new JobPollingPolicy.Builder()
+            .setInitialDelay(Duration.millis(100))
+            .setMultiplier(2)
+            .setMaxDelay(Duration.millis(500))
+            .setJitter(0)
+            .build();
+
+        assertThat(policy.getDelayMillis(0), is(100L));
+        assertThat(policy.getDelayMillis(1), is(200L));
+        assertThat(policy.getDelayMillis(2), is(400L));
+        assertThat(policy.getDelayMillis(3), is(500L));
+        assertThat(policy.getDelayMillis(100), is(500L));
+    }
+
+    @Test
+    public void testJitterStaysWithinBounds() {
+        final JobPollingPolicy policy = new JobPollingPolicy.Builder()
+            .setInitialDelay(Duration.millis(1000))
+            .setMaxDelay(Duration.millis(1000))
+            .setJitter(0.25)
+            .build();
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(policy.getDelayMillis(i % 5), is(allOf(greaterThanOrEqualTo(750L), lessThanOrEqualTo(1250L))));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidJitterIsRejected() {
+        new JobPollingPolicy.Builder().setJitter(1.5).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaxDelayShorterThanInitialDelayIsRejected() {
+        new JobPollingPolicy.Builder()
+            .setInitialDelay(Duration.standardSeconds(5))
+            .setMaxDelay(Duration.standardSeconds(1))
+            .build();
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.job;
+
+import com.hp.autonomy.hod.client.error.HodErrorCode;
+import com.hp.autonomy.hod.client.error.HodErrorException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+public class PollingJobStatusRunnableTest {
+
+    private static final JobId JOB_ID = new JobId.Builder().setJobId("job-id").build();
+
+    private JobService<JobStatus<String>> jobService;
+    private HodJobCallback<String> callback;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        jobService = mock(JobService.class);
+        callback = mock(HodJobCallback.class);
+    }
+
+    @Test
+    public void testFinishedJobWithoutActionsReportsAnError() throws HodErrorException {
+        when(jobService.getJobStatus(JOB_ID)).thenReturn(new JobStatus<>("job-id", Status.FINISHED, Collections.emptyList()));
+
+        runnable().run();
+
+        verify(callback).error(HodErrorCode.UNKNOWN);
+        verifyNoMoreInteractions(callback);
+    }
+
+    @Test
+    public void testFailedActionWithoutErrorsReportsAnError() throws HodErrorException {
+        final Action<String> action = new Action<>("addtotextindex", Status.FAILED, Collections.emptyList(), null, "v1");
+        when(jobService.getJobStatus(JOB_ID)).thenReturn(new JobStatus<>("job-id", Status.FAILED, Collections.singletonList(action)));
+
+        runnable().run();
+
+        verify(callback).error(HodErrorCode.UNKNOWN);
+        verifyNoMoreInteractions(callback);
+    }
+
+    private PollingJobStatusRunnable<String> runnable() {
+        return new PollingJobStatusRunnable<>(null, null, JOB_ID, callback, (task, delay, unit) -> {}, jobService, JobPollingPolicy.DEFAULT);
+    }
+}
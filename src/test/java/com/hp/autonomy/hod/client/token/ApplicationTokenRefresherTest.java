@@ -0,0 +1,124 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.token;
+
+import com.hp.autonomy.hod.client.api.authentication.ApiKey;
+import com.hp.autonomy.hod.client.api.authentication.AuthenticationService;
+import com.hp.autonomy.hod.client.api.authentication.AuthenticationToken;
+import com.hp.autonomy.hod.client.api.authentication.EntityType;
+import com.hp.autonomy.hod.client.api.authentication.TokenType;
+import com.hp.autonomy.hod.client.error.HodError;
+import com.hp.autonomy.hod.client.error.HodErrorException;
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+public class ApplicationTokenRefresherTest {
+
+    private static final ApiKey API_KEY = new ApiKey("api-key");
+
+    private InMemoryTokenRepository tokenRepository;
+    private AuthenticationService authenticationService;
+    private ScheduledExecutorService executorService;
+    private ApplicationTokenRefresher refresher;
+
+    @Before
+    public void setUp() {
+        tokenRepository = new InMemoryTokenRepository();
+        authenticationService = mock(AuthenticationService.class);
+        executorService = mock(ScheduledExecutorService.class);
+        when(executorService.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class))).thenAnswer(invocation -> mock(ScheduledFuture.class));
+        refresher = new ApplicationTokenRefresher(authenticationService, tokenRepository, executorService, Duration.standardSeconds(5));
+    }
+
+    @Test
+    public void testRefreshIsScheduledAtStartRefresh() {
+        final DateTime now = DateTime.now();
+        final AuthenticationToken<?, ?> token = createToken(now.plusMinutes(30), now.plusMinutes(20));
+
+        assertThat(ApplicationTokenRefresher.getRefreshDelayMillis(token, now), is(TimeUnit.MINUTES.toMillis(20)));
+    }
+
+    @Test
+    public void testRefreshIsScheduledBeforeExpiryIfStartRefreshHasPassed() {
+        final DateTime now = DateTime.now();
+        final AuthenticationToken<?, ?> token = createToken(now.plusMinutes(10), now.minusMinutes(1));
+
+        assertThat(ApplicationTokenRefresher.getRefreshDelayMillis(token, now), is(TimeUnit.MINUTES.toMillis(5)));
+    }
+
+    @Test
+    public void testRefreshReplacesTokenForExistingProxy() throws HodErrorException {
+        final TokenProxy<EntityType.Application, TokenType.Simple> tokenProxy = tokenRepository.insert(createToken(DateTime.now().plusMinutes(30), DateTime.now().plusMinutes(20)));
+        final AuthenticationToken<EntityType.Application, TokenType.Simple> newToken = createToken(DateTime.now().plusMinutes(60), DateTime.now().plusMinutes(50));
+        final TokenProxy<EntityType.Application, TokenType.Simple> newTokenProxy = tokenRepository.insert(newToken);
+
+        when(authenticationService.authenticateApplication(API_KEY, "application", "domain", TokenType.Simple.INSTANCE)).thenReturn(newTokenProxy);
+
+        refresher.register(tokenProxy, API_KEY, "application", "domain");
+
+        getScheduledRefresh(1).run();
+
+        assertThat(tokenRepository.get(tokenProxy), is(newToken));
+        assertThat(tokenRepository.get(newTokenProxy), is(nullValue()));
+
+        // the next refresh is scheduled from the new token
+        verify(executorService, times(2)).schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testFailedRefreshIsRetried() throws HodErrorException {
+        final TokenProxy<EntityType.Application, TokenType.Simple> tokenProxy = tokenRepository.insert(createToken(DateTime.now().plusMinutes(30), DateTime.now().plusMinutes(20)));
+
+        when(authenticationService.authenticateApplication(API_KEY, "application", "domain", TokenType.Simple.INSTANCE))
+            .thenThrow(new HodErrorException(new HodError.Builder().setError(5000).build(), 500));
+
+        refresher.register(tokenProxy, API_KEY, "application", "domain");
+        getScheduledRefresh(1).run();
+
+        verify(executorService).schedule(any(Runnable.class), eq(5000L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testCancelledRefreshDoesNothing() {
+        final TokenProxy<EntityType.Application, TokenType.Simple> tokenProxy = tokenRepository.insert(createToken(DateTime.now().plusMinutes(30), DateTime.now().plusMinutes(20)));
+
+        refresher.register(tokenProxy, API_KEY, "application", "domain");
+        refresher.cancel(tokenProxy);
+
+        getScheduledRefresh(1).run();
+
+        verifyNoMoreInteractions(authenticationService);
+    }
+
+    private Runnable getScheduledRefresh(final int scheduledCount) {
+        final ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(executorService, times(scheduledCount)).schedule(captor.capture(), anyLong(), eq(TimeUnit.MILLISECONDS));
+        return captor.getValue();
+    }
+
+    private AuthenticationToken<EntityType.Application, TokenType.Simple> createToken(final DateTime expiry, final DateTime startRefresh) {
+        return new AuthenticationToken<>(EntityType.Application.INSTANCE, TokenType.Simple.INSTANCE, expiry, "id", "secret", startRefresh);
+    }
+}
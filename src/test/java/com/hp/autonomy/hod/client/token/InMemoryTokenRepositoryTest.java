@@ -8,12 +8,15 @@ package com.hp.autonomy.hod.client.token;
 import com.hp.autonomy.hod.client.api.authentication.AuthenticationToken;
 import com.hp.autonomy.hod.client.api.authentication.EntityType;
 import com.hp.autonomy.hod.client.api.authentication.TokenType;
+import org.joda.time.DateTime;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.fail;
@@ -97,6 +100,94 @@ public class InMemoryTokenRepositoryTest {
         tokenRepository.update(key, token2);
     }
 
+    @Test
+    public void testExpiredTokensAreSwept() {
+        final AtomicLong now = new AtomicLong(0);
+        final InMemoryTokenRepository repository = new InMemoryTokenRepository(Integer.MAX_VALUE, 1000, now::get);
+
+        final TokenProxy<EntityType.Combined, TokenType.Simple> shortLived = repository.insert(mockToken(1500));
+        final TokenProxy<EntityType.Combined, TokenType.Simple> longLived = repository.insert(mockToken(5500));
+
+        now.set(2000);
+        repository.removeExpiredTokens();
+
+        assertThat(repository.get(shortLived), is(nullValue()));
+        assertThat(repository.get(longLived), is(notNullValue()));
+        assertThat(repository.getStatistics().getExpirations(), is(1L));
+    }
+
+    @Test
+    public void testUpdatedTokensAreNotSweptWithTheirOldBucket() {
+        final AtomicLong now = new AtomicLong(0);
+        final InMemoryTokenRepository repository = new InMemoryTokenRepository(Integer.MAX_VALUE, 1000, now::get);
+
+        final TokenProxy<EntityType.Combined, TokenType.Simple> key = repository.insert(mockToken(1500));
+        final AuthenticationToken<EntityType.Combined, TokenType.Simple> newToken = mockToken(5500);
+        repository.update(key, newToken);
+
+        now.set(2000);
+        repository.removeExpiredTokens();
+
+        assertThat(repository.get(key), is(newToken));
+    }
+
+    @Test
+    public void testExpiredTokensAreSweptOnInsert() {
+        final AtomicLong now = new AtomicLong(0);
+        final InMemoryTokenRepository repository = new InMemoryTokenRepository(Integer.MAX_VALUE, 1000, now::get);
+
+        final TokenProxy<EntityType.Combined, TokenType.Simple> key = repository.insert(mockToken(1500));
+
+        now.set(2000);
+        repository.insert(mockToken(5500));
+
+        assertThat(repository.get(key), is(nullValue()));
+        assertThat(repository.getStatistics().getSize(), is(1L));
+    }
+
+    @Test
+    public void testTokensWithEarliestExpiryAreEvictedAtCapacity() {
+        final AtomicLong now = new AtomicLong(0);
+        final InMemoryTokenRepository repository = new InMemoryTokenRepository(2, 1000, now::get);
+
+        final TokenProxy<EntityType.Combined, TokenType.Simple> first = repository.insert(mockToken(3500));
+        final TokenProxy<EntityType.Combined, TokenType.Simple> second = repository.insert(mockToken(1500));
+        final TokenProxy<EntityType.Combined, TokenType.Simple> third = repository.insert(mockToken(5500));
+
+        assertThat(repository.get(first), is(notNullValue()));
+        assertThat(repository.get(second), is(nullValue()));
+        assertThat(repository.get(third), is(notNullValue()));
+
+        final TokenRepositoryStatistics statistics = repository.getStatistics();
+        assertThat(statistics.getSize(), is(2L));
+        assertThat(statistics.getEvictions(), is(1L));
+        assertThat(statistics.getHits(), is(2L));
+        assertThat(statistics.getMisses(), is(1L));
+    }
+
+    @Test
+    public void testRefreshedTokensAreNotEvictedFromTheirOldBucket() {
+        final AtomicLong now = new AtomicLong(0);
+        final InMemoryTokenRepository repository = new InMemoryTokenRepository(2, 1000, now::get);
+
+        final TokenProxy<EntityType.Combined, TokenType.Simple> refreshed = repository.insert(mockToken(1500));
+        final TokenProxy<EntityType.Combined, TokenType.Simple> second = repository.insert(mockToken(3500));
+        repository.update(refreshed, mockToken(9500));
+
+        final TokenProxy<EntityType.Combined, TokenType.Simple> third = repository.insert(mockToken(5500));
+
+        assertThat(repository.get(refreshed), is(notNullValue()));
+        assertThat(repository.get(second), is(nullValue()));
+        assertThat(repository.get(third), is(notNullValue()));
+        assertThat(repository.getStatistics().getEvictions(), is(1L));
+    }
+
+    private AuthenticationToken<EntityType.Combined, TokenType.Simple> mockToken(final long expiry) {
+        final AuthenticationToken<EntityType.Combined, TokenType.Simple> token = mockToken(false);
+        when(token.getExpiry()).thenReturn(new DateTime(expiry));
+        return token;
+    }
+
     private AuthenticationToken<EntityType.Combined, TokenType.Simple> mockToken(final boolean expired) {
         @SuppressWarnings("unchecked")
         final AuthenticationToken<EntityType.Combined, TokenType.Simple> token = mock(AuthenticationToken.class);
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.transport;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import retrofit.client.Response;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.core.Is.is;
+
+public class ApacheHttpTransportTest {
+
+    @Rule
+    public final MockWebServer server = new MockWebServer();
+
+    private ApacheHttpTransport transport;
+
+    @Before
+    public void setUp() {
+        transport = new ApacheHttpTransport(new TransportSettings.Builder()
+            .setMaxConnectionsPerRoute(2)
+            .setMaxConnections(4)
+            .build());
+    }
+
+    @After
+    public void tearDown() {
+        transport.close();
+    }
+
+    @Test
+    public void testConcurrentRequestsRespectPoolLimit() throws Exception {
+        final TransportTestHelper.ConcurrencyRecordingDispatcher dispatcher = new TransportTestHelper.ConcurrencyRecordingDispatcher();
+        server.setDispatcher(dispatcher);
+
+        TransportTestHelper.executeConcurrently(transport.getClient(), server.url("/test").toString(), 12);
+
+        assertThat(dispatcher.getMaxConcurrentRequests(), is(lessThanOrEqualTo(2)));
+        assertThat(TransportTestHelper.countConnections(server, 12), is(lessThanOrEqualTo(2)));
+
+        final ConnectionPoolStatistics statistics = transport.getStatistics();
+        assertThat(statistics.getActiveConnections(), is(0));
+        assertThat(statistics.getPendingRequests(), is(0));
+        assertThat(statistics.getIdleConnections(), is(greaterThan(0)));
+        assertThat(statistics.getMaxConnections(), is(4));
+    }
+
+    @Test
+    public void testGzipResponsesAreDecompressed() throws Exception {
+        server.enqueue(TransportTestHelper.gzipResponse("{\"hello\":\"world\"}"));
+
+        final Response response = TransportTestHelper.get(transport.getClient(), server.url("/gzip").toString());
+
+        final RecordedRequest request = server.takeRequest(5, TimeUnit.SECONDS);
+        assertThat(request.getHeader("Accept-Encoding"), containsString("gzip"));
+        assertThat(TransportTestHelper.readBody(response), is("{\"hello\":\"world\"}"));
+    }
+
+    @Test
+    public void testGzipCanBeDisabled() throws Exception {
+        transport.close();
+        transport = new ApacheHttpTransport(new TransportSettings.Builder().setGzip(false).build());
+
+        server.enqueue(new MockResponse().setBody("plain"));
+
+        final Response response = TransportTestHelper.get(transport.getClient(), server.url("/plain").toString());
+
+        final RecordedRequest request = server.takeRequest(5, TimeUnit.SECONDS);
+        assertThat(request.getHeader("Accept-Encoding") == null || !request.getHeader("Accept-Encoding").contains("gzip"), is(true));
+        assertThat(TransportTestHelper.readBody(response), is("plain"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testHttp2IsRejected() {
+        new ApacheHttpTransport(new TransportSettings.Builder().setProtocol(TransportSettings.Protocol.HTTP_2).build());
+    }
+}
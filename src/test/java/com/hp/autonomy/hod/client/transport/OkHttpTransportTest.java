@@ -0,0 +1,181 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.transport;
+
+import okhttp3.Protocol;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.joda.time.Duration;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+import retrofit.mime.TypedString;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.core.Is.is;
+
+public class OkHttpTransportTest {
+
+    @Rule
+    public final MockWebServer server = new MockWebServer();
+
+    private OkHttpTransport transport;
+
+    @After
+    public void tearDown() {
+        if (transport != null) {
+            transport.close();
+        }
+    }
+
+    @Test
+    public void testConcurrentRequestsRespectPoolLimit() throws Exception {
+        transport = new OkHttpTransport(new TransportSettings.Builder()
+            .setMaxConnectionsPerRoute(2)
+            .setMaxConnections(4)
+            .build());
+
+        final TransportTestHelper.ConcurrencyRecordingDispatcher dispatcher = new TransportTestHelper.ConcurrencyRecordingDispatcher();
+        server.setDispatcher(dispatcher);
+
+        TransportTestHelper.executeConcurrently(transport.getClient(), server.url("/test").toString(), 12);
+
+        assertThat(dispatcher.getMaxConcurrentRequests(), is(lessThanOrEqualTo(2)));
+        assertThat(TransportTestHelper.countConnections(server, 12), is(lessThanOrEqualTo(2)));
+
+        final ConnectionPoolStatistics statistics = transport.getStatistics();
+        assertThat(statistics.getActiveConnections(), is(0));
+        assertThat(statistics.getPendingRequests(), is(0));
+        assertThat(statistics.getIdleConnections(), is(greaterThan(0)));
+        assertThat(statistics.getMaxConnections(), is(4));
+    }
+
+    @Test
+    public void testHttp2RequestsAreMultiplexedOverOneConnection() throws Exception {
+        server.setProtocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE));
+
+        transport = new OkHttpTransport(new TransportSettings.Builder()
+            .setProtocol(TransportSettings.Protocol.HTTP_2_PRIOR_KNOWLEDGE)
+            .setMaxConnectionsPerRoute(16)
+            .build());
+
+        final TransportTestHelper.ConcurrencyRecordingDispatcher dispatcher = new TransportTestHelper.ConcurrencyRecordingDispatcher();
+        server.setDispatcher(dispatcher);
+
+        // establish the connection first, so the concurrent requests do not race to open their own
+        TransportTestHelper.readBody(TransportTestHelper.get(transport.getClient(), server.url("/warm").toString()));
+        TransportTestHelper.executeConcurrently(transport.getClient(), server.url("/test").toString(), 12);
+
+        // the server numbers the requests on each connection from zero
+        final Set<Integer> sequenceNumbers = new HashSet<>();
+
+        for (int i = 0; i < 13; i++) {
+            sequenceNumbers.add(server.takeRequest(5, TimeUnit.SECONDS).getSequenceNumber());
+        }
+
+        assertThat(sequenceNumbers.size(), is(13));
+        assertThat(dispatcher.getMaxConcurrentRequests(), is(greaterThan(1)));
+        assertThat(transport.getStatistics().getOpenConnections(), is(1));
+    }
+
+    @Test
+    public void testBodiesAndHeadersAreConverted() throws Exception {
+        transport = new OkHttpTransport(new TransportSettings.Builder().build());
+
+        server.enqueue(TransportTestHelper.gzipResponse("{\"hello\":\"world\"}").setResponseCode(201).addHeader("X-Test", "value"));
+
+        final Request request = new Request(
+            "POST",
+            server.url("/post").toString(),
+            Collections.singletonList(new Header("token", "my-token")),
+            new TypedString("text=cats")
+        );
+
+        final Response response = transport.getClient().execute(request);
+
+        final RecordedRequest recordedRequest = server.takeRequest(5, TimeUnit.SECONDS);
+        assertThat(recordedRequest.getMethod(), is("POST"));
+        assertThat(recordedRequest.getHeader("token"), is("my-token"));
+        assertThat(recordedRequest.getHeader("Accept-Encoding"), containsString("gzip"));
+        assertThat(recordedRequest.getBody().readUtf8(), is("text=cats"));
+
+        assertThat(response.getStatus(), is(201));
+        assertThat(response.getHeaders().contains(new Header("X-Test", "value")), is(true));
+        assertThat(TransportTestHelper.readBody(response), is("{\"hello\":\"world\"}"));
+    }
+
+    @Test
+    public void testPostWithoutBodySendsEmptyBody() throws Exception {
+        transport = new OkHttpTransport(new TransportSettings.Builder().build());
+
+        server.enqueue(new MockResponse().setResponseCode(204));
+
+        final Response response = transport.getClient().execute(new Request("POST", server.url("/empty").toString(), Collections.emptyList(), null));
+
+        assertThat(server.takeRequest(5, TimeUnit.SECONDS).getBodySize(), is(0L));
+        assertThat(response.getStatus(), is(204));
+        assertThat(response.getBody() == null, is(true));
+    }
+
+    @Test(expected = SocketTimeoutException.class)
+    public void testRequestsWhichCannotStartTimeOut() throws Exception {
+        transport = new OkHttpTransport(new TransportSettings.Builder()
+            .setMaxConnectionsPerRoute(1)
+            .setMaxConnections(1)
+            .setConnectTimeout(Duration.millis(100))
+            .setReadTimeout(Duration.millis(400))
+            .build());
+
+        // the first body trickles in for two seconds, holding the only place while it is read
+        server.enqueue(new MockResponse().setBody("01234567890123456789").throttleBody(1, 100, TimeUnit.MILLISECONDS));
+        server.enqueue(new MockResponse().setBody("second"));
+
+        final Response first = TransportTestHelper.get(transport.getClient(), server.url("/first").toString());
+        final Thread reader = new Thread(() -> {
+            try {
+                TransportTestHelper.readBody(first);
+            } catch (final IOException ignored) {
+                // the transport is closed at the end of the test
+            }
+        });
+        reader.setDaemon(true);
+        reader.start();
+
+        TransportTestHelper.get(transport.getClient(), server.url("/second").toString());
+    }
+
+    @Test
+    public void testBodiesWhichAreNotClosedAreReleased() throws Exception {
+        transport = new OkHttpTransport(new TransportSettings.Builder()
+            .setMaxConnectionsPerRoute(1)
+            .setMaxConnections(1)
+            .setReadTimeout(Duration.millis(200))
+            .build());
+
+        server.enqueue(new MockResponse().setBody("first"));
+        server.enqueue(new MockResponse().setBody("second"));
+
+        // never read or closed
+        TransportTestHelper.get(transport.getClient(), server.url("/first").toString());
+
+        final Response second = TransportTestHelper.get(transport.getClient(), server.url("/second").toString());
+        assertThat(TransportTestHelper.readBody(second), is("second"));
+    }
+}
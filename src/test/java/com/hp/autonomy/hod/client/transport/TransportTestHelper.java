@@ -0,0 +1,116 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.transport;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.apache.commons.io.IOUtils;
+import retrofit.client.Client;
+import retrofit.client.Request;
+import retrofit.client.Response;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+class TransportTestHelper {
+
+    private TransportTestHelper() {}
+
+    static Response get(final Client client, final String url) throws IOException {
+        return client.execute(new Request("GET", url, Collections.emptyList(), null));
+    }
+
+    static String readBody(final Response response) throws IOException {
+        try (final InputStream inputStream = response.getBody().in()) {
+            return IOUtils.toString(inputStream, StandardCharsets.UTF_8);
+        }
+    }
+
+    static MockResponse gzipResponse(final String body) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try (final GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+            gzipOutputStream.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+
+        return new MockResponse()
+            .addHeader("Content-Encoding", "gzip")
+            .setBody(new Buffer().write(outputStream.toByteArray()));
+    }
+
+    // makes the requests from more threads than there are connections, and checks every response
+    static void executeConcurrently(final Client client, final String url, final int requests) throws Exception {
+        final ExecutorService executorService = Executors.newFixedThreadPool(requests);
+
+        try {
+            final List<Future<String>> futures = new ArrayList<>();
+
+            for (int i = 0; i < requests; i++) {
+                futures.add(executorService.submit(() -> readBody(get(client, url))));
+            }
+
+            for (final Future<String> future : futures) {
+                assertThat(future.get(10, TimeUnit.SECONDS), is("ok"));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    // the sequence number of the first request on each connection is zero
+    static int countConnections(final MockWebServer server, final int requests) throws InterruptedException {
+        int connections = 0;
+
+        for (int i = 0; i < requests; i++) {
+            if (server.takeRequest(5, TimeUnit.SECONDS).getSequenceNumber() == 0) {
+                connections++;
+            }
+        }
+
+        return connections;
+    }
+
+    static class ConcurrencyRecordingDispatcher extends Dispatcher {
+        private final AtomicInteger concurrentRequests = new AtomicInteger(0);
+        private final AtomicInteger maxConcurrentRequests = new AtomicInteger(0);
+
+        @Override
+        public MockResponse dispatch(final RecordedRequest request) throws InterruptedException {
+            final int current = concurrentRequests.incrementAndGet();
+            maxConcurrentRequests.accumulateAndGet(current, Math::max);
+
+            try {
+                // hold the connection long enough for the other requests to queue up behind it
+                Thread.sleep(50);
+            } finally {
+                concurrentRequests.decrementAndGet();
+            }
+
+            return new MockResponse().setBody("ok");
+        }
+
+        int getMaxConcurrentRequests() {
+            return maxConcurrentRequests.get();
+        }
+    }
+}
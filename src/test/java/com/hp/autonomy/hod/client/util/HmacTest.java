@@ -12,15 +12,24 @@ import org.joda.time.DateTime;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 
 public class HmacTest {
+    private static final String TOKEN_ID = "DF7aRd8VEeSiCdSFZKbA7w";
+    private static final String TOKEN_SECRET = "Ba90fFmxdioyouz06xr1fhn6Nxq4nB90jWEQ2UzDQr8";
+
     private Hmac hmac;
 
     @Before
@@ -38,18 +47,89 @@ public class HmacTest {
         testHmacSign("UNB:HMAC_SHA1:DF7aRd8VEeSiCdSFZKbA7w:xgAlHiMaGMVmddPDmaSc6A:R8dbS5_aZf5jVx6rLB3uY-V6B50", "IOD TEST APPLICATION");
     }
 
-    private void testHmacSign(final String expectedHmacToken, final String application) {
-        final String tokenId = "DF7aRd8VEeSiCdSFZKbA7w";
-        final String tokenSecret = "Ba90fFmxdioyouz06xr1fhn6Nxq4nB90jWEQ2UzDQr8";
+    @Test
+    public void generateTokenWithRepeatedParametersAndEncodedCharacters() {
+        final Map<String, List<Object>> queryParameters = new LinkedHashMap<>();
+        queryParameters.put("text", Arrays.<Object>asList("caf\u00e9 \u4e2d\u6587", "a*b~c+d/e"));
+        queryParameters.put("indexes", Arrays.<Object>asList("wiki_eng", "news_eng"));
+
+        final Map<String, List<Object>> body = new LinkedHashMap<>();
+        body.put("reference", Collections.<Object>singletonList("doc-1"));
+        body.put("file", Collections.<Object>singletonList(new byte[]{0, 1, 2, (byte) 0xFF}));
+
+        final Request<Object, Object> request = new Request<>(Request.Verb.POST, "/2/api/sync/query/", queryParameters, body);
+
+        assertThat(hmac.generateToken(request, createToken(TOKEN_SECRET)), is("UNB:HMAC_SHA1:DF7aRd8VEeSiCdSFZKbA7w:nFapcPzeHOw1pw9sT7HaZg:a5XsPjnMioCPHausv7SBpZ5VDqk"));
+    }
+
+    @Test
+    public void generateTokenWithoutBodyAfterSecretChanges() {
+        final Request<Object, Object> request = new Request<>(Request.Verb.GET, "/2/user", null, null);
+
+        assertThat(hmac.generateToken(request, createToken(TOKEN_SECRET)), is("UNB:HMAC_SHA1:DF7aRd8VEeSiCdSFZKbA7w::WIs76Ji4tlqGRejq5JAFhHTOGig"));
+        assertThat(hmac.generateToken(request, createToken("another-secret")), is("UNB:HMAC_SHA1:DF7aRd8VEeSiCdSFZKbA7w::Rnbv2uHDRiGB9jzA0JVELQ_cKDw"));
+        assertThat(hmac.generateToken(request, createToken(TOKEN_SECRET)), is("UNB:HMAC_SHA1:DF7aRd8VEeSiCdSFZKbA7w::WIs76Ji4tlqGRejq5JAFhHTOGig"));
+    }
+
+    @Test
+    public void generatesTokensConcurrently() throws Exception {
+        final Request<Object, Object> request = new Request<>(Request.Verb.GET, "/2/user", null, null);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            final List<Future<String>> futures = new ArrayList<>();
+
+            for (int i = 0; i < 200; i++) {
+                final String secret = i % 2 == 0 ? TOKEN_SECRET : "another-secret";
+                futures.add(executor.submit(() -> hmac.generateToken(request, createToken(secret))));
+            }
 
-        final AuthenticationToken<EntityType.Unbound, TokenType.HmacSha1> token = new AuthenticationToken<>(
+            for (int i = 0; i < futures.size(); i++) {
+                final String expected = i % 2 == 0 ? "UNB:HMAC_SHA1:DF7aRd8VEeSiCdSFZKbA7w::WIs76Ji4tlqGRejq5JAFhHTOGig" : "UNB:HMAC_SHA1:DF7aRd8VEeSiCdSFZKbA7w::Rnbv2uHDRiGB9jzA0JVELQ_cKDw";
+                assertThat(futures.get(i).get(), is(expected));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void templateGeneratesTheSameTokensAsFullRequests() {
+        final Map<String, List<Object>> queryParameters = new HashMap<>();
+        queryParameters.put("allowed_origins", Collections.<Object>singletonList("http://localhost:8080"));
+
+        final Map<String, List<Object>> body = new HashMap<>();
+        body.put("domain", Collections.<Object>singletonList("IOD-TEST-DOMAIN"));
+        body.put("application", Collections.<Object>singletonList("IOD-TEST-APPLICATION"));
+
+        final AuthenticationToken<EntityType.Unbound, TokenType.HmacSha1> token = createToken(TOKEN_SECRET);
+        final Request<Object, Object> request = new Request<>(Request.Verb.POST, "/2/authenticate/combined", queryParameters, body);
+        final Hmac.Template template = hmac.createTemplate(request, token, "nonce");
+
+        for (final String nonce : Arrays.asList("first-nonce", "second-nonce", "z\u00e9")) {
+            final Map<String, List<Object>> nonceBody = new HashMap<>(body);
+            nonceBody.put("nonce", Collections.<Object>singletonList(nonce));
+
+            final Request<Object, Object> nonceRequest = new Request<>(Request.Verb.POST, "/2/authenticate/combined", queryParameters, nonceBody);
+            assertThat(template.generateToken(nonce), is(hmac.generateToken(nonceRequest, token)));
+        }
+
+        assertThat(hmac.createTemplate(request, token, null).generateToken(), is(hmac.generateToken(request, token)));
+    }
+
+    private AuthenticationToken<EntityType.Unbound, TokenType.HmacSha1> createToken(final String secret) {
+        return new AuthenticationToken<>(
             EntityType.Unbound.INSTANCE,
             TokenType.HmacSha1.INSTANCE,
             new DateTime(123),
-            tokenId,
-            tokenSecret,
+            TOKEN_ID,
+            secret,
             new DateTime(456)
         );
+    }
+
+    private void testHmacSign(final String expectedHmacToken, final String application) {
+        final AuthenticationToken<EntityType.Unbound, TokenType.HmacSha1> token = createToken(TOKEN_SECRET);
 
         final Map<String, List<String>> queryParameters = new HashMap<>();
         queryParameters.put("allowed_origins", Collections.singletonList("http://localhost:8080"));
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hp.autonomy.hod.client.api.textindex.document.Document;
+import com.hp.autonomy.hod.client.api.textindex.document.Documents;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class JsonTypedOutputTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testWritesSameJsonAsObjectMapper() throws IOException {
+        final Documents<Document> documents = new Documents<>(
+            new Document.Builder().setReference("one").setContent("First document").addField("author", "Alice").build(),
+            new Document.Builder().setReference("two").setTitle("Second").build()
+        );
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new JsonTypedOutput(objectMapper, documents).writeTo(outputStream);
+
+        assertThat(outputStream.toString("UTF-8"), is(objectMapper.writeValueAsString(documents)));
+    }
+
+    @Test
+    public void testDoesNotCloseOutputStream() throws IOException {
+        final ClosingAwareOutputStream outputStream = new ClosingAwareOutputStream();
+        new JsonTypedOutput(objectMapper, new Documents<>("value")).writeTo(outputStream);
+
+        assertThat(outputStream.closed, is(false));
+        assertThat(outputStream.toString("UTF-8"), is("{\"document\":[\"value\"]}"));
+    }
+
+    @Test
+    public void testLengthIsUnknown() {
+        assertThat(new JsonTypedOutput(objectMapper, "value").length(), is(-1L));
+    }
+
+    private static class ClosingAwareOutputStream extends ByteArrayOutputStream {
+        private boolean closed;
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+}
@@ -8,15 +8,24 @@ package com.hp.autonomy.hod.client.util;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.collection.IsMapWithSize.aMapWithSize;
 import static org.hamcrest.collection.IsMapWithSize.anEmptyMap;
 import static org.junit.Assert.assertThat;
@@ -125,7 +134,67 @@ public class MultiMapTest {
 
         final Collection<String> values = map.values();
 
-        assertThat(values, hasSize(3));
-        assertThat(values, hasItems("one", "two", "three"));
+        assertThat(values, hasSize(4));
+        assertThat(values, contains("one", "two", "three", "two"));
+    }
+
+    @Test
+    public void testDuplicatePairsAndNullValuesAreIgnored() {
+        map.put("one", "one");
+        map.put("one", "one");
+        map.put("two", null);
+
+        assertThat(map, is(aMapWithSize(1)));
+        assertThat(map.containsKey("two"), is(false));
+    }
+
+    @Test
+    public void testEntriesKeepInsertionOrder() {
+        map.put("two", "a");
+        map.put("one", "b");
+        map.put("two", "c");
+        map.remove("one");
+        map.put("three", "d");
+
+        final List<String> entries = new ArrayList<>();
+        map.forEach((key, value) -> entries.add(key + '=' + value));
+
+        assertThat(entries, contains("two=a", "two=c", "three=d"));
+        assertThat(map.entrySet().stream().map(entry -> entry.getKey() + '=' + entry.getValue()).collect(Collectors.toList()), is(entries));
+    }
+
+    @Test
+    public void testViewsReflectChanges() {
+        final Set<String> keys = map.keySet();
+        final Collection<String> values = map.values();
+
+        map.put("one", "one");
+        map.put("one", "two");
+        map.put("two", "three");
+
+        assertThat(keys, contains("one", "two"));
+        assertThat(values, contains("one", "two", "three"));
+
+        final Iterator<Map.Entry<String, String>> iterator = map.entrySet().iterator();
+        iterator.next();
+        iterator.remove();
+
+        assertThat(map, is(aMapWithSize(2)));
+        assertThat(values, contains("two", "three"));
+        assertThat(map.asListMap().get("one"), contains("two"));
+    }
+
+    @Test
+    public void testAsListMap() {
+        map.put("one", "one");
+        map.put("two", "two");
+        map.put("one", "three");
+
+        final Map<String, List<String>> expected = new LinkedHashMap<>();
+        expected.put("one", Arrays.asList("one", "three"));
+        expected.put("two", Collections.singletonList("two"));
+
+        assertThat(map.asListMap(), is(expected));
+        assertThat(map.asListMap().get("three"), is(nullValue()));
     }
 }
\ No newline at end of file
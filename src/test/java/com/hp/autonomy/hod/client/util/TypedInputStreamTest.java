@@ -0,0 +1,38 @@
+/*
+ * Copyright 2015-2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.hod.client.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class TypedInputStreamTest {
+
+    @Test
+    public void testCopiesStreamToOutput() throws IOException {
+        final byte[] content = randomBytes(100_000);
+        final TypedInputStream typedInputStream = new TypedInputStream("application/octet-stream", new ByteArrayInputStream(content));
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        typedInputStream.writeTo(outputStream);
+
+        assertThat(outputStream.toByteArray(), is(content));
+        assertThat(typedInputStream.length(), is(-1L));
+        assertThat(typedInputStream.mimeType(), is("application/octet-stream"));
+    }
+
+    private byte[] randomBytes(final int length) {
+        final byte[] bytes = new byte[length];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+}